@@ -0,0 +1,80 @@
+package com.biblioteca.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Base de datos H2 en modo MySQL con el esquema de la biblioteca, para pruebas de carga y
+ * benchmarks sin servidor. Redirige DatabaseConnection hacia ella mediante propiedades de
+ * sistema, por lo que {@link #iniciar()} debe llamarse antes de que se use cualquier DAO o servicio.
+ * <p>
+ * Por defecto vive en memoria. Con -Dbench.db.url=jdbc:h2:file:... se guarda en disco, lo que
+ * permite generar una vez un catálogo grande y reutilizarlo: el esquema solo se crea si falta.
+ */
+public final class BaseDatosEmbebida {
+
+    private static final String ESQUEMA = "classpath:/bench/esquema-h2.sql";
+
+    private static final String URL = System.getProperty("bench.db.url",
+            "jdbc:h2:mem:biblioteca;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+    private static final String USUARIO = "sa";
+    private static final String PASSWORD = "";
+
+    private static boolean iniciada;
+
+    private BaseDatosEmbebida() {
+    }
+
+    /**
+     * Crea el esquema si no existe (una sola vez por JVM) y
+     * configura el pool de la aplicación para usar esta base de datos
+     */
+    public static synchronized void iniciar() throws SQLException {
+        if (iniciada) {
+            return;
+        }
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.url", URL);
+        System.setProperty("db.username", USUARIO);
+        System.setProperty("db.password", PASSWORD);
+
+        try (Connection conn = conectar();
+             Statement stmt = conn.createStatement()) {
+            if (contar(stmt, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'libros'") == 0) {
+                stmt.execute("RUNSCRIPT FROM '" + ESQUEMA + "' CHARSET 'UTF-8'");
+            }
+        }
+        iniciada = true;
+    }
+
+    /**
+     * Inicia la base de datos y, si no tiene libros, genera un catálogo de ese tamaño
+     * con {@link GeneradorDatos} (semilla fija)
+     */
+    public static synchronized void iniciar(int libros) throws SQLException {
+        iniciar();
+        try (Connection conn = conectar();
+             Statement stmt = conn.createStatement()) {
+            if (contar(stmt, "SELECT COUNT(*) FROM Libros") == 0) {
+                new GeneradorDatos(libros).generar(conn);
+            }
+        }
+    }
+
+    /**
+     * Conexión directa, fuera del pool, para preparar datos
+     */
+    public static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(URL, USUARIO, PASSWORD);
+    }
+
+    private static long contar(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
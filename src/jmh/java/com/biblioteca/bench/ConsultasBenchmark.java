@@ -0,0 +1,93 @@
+package com.biblioteca.bench;
+
+import com.biblioteca.dao.Filtro;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
+import com.biblioteca.dao.ResumenEstadisticas;
+import com.biblioteca.dao.impl.EstadisticasDAOImpl;
+import com.biblioteca.dao.impl.MultaDAOImpl;
+import com.biblioteca.dao.impl.PrestamoDAOImpl;
+import com.biblioteca.dao.indice.LibroDAOIndexado;
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.Multa;
+import com.biblioteca.model.Prestamo;
+import com.biblioteca.model.enums.EstadoPago;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de las pantallas principales sobre catálogos generados de distinto tamaño,
+ * para ver cómo escala cada una. Cada tamaño corre en su propia JVM con su propia base de datos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ConsultasBenchmark {
+
+    @Param({"1000", "50000"})
+    public int libros;
+
+    private LibroDAOIndexado libroDAO;
+    private final PrestamoDAOImpl prestamoDAO = new PrestamoDAOImpl();
+    private final MultaDAOImpl multaDAO = new MultaDAOImpl();
+    private final EstadisticasDAOImpl estadisticasDAO = new EstadisticasDAOImpl();
+
+    private int usuarios;
+    private final SplittableRandom rnd = new SplittableRandom(7);
+
+    @Setup
+    public void preparar() throws SQLException {
+        BaseDatosEmbebida.iniciar(libros);
+        libroDAO = new LibroDAOIndexado();
+        libroDAO.reconstruirIndice();
+        usuarios = Math.max(20, libros / 5);
+    }
+
+    private int usuarioAleatorio() {
+        return 1 + rnd.nextInt(usuarios);
+    }
+
+    @Benchmark
+    public Pagina<Libro, Integer> paginaCatalogo() throws SQLException {
+        return libroDAO.findPage(null, 50, Orden.ASCENDENTE);
+    }
+
+    @Benchmark
+    public List<Libro> buscarCatalogo() throws SQLException {
+        return libroDAO.buscar("historia secreto", 200);
+    }
+
+    @Benchmark
+    public List<Prestamo> prestamosDeUsuario() throws SQLException {
+        return prestamoDAO.findByFiltro(Filtro.nuevo().usuario(usuarioAleatorio()));
+    }
+
+    @Benchmark
+    public List<Multa> multasPendientesDeUsuario() throws SQLException {
+        return multaDAO.findByFiltro(Filtro.nuevo()
+                .usuario(usuarioAleatorio())
+                .estado(EstadoPago.PENDIENTE.getDescripcion()));
+    }
+
+    @Benchmark
+    public ResumenEstadisticas resumenDashboard() throws SQLException {
+        return estadisticasDAO.obtenerResumen();
+    }
+}
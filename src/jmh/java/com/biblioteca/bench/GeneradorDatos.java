@@ -0,0 +1,562 @@
+package com.biblioteca.bench;
+
+import com.biblioteca.model.enums.EstadoFisico;
+import com.biblioteca.model.enums.EstadoPago;
+import com.biblioteca.model.enums.EstadoPrestamo;
+import com.biblioteca.model.enums.EstadoReserva;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Genera un catálogo sintético reproducible: con el mismo tamaño, semilla y fecha de
+ * referencia produce exactamente las mismas filas. Pensado para catálogos de 1k a 5M títulos.
+ * <p>
+ * A partir del número de libros se derivan editoriales, autores, usuarios y ejemplares.
+ * La popularidad de cada libro sigue una distribución sesgada (pocos títulos muy pedidos,
+ * muchos casi sin préstamos) y decide cuántos ejemplares tiene, cuántos préstamos acumula
+ * y cuántas reservas recibe. Cada ejemplar tiene un historial de préstamos sin solapes en
+ * los últimos tres años; algunos siguen activos o atrasados a la fecha de referencia.
+ * Los retrasos generan su multa, igual que la aplicación (una por préstamo).
+ * <p>
+ * Inserta con claves explícitas y por lotes, confirmando cada lote para que la memoria no
+ * crezca con el tamaño. Espera las tablas vacías del esquema de {@link BaseDatosEmbebida}.
+ */
+public final class GeneradorDatos {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneradorDatos.class);
+
+    /** Hash BCrypt de "Biblioteca#2024", la contraseña de todos los usuarios generados */
+    static final String HASH_PASSWORD = "$2a$12$cA.G2MJX.XtstgFrER9TE.Q.2fCzO/4.ARfzDIQLlopH5DV9aCXOG";
+
+    private static final int TAMANO_LOTE = 5000;
+    private static final int DIAS_HISTORIA = 3 * 365;
+    private static final int DIAS_PRESTAMO = 14;
+    private static final int MAX_PRESTAMOS_SIMULTANEOS = 3;
+    private static final BigDecimal MULTA_POR_DIA = new BigDecimal("5.00");
+
+    private static final int ID_ROL_ADMIN = 1;
+    private static final int ID_ROL_BIBLIOTECARIO = 2;
+    private static final int ID_ROL_USUARIO = 3;
+
+    private static final String[] CATEGORIAS = {
+            "Novela", "Cuento", "Poesía", "Ensayo", "Historia", "Ciencia", "Tecnología",
+            "Filosofía", "Arte", "Biografía", "Infantil", "Juvenil", "Derecho", "Economía", "Medicina"
+    };
+    private static final String[] NOMBRES = {
+            "Ana", "Luis", "María", "José", "Carmen", "Juan", "Lucía", "Pedro", "Sofía", "Miguel",
+            "Elena", "Jorge", "Isabel", "Diego", "Laura", "Andrés", "Paula", "Gabriel", "Valeria", "Tomás"
+    };
+    private static final String[] APELLIDOS = {
+            "García", "Martínez", "López", "Hernández", "González", "Pérez", "Rodríguez", "Sánchez",
+            "Ramírez", "Torres", "Flores", "Rivera", "Gómez", "Díaz", "Cruz", "Morales", "Ortiz",
+            "Castillo", "Romero", "Vargas"
+    };
+    private static final String[] PAISES = {
+            "México", "España", "Argentina", "Colombia", "Chile", "Perú", "Uruguay", "Cuba", "Francia", "Italia"
+    };
+    private static final String[] SUSTANTIVOS = {
+            "amor", "guerra", "ciudad", "noche", "mar", "tiempo", "sombra", "viaje", "memoria", "río",
+            "jardín", "silencio", "casa", "camino", "luz", "sueño", "historia", "isla", "montaña", "voz",
+            "espejo", "fuego", "invierno", "ciencia", "destino", "laberinto", "biblioteca", "puerta",
+            "tierra", "cielo"
+    };
+    // Adjetivos invariables en género para no tener que concordar con el sustantivo
+    private static final String[] ADJETIVOS = {
+            "azul", "breve", "salvaje", "gris", "verde", "triste", "feliz", "dulce", "invisible",
+            "imposible", "inmortal", "fugaz", "celeste", "frágil", "humilde", "libre"
+    };
+
+    /**
+     * Filas insertadas por tabla
+     */
+    public record Resumen(long libros, long autores, long usuarios, long ejemplares,
+                          long prestamos, long multas, long reservas, long duracionMs) {
+    }
+
+    private final int libros;
+    private final long semilla;
+    private final double prestamosPorEjemplar;
+    private final LocalDateTime referencia;
+
+    private final int editoriales;
+    private final int autores;
+    private final int usuarios;
+    private final int ubicaciones;
+
+    /**
+     * Catálogo con semilla fija, dos préstamos por ejemplar de media y referencia en el día de hoy
+     */
+    public GeneradorDatos(int libros) {
+        this(libros, 42L, 2.0, LocalDate.now().atStartOfDay());
+    }
+
+    /**
+     * @param libros Número de títulos
+     * @param semilla Semilla de los números aleatorios
+     * @param prestamosPorEjemplar Préstamos históricos medios por ejemplar
+     * @param referencia "Ahora" de los datos: los préstamos activos y atrasados se miden contra ella
+     */
+    public GeneradorDatos(int libros, long semilla, double prestamosPorEjemplar, LocalDateTime referencia) {
+        if (libros <= 0) {
+            throw new IllegalArgumentException("El número de libros debe ser positivo: " + libros);
+        }
+        this.libros = libros;
+        this.semilla = semilla;
+        this.prestamosPorEjemplar = prestamosPorEjemplar;
+        this.referencia = referencia;
+
+        this.editoriales = Math.max(5, libros / 1000);
+        this.autores = Math.max(10, libros / 3);
+        this.usuarios = Math.max(20, libros / 5);
+        this.ubicaciones = 60;
+    }
+
+    public Resumen generar(Connection conn) throws SQLException {
+        long inicio = System.currentTimeMillis();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            generarCatalogosBase(conn);
+            generarAutores(conn);
+            generarLibros(conn);
+            generarUsuarios(conn);
+            long[] circulacion = generarEjemplaresYPrestamos(conn);
+            long reservas = generarReservas(conn);
+            conn.commit();
+
+            reiniciarClaves(conn, circulacion, reservas);
+
+            Resumen resumen = new Resumen(libros, autores, usuarios, circulacion[0], circulacion[1],
+                    circulacion[2], reservas, System.currentTimeMillis() - inicio);
+            logger.info("Datos generados: {}", resumen);
+            return resumen;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void generarCatalogosBase(Connection conn) throws SQLException {
+        SplittableRandom rnd = aleatorio(1);
+
+        try (Lote lote = new Lote(conn, "INSERT INTO Categorias (id_categoria, nombre, descripcion) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < CATEGORIAS.length; i++) {
+                lote.stmt.setInt(1, i + 1);
+                lote.stmt.setString(2, CATEGORIAS[i]);
+                lote.stmt.setString(3, "Libros de " + CATEGORIAS[i].toLowerCase());
+                lote.agregar();
+            }
+        }
+
+        try (Lote lote = new Lote(conn, "INSERT INTO Editoriales (id_editorial, nombre, pais, website) VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= editoriales; id++) {
+                lote.stmt.setInt(1, id);
+                lote.stmt.setString(2, "Editorial " + elegir(rnd, APELLIDOS) + " " + id);
+                lote.stmt.setString(3, elegir(rnd, PAISES));
+                lote.stmt.setString(4, "https://editorial" + id + ".example.com");
+                lote.agregar();
+            }
+        }
+
+        try (Lote lote = new Lote(conn, "INSERT INTO Ubicaciones (id_ubicacion, pasillo, estante, piso) VALUES (?, ?, ?, ?)")) {
+            for (int id = 1; id <= ubicaciones; id++) {
+                lote.stmt.setInt(1, id);
+                lote.stmt.setString(2, String.valueOf((char) ('A' + (id - 1) % 20)));
+                lote.stmt.setString(3, String.valueOf(1 + rnd.nextInt(12)));
+                lote.stmt.setInt(4, 1 + (id - 1) / 20);
+                lote.agregar();
+            }
+        }
+    }
+
+    private void generarAutores(Connection conn) throws SQLException {
+        SplittableRandom rnd = aleatorio(2);
+        try (Lote lote = new Lote(conn, "INSERT INTO Autores (id_autor, nombre, nacionalidad) VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= autores; id++) {
+                lote.stmt.setInt(1, id);
+                lote.stmt.setString(2, elegir(rnd, NOMBRES) + " " + elegir(rnd, APELLIDOS) + " " + elegir(rnd, APELLIDOS));
+                lote.stmt.setString(3, elegir(rnd, PAISES));
+                lote.agregar();
+            }
+        }
+    }
+
+    private void generarLibros(Connection conn) throws SQLException {
+        SplittableRandom rnd = aleatorio(3);
+        try (Lote lotesLibros = new Lote(conn, "INSERT INTO Libros (id_libro, isbn, titulo, anio_publicacion, "
+                + "id_editorial, id_categoria) VALUES (?, ?, ?, ?, ?, ?)");
+             Lote lotesAutores = new Lote(conn, "INSERT INTO Libro_Autor (id_libro, id_autor) VALUES (?, ?)",
+                     lotesLibros)) {
+
+            for (int id = 1; id <= libros; id++) {
+                lotesLibros.stmt.setInt(1, id);
+                lotesLibros.stmt.setString(2, isbn13(id));
+                lotesLibros.stmt.setString(3, titulo(rnd));
+                // Más títulos recientes que antiguos
+                lotesLibros.stmt.setInt(4, 2024 - (int) (124 * Math.pow(rnd.nextDouble(), 2.5)));
+                lotesLibros.stmt.setInt(5, 1 + rnd.nextInt(editoriales));
+                lotesLibros.stmt.setInt(6, 1 + rnd.nextInt(CATEGORIAS.length));
+                lotesLibros.agregar();
+
+                // Unos pocos autores firman muchos libros
+                int primero = 1 + (int) (autores * Math.pow(rnd.nextDouble(), 2));
+                agregarAutor(lotesAutores, id, primero);
+                if (rnd.nextDouble() < 0.2) {
+                    int segundo = 1 + rnd.nextInt(autores);
+                    if (segundo != primero) {
+                        agregarAutor(lotesAutores, id, segundo);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void agregarAutor(Lote lote, int idLibro, int idAutor) throws SQLException {
+        lote.stmt.setInt(1, idLibro);
+        lote.stmt.setInt(2, idAutor);
+        lote.agregar();
+    }
+
+    private void generarUsuarios(Connection conn) throws SQLException {
+        SplittableRandom rnd = aleatorio(4);
+        try (Lote lote = new Lote(conn, "INSERT INTO Usuarios (id_usuario, nombre, apellido, email, password, "
+                + "telefono, fecha_registro, id_rol) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= usuarios; id++) {
+                lote.stmt.setInt(1, id);
+                lote.stmt.setString(2, elegir(rnd, NOMBRES));
+                lote.stmt.setString(3, elegir(rnd, APELLIDOS));
+                lote.stmt.setString(4, "usuario" + id + "@biblioteca.local");
+                lote.stmt.setString(5, HASH_PASSWORD);
+                lote.stmt.setString(6, "55" + (10_000_000 + rnd.nextInt(90_000_000)));
+                lote.stmt.setDate(7, Date.valueOf(referencia.toLocalDate().minusDays(rnd.nextInt(5 * 365))));
+                lote.stmt.setInt(8, id == 1 ? ID_ROL_ADMIN : id == 2 ? ID_ROL_BIBLIOTECARIO : ID_ROL_USUARIO);
+                lote.agregar();
+            }
+        }
+    }
+
+    /**
+     * @return ejemplares, préstamos y multas insertados
+     */
+    private long[] generarEjemplaresYPrestamos(Connection conn) throws SQLException {
+        SplittableRandom rnd = aleatorio(5);
+        LocalDateTime inicioHistoria = referencia.minusDays(DIAS_HISTORIA);
+        int idEjemplar = 0;
+        int idPrestamo = 0;
+        int idMulta = 0;
+        // Préstamos abiertos por usuario, para no superar el límite que impone la aplicación
+        byte[] abiertos = new byte[usuarios + 1];
+
+        try (Lote ejemplares = new Lote(conn, "INSERT INTO Ejemplares (id_ejemplar, codigo_barras, id_libro, "
+                + "id_ubicacion, estado_fisico, disponible) VALUES (?, ?, ?, ?, ?, ?)");
+             Lote prestamos = new Lote(conn, "INSERT INTO Prestamos (id_prestamo, id_usuario, id_ejemplar, "
+                     + "fecha_salida, fecha_devolucion_esperada, fecha_devolucion_real, estado) "
+                     + "VALUES (?, ?, ?, ?, ?, ?, ?)", ejemplares);
+             Lote multas = new Lote(conn, "INSERT INTO Multas (id_multa, id_prestamo, monto, motivo, "
+                     + "fecha_generacion, estado_pago) VALUES (?, ?, ?, ?, ?, ?)", prestamos)) {
+
+            for (int idLibro = 1; idLibro <= libros; idLibro++) {
+                double popularidad = popularidad(idLibro);
+                int copias = 1 + (int) (popularidad * 4);
+                double media = prestamosPorEjemplar * (0.5 + 2 * popularidad);
+
+                for (int c = 0; c < copias; c++) {
+                    idEjemplar++;
+                    EstadoFisico estadoFisico = estadoFisico(rnd);
+                    boolean prestable = estadoFisico != EstadoFisico.PERDIDO
+                            && estadoFisico != EstadoFisico.DETERIORADO;
+
+                    // Historial sin solapes, todo devuelto antes de la fecha de referencia
+                    int cantidad = prestable ? (int) (media * 2 * rnd.nextDouble()) : 0;
+                    long hueco = Math.max(1, DIAS_HISTORIA / (cantidad + 1));
+                    LocalDateTime cursor = inicioHistoria;
+                    boolean disponible = true;
+
+                    // El ejemplar va antes que sus préstamos para respetar la clave foránea
+                    ejemplares.stmt.setInt(1, idEjemplar);
+                    ejemplares.stmt.setString(2, codigoBarras(idEjemplar));
+                    ejemplares.stmt.setInt(3, idLibro);
+                    ejemplares.stmt.setInt(4, 1 + rnd.nextInt(ubicaciones));
+                    ejemplares.stmt.setString(5, estadoFisico.getDescripcion());
+
+                    PrestamoGenerado[] historial = new PrestamoGenerado[cantidad + 1];
+                    int n = 0;
+                    for (int i = 0; i < cantidad; i++) {
+                        LocalDateTime salida = cursor.plusDays(rnd.nextLong(hueco)).plusMinutes(rnd.nextInt(600) + 540);
+                        boolean tarde = rnd.nextDouble() < 0.15;
+                        int dias = tarde ? DIAS_PRESTAMO + 1 + rnd.nextInt(30) : 1 + rnd.nextInt(DIAS_PRESTAMO);
+                        LocalDateTime devolucion = salida.plusDays(dias).plusMinutes(rnd.nextInt(480));
+                        if (!devolucion.isBefore(referencia)) {
+                            break;
+                        }
+                        historial[n++] = new PrestamoGenerado(salida, devolucion, 1 + rnd.nextInt(usuarios));
+                        cursor = devolucion.plusDays(1);
+                    }
+
+                    // Algunos siguen prestados hoy; los que pasaron de 14 días están atrasados
+                    if (prestable && rnd.nextDouble() < 0.06 + 0.1 * popularidad) {
+                        LocalDateTime salida = referencia.minusDays(rnd.nextInt(25)).minusMinutes(rnd.nextInt(600));
+                        int idUsuario = 1 + rnd.nextInt(usuarios);
+                        if (salida.isAfter(cursor) && abiertos[idUsuario] < MAX_PRESTAMOS_SIMULTANEOS) {
+                            abiertos[idUsuario]++;
+                            historial[n++] = new PrestamoGenerado(salida, null, idUsuario);
+                            disponible = false;
+                        }
+                    }
+
+                    ejemplares.stmt.setBoolean(6, disponible);
+                    ejemplares.agregar();
+
+                    for (int i = 0; i < n; i++) {
+                        PrestamoGenerado p = historial[i];
+                        idPrestamo++;
+                        LocalDateTime esperada = p.salida.plusDays(DIAS_PRESTAMO);
+                        EstadoPrestamo estado = p.devolucion != null ? EstadoPrestamo.FINALIZADO
+                                : esperada.isBefore(referencia) ? EstadoPrestamo.ATRASADO : EstadoPrestamo.ACTIVO;
+
+                        prestamos.stmt.setInt(1, idPrestamo);
+                        prestamos.stmt.setInt(2, p.idUsuario);
+                        prestamos.stmt.setInt(3, idEjemplar);
+                        prestamos.stmt.setTimestamp(4, Timestamp.valueOf(p.salida));
+                        prestamos.stmt.setTimestamp(5, Timestamp.valueOf(esperada));
+                        prestamos.stmt.setTimestamp(6, p.devolucion != null ? Timestamp.valueOf(p.devolucion) : null);
+                        prestamos.stmt.setString(7, estado.getDescripcion());
+                        prestamos.agregar();
+
+                        LocalDateTime finRetraso = p.devolucion != null ? p.devolucion : referencia;
+                        long diasRetraso = Duration.between(esperada, finRetraso).toDays();
+                        if (diasRetraso > 0) {
+                            idMulta++;
+                            // Las multas cerradas casi siempre se pagaron; las de préstamos atrasados no
+                            boolean pagada = p.devolucion != null && rnd.nextDouble() < 0.85;
+                            multas.stmt.setInt(1, idMulta);
+                            multas.stmt.setInt(2, idPrestamo);
+                            multas.stmt.setBigDecimal(3, MULTA_POR_DIA.multiply(BigDecimal.valueOf(diasRetraso)));
+                            multas.stmt.setString(4, "Retraso de " + diasRetraso + " días en la devolución");
+                            multas.stmt.setTimestamp(5, Timestamp.valueOf(finRetraso));
+                            multas.stmt.setString(6, (pagada ? EstadoPago.PAGADO : EstadoPago.PENDIENTE).getDescripcion());
+                            multas.agregar();
+                        }
+                    }
+                }
+            }
+        }
+        return new long[]{idEjemplar, idPrestamo, idMulta};
+    }
+
+    private long generarReservas(Connection conn) throws SQLException {
+        SplittableRandom rnd = aleatorio(6);
+        int idReserva = 0;
+        try (Lote lote = new Lote(conn, "INSERT INTO Reservas (id_reserva, id_usuario, id_libro, fecha_reserva, estado) "
+                + "VALUES (?, ?, ?, ?, ?)")) {
+            for (int idLibro = 1; idLibro <= libros; idLibro++) {
+                double popularidad = popularidad(idLibro);
+                if (rnd.nextDouble() >= 0.1 + 0.5 * popularidad) {
+                    continue;
+                }
+                int cantidad = 1 + (int) (popularidad * 3 * rnd.nextDouble());
+                for (int i = 0; i < cantidad; i++) {
+                    double tipo = rnd.nextDouble();
+                    EstadoReserva estado;
+                    LocalDateTime fecha;
+                    if (tipo < 0.15) {
+                        estado = EstadoReserva.PENDIENTE;
+                        fecha = referencia.minusDays(rnd.nextInt(14));
+                    } else if (tipo < 0.2) {
+                        estado = EstadoReserva.NOTIFICADO;
+                        fecha = referencia.minusDays(rnd.nextInt(30));
+                    } else {
+                        estado = tipo < 0.75 ? EstadoReserva.COMPLETADO : EstadoReserva.CANCELADO;
+                        fecha = referencia.minusDays(30 + rnd.nextInt(DIAS_HISTORIA - 30));
+                    }
+                    lote.stmt.setInt(1, ++idReserva);
+                    lote.stmt.setInt(2, 1 + rnd.nextInt(usuarios));
+                    lote.stmt.setInt(3, idLibro);
+                    lote.stmt.setTimestamp(4, Timestamp.valueOf(fecha.minusMinutes(rnd.nextInt(600))));
+                    lote.stmt.setString(5, estado.getDescripcion());
+                    lote.agregar();
+                }
+            }
+        }
+        return idReserva;
+    }
+
+    /**
+     * Las claves se insertaron a mano; la siguiente inserción de la aplicación debe continuar tras ellas
+     */
+    private void reiniciarClaves(Connection conn, long[] circulacion, long reservas) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            reiniciar(stmt, "Categorias", "id_categoria", CATEGORIAS.length);
+            reiniciar(stmt, "Editoriales", "id_editorial", editoriales);
+            reiniciar(stmt, "Ubicaciones", "id_ubicacion", ubicaciones);
+            reiniciar(stmt, "Autores", "id_autor", autores);
+            reiniciar(stmt, "Libros", "id_libro", libros);
+            reiniciar(stmt, "Usuarios", "id_usuario", usuarios);
+            reiniciar(stmt, "Ejemplares", "id_ejemplar", circulacion[0]);
+            reiniciar(stmt, "Prestamos", "id_prestamo", circulacion[1]);
+            reiniciar(stmt, "Multas", "id_multa", circulacion[2]);
+            reiniciar(stmt, "Reservas", "id_reserva", reservas);
+        }
+        conn.commit();
+    }
+
+    private static void reiniciar(Statement stmt, String tabla, String columna, long ultimo) throws SQLException {
+        stmt.execute("ALTER TABLE " + tabla + " ALTER COLUMN " + columna + " RESTART WITH " + (ultimo + 1));
+    }
+
+    /**
+     * Popularidad en [0, 1) fija para cada libro: la mayoría cerca de 0 y unos pocos cerca de 1
+     */
+    private double popularidad(int idLibro) {
+        long h = (idLibro + semilla) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 29;
+        double u = (h >>> 11) * 0x1.0p-53;
+        return u * u * u;
+    }
+
+    private static EstadoFisico estadoFisico(SplittableRandom rnd) {
+        double u = rnd.nextDouble();
+        if (u < 0.25) {
+            return EstadoFisico.EXCELENTE;
+        }
+        if (u < 0.93) {
+            return EstadoFisico.BUENO;
+        }
+        return u < 0.98 ? EstadoFisico.DETERIORADO : EstadoFisico.PERDIDO;
+    }
+
+    private static String titulo(SplittableRandom rnd) {
+        String sustantivo = capitalizar(elegir(rnd, SUSTANTIVOS));
+        switch (rnd.nextInt(4)) {
+            case 0:
+                return sustantivo + " " + elegir(rnd, ADJETIVOS);
+            case 1:
+                return sustantivo + " de " + elegir(rnd, SUSTANTIVOS);
+            case 2:
+                return "Crónicas de " + elegir(rnd, SUSTANTIVOS) + " " + elegir(rnd, ADJETIVOS);
+            default:
+                return sustantivo + " y " + elegir(rnd, SUSTANTIVOS) + " en " + elegir(rnd, PAISES);
+        }
+    }
+
+    /**
+     * ISBN-13 válido y único por libro (prefijo 978 más el id con dígito de control)
+     */
+    static String isbn13(int idLibro) {
+        String base = "978" + String.format("%09d", idLibro);
+        int suma = 0;
+        for (int i = 0; i < 12; i++) {
+            suma += (base.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return base + (10 - suma % 10) % 10;
+    }
+
+    /**
+     * Código de barras numérico de 10 dígitos, como los que acepta ValidationUtils
+     */
+    static String codigoBarras(int idEjemplar) {
+        return String.format("20%08d", idEjemplar);
+    }
+
+    private static String capitalizar(String texto) {
+        return Character.toUpperCase(texto.charAt(0)) + texto.substring(1);
+    }
+
+    private static String elegir(SplittableRandom rnd, String[] opciones) {
+        return opciones[rnd.nextInt(opciones.length)];
+    }
+
+    /**
+     * Un generador por tabla: el contenido de cada una no depende del orden en que se generen las demás
+     */
+    private SplittableRandom aleatorio(int tabla) {
+        return new SplittableRandom(semilla * 31 + tabla);
+    }
+
+    private record PrestamoGenerado(LocalDateTime salida, LocalDateTime devolucion, int idUsuario) {
+    }
+
+    /**
+     * Sentencia por lotes que confirma cada TAMANO_LOTE filas. Si depende de otra tabla
+     * (clave foránea), vacía antes el lote de la tabla padre.
+     */
+    private static final class Lote implements AutoCloseable {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final Lote padre;
+        private int pendientes;
+
+        Lote(Connection conn, String sql) throws SQLException {
+            this(conn, sql, null);
+        }
+
+        Lote(Connection conn, String sql, Lote padre) throws SQLException {
+            this.conn = conn;
+            this.stmt = conn.prepareStatement(sql);
+            this.padre = padre;
+        }
+
+        void agregar() throws SQLException {
+            stmt.addBatch();
+            if (++pendientes == TAMANO_LOTE) {
+                vaciar();
+            }
+        }
+
+        void vaciar() throws SQLException {
+            if (padre != null) {
+                padre.vaciar();
+            }
+            if (pendientes > 0) {
+                stmt.executeBatch();
+                pendientes = 0;
+                conn.commit();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                vaciar();
+            } finally {
+                stmt.close();
+            }
+        }
+    }
+
+    /**
+     * Genera un catálogo en la base de datos embebida (por defecto en memoria; para guardarlo en
+     * disco se indica -Dbench.db.url=jdbc:h2:file:...).
+     * Uso: GeneradorDatos &lt;libros&gt; [semilla]
+     */
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 1) {
+            System.err.println("Uso: GeneradorDatos <libros> [semilla]");
+            System.exit(1);
+        }
+        int libros = Integer.parseInt(args[0]);
+        long semilla = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+
+        BaseDatosEmbebida.iniciar();
+        try (Connection conn = BaseDatosEmbebida.conectar()) {
+            Resumen resumen = new GeneradorDatos(libros, semilla, 2.0, LocalDate.now().atStartOfDay()).generar(conn);
+            System.out.println(resumen);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.biblioteca.bench;
+
+import com.biblioteca.util.PasswordUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash y verificación BCrypt con el factor de trabajo de la aplicación.
+ * Cada operación tarda cientos de milisegundos, así que bastan pocas iteraciones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class PasswordBenchmark {
+
+    public String password = "Biblioteca#2024";
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        hash = PasswordUtils.hashPassword(password);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return PasswordUtils.hashPassword(password);
+    }
+
+    @Benchmark
+    public boolean checkPassword() {
+        return PasswordUtils.checkPassword(password, hash);
+    }
+}
@@ -0,0 +1,114 @@
+package com.biblioteca.bench;
+
+import com.biblioteca.model.Prestamo;
+import com.biblioteca.service.PrestamoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Préstamo y devolución completos (validación, escrituras y transacción) contra H2 embebida.
+ * Cada benchmark usa su propio ejemplar; el paso contrario se hace fuera de la medición
+ * para que cada invocación parta del mismo estado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrestamoServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Datos {
+        PrestamoService servicio;
+        int idUsuario;
+        int idEjemplarPrestar;
+        int idEjemplarDevolver;
+
+        @Setup
+        public void preparar() throws SQLException {
+            BaseDatosEmbebida.iniciar();
+            servicio = new PrestamoService();
+            try (Connection conn = BaseDatosEmbebida.conectar();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("INSERT INTO Editoriales (nombre, pais) VALUES ('Editorial Bench', 'MX')");
+                stmt.executeUpdate("INSERT INTO Categorias (nombre) VALUES ('Bench')");
+                int idLibro = insertar(conn, "INSERT INTO Libros (isbn, titulo, anio_publicacion, "
+                        + "id_editorial, id_categoria) VALUES ('9780000000002', 'Libro Bench', 2020, 1, 1)");
+                idUsuario = insertar(conn, "INSERT INTO Usuarios (nombre, apellido, email, password, "
+                        + "fecha_registro, id_rol) VALUES ('Bench', 'Lector', 'bench@biblioteca.local', 'x', "
+                        + "CURRENT_DATE, 3)");
+                idEjemplarPrestar = insertar(conn, "INSERT INTO Ejemplares (codigo_barras, id_libro, "
+                        + "estado_fisico, disponible) VALUES ('BENCH-001', " + idLibro + ", 'Bueno', TRUE)");
+                idEjemplarDevolver = insertar(conn, "INSERT INTO Ejemplares (codigo_barras, id_libro, "
+                        + "estado_fisico, disponible) VALUES ('BENCH-002', " + idLibro + ", 'Bueno', TRUE)");
+            }
+        }
+
+        private static int insertar(Connection conn, String sql) throws SQLException {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.executeUpdate();
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deja el ejemplar disponible antes de cada préstamo medido
+     */
+    @State(Scope.Thread)
+    public static class EjemplarLibre {
+        Integer prestamoAnterior;
+
+        @Setup(Level.Invocation)
+        public void liberar(Datos datos) throws SQLException {
+            if (prestamoAnterior != null) {
+                datos.servicio.devolverLibro(prestamoAnterior);
+                prestamoAnterior = null;
+            }
+        }
+    }
+
+    /**
+     * Deja un préstamo activo antes de cada devolución medida
+     */
+    @State(Scope.Thread)
+    public static class EjemplarPrestado {
+        Integer idPrestamo;
+
+        @Setup(Level.Invocation)
+        public void prestar(Datos datos) throws SQLException {
+            idPrestamo = datos.servicio.prestarLibro(datos.idUsuario, datos.idEjemplarDevolver).getIdPrestamo();
+        }
+    }
+
+    @Benchmark
+    public Prestamo prestarLibro(Datos datos, EjemplarLibre libre) throws SQLException {
+        Prestamo prestamo = datos.servicio.prestarLibro(datos.idUsuario, datos.idEjemplarPrestar);
+        libre.prestamoAnterior = prestamo.getIdPrestamo();
+        return prestamo;
+    }
+
+    @Benchmark
+    public boolean devolverLibro(Datos datos, EjemplarPrestado prestado) throws SQLException {
+        return datos.servicio.devolverLibro(prestado.idPrestamo);
+    }
+}
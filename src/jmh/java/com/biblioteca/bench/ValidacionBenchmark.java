@@ -0,0 +1,87 @@
+package com.biblioteca.bench;
+
+import com.biblioteca.model.enums.EstadoFisico;
+import com.biblioteca.model.enums.EstadoPago;
+import com.biblioteca.model.enums.EstadoPrestamo;
+import com.biblioteca.model.enums.EstadoReserva;
+import com.biblioteca.util.ValidationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validadores de formularios y conversión de los estados leídos de la base de datos.
+ * Los textos se leen de campos (no constantes) para que el JIT no los pliegue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidacionBenchmark {
+
+    public String email = "ana.diaz@biblioteca.edu.mx";
+    public String isbn = "978-0-307-47472-8";
+    public String telefono = "+52 55 1234 5678";
+    public String password = "Biblioteca#2024";
+    public String codigoBarras = "LIB-000123";
+
+    public String estadoPrestamo = "Atrasado";
+    public String estadoReserva = "Completado";
+    public String estadoPago = "Pagado";
+    public String estadoFisico = "Perdido";
+
+    @Benchmark
+    public boolean validarEmail() {
+        return ValidationUtils.esEmailValido(email);
+    }
+
+    @Benchmark
+    public boolean validarISBN() {
+        return ValidationUtils.esISBNValido(isbn);
+    }
+
+    @Benchmark
+    public boolean validarTelefono() {
+        return ValidationUtils.esTelefonoValido(telefono);
+    }
+
+    @Benchmark
+    public boolean validarPasswordSegura() {
+        return ValidationUtils.esPasswordSegura(password);
+    }
+
+    @Benchmark
+    public boolean validarCodigoBarras() {
+        return ValidationUtils.esCodigoBarrasValido(codigoBarras);
+    }
+
+    @Benchmark
+    public EstadoPrestamo estadoPrestamoFromString() {
+        return EstadoPrestamo.fromString(estadoPrestamo);
+    }
+
+    @Benchmark
+    public EstadoReserva estadoReservaFromString() {
+        return EstadoReserva.fromString(estadoReserva);
+    }
+
+    @Benchmark
+    public EstadoPago estadoPagoFromString() {
+        return EstadoPago.fromString(estadoPago);
+    }
+
+    @Benchmark
+    public EstadoFisico estadoFisicoFromString() {
+        return EstadoFisico.fromString(estadoFisico);
+    }
+}
@@ -0,0 +1,113 @@
+package com.biblioteca.dao.impl;
+
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.Prestamo;
+import com.biblioteca.model.Reserva;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de convertir una fila en entidad, sin base de datos de por medio:
+ * cada mapeador lee una fila fija de un ResultSet en memoria.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapeoBenchmark {
+
+    private static final Timestamp FECHA = Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 10, 30));
+
+    private final LibroDAOImpl libroDAO = new LibroDAOImpl();
+    private final PrestamoDAOImpl prestamoDAO = new PrestamoDAOImpl();
+    private final ReservaDAOImpl reservaDAO = new ReservaDAOImpl();
+
+    private SimpleResultSet filaLibro;
+    private SimpleResultSet filaPrestamo;
+    private SimpleResultSet filaReserva;
+
+    @Setup
+    public void preparar() {
+        filaLibro = new SimpleResultSet();
+        filaLibro.addColumn("id_libro", Types.INTEGER, 10, 0);
+        filaLibro.addColumn("isbn", Types.VARCHAR, 20, 0);
+        filaLibro.addColumn("titulo", Types.VARCHAR, 200, 0);
+        filaLibro.addColumn("anio_publicacion", Types.INTEGER, 10, 0);
+        filaLibro.addColumn("id_editorial", Types.INTEGER, 10, 0);
+        filaLibro.addColumn("editorial_nombre", Types.VARCHAR, 100, 0);
+        filaLibro.addColumn("id_categoria", Types.INTEGER, 10, 0);
+        filaLibro.addColumn("categoria_nombre", Types.VARCHAR, 100, 0);
+        filaLibro.addRow(42, "9780307474728", "Cien años de soledad", 1967, 3, "Sudamericana", 7, "Novela");
+
+        filaPrestamo = new SimpleResultSet();
+        filaPrestamo.addColumn("id_prestamo", Types.INTEGER, 10, 0);
+        filaPrestamo.addColumn("fecha_salida", Types.TIMESTAMP, 0, 0);
+        filaPrestamo.addColumn("fecha_devolucion_esperada", Types.TIMESTAMP, 0, 0);
+        filaPrestamo.addColumn("fecha_devolucion_real", Types.TIMESTAMP, 0, 0);
+        filaPrestamo.addColumn("estado", Types.VARCHAR, 20, 0);
+        filaPrestamo.addColumn("id_usuario", Types.INTEGER, 10, 0);
+        filaPrestamo.addColumn("nombre", Types.VARCHAR, 100, 0);
+        filaPrestamo.addColumn("apellido", Types.VARCHAR, 100, 0);
+        filaPrestamo.addColumn("id_ejemplar", Types.INTEGER, 10, 0);
+        filaPrestamo.addColumn("codigo_barras", Types.VARCHAR, 50, 0);
+        filaPrestamo.addColumn("titulo", Types.VARCHAR, 200, 0);
+        filaPrestamo.addRow(1001, FECHA, FECHA, null, "Activo", 5, "Ana", "Díaz", 77,
+                "LIB-000077", "Cien años de soledad");
+
+        filaReserva = new SimpleResultSet();
+        filaReserva.addColumn("id_reserva", Types.INTEGER, 10, 0);
+        filaReserva.addColumn("fecha_reserva", Types.TIMESTAMP, 0, 0);
+        filaReserva.addColumn("estado", Types.VARCHAR, 20, 0);
+        filaReserva.addColumn("id_usuario", Types.INTEGER, 10, 0);
+        filaReserva.addColumn("nombre", Types.VARCHAR, 100, 0);
+        filaReserva.addColumn("apellido", Types.VARCHAR, 100, 0);
+        filaReserva.addColumn("id_libro", Types.INTEGER, 10, 0);
+        filaReserva.addColumn("titulo", Types.VARCHAR, 200, 0);
+        filaReserva.addColumn("isbn", Types.VARCHAR, 20, 0);
+        filaReserva.addRow(300, FECHA, "Pendiente", 5, "Ana", "Díaz", 42,
+                "Cien años de soledad", "9780307474728");
+
+        for (SimpleResultSet fila : new SimpleResultSet[]{filaLibro, filaPrestamo, filaReserva}) {
+            fila.setAutoClose(false);
+        }
+    }
+
+    @Benchmark
+    public Libro mapearLibro() throws SQLException {
+        return libroDAO.mapResultSetToLibro(situar(filaLibro));
+    }
+
+    @Benchmark
+    public Prestamo mapearPrestamo() throws SQLException {
+        return prestamoDAO.mapResultSetToPrestamo(situar(filaPrestamo));
+    }
+
+    @Benchmark
+    public Reserva mapearReserva() throws SQLException {
+        return reservaDAO.mapResultSetToReserva(situar(filaReserva));
+    }
+
+    private static ResultSet situar(SimpleResultSet fila) throws SQLException {
+        fila.beforeFirst();
+        fila.next();
+        return fila;
+    }
+}
@@ -0,0 +1,136 @@
+-- Esquema de la biblioteca para H2 en modo MySQL (benchmarks y pruebas sin servidor).
+-- Mismas tablas, columnas e índices de consulta que usan los DAOs.
+
+CREATE TABLE Roles (
+    id_rol INT AUTO_INCREMENT PRIMARY KEY,
+    nombre_rol VARCHAR(50) NOT NULL,
+    descripcion VARCHAR(200)
+);
+
+CREATE TABLE Usuarios (
+    id_usuario INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    telefono VARCHAR(20),
+    fecha_registro DATE,
+    id_rol INT NOT NULL REFERENCES Roles(id_rol)
+);
+
+CREATE TABLE Autores (
+    id_autor INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    nacionalidad VARCHAR(50)
+);
+
+CREATE TABLE Editoriales (
+    id_editorial INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    pais VARCHAR(50),
+    website VARCHAR(200)
+);
+
+CREATE TABLE Categorias (
+    id_categoria INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    descripcion VARCHAR(500)
+);
+
+CREATE TABLE Ubicaciones (
+    id_ubicacion INT AUTO_INCREMENT PRIMARY KEY,
+    pasillo VARCHAR(20),
+    estante VARCHAR(20),
+    piso INT
+);
+
+CREATE TABLE Libros (
+    id_libro INT AUTO_INCREMENT PRIMARY KEY,
+    isbn VARCHAR(20) NOT NULL UNIQUE,
+    titulo VARCHAR(200) NOT NULL,
+    anio_publicacion INT,
+    id_editorial INT REFERENCES Editoriales(id_editorial),
+    id_categoria INT REFERENCES Categorias(id_categoria)
+);
+
+CREATE TABLE Libro_Autor (
+    id_libro INT NOT NULL REFERENCES Libros(id_libro),
+    id_autor INT NOT NULL REFERENCES Autores(id_autor),
+    PRIMARY KEY (id_libro, id_autor)
+);
+
+CREATE TABLE Ejemplares (
+    id_ejemplar INT AUTO_INCREMENT PRIMARY KEY,
+    codigo_barras VARCHAR(50) NOT NULL UNIQUE,
+    id_libro INT NOT NULL REFERENCES Libros(id_libro),
+    id_ubicacion INT REFERENCES Ubicaciones(id_ubicacion),
+    estado_fisico VARCHAR(20) NOT NULL,
+    disponible BOOLEAN NOT NULL DEFAULT TRUE
+);
+
+CREATE TABLE Prestamos (
+    id_prestamo INT AUTO_INCREMENT PRIMARY KEY,
+    id_usuario INT NOT NULL REFERENCES Usuarios(id_usuario),
+    id_ejemplar INT NOT NULL REFERENCES Ejemplares(id_ejemplar),
+    fecha_salida TIMESTAMP NOT NULL,
+    fecha_devolucion_esperada TIMESTAMP NOT NULL,
+    fecha_devolucion_real TIMESTAMP,
+    estado VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE Reservas (
+    id_reserva INT AUTO_INCREMENT PRIMARY KEY,
+    id_usuario INT NOT NULL REFERENCES Usuarios(id_usuario),
+    id_libro INT NOT NULL REFERENCES Libros(id_libro),
+    fecha_reserva TIMESTAMP NOT NULL,
+    estado VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE Multas (
+    id_multa INT AUTO_INCREMENT PRIMARY KEY,
+    id_prestamo INT NOT NULL REFERENCES Prestamos(id_prestamo),
+    monto DECIMAL(10,2) NOT NULL,
+    motivo VARCHAR(255),
+    fecha_generacion TIMESTAMP NOT NULL,
+    estado_pago VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE Notificaciones (
+    id_notificacion INT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(30) NOT NULL,
+    referencia INT NOT NULL,
+    id_usuario INT NOT NULL,
+    destinatario VARCHAR(150) NOT NULL,
+    asunto VARCHAR(255) NOT NULL,
+    cuerpo TEXT NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    intentos INT NOT NULL DEFAULT 0,
+    proximo_intento TIMESTAMP NOT NULL,
+    fecha_creacion TIMESTAMP NOT NULL,
+    fecha_envio TIMESTAMP,
+    ultimo_error VARCHAR(500),
+    CONSTRAINT uk_notificaciones_evento UNIQUE (tipo, referencia)
+);
+
+CREATE TABLE SecuenciasCodigos (
+    prefijo VARCHAR(10) PRIMARY KEY,
+    siguiente INT NOT NULL
+);
+
+CREATE INDEX idx_libros_titulo ON Libros (titulo, id_libro);
+CREATE INDEX idx_usuarios_apellido_nombre ON Usuarios (apellido, nombre, id_usuario);
+CREATE INDEX idx_autores_nombre ON Autores (nombre, id_autor);
+CREATE INDEX idx_ejemplares_libro ON Ejemplares (id_libro, disponible);
+CREATE INDEX idx_prestamos_usuario_estado ON Prestamos (id_usuario, estado);
+CREATE INDEX idx_prestamos_estado_vencimiento ON Prestamos (estado, fecha_devolucion_esperada);
+CREATE INDEX idx_prestamos_ejemplar ON Prestamos (id_ejemplar);
+CREATE INDEX idx_reservas_libro_estado ON Reservas (id_libro, estado, fecha_reserva);
+CREATE INDEX idx_reservas_usuario ON Reservas (id_usuario);
+CREATE INDEX idx_multas_prestamo ON Multas (id_prestamo, estado_pago);
+CREATE INDEX idx_multas_estado ON Multas (estado_pago, fecha_generacion);
+CREATE INDEX idx_notificaciones_cola ON Notificaciones (estado, proximo_intento);
+
+INSERT INTO Roles (nombre_rol, descripcion) VALUES
+    ('Administrador', 'Acceso completo'),
+    ('Bibliotecario', 'Gestión de préstamos y catálogo'),
+    ('Usuario', 'Lector');
@@ -3,14 +3,31 @@ package com.biblioteca;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.stage.Stage;
+import com.biblioteca.dao.cache.CacheReferencia;
+import com.biblioteca.dao.indice.EjemplarDAOIndexado;
+import com.biblioteca.dao.indice.LibroDAOIndexado;
+import com.biblioteca.service.BarridoAtrasos;
+import com.biblioteca.service.ColaEscaneos;
+import com.biblioteca.service.DespachadorNotificaciones;
+import com.biblioteca.service.MigracionPasswords;
 import com.biblioteca.util.DatabaseConnection;
+import com.biblioteca.util.EjecutorBD;
+import com.biblioteca.util.EjecutorHash;
+import com.biblioteca.util.MetricasSQL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 
 
 public class App extends Application {
 
+    private static final Logger logger = LoggerFactory.getLogger(App.class);
+
     private static Stage primaryStage;
 
     @Override
@@ -26,6 +43,25 @@ public class App extends Application {
 
         System.out.println("Conexión a base de datos exitosa");
 
+        // Marcar préstamos vencidos y acumular multas en segundo plano
+        BarridoAtrasos.getInstance().iniciar();
+
+        // Enviar los avisos de la bandeja de salida (reservas disponibles, multas)
+        DespachadorNotificaciones.getInstance().iniciar();
+
+        // Elegir el coste de BCrypt según lo que tarda este equipo
+        EjecutorHash.getInstance().calibrar();
+
+        // Precargar categorías, editoriales, ubicaciones, el índice del catálogo
+        // y el de códigos de barras de los ejemplares
+        // sin bloquear la pantalla de login
+        EjecutorBD.getInstance().ejecutar(() -> {
+            CacheReferencia.precargar();
+            new LibroDAOIndexado().reconstruirIndice();
+            new EjemplarDAOIndexado().reconstruirIndice();
+            return null;
+        }, r -> { }, e -> logger.error("No se pudieron precargar los datos de referencia", e));
+
         // Cargar la pantalla de login
         loadScene("login", "Sistema de Biblioteca - Login", 600, 400);
     }
@@ -49,11 +85,36 @@ public class App extends Application {
             System.out.println("No se encontró archivo CSS");
         }
 
+        // Ctrl+Mayús+M escribe en el log el resumen de métricas SQL, de la caché de sentencias
+        // y de la bandeja de notificaciones
+        scene.getAccelerators().put(
+                new KeyCodeCombination(KeyCode.M, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN),
+                () -> {
+                    MetricasSQL.getInstance().volcarResumen();
+                    logger.info("Cache de sentencias preparadas: {}",
+                            DatabaseConnection.getInstance().getPool().estadisticasCacheSentencias());
+                    logger.info("{}", DespachadorNotificaciones.getInstance().estadisticas());
+                });
+
         primaryStage.setTitle(title);
         primaryStage.setScene(scene);
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        // Detener los hilos de trabajo y liberar las conexiones del pool al cerrar la aplicación
+        logger.info("Cache de datos de referencia: {}", CacheReferencia.estadisticas());
+        BarridoAtrasos.getInstance().detener();
+        DespachadorNotificaciones.getInstance().detener();
+        ColaEscaneos.getInstance().detener();
+        EjecutorBD.getInstance().cerrar();
+        EjecutorHash.getInstance().cerrar();
+        MigracionPasswords.getInstance().detener();
+        MetricasSQL.getInstance().volcarResumen();
+        DatabaseConnection.getInstance().shutdown();
+    }
+
     public static Stage getPrimaryStage() {
         return primaryStage;
     }
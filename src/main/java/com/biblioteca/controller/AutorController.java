@@ -1,9 +1,13 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.Orden;
 import com.biblioteca.dao.impl.AutorDAOImpl;
+import com.biblioteca.dao.indice.LibroDAOIndexado;
 import com.biblioteca.model.Autor;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
+import com.biblioteca.util.PaginadorTabla;
 import com.biblioteca.util.ValidationUtils;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -15,8 +19,6 @@ import javafx.scene.layout.GridPane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.SQLException;
-import java.util.List;
 
 /**
  * Controlador para la gestión de autores
@@ -33,12 +35,17 @@ public class AutorController {
     @FXML private TableColumn<Autor, String> colNacionalidad;
 
     private final AutorDAO autorDAO = new AutorDAOImpl();
+    private final LibroDAOIndexado libroDAO = new LibroDAOIndexado();
     private ObservableList<Autor> listaAutores;
+    private PaginadorTabla<Autor> paginador;
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
 
     @FXML
     public void initialize() {
         logger.debug("Inicializando AutorController");
         configurarTabla();
+        paginador = new PaginadorTabla<>(this, tablaAutores,
+                (despuesDe, limite) -> autorDAO.findPageDesde(despuesDe, limite, Orden.ASCENDENTE));
         cargarAutores();
     }
 
@@ -52,17 +59,8 @@ public class AutorController {
     }
 
     private void cargarAutores() {
-        try {
-            logger.info("Cargando lista de autores");
-            List<Autor> autores = autorDAO.findAll();
-            listaAutores = FXCollections.observableArrayList(autores);
-            tablaAutores.setItems(listaAutores);
-            logger.info("Se cargaron {} autores", autores.size());
-
-        } catch (SQLException e) {
-            logger.error("Error al cargar autores", e);
-            AlertUtils.mostrarErrorBD(e);
-        }
+        logger.info("Cargando lista de autores");
+        paginador.reiniciar();
     }
 
     @FXML
@@ -74,9 +72,8 @@ public class AutorController {
             return;
         }
 
-        try {
-            logger.debug("Buscando autores con término: {}", busqueda);
-            List<Autor> resultados = autorDAO.findByNombre(busqueda);
+        logger.debug("Buscando autores con término: {}", busqueda);
+        ejecutor.cargar(this, () -> autorDAO.findByNombre(busqueda), resultados -> {
             listaAutores = FXCollections.observableArrayList(resultados);
             tablaAutores.setItems(listaAutores);
 
@@ -84,11 +81,7 @@ public class AutorController {
                 AlertUtils.mostrarInfo("Búsqueda",
                         "No se encontraron autores con el término: " + busqueda);
             }
-
-        } catch (SQLException e) {
-            logger.error("Error al buscar autores", e);
-            AlertUtils.mostrarErrorBD(e);
-        }
+        });
     }
 
     @FXML
@@ -129,27 +122,26 @@ public class AutorController {
         );
 
         if (confirmar) {
-            try {
-                logger.info("Eliminando autor ID: {}", autorSeleccionado.getIdAutor());
+            logger.info("Eliminando autor ID: {}", autorSeleccionado.getIdAutor());
 
-                if (autorDAO.delete(autorSeleccionado.getIdAutor())) {
+            ejecutor.ejecutar(() -> autorDAO.delete(autorSeleccionado.getIdAutor()), eliminado -> {
+                if (eliminado) {
                     AlertUtils.mostrarInfo("Éxito", "Autor eliminado correctamente");
                     cargarAutores();
                 } else {
                     AlertUtils.mostrarError("Error", "No se pudo eliminar el autor");
                 }
+            }, error -> {
+                logger.error("Error al eliminar autor", error);
 
-            } catch (SQLException e) {
-                logger.error("Error al eliminar autor", e);
-
-                if (e.getMessage().contains("libros asociados")) {
+                if (error.getMessage() != null && error.getMessage().contains("libros asociados")) {
                     AlertUtils.mostrarAdvertencia("No se puede eliminar",
                             "El autor tiene libros asociados. " +
                                     "Debes eliminar o reasignar esos libros primero.");
                 } else {
-                    AlertUtils.mostrarErrorBD(e);
+                    AlertUtils.mostrarErrorOperacion(error);
                 }
-            }
+            });
         }
     }
 
@@ -163,25 +155,19 @@ public class AutorController {
             return;
         }
 
-        try {
-            boolean tieneLibros = autorDAO.tieneLibrosAsociados(
-                    autorSeleccionado.getIdAutor());
-
-            if (tieneLibros) {
-                AlertUtils.mostrarInfo("Libros del Autor",
-                        String.format("El autor '%s' tiene libros registrados.\n\n" +
-                                        "Ve a la sección de Libros para ver el detalle.",
-                                autorSeleccionado.getNombre()));
-            } else {
-                AlertUtils.mostrarInfo("Sin Libros",
-                        String.format("El autor '%s' no tiene libros registrados aún.",
-                                autorSeleccionado.getNombre()));
-            }
-
-        } catch (SQLException e) {
-            logger.error("Error al verificar libros del autor", e);
-            AlertUtils.mostrarErrorBD(e);
-        }
+        ejecutor.cargar(this, () -> autorDAO.tieneLibrosAsociados(autorSeleccionado.getIdAutor()),
+                tieneLibros -> {
+                    if (tieneLibros) {
+                        AlertUtils.mostrarInfo("Libros del Autor",
+                                String.format("El autor '%s' tiene libros registrados.\n\n" +
+                                                "Ve a la sección de Libros para ver el detalle.",
+                                        autorSeleccionado.getNombre()));
+                    } else {
+                        AlertUtils.mostrarInfo("Sin Libros",
+                                String.format("El autor '%s' no tiene libros registrados aún.",
+                                        autorSeleccionado.getNombre()));
+                    }
+                });
     }
 
     @FXML
@@ -254,26 +240,29 @@ public class AutorController {
         });
 
         dialog.showAndWait().ifPresent(autor -> {
-            try {
-                if (autorExistente == null) {
-                    // Crear nuevo
-                    Integer id = autorDAO.save(autor);
+            if (autorExistente == null) {
+                // Crear nuevo
+                ejecutor.ejecutar(() -> autorDAO.save(autor), id -> {
                     logger.info("Autor creado con ID: {}", id);
                     AlertUtils.mostrarInfo("Éxito",
                             "Autor '" + autor.getNombre() + "' registrado correctamente");
-                } else {
-                    // Actualizar existente
-                    autorDAO.update(autor);
+                    cargarAutores();
+                });
+            } else {
+                // Actualizar existente
+                ejecutor.ejecutar(() -> {
+                    boolean actualizado = autorDAO.update(autor);
+                    if (actualizado) {
+                        // El nombre del autor es un término de búsqueda de sus libros
+                        libroDAO.reindexarLibrosDeAutor(autor.getIdAutor());
+                    }
+                    return actualizado;
+                }, actualizado -> {
                     logger.info("Autor actualizado: {}", autor.getIdAutor());
                     AlertUtils.mostrarInfo("Éxito",
                             "Autor actualizado correctamente");
-                }
-
-                cargarAutores();
-
-            } catch (SQLException e) {
-                logger.error("Error al guardar autor", e);
-                AlertUtils.mostrarErrorBD(e);
+                    cargarAutores();
+                });
             }
         });
     }
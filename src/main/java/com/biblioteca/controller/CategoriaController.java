@@ -1,9 +1,10 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.dao.CategoriaDAO;
-import com.biblioteca.dao.impl.CategoriaDAOImpl;
+import com.biblioteca.dao.cache.CacheReferencia;
 import com.biblioteca.model.Categoria;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -11,15 +12,14 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 
-import java.sql.SQLException;
-
 public class CategoriaController {
     @FXML private TableView<Categoria> tablaCategorias;
     @FXML private TableColumn<Categoria, Integer> colId;
     @FXML private TableColumn<Categoria, String> colNombre;
     @FXML private TableColumn<Categoria, String> colDescripcion;
 
-    private final CategoriaDAO categoriaDAO = new CategoriaDAOImpl();
+    private final CategoriaDAO categoriaDAO = CacheReferencia.categorias();
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
 
     @FXML public void initialize() {
         colId.setCellValueFactory(new PropertyValueFactory<>("idCategoria"));
@@ -29,8 +29,8 @@ public class CategoriaController {
     }
 
     private void cargar() {
-        try { tablaCategorias.setItems(FXCollections.observableArrayList(categoriaDAO.findAll())); }
-        catch (SQLException e) { AlertUtils.mostrarErrorBD(e); }
+        ejecutor.cargar(this, categoriaDAO::findAll,
+                categorias -> tablaCategorias.setItems(FXCollections.observableArrayList(categorias)));
     }
 
     @FXML private void handleNueva() {
@@ -64,13 +64,10 @@ public class CategoriaController {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(cat -> {
-            try {
-                categoriaDAO.save(cat);
-                cargar();
-                AlertUtils.mostrarInfo("Éxito", "Categoría creada");
-            } catch (SQLException ex) { AlertUtils.mostrarErrorBD(ex); }
-        });
+        dialog.showAndWait().ifPresent(cat -> ejecutor.ejecutar(() -> categoriaDAO.save(cat), id -> {
+            cargar();
+            AlertUtils.mostrarInfo("Éxito", "Categoría creada");
+        }));
     }
 
     @FXML private void handleActualizar() {
@@ -1,59 +1,67 @@
 package com.biblioteca.controller;
 
-import com.biblioteca.dao.LibroDAO;
-import com.biblioteca.dao.MultaDAO;
-import com.biblioteca.dao.PrestamoDAO;
-import com.biblioteca.dao.UsuarioDAO;
-import com.biblioteca.dao.impl.LibroDAOImpl;
-import com.biblioteca.dao.impl.MultaDAOImpl;
-import com.biblioteca.dao.impl.PrestamoDAOImpl;
-import com.biblioteca.dao.impl.UsuarioDAOImpl;
-import com.biblioteca.model.enums.EstadoPrestamo;
-import com.biblioteca.util.AlertUtils;
+import com.biblioteca.dao.EstadisticasDAO;
+import com.biblioteca.dao.ResumenEstadisticas;
+import com.biblioteca.dao.impl.EstadisticasDAOImpl;
+import com.biblioteca.util.Configuracion;
+import com.biblioteca.util.EjecutorBD;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
-
-import java.sql.SQLException;
+import javafx.util.Duration;
 
 public class DashboardController {
 
     @FXML private Label lblTotalLibros;
     @FXML private Label lblPrestamosActivos;
+    @FXML private Label lblPrestamosAtrasados;
     @FXML private Label lblTotalUsuarios;
     @FXML private Label lblMultasPendientes;
+    @FXML private Label lblMontoMultas;
+
+    private final EstadisticasDAO estadisticasDAO = new EstadisticasDAOImpl();
 
-    private final LibroDAO libroDAO = new LibroDAOImpl();
-    private final UsuarioDAO usuarioDAO = new UsuarioDAOImpl();
-    private final PrestamoDAO prestamoDAO = new PrestamoDAOImpl();
-    private final MultaDAO multaDAO = new MultaDAOImpl();
+    private Timeline refresco;
+    private Task<ResumenEstadisticas> cargaEnCurso;
 
     @FXML
     public void initialize() {
         cargarEstadisticas();
+
+        // Refresca solo los indicadores, sin volver a cargar la vista
+        long intervaloSeg = Configuracion.getInstance().largo("dashboard.intervaloRefrescoSeg", 30L);
+        if (intervaloSeg > 0) {
+            refresco = new Timeline(new KeyFrame(Duration.seconds(intervaloSeg), e -> refrescar()));
+            refresco.setCycleCount(Animation.INDEFINITE);
+            refresco.play();
+        }
     }
 
-    private void cargarEstadisticas() {
-        try {
-            // Total de libros
-            long totalLibros = libroDAO.count();
-            lblTotalLibros.setText(String.valueOf(totalLibros));
-
-            // Préstamos activos
-            int prestamosActivos = prestamoDAO.findByEstado(EstadoPrestamo.ACTIVO).size();
-            lblPrestamosActivos.setText(String.valueOf(prestamosActivos));
-
-            // Total usuarios
-            long totalUsuarios = usuarioDAO.count();
-            lblTotalUsuarios.setText(String.valueOf(totalUsuarios));
-
-            // Multas pendientes
-            long multasPendientes = multaDAO.findAll().stream()
-                    .filter(m -> m.getEstadoPago().getDescripcion().equals("Pendiente"))
-                    .count();
-            lblMultasPendientes.setText(String.valueOf(multasPendientes));
-
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
+    private void refrescar() {
+        // El panel ya no está en pantalla (otro módulo o sesión cerrada)
+        if (lblTotalLibros.getScene() == null || lblTotalLibros.getScene().getWindow() == null) {
+            refresco.stop();
+            return;
         }
+        // No acumular consultas si la anterior aún no terminó
+        if (cargaEnCurso != null && cargaEnCurso.isRunning()) {
+            return;
+        }
+        cargarEstadisticas();
+    }
+
+    private void cargarEstadisticas() {
+        // Todos los indicadores en una sola consulta de agregación
+        cargaEnCurso = EjecutorBD.getInstance().cargar(this, estadisticasDAO::obtenerResumen, resumen -> {
+            lblTotalLibros.setText(String.valueOf(resumen.getTotalLibros()));
+            lblPrestamosActivos.setText(String.valueOf(resumen.getPrestamosActivos()));
+            lblPrestamosAtrasados.setText(resumen.getPrestamosAtrasados() + " atrasados");
+            lblTotalUsuarios.setText(String.valueOf(resumen.getTotalUsuarios()));
+            lblMultasPendientes.setText(String.valueOf(resumen.getMultasPendientes()));
+            lblMontoMultas.setText(String.format("$%.2f por cobrar", resumen.getMontoMultasPendientes()));
+        });
     }
-}
\ No newline at end of file
+}
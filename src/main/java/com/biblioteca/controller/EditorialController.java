@@ -1,9 +1,10 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.dao.EditorialDAO;
-import com.biblioteca.dao.impl.EditorialDAOImpl;
+import com.biblioteca.dao.cache.CacheReferencia;
 import com.biblioteca.model.Editorial;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -11,15 +12,14 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 
-import java.sql.SQLException;
-
 public class EditorialController {
     @FXML private TableView<Editorial> tablaEditoriales;
     @FXML private TableColumn<Editorial, Integer> colId;
     @FXML private TableColumn<Editorial, String> colNombre;
     @FXML private TableColumn<Editorial, String> colPais;
 
-    private final EditorialDAO editorialDAO = new EditorialDAOImpl();
+    private final EditorialDAO editorialDAO = CacheReferencia.editoriales();
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
 
     @FXML public void initialize() {
         colId.setCellValueFactory(new PropertyValueFactory<>("idEditorial"));
@@ -29,8 +29,8 @@ public class EditorialController {
     }
 
     private void cargar() {
-        try { tablaEditoriales.setItems(FXCollections.observableArrayList(editorialDAO.findAll())); }
-        catch (SQLException e) { AlertUtils.mostrarErrorBD(e); }
+        ejecutor.cargar(this, editorialDAO::findAll,
+                editoriales -> tablaEditoriales.setItems(FXCollections.observableArrayList(editoriales)));
     }
 
     @FXML private void handleNueva() {
@@ -61,13 +61,10 @@ public class EditorialController {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(editorial -> {
-            try {
-                editorialDAO.save(editorial);
-                cargar(); // Recargar tabla
-                AlertUtils.mostrarInfo("Éxito", "Editorial agregada correctamente");
-            } catch (SQLException ex) { AlertUtils.mostrarErrorBD(ex); }
-        });
+        dialog.showAndWait().ifPresent(editorial -> ejecutor.ejecutar(() -> editorialDAO.save(editorial), id -> {
+            cargar(); // Recargar tabla
+            AlertUtils.mostrarInfo("Éxito", "Editorial agregada correctamente");
+        }));
     }
 
     @FXML private void handleActualizar() {
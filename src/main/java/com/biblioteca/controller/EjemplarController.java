@@ -1,19 +1,22 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.dao.UbicacionDAO;
-import com.biblioteca.dao.impl.UbicacionDAOImpl;
 import com.biblioteca.model.Ubicacion;
 import com.biblioteca.dao.EjemplarDAO;
 import com.biblioteca.dao.LibroDAO;
-import com.biblioteca.dao.impl.EjemplarDAOImpl;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.cache.CacheReferencia;
+import com.biblioteca.dao.indice.EjemplarDAOIndexado;
 import com.biblioteca.dao.impl.LibroDAOImpl;
 import com.biblioteca.model.Ejemplar;
 import com.biblioteca.model.Libro;
 import com.biblioteca.model.enums.EstadoFisico;
+import com.biblioteca.service.EjemplarService;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
+import com.biblioteca.util.PaginadorTabla;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -22,11 +25,12 @@ import javafx.scene.layout.GridPane;
 import javafx.util.StringConverter;
 import javafx.scene.paint.Color; // Importante para el color
 
-import java.sql.SQLException;
 import java.util.List;
 
 public class EjemplarController {
-    private final UbicacionDAO ubicacionDAO = new UbicacionDAOImpl();
+    private final UbicacionDAO ubicacionDAO = CacheReferencia.ubicaciones();
+
+    private static final int MAX_EJEMPLARES_ALTA = 100;
 
     @FXML private TableView<Ejemplar> tablaEjemplares;
     @FXML private TableColumn<Ejemplar, Integer> colId;
@@ -35,12 +39,17 @@ public class EjemplarController {
     @FXML private TableColumn<Ejemplar, String> colEstado;
     @FXML private TableColumn<Ejemplar, Boolean> colDisponible; // Ojo aquí
 
-    private final EjemplarDAO ejemplarDAO = new EjemplarDAOImpl();
+    private final EjemplarDAO ejemplarDAO = new EjemplarDAOIndexado();
     private final LibroDAO libroDAO = new LibroDAOImpl();
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
+    private final EjemplarService ejemplarService = new EjemplarService();
+    private PaginadorTabla<Ejemplar> paginador;
 
     @FXML
     public void initialize() {
         configurarTabla();
+        paginador = new PaginadorTabla<>(this, tablaEjemplares,
+                (despuesDe, limite) -> ejemplarDAO.findPageDesde(despuesDe, limite, Orden.ASCENDENTE));
         cargarEjemplares();
     }
 
@@ -80,14 +89,9 @@ public class EjemplarController {
     }
 
     private void cargarEjemplares() {
-        try {
-            // Limpiamos y recargamos desde la BD para asegurar datos frescos
-            List<Ejemplar> lista = ejemplarDAO.findAll();
-            tablaEjemplares.setItems(FXCollections.observableArrayList(lista));
-            tablaEjemplares.refresh(); // Forzar repintado visual
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        // Limpiamos y recargamos desde la BD (por páginas) para asegurar datos frescos
+        paginador.reiniciar();
+        tablaEjemplares.refresh(); // Forzar repintado visual
     }
 
     @FXML
@@ -106,7 +110,8 @@ public class EjemplarController {
         ComboBox<Libro> cmbLibro = new ComboBox<>();
         cmbLibro.setPromptText("Seleccione Libro...");
         cmbLibro.setPrefWidth(300);
-        try { cmbLibro.setItems(FXCollections.observableArrayList(libroDAO.findAll())); } catch (SQLException e) {}
+        ejecutor.cargar(this, () -> libroDAO.findAll(false),
+                libros -> cmbLibro.setItems(FXCollections.observableArrayList(libros)));
 
         cmbLibro.setConverter(new StringConverter<Libro>() {
             @Override public String toString(Libro l) { return l != null ? l.getTitulo() : ""; }
@@ -117,7 +122,8 @@ public class EjemplarController {
         ComboBox<Ubicacion> cmbUbicacion = new ComboBox<>();
         cmbUbicacion.setPromptText("Seleccione Ubicación...");
         cmbUbicacion.setPrefWidth(300);
-        try { cmbUbicacion.setItems(FXCollections.observableArrayList(ubicacionDAO.findAll())); } catch (SQLException e) {}
+        ejecutor.cargar(this, ubicacionDAO::findAll,
+                ubicaciones -> cmbUbicacion.setItems(FXCollections.observableArrayList(ubicaciones)));
 
         // Usamos el método getUbicacionCompleta() que ya tienes en tu modelo
         cmbUbicacion.setConverter(new StringConverter<Ubicacion>() {
@@ -131,57 +137,47 @@ public class EjemplarController {
         ComboBox<EstadoFisico> cmbEstado = new ComboBox<>(FXCollections.observableArrayList(EstadoFisico.values()));
         cmbEstado.setValue(EstadoFisico.BUENO);
 
+        // --- CANTIDAD (alta de varios ejemplares iguales de una vez) ---
+        Spinner<Integer> spnCantidad = new Spinner<>(1, MAX_EJEMPLARES_ALTA, 1);
+        spnCantidad.setEditable(true);
+
         // Agregamos todo al Grid
         grid.add(new Label("Libro:"), 0, 0); grid.add(cmbLibro, 1, 0);
         grid.add(new Label("Ubicación:"), 0, 1); grid.add(cmbUbicacion, 1, 1); // <--- Nuevo campo
         grid.add(new Label("Estado:"), 0, 2); grid.add(cmbEstado, 1, 2);
+        grid.add(new Label("Cantidad:"), 0, 3); grid.add(spnCantidad, 1, 3);
 
         dialog.getDialogPane().setContent(grid);
 
         dialog.setResultConverter(btn -> {
             if (btn == guardarBtn && cmbLibro.getValue() != null) {
-                try {
-                    Ejemplar ej = new Ejemplar();
-                    ej.setLibro(cmbLibro.getValue());
-
-                    // Asignamos la ubicación seleccionada (puede ser null y no pasa nada gracias a tu DAO fix)
-                    ej.setUbicacion(cmbUbicacion.getValue());
-
-                    ej.setEstadoFisico(cmbEstado.getValue());
-                    ej.setDisponible(true);
+                Ejemplar ej = new Ejemplar();
+                ej.setLibro(cmbLibro.getValue());
 
-                    // Generamos código
-                    ej.setCodigoBarras(generarCodigo(cmbLibro.getValue()));
+                // Asignamos la ubicación seleccionada (puede ser null y no pasa nada gracias a tu DAO fix)
+                ej.setUbicacion(cmbUbicacion.getValue());
 
-                    return ej;
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                    return null;
-                }
+                ej.setEstadoFisico(cmbEstado.getValue());
+                ej.setDisponible(true);
+                return ej;
             }
             return null;
         });
 
         dialog.showAndWait().ifPresent(nuevoEjemplar -> {
-            try {
-                ejemplarDAO.save(nuevoEjemplar);
+            int cantidad = spnCantidad.getValue();
+            ejecutor.ejecutar(() -> ejemplarService.registrarEjemplares(nuevoEjemplar, cantidad)
+                    .stream().map(Ejemplar::getCodigoBarras).toList(), codigos -> {
                 cargarEjemplares();
-                AlertUtils.mostrarInfo("Éxito", "Ejemplar guardado en: " +
+                AlertUtils.mostrarInfo("Éxito", (codigos.size() == 1
+                        ? "Ejemplar " + codigos.get(0)
+                        : codigos.size() + " ejemplares (" + codigos.get(0) + " a " + codigos.get(codigos.size() - 1) + ")")
+                        + " guardado(s) en: " +
                         (nuevoEjemplar.getUbicacion() != null ? nuevoEjemplar.getUbicacion().getUbicacionCompleta() : "Sin ubicación"));
-            } catch (SQLException e) {
-                AlertUtils.mostrarErrorBD(e);
-            }
+            });
         });
     }
 
-    // Método auxiliar para generar código
-    private String generarCodigo(Libro l) throws SQLException {
-        // Obtenemos cuántos hay ya para calcular el siguiente número
-        long cantidad = ejemplarDAO.findByLibro(l.getIdLibro()).size();
-        String inicioTitulo = l.getTitulo().substring(0, Math.min(l.getTitulo().length(), 3)).toUpperCase();
-        return inicioTitulo + "-" + String.format("%03d", cantidad + 1);
-    }
-
     @FXML
     private void handleActualizar() {
         cargarEjemplares();
@@ -3,19 +3,21 @@ package com.biblioteca.controller;
 import com.biblioteca.dao.AutorDAO;
 import com.biblioteca.dao.CategoriaDAO;
 import com.biblioteca.dao.EditorialDAO;
-import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.cache.CacheReferencia;
 import com.biblioteca.dao.impl.AutorDAOImpl;
-import com.biblioteca.dao.impl.CategoriaDAOImpl;
-import com.biblioteca.dao.impl.EditorialDAOImpl;
-import com.biblioteca.dao.impl.LibroDAOImpl;
+import com.biblioteca.dao.indice.LibroDAOIndexado;
 import com.biblioteca.model.Autor;
 import com.biblioteca.model.Categoria;
 import com.biblioteca.model.Editorial;
 import com.biblioteca.model.Libro;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
+import com.biblioteca.util.PaginadorTabla;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -26,6 +28,8 @@ import javafx.util.StringConverter;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class LibroController {
@@ -41,15 +45,34 @@ public class LibroController {
     @FXML private TableColumn<Libro, Integer> colEjemplares;
     @FXML private TableColumn<Libro, String> colAutores; // Columna nueva
 
-    private final LibroDAO libroDAO = new LibroDAOImpl();
-    private final EditorialDAO editorialDAO = new EditorialDAOImpl();
-    private final CategoriaDAO categoriaDAO = new CategoriaDAOImpl();
+    // Máximo de resultados que muestra una búsqueda
+    private static final int LIMITE_BUSQUEDA = 200;
+
+    private final LibroDAOIndexado libroDAO = new LibroDAOIndexado();
+    private final EditorialDAO editorialDAO = CacheReferencia.editoriales();
+    private final CategoriaDAO categoriaDAO = CacheReferencia.categorias();
     private final AutorDAO autorDAO = new AutorDAOImpl(); // Instancia DAO Autores
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
     private ObservableList<Libro> listaLibros;
+    private PaginadorTabla<Libro> paginador;
+    private Task<ResultadoBusqueda> busquedaActual;
+
+    private record ResultadoBusqueda(List<Libro> libros, Map<Integer, Integer> disponibles) {
+    }
+
+    // Ejemplares disponibles por libro de la pantalla actual; la columna solo lee de aquí.
+    // Se completa desde los hilos de carga mientras la tabla ya muestra páginas anteriores.
+    private final Map<Integer, Integer> disponiblesPorLibro = new ConcurrentHashMap<>();
 
     @FXML
     public void initialize() {
         configurarTabla();
+
+        // La tabla se llena por páginas a medida que el usuario se desplaza
+        paginador = new PaginadorTabla<>(this, tablaLibros,
+                (despuesDe, limite) -> libroDAO.findPageDesde(despuesDe, limite, Orden.ASCENDENTE));
+        paginador.setAlCargarPagina(this::cargarDisponibles);
+
         cargarLibros();
     }
 
@@ -69,14 +92,11 @@ public class LibroController {
                         cellData.getValue().getCategoria() != null ? cellData.getValue().getCategoria().getNombre() : "N/A"
                 ));
 
-        colEjemplares.setCellValueFactory(cellData -> {
-            try {
-                int count = libroDAO.countEjemplaresDisponibles(cellData.getValue().getIdLibro());
-                return new javafx.beans.property.SimpleIntegerProperty(count).asObject();
-            } catch (SQLException e) {
-                return new javafx.beans.property.SimpleIntegerProperty(0).asObject();
-            }
-        });
+        // Sin acceso a BD: el conteo se carga en lote junto con la lista de libros
+        colEjemplares.setCellValueFactory(cellData ->
+                new javafx.beans.property.SimpleIntegerProperty(
+                        disponiblesPorLibro.getOrDefault(cellData.getValue().getIdLibro(), 0)
+                ).asObject());
 
         // Configuración de la columna Autores (Unión de nombres con comas)
         colAutores.setCellValueFactory(cellData -> {
@@ -95,11 +115,40 @@ public class LibroController {
     }
 
     private void cargarLibros() {
-        try {
-            listaLibros = FXCollections.observableArrayList(libroDAO.findAll());
-            tablaLibros.setItems(listaLibros);
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
+        cancelarBusqueda();
+        disponiblesPorLibro.clear();
+        paginador.reiniciar();
+    }
+
+    /**
+     * Carga en una sola consulta los ejemplares disponibles de los libros indicados.
+     * Se ejecuta en segundo plano.
+     */
+    private void cargarDisponibles(List<Libro> libros) throws SQLException {
+        List<Integer> ids = libros.stream().map(Libro::getIdLibro).collect(Collectors.toList());
+        disponiblesPorLibro.putAll(libroDAO.countEjemplaresDisponibles(ids));
+    }
+
+    /**
+     * Muestra un resultado de búsqueda (sin paginar). Los conteos de disponibles se
+     * reemplazan aquí, en el hilo de JavaFX, junto con las filas a las que corresponden.
+     */
+    private void mostrarLibros(ResultadoBusqueda resultado) {
+        busquedaActual = null;
+        disponiblesPorLibro.clear();
+        disponiblesPorLibro.putAll(resultado.disponibles());
+        listaLibros = FXCollections.observableArrayList(resultado.libros());
+        tablaLibros.setItems(listaLibros);
+    }
+
+    /**
+     * Descarta la búsqueda en curso, para que su resultado no reemplace
+     * al de una búsqueda posterior ni a la tabla paginada
+     */
+    private void cancelarBusqueda() {
+        if (busquedaActual != null) {
+            busquedaActual.cancel(true);
+            busquedaActual = null;
         }
     }
 
@@ -107,12 +156,17 @@ public class LibroController {
     private void handleBuscar() {
         String busqueda = txtBuscar.getText().trim();
         if (busqueda.isEmpty()) { cargarLibros(); return; }
-        try {
-            List<Libro> resultados = libroDAO.findByTitulo(busqueda);
-            libroDAO.findByIsbn(busqueda).ifPresent(resultados::add);
-            listaLibros = FXCollections.observableArrayList(resultados);
-            tablaLibros.setItems(listaLibros);
-        } catch (SQLException e) { AlertUtils.mostrarErrorBD(e); }
+
+        // Título, autor o ISBN contra el índice en memoria; solo los resultados se leen de la BD
+        cancelarBusqueda();
+        busquedaActual = ejecutor.cargar(this, () -> {
+            List<Libro> resultados = libroDAO.buscar(busqueda, LIMITE_BUSQUEDA);
+            List<Integer> ids = resultados.stream().map(Libro::getIdLibro).collect(Collectors.toList());
+            return new ResultadoBusqueda(resultados, libroDAO.countEjemplaresDisponibles(ids));
+        }, this::mostrarLibros, error -> {
+            busquedaActual = null;
+            AlertUtils.mostrarErrorOperacion(error);
+        });
     }
 
     @FXML
@@ -142,16 +196,14 @@ public class LibroController {
                 "¿Estás seguro de eliminar '" + libroSeleccionado.getTitulo() + "'?");
 
         if (confirmar) {
-            try {
-                if (libroDAO.delete(libroSeleccionado.getIdLibro())) {
+            ejecutor.ejecutar(() -> libroDAO.delete(libroSeleccionado.getIdLibro()), eliminado -> {
+                if (eliminado) {
                     AlertUtils.mostrarInfo("Éxito", "Libro eliminado");
                     cargarLibros();
                 } else {
                     AlertUtils.mostrarError("Error", "No se pudo eliminar (posiblemente tiene préstamos activos)");
                 }
-            } catch (SQLException e) {
-                AlertUtils.mostrarErrorBD(e);
-            }
+            });
         }
     }
 
@@ -179,6 +231,14 @@ public class LibroController {
     @FXML
     private void handleActualizar() { cargarLibros(); }
 
+    @FXML
+    private void handleReindexar() {
+        ejecutor.ejecutar(() -> {
+            libroDAO.reconstruirIndice();
+            return null;
+        }, r -> AlertUtils.mostrarInfo("Índice", "Índice de búsqueda reconstruido"));
+    }
+
     private void mostrarDialogoLibro(Libro libroExistente) {
         Dialog<Libro> dialog = new Dialog<>();
         dialog.setTitle(libroExistente == null ? "Nuevo Libro" : "Editar Libro");
@@ -200,13 +260,6 @@ public class LibroController {
         listAutores.setPrefHeight(100);
         listAutores.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
-        // Configurar combos y lista
-        try {
-            cmbEditorial.setItems(FXCollections.observableArrayList(editorialDAO.findAll()));
-            cmbCategoria.setItems(FXCollections.observableArrayList(categoriaDAO.findAll()));
-            listAutores.setItems(FXCollections.observableArrayList(autorDAO.findAll()));
-        } catch (SQLException e) { e.printStackTrace(); }
-
         StringConverter<Editorial> edConv = new StringConverter<>() {
             public String toString(Editorial e) { return e != null ? e.getNombre() : ""; }
             public Editorial fromString(String s) { return null; }
@@ -224,23 +277,38 @@ public class LibroController {
             isbn.setText(libroExistente.getIsbn());
             titulo.setText(libroExistente.getTitulo());
             anio.setText(String.valueOf(libroExistente.getAnioPublicacion()));
-            // Seleccionar en combos
-            for(Editorial e : cmbEditorial.getItems())
-                if(e.getIdEditorial().equals(libroExistente.getEditorial().getIdEditorial())) cmbEditorial.setValue(e);
-            for(Categoria c : cmbCategoria.getItems())
-                if(c.getIdCategoria().equals(libroExistente.getCategoria().getIdCategoria())) cmbCategoria.setValue(c);
+        }
+
+        // Configurar combos y lista en segundo plano; el diálogo se abre sin esperar
+        // y la selección del libro en edición se aplica cuando llegan los datos
+        ejecutor.cargar(this, editorialDAO::findAll, editoriales -> {
+            cmbEditorial.setItems(FXCollections.observableArrayList(editoriales));
+            if (libroExistente != null) {
+                for (Editorial e : editoriales)
+                    if (e.getIdEditorial().equals(libroExistente.getEditorial().getIdEditorial())) cmbEditorial.setValue(e);
+            }
+        });
+        ejecutor.cargar(this, categoriaDAO::findAll, categorias -> {
+            cmbCategoria.setItems(FXCollections.observableArrayList(categorias));
+            if (libroExistente != null) {
+                for (Categoria c : categorias)
+                    if (c.getIdCategoria().equals(libroExistente.getCategoria().getIdCategoria())) cmbCategoria.setValue(c);
+            }
+        });
+        ejecutor.cargar(this, autorDAO::findAll, autores -> {
+            listAutores.setItems(FXCollections.observableArrayList(autores));
 
             // Pre-seleccionar autores
-            if (libroExistente.getAutores() != null) {
+            if (libroExistente != null && libroExistente.getAutores() != null) {
                 for (Autor autorDelLibro : libroExistente.getAutores()) {
-                    for (Autor autorDeLista : listAutores.getItems()) {
+                    for (Autor autorDeLista : autores) {
                         if (autorDeLista.getIdAutor().equals(autorDelLibro.getIdAutor())) {
                             listAutores.getSelectionModel().select(autorDeLista);
                         }
                     }
                 }
             }
-        }
+        });
 
         grid.add(new Label("ISBN:"), 0, 0); grid.add(isbn, 1, 0);
         grid.add(new Label("Título:"), 0, 1); grid.add(titulo, 1, 1);
@@ -266,20 +334,19 @@ public class LibroController {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(libro -> {
-            try {
-                if (libroExistente == null) {
-                    // Guardar nuevo con autores
-                    libroDAO.saveWithAutores(libro);
-                } else {
-                    // Actualizar datos básicos
-                    libroDAO.update(libro);
-                    // Actualizar relaciones de autores
-                    libroDAO.updateAutores(libro);
-                }
-                cargarLibros();
-                AlertUtils.mostrarInfo("Éxito", "Libro guardado");
-            } catch (SQLException e) { AlertUtils.mostrarErrorBD(e); }
-        });
+        dialog.showAndWait().ifPresent(libro -> ejecutor.ejecutar(() -> {
+            if (libroExistente == null) {
+                // Guardar nuevo con autores
+                return libroDAO.saveWithAutores(libro);
+            }
+            // Actualizar datos básicos
+            libroDAO.update(libro);
+            // Actualizar relaciones de autores
+            libroDAO.updateAutores(libro);
+            return libro.getIdLibro();
+        }, id -> {
+            cargarLibros();
+            AlertUtils.mostrarInfo("Éxito", "Libro guardado");
+        }));
     }
 }
\ No newline at end of file
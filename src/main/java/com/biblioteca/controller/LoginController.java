@@ -5,19 +5,27 @@ import com.biblioteca.dao.UsuarioDAO;
 import com.biblioteca.dao.impl.UsuarioDAOImpl;
 import com.biblioteca.model.Rol;
 import com.biblioteca.model.Usuario;
+import com.biblioteca.service.MigracionPasswords;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
+import com.biblioteca.util.EjecutorHash;
+import com.biblioteca.util.LimitadorIntentos;
 import com.biblioteca.util.PasswordUtils;
 import com.biblioteca.util.ValidationUtils;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.sql.SQLException;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controlador de Login con seguridad mejorada usando BCrypt
@@ -28,10 +36,43 @@ public class LoginController {
 
     @FXML private TextField emailField;
     @FXML private PasswordField passwordField;
+    @FXML private Button loginButton;
+    @FXML private HBox estadoBox;
+    @FXML private Label estadoLabel;
 
     private final UsuarioDAO usuarioDAO = new UsuarioDAOImpl();
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
+    private final EjecutorHash ejecutorHash = EjecutorHash.getInstance();
     private static Usuario usuarioActual;
 
+    // Límites de intentos de login, comprobados antes de cualquier consulta o hash.
+    // Es una aplicación de escritorio: el origen es este equipo, y su límite acota
+    // el total de intentos que puede lanzar con emails distintos.
+    private static final LimitadorIntentos limitePorEmail =
+            LimitadorIntentos.desdeConfiguracion("login.limite.email", 5, 5);
+    private static final LimitadorIntentos limitePorOrigen =
+            LimitadorIntentos.desdeConfiguracion("login.limite.origen", 20, 30);
+    private static final String ORIGEN = origenLocal();
+
+    // true mientras un login o un registro está en curso: bloquea el formulario y muestra el estado
+    private final BooleanProperty ocupado = new SimpleBooleanProperty(false);
+
+    @FXML
+    private void initialize() {
+        estadoBox.visibleProperty().bind(ocupado);
+        loginButton.disableProperty().bind(ocupado);
+        emailField.disableProperty().bind(ocupado);
+        passwordField.disableProperty().bind(ocupado);
+    }
+
+    /**
+     * Muestra la fase en curso, o libera el formulario si es null
+     */
+    private void mostrarEstado(String estado) {
+        ocupado.set(estado != null);
+        estadoLabel.setText(estado != null ? estado : "");
+    }
+
     @FXML
     private void handleLogin() {
         String email = emailField.getText().trim();
@@ -50,61 +91,105 @@ public class LoginController {
             return;
         }
 
-        try {
-            logger.info("Intento de login para: {}", email);
-
-            // Buscar usuario por email
-            Optional<Usuario> usuarioOpt = usuarioDAO.findByEmail(email);
+        if (ocupado.get()) {
+            return;
+        }
+        if (!admitirIntento(email)) {
+            return;
+        }
+        logger.info("Intento de login para: {}", email);
+        mostrarEstado("Buscando usuario...");
 
+        // La consulta va al ejecutor de BD y la verificación BCrypt al de hashing
+        ejecutor.cargar(this, () -> usuarioDAO.findByEmail(email), usuarioOpt -> {
             if (usuarioOpt.isEmpty()) {
                 logger.warn("Intento de login fallido - usuario no encontrado: {}", email);
-                AlertUtils.mostrarError("Credenciales Inválidas",
-                        "Email o contraseña incorrectos");
-                passwordField.clear();
+                completarLogin(null, password, false);
                 return;
             }
 
             Usuario usuario = usuarioOpt.get();
 
-            // Verificar contraseña
-            boolean passwordCorrecta;
-
-            // Detectar si es hash BCrypt o texto plano (legacy)
-            if (PasswordUtils.isValidBCryptHash(usuario.getPassword())) {
-                // Contraseña hasheada con BCrypt
-                passwordCorrecta = PasswordUtils.checkPassword(password, usuario.getPassword());
-            } else {
-                // Contraseña en texto plano (legacy) - comparación directa
-                passwordCorrecta = usuario.getPassword().equals(password);
-
-                // Si es correcta, actualizar a BCrypt
-                if (passwordCorrecta) {
-                    logger.info("Migrando contraseña legacy a BCrypt para usuario: {}", email);
-                    usuario.setPassword(PasswordUtils.hashPassword(password));
-                    usuarioDAO.update(usuario);
-                }
+            // Contraseña en texto plano (legacy): comparación directa, se migra después
+            if (!PasswordUtils.isValidBCryptHash(usuario.getPassword())) {
+                completarLogin(usuario, password,
+                        PasswordUtils.checkLegacyPassword(password, usuario.getPassword()));
+                return;
             }
 
-            if (passwordCorrecta) {
-                usuarioActual = usuario;
-                logger.info("Login exitoso para: {} (ID: {})", email, usuario.getIdUsuario());
+            mostrarEstado("Verificando contraseña...");
+            ejecutorHash.verificar(password, usuario.getPassword(),
+                    correcta -> completarLogin(usuario, password, correcta),
+                    error -> errorOperacion("Error durante login", error));
+        }, error -> errorOperacion("Error de base de datos durante login", error));
+    }
+
+    /**
+     * Consume una ficha del origen y otra del email. Si falta alguna, el intento se
+     * rechaza sin tocar la base de datos y queda registrado en el log de auditoría.
+     */
+    private boolean admitirIntento(String email) {
+        long esperaMs = limitePorOrigen.consumir(ORIGEN);
+        LimitadorIntentos limite = limitePorOrigen;
+        if (esperaMs == 0) {
+            esperaMs = limitePorEmail.consumir(email.toLowerCase(Locale.ROOT));
+            limite = limitePorEmail;
+        }
+        if (esperaMs == 0) {
+            return true;
+        }
+
+        logger.warn("Intento de login limitado para: {} (origen {}, límite {}, reintento en {} ms) [{}; {}]",
+                email, ORIGEN, limite.getNombre(), esperaMs, limitePorEmail, limitePorOrigen);
+        AlertUtils.mostrarAdvertencia("Demasiados intentos",
+                "Se han hecho demasiados intentos de inicio de sesión. Espera "
+                        + Math.max(1, (esperaMs + 999) / 1000) + " segundos antes de volver a intentarlo.");
+        passwordField.clear();
+        return false;
+    }
 
-                AlertUtils.mostrarInfo("Login Exitoso",
-                        "Bienvenido " + usuario.getNombreCompleto());
+    /**
+     * Nombre del equipo sin consultar al DNS (que podría bloquear al cargar el controlador)
+     */
+    private static String origenLocal() {
+        String equipo = System.getenv("COMPUTERNAME");
+        if (equipo == null) {
+            equipo = System.getenv("HOSTNAME");
+        }
+        return equipo != null ? equipo : "local";
+    }
 
-                // Redirigir al dashboard principal
-                App.loadScene("main", "Sistema de Biblioteca - Dashboard", 1200, 700);
+    /**
+     * Termina el login una vez verificada la contraseña. Si la contraseña guardada es legacy
+     * o usa un factor de trabajo antiguo, el rehash se encola para no alargar el login.
+     */
+    private void completarLogin(Usuario usuario, String password, boolean passwordCorrecta) {
+        mostrarEstado(null);
 
-            } else {
-                logger.warn("Intento de login fallido - contraseña incorrecta: {}", email);
-                AlertUtils.mostrarError("Credenciales Inválidas",
-                        "Email o contraseña incorrectos");
-                passwordField.clear();
+        if (usuario == null || !passwordCorrecta) {
+            if (usuario != null) {
+                logger.warn("Intento de login fallido - contraseña incorrecta: {}", usuario.getEmail());
             }
+            AlertUtils.mostrarError("Credenciales Inválidas",
+                    "Email o contraseña incorrectos");
+            passwordField.clear();
+            return;
+        }
+
+        if (PasswordUtils.necesitaRehash(usuario.getPassword())) {
+            logger.info("Programando actualización de contraseña para usuario: {}", usuario.getEmail());
+            MigracionPasswords.getInstance().programar(usuario.getIdUsuario(), usuario.getPassword(), password);
+        }
+
+        usuarioActual = usuario;
+        logger.info("Login exitoso para: {} (ID: {})", usuario.getEmail(), usuario.getIdUsuario());
 
-        } catch (SQLException e) {
-            logger.error("Error de base de datos durante login", e);
-            AlertUtils.mostrarErrorBD(e);
+        AlertUtils.mostrarInfo("Login Exitoso",
+                "Bienvenido " + usuario.getNombreCompleto());
+
+        try {
+            // Redirigir al dashboard principal
+            App.loadScene("main", "Sistema de Biblioteca - Dashboard", 1200, 700);
         } catch (IOException e) {
             logger.error("Error al cargar ventana principal", e);
             AlertUtils.mostrarError("Error de Aplicación",
@@ -112,6 +197,17 @@ public class LoginController {
         }
     }
 
+    private void errorOperacion(String contexto, Throwable error) {
+        mostrarEstado(null);
+        logger.error(contexto, error);
+        if (error instanceof RejectedExecutionException) {
+            AlertUtils.mostrarAdvertencia("Sistema ocupado",
+                    "Hay demasiadas operaciones en curso. Inténtalo de nuevo en unos segundos.");
+        } else {
+            AlertUtils.mostrarErrorOperacion(error);
+        }
+    }
+
     @FXML
     private void handleRegistro() {
         logger.debug("Abriendo diálogo de registro");
@@ -196,8 +292,8 @@ public class LoginController {
                 u.setApellido(apellido.getText().trim());
                 u.setEmail(email.getText().trim());
 
-                // Hashear la contraseña con BCrypt
-                u.setPassword(PasswordUtils.hashPassword(pass.getText()));
+                // Se hashea con BCrypt en el ejecutor de hashing, antes de guardar
+                u.setPassword(pass.getText());
 
                 u.setTelefono(telefono.getText().trim());
 
@@ -212,22 +308,38 @@ public class LoginController {
         });
 
         Optional<Usuario> result = dialog.showAndWait();
-        result.ifPresent(nuevoUsuario -> {
-            try {
+        result.ifPresent(this::registrar);
+    }
+
+    /**
+     * Hashea la contraseña en el ejecutor de hashing y guarda el usuario en el de BD
+     */
+    private void registrar(Usuario nuevoUsuario) {
+        if (ocupado.get()) {
+            return;
+        }
+        mostrarEstado("Creando cuenta...");
+
+        ejecutorHash.hashear(nuevoUsuario.getPassword(), hash -> {
+            nuevoUsuario.setPassword(hash);
+            ejecutor.ejecutar(() -> {
                 if (usuarioDAO.existsByEmail(nuevoUsuario.getEmail())) {
-                    logger.warn("Intento de registro con email duplicado: {}", nuevoUsuario.getEmail());
-                    AlertUtils.mostrarError("Error", "El email ya está registrado");
-                } else {
-                    usuarioDAO.save(nuevoUsuario);
+                    return false;
+                }
+                usuarioDAO.save(nuevoUsuario);
+                return true;
+            }, registrado -> {
+                mostrarEstado(null);
+                if (registrado) {
                     logger.info("Nuevo usuario registrado: {}", nuevoUsuario.getEmail());
                     AlertUtils.mostrarInfo("Éxito",
                             "Cuenta creada correctamente.\n¡Ahora puedes iniciar sesión!");
+                } else {
+                    logger.warn("Intento de registro con email duplicado: {}", nuevoUsuario.getEmail());
+                    AlertUtils.mostrarError("Error", "El email ya está registrado");
                 }
-            } catch (SQLException e) {
-                logger.error("Error al registrar usuario", e);
-                AlertUtils.mostrarErrorBD(e);
-            }
-        });
+            }, error -> errorOperacion("Error al registrar usuario", error));
+        }, error -> errorOperacion("Error al registrar usuario", error));
     }
 
     /**
@@ -1,11 +1,14 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.App;
+import com.biblioteca.service.ColaEscaneos;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.layout.StackPane;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +26,10 @@ public class MainController {
     @FXML private Label lblUsuario;
     @FXML private Label lblStatus;
     @FXML private StackPane contentArea;
+    @FXML private ProgressIndicator indicadorCarga;
+
+    // Controlador del módulo visible, dueño de las cargas en segundo plano
+    private Object controladorActual;
 
     @FXML
     public void initialize() {
@@ -35,6 +42,9 @@ public class MainController {
             logger.debug("Usuario activo: {}", nombreCompleto);
         }
 
+        // Indicador visible mientras haya consultas en segundo plano
+        indicadorCarga.visibleProperty().bind(EjecutorBD.getInstance().ocupadoProperty());
+
         // Cargar Dashboard por defecto al iniciar
         showDashboard();
     }
@@ -104,7 +114,12 @@ public class MainController {
             FXMLLoader loader = new FXMLLoader(
                     getClass().getResource("/view/" + moduleName + ".fxml"));
 
+            // Las cargas del módulo anterior ya no se van a mostrar
+            EjecutorBD.getInstance().cancelarCargas(controladorActual);
+            ColaEscaneos.getInstance().cancelarSuscripcion(controladorActual);
+
             Parent moduleView = loader.load();
+            controladorActual = loader.getController();
 
             contentArea.getChildren().clear();
             contentArea.getChildren().add(moduleView);
@@ -140,6 +155,8 @@ public class MainController {
 
                 logger.info("Cerrando sesión de usuario: {}", usuarioActual);
 
+                EjecutorBD.getInstance().cancelarCargas(controladorActual);
+                ColaEscaneos.getInstance().cancelarSuscripcion(controladorActual);
                 LoginController.setUsuarioActual(null);
                 App.loadScene("login", "Sistema de Biblioteca - Login", 600, 400);
 
@@ -1,9 +1,13 @@
 package com.biblioteca.controller;
 
+import com.biblioteca.dao.Filtro;
 import com.biblioteca.dao.MultaDAO;
+import com.biblioteca.dao.Orden;
 import com.biblioteca.dao.impl.MultaDAOImpl;
 import com.biblioteca.model.Multa;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
+import com.biblioteca.util.PaginadorTabla;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -11,10 +15,8 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.math.BigDecimal;
-import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 public class MultaController {
 
@@ -29,12 +31,18 @@ public class MultaController {
 
     private final MultaDAO multaDAO = new MultaDAOImpl();
     private ObservableList<Multa> listaMultas;
+    private PaginadorTabla<Multa> paginador;
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     @FXML
     public void initialize() {
         configurarTabla();
         configurarComboEstado();
+
+        // Las multas más recientes primero, cargadas por páginas
+        paginador = new PaginadorTabla<>(this, tablaMultas,
+                (despuesDe, limite) -> multaDAO.findPageDesde(despuesDe, limite, Orden.DESCENDENTE));
         cargarMultas();
     }
 
@@ -63,13 +71,7 @@ public class MultaController {
     }
 
     private void cargarMultas() {
-        try {
-            List<Multa> multas = multaDAO.findAll();
-            listaMultas = FXCollections.observableArrayList(multas);
-            tablaMultas.setItems(listaMultas);
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        paginador.reiniciar();
     }
 
     @FXML
@@ -81,16 +83,10 @@ public class MultaController {
             return;
         }
 
-        try {
-            List<Multa> multas = multaDAO.findAll().stream()
-                    .filter(m -> m.getEstadoPago().getDescripcion().equals(estadoSeleccionado))
-                    .toList();
-
+        ejecutor.cargar(this, () -> multaDAO.findByFiltro(Filtro.nuevo().estado(estadoSeleccionado)), multas -> {
             listaMultas = FXCollections.observableArrayList(multas);
             tablaMultas.setItems(listaMultas);
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        });
     }
 
     @FXML
@@ -115,17 +111,13 @@ public class MultaController {
                         multaSeleccionada.getMonto()));
 
         if (confirmar) {
-            try {
-                multaSeleccionada.marcarComoPagada();
-                boolean actualizado = multaDAO.update(multaSeleccionada);
-
+            multaSeleccionada.marcarComoPagada();
+            ejecutor.ejecutar(() -> multaDAO.update(multaSeleccionada), actualizado -> {
                 if (actualizado) {
                     AlertUtils.mostrarInfo("Éxito", "Multa marcada como pagada");
                     cargarMultas();
                 }
-            } catch (SQLException e) {
-                AlertUtils.mostrarErrorBD(e);
-            }
+            });
         }
     }
 
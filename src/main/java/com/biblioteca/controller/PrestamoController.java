@@ -1,17 +1,21 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.dao.EjemplarDAO;
+import com.biblioteca.dao.Filtro;
 import com.biblioteca.dao.PrestamoDAO;
 import com.biblioteca.dao.UsuarioDAO;
-import com.biblioteca.dao.impl.EjemplarDAOImpl;
 import com.biblioteca.dao.impl.PrestamoDAOImpl;
+import com.biblioteca.dao.indice.EjemplarDAOIndexado;
 import com.biblioteca.dao.impl.UsuarioDAOImpl;
 import com.biblioteca.model.Ejemplar;
 import com.biblioteca.model.Prestamo;
 import com.biblioteca.model.Usuario;
 import com.biblioteca.model.enums.EstadoPrestamo;
+import com.biblioteca.service.ColaEscaneos;
 import com.biblioteca.service.PrestamoService;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -20,10 +24,13 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.util.StringConverter;
 
-import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 public class PrestamoController {
 
@@ -34,6 +41,11 @@ public class PrestamoController {
     @FXML private ComboBox<String> cmbFiltroEstado; // Renombrado para evitar confusión
     @FXML private TableView<Prestamo> tablaPrestamos;
 
+    // Modo escáner: cada lectura se encola y la vista no espera a la anterior
+    @FXML private ComboBox<ColaEscaneos.Modo> cmbModoEscaneo;
+    @FXML private TextField txtEscaneo;
+    @FXML private ListView<String> listaEscaneos;
+
     // Columnas
     @FXML private TableColumn<Prestamo, Integer> colId;
     @FXML private TableColumn<Prestamo, String> colUsuario;
@@ -44,8 +56,12 @@ public class PrestamoController {
     @FXML private TableColumn<Prestamo, String> colEstado;
 
     private final PrestamoService prestamoService = new PrestamoService();
+    private final PrestamoDAO prestamoDAO = new PrestamoDAOImpl();
     private final UsuarioDAO usuarioDAO = new UsuarioDAOImpl();
-    private final EjemplarDAO ejemplarDAO = new EjemplarDAOImpl();
+    private final EjemplarDAO ejemplarDAO = new EjemplarDAOIndexado();
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
+    private final ColaEscaneos colaEscaneos = ColaEscaneos.getInstance();
+    private final Map<Long, Integer> lineasEscaneo = new HashMap<>();
 
     private ObservableList<Prestamo> listaPrestamos;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
@@ -55,6 +71,8 @@ public class PrestamoController {
         configurarTabla();
         configurarCombos();
         cargarDatos();
+        // MainController cancela la suscripción al cambiar de módulo
+        colaEscaneos.suscribir(this, resultados -> Platform.runLater(() -> mostrarResultados(resultados)));
     }
 
     private void configuringTabla() {
@@ -101,6 +119,17 @@ public class PrestamoController {
         cmbFiltroEstado.setItems(FXCollections.observableArrayList("Todos", "Activo", "Finalizado", "Atrasado"));
         cmbFiltroEstado.getSelectionModel().selectFirst();
 
+        cmbModoEscaneo.setItems(FXCollections.observableArrayList(ColaEscaneos.Modo.values()));
+        cmbModoEscaneo.getSelectionModel().selectFirst();
+        cmbModoEscaneo.setConverter(new StringConverter<ColaEscaneos.Modo>() {
+            @Override
+            public String toString(ColaEscaneos.Modo m) {
+                if (m == null) return "";
+                return m == ColaEscaneos.Modo.PRESTAR ? "Prestar" : "Devolver";
+            }
+            @Override public ColaEscaneos.Modo fromString(String string) { return null; }
+        });
+
         // Configurar visualización de Usuario en el Combo
         cmbUsuario.setConverter(new StringConverter<Usuario>() {
             @Override public String toString(Usuario u) { return u != null ? u.getNombreCompleto() : ""; }
@@ -119,25 +148,22 @@ public class PrestamoController {
     }
 
     private void cargarDatos() {
-        try {
-            // 1. Cargar Préstamos Activos
-            List<Prestamo> prestamos = prestamoService.obtenerPrestamosActivosDeUsuario(null);
+        // 1. Cargar Préstamos Activos
+        tablaPrestamos.setPlaceholder(new ProgressIndicator());
+        ejecutor.cargar(this, () -> prestamoService.obtenerPrestamosActivosDeUsuario(null), prestamos -> {
             listaPrestamos = FXCollections.observableArrayList(prestamos);
             tablaPrestamos.setItems(listaPrestamos);
+            tablaPrestamos.setPlaceholder(null);
+        });
 
-            // 2. Cargar Usuarios para el combo
-            cmbUsuario.setItems(FXCollections.observableArrayList(usuarioDAO.findAll()));
-
-            // 3. Cargar Ejemplares DISPONIBLES para el combo
-            // Filtramos solo los que están disponibles para no prestar algo que ya está prestado
-            List<Ejemplar> disponibles = ejemplarDAO.findAll().stream()
-                    .filter(Ejemplar::getDisponible)
-                    .collect(Collectors.toList());
-            cmbEjemplar.setItems(FXCollections.observableArrayList(disponibles));
+        // 2. Cargar Usuarios para el combo
+        ejecutor.cargar(this, usuarioDAO::findAll,
+                usuarios -> cmbUsuario.setItems(FXCollections.observableArrayList(usuarios)));
 
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        // 3. Cargar Ejemplares DISPONIBLES para el combo
+        // Solo los disponibles, filtrados en la consulta, para no prestar algo que ya está prestado
+        ejecutor.cargar(this, () -> ejemplarDAO.findByFiltro(Filtro.nuevo().disponible(true)),
+                disponibles -> cmbEjemplar.setItems(FXCollections.observableArrayList(disponibles)));
     }
 
     @FXML
@@ -150,23 +176,17 @@ public class PrestamoController {
             return;
         }
 
-        try {
-            // Realizar préstamo
-            Prestamo prestamo = prestamoService.prestarLibro(usuario.getIdUsuario(), ejemplar.getIdEjemplar());
-
-            AlertUtils.mostrarInfo("Préstamo Exitoso",
-                    "Devolución esperada: " + prestamo.getFechaDevolucionEsperada().format(formatter));
-
-            // Limpiar y recargar TODO (para que el ejemplar desaparezca de disponibles)
-            cmbUsuario.getSelectionModel().clearSelection();
-            cmbEjemplar.getSelectionModel().clearSelection();
-            cargarDatos();
-
-        } catch (IllegalStateException e) {
-            AlertUtils.mostrarAdvertencia("No permitido", e.getMessage());
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        // Realizar préstamo (las reglas incumplidas llegan como IllegalStateException: "No permitido")
+        ejecutor.ejecutar(() -> prestamoService.prestarLibro(usuario.getIdUsuario(), ejemplar.getIdEjemplar()),
+                prestamo -> {
+                    AlertUtils.mostrarInfo("Préstamo Exitoso",
+                            "Devolución esperada: " + prestamo.getFechaDevolucionEsperada().format(formatter));
+
+                    // Limpiar y recargar TODO (para que el ejemplar desaparezca de disponibles)
+                    cmbUsuario.getSelectionModel().clearSelection();
+                    cmbEjemplar.getSelectionModel().clearSelection();
+                    cargarDatos();
+                });
     }
 
     @FXML
@@ -183,9 +203,7 @@ public class PrestamoController {
         }
 
         if (AlertUtils.mostrarConfirmacion("Devolución", "¿Confirmas la recepción del libro?")) {
-            try {
-                prestamoService.devolverLibro(seleccionado.getIdPrestamo());
-
+            ejecutor.ejecutar(() -> prestamoService.devolverLibro(seleccionado.getIdPrestamo()), ok -> {
                 // Verificar multas
                 if (seleccionado.estaAtrasado()) {
                     long dias = seleccionado.calcularDiasRetraso();
@@ -196,11 +214,71 @@ public class PrestamoController {
                 }
 
                 cargarDatos(); // Recargar tablas y combos (el libro vuelve a estar disponible)
+            });
+        }
+    }
 
-            } catch (SQLException e) {
-                AlertUtils.mostrarErrorBD(e);
+    @FXML
+    private void handleEscaneo() {
+        String codigo = txtEscaneo.getText();
+        txtEscaneo.clear();
+        if (codigo == null || codigo.isBlank()) {
+            return;
+        }
+
+        ColaEscaneos.Modo modo = cmbModoEscaneo.getValue();
+        Usuario usuario = cmbUsuario.getValue();
+        ColaEscaneos.Escaneo escaneo = colaEscaneos.encolar(codigo, modo,
+                usuario != null ? usuario.getIdUsuario() : null);
+
+        // Aviso inmediato con el índice en memoria; el resultado real llega después
+        String previo = colaEscaneos.consultar(codigo)
+                .map(e -> e.disponible() ? "disponible" : "prestado")
+                .orElse("no indexado");
+        lineasEscaneo.put(escaneo.numero(), listaEscaneos.getItems().size());
+        listaEscaneos.getItems().add("⏳ " + escaneo.codigo() + " (" + previo + ") en cola");
+        listaEscaneos.scrollTo(listaEscaneos.getItems().size() - 1);
+    }
+
+    /**
+     * Actualiza la bitácora de escaneos y solo las filas afectadas de la tabla, sin recargar
+     * los combos (el usuario seleccionado se usa para los escaneos siguientes)
+     */
+    private void mostrarResultados(List<ColaEscaneos.Resultado> resultados) {
+        Set<Integer> devueltos = new HashSet<>();
+        List<Integer> prestados = new ArrayList<>();
+        for (ColaEscaneos.Resultado resultado : resultados) {
+            if (resultado.correcto()) {
+                if (resultado.escaneo().modo() == ColaEscaneos.Modo.PRESTAR) {
+                    prestados.add(resultado.idPrestamo());
+                } else {
+                    devueltos.add(resultado.idPrestamo());
+                }
+            }
+
+            Integer linea = lineasEscaneo.remove(resultado.escaneo().numero());
+            String texto = (resultado.correcto() ? "✅ " : "❌ ") + resultado.escaneo().codigo() + ": " + resultado.mensaje();
+            if (linea != null) {
+                listaEscaneos.getItems().set(linea, texto);
+            } else {
+                listaEscaneos.getItems().add(texto);
             }
         }
+
+        // La tabla solo cambia si está mostrando los préstamos activos
+        if (!muestraActivos()) {
+            return;
+        }
+        tablaPrestamos.getItems().removeIf(p -> devueltos.contains(p.getIdPrestamo()));
+        if (!prestados.isEmpty()) {
+            ejecutor.cargar(this, () -> prestamoDAO.findByIds(prestados),
+                    nuevos -> tablaPrestamos.getItems().addAll(nuevos));
+        }
+    }
+
+    private boolean muestraActivos() {
+        String estado = cmbFiltroEstado.getValue();
+        return estado == null || estado.equals("Todos") || estado.equals("Activo");
     }
 
     @FXML
@@ -210,16 +288,10 @@ public class PrestamoController {
             cargarDatos();
             return;
         }
-        try {
-            EstadoPrestamo estado = EstadoPrestamo.fromString(estadoStr);
-            List<Prestamo> filtrados = prestamoService.obtenerPrestamosAtrasados(); // O usar un DAO específico
-            if (estado == EstadoPrestamo.ACTIVO) {
-                filtrados = prestamoService.obtenerPrestamosActivosDeUsuario(null);
-            }
-            tablaPrestamos.setItems(FXCollections.observableArrayList(filtrados));
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        // El estado se filtra en la consulta (solo las filas de ese estado)
+        EstadoPrestamo estado = EstadoPrestamo.fromString(estadoStr);
+        ejecutor.cargar(this, () -> prestamoDAO.findByFiltro(Filtro.nuevo().estado(estado.getDescripcion())),
+                filtrados -> tablaPrestamos.setItems(FXCollections.observableArrayList(filtrados)));
     }
 
     @FXML
@@ -1,6 +1,8 @@
 package com.biblioteca.controller;
 
+import com.biblioteca.dao.Filtro;
 import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.Orden;
 import com.biblioteca.dao.ReservaDAO;
 import com.biblioteca.dao.UsuarioDAO;
 import com.biblioteca.dao.impl.LibroDAOImpl;
@@ -10,10 +12,12 @@ import com.biblioteca.model.Libro;
 import com.biblioteca.model.Reserva;
 import com.biblioteca.model.Usuario;
 import com.biblioteca.model.enums.EstadoReserva;
+import com.biblioteca.service.ColaReservas;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
+import com.biblioteca.util.PaginadorTabla;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -21,9 +25,7 @@ import javafx.util.StringConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 /**
  * Controlador para la gestión de reservas de libros
@@ -46,8 +48,10 @@ public class ReservaController {
     private final ReservaDAO reservaDAO = new ReservaDAOImpl();
     private final UsuarioDAO usuarioDAO = new UsuarioDAOImpl();
     private final LibroDAO libroDAO = new LibroDAOImpl();
+    private final ColaReservas colaReservas = ColaReservas.getInstance();
 
-    private ObservableList<Reserva> listaReservas;
+    private PaginadorTabla<Reserva> paginador;
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     @FXML
@@ -55,6 +59,10 @@ public class ReservaController {
         logger.debug("Inicializando ReservaController");
         configurarTabla();
         configurarCombos();
+
+        // Las reservas más recientes primero, cargadas por páginas
+        paginador = new PaginadorTabla<>(this, tablaReservas,
+                (despuesDe, limite) -> reservaDAO.findPageDesde(despuesDe, limite, Orden.DESCENDENTE));
         cargarDatos();
     }
 
@@ -114,24 +122,17 @@ public class ReservaController {
     }
 
     private void cargarDatos() {
-        try {
-            // Cargar reservas
-            List<Reserva> reservas = reservaDAO.findAll();
-            listaReservas = FXCollections.observableArrayList(reservas);
-            tablaReservas.setItems(listaReservas);
-
-            // Cargar usuarios
-            cmbUsuario.setItems(FXCollections.observableArrayList(usuarioDAO.findAll()));
+        // Cargar reservas
+        paginador.reiniciar();
 
-            // Cargar libros
-            cmbLibro.setItems(FXCollections.observableArrayList(libroDAO.findAll()));
+        // Cargar usuarios
+        ejecutor.cargar(this, usuarioDAO::findAll,
+                usuarios -> cmbUsuario.setItems(FXCollections.observableArrayList(usuarios)));
 
-            logger.info("Datos cargados: {} reservas", reservas.size());
-
-        } catch (SQLException e) {
-            logger.error("Error al cargar datos", e);
-            AlertUtils.mostrarErrorBD(e);
-        }
+        // Cargar libros
+        // Solo se muestran título e ISBN: no hace falta cargar autores
+        ejecutor.cargar(this, () -> libroDAO.findAll(false),
+                libros -> cmbLibro.setItems(FXCollections.observableArrayList(libros)));
     }
 
     @FXML
@@ -145,30 +146,27 @@ public class ReservaController {
             return;
         }
 
-        try {
-            logger.debug("Intentando crear reserva para usuario {} y libro {}",
-                    usuario.getIdUsuario(), libro.getIdLibro());
+        logger.debug("Intentando crear reserva para usuario {} y libro {}",
+                usuario.getIdUsuario(), libro.getIdLibro());
 
+        ejecutor.ejecutar(() -> {
             // Validar que no tenga una reserva activa del mismo libro
             if (reservaDAO.usuarioTieneReservaActiva(usuario.getIdUsuario(), libro.getIdLibro())) {
-                AlertUtils.mostrarAdvertencia("Reserva duplicada",
+                throw new IllegalStateException(
                         String.format("El usuario ya tiene una reserva activa para '%s'", libro.getTitulo()));
-                return;
             }
 
             // Validar límite de reservas simultáneas
             int reservasActivas = reservaDAO.countReservasActivasByUsuario(usuario.getIdUsuario());
             if (reservasActivas >= MAX_RESERVAS_SIMULTANEAS) {
-                AlertUtils.mostrarAdvertencia("Límite alcanzado",
+                throw new IllegalStateException(
                         String.format("El usuario ha alcanzado el límite de %d reservas simultáneas",
                                 MAX_RESERVAS_SIMULTANEAS));
-                return;
             }
 
-            // Crear la reserva
-            Reserva reserva = new Reserva(usuario, libro);
-            Integer idReserva = reservaDAO.save(reserva);
-
+            // Crear la reserva (queda al final de la cola del libro por su fecha)
+            return reservaDAO.save(new Reserva(usuario, libro));
+        }, idReserva -> {
             logger.info("Reserva creada exitosamente con ID: {}", idReserva);
 
             AlertUtils.mostrarInfo("Reserva Exitosa",
@@ -180,11 +178,14 @@ public class ReservaController {
             cmbUsuario.getSelectionModel().clearSelection();
             cmbLibro.getSelectionModel().clearSelection();
             cargarDatos();
-
-        } catch (SQLException e) {
-            logger.error("Error al realizar reserva", e);
-            AlertUtils.mostrarErrorBD(e);
-        }
+        }, error -> {
+            if (error instanceof IllegalStateException) {
+                AlertUtils.mostrarAdvertencia("Reserva no permitida", error.getMessage());
+            } else {
+                logger.error("Error al realizar reserva", error);
+                AlertUtils.mostrarErrorOperacion(error);
+            }
+        });
     }
 
     @FXML
@@ -209,18 +210,12 @@ public class ReservaController {
                         seleccionada.getUsuario().getNombreCompleto()));
 
         if (confirmar) {
-            try {
-                seleccionada.setEstado(EstadoReserva.CANCELADO);
-                reservaDAO.update(seleccionada);
-
+            seleccionada.setEstado(EstadoReserva.CANCELADO);
+            ejecutor.ejecutar(() -> reservaDAO.update(seleccionada), ok -> {
                 logger.info("Reserva {} cancelada", seleccionada.getIdReserva());
                 AlertUtils.mostrarInfo("Éxito", "Reserva cancelada correctamente");
                 cargarDatos();
-
-            } catch (SQLException e) {
-                logger.error("Error al cancelar reserva", e);
-                AlertUtils.mostrarErrorBD(e);
-            }
+            });
         }
     }
 
@@ -246,19 +241,13 @@ public class ReservaController {
                         seleccionada.getLibro().getTitulo()));
 
         if (confirmar) {
-            try {
-                seleccionada.setEstado(EstadoReserva.COMPLETADO);
-                reservaDAO.update(seleccionada);
-
+            seleccionada.setEstado(EstadoReserva.COMPLETADO);
+            ejecutor.ejecutar(() -> reservaDAO.update(seleccionada), ok -> {
                 logger.info("Reserva {} completada", seleccionada.getIdReserva());
                 AlertUtils.mostrarInfo("Éxito",
                         "Reserva completada. Recuerda registrar el préstamo en el módulo correspondiente.");
                 cargarDatos();
-
-            } catch (SQLException e) {
-                logger.error("Error al completar reserva", e);
-                AlertUtils.mostrarErrorBD(e);
-            }
+            });
         }
     }
 
@@ -278,23 +267,25 @@ public class ReservaController {
             return;
         }
 
-        try {
-            seleccionada.setEstado(EstadoReserva.NOTIFICADO);
-            reservaDAO.update(seleccionada);
-
+        // Normalmente la notificación es automática al devolver un ejemplar (ver ColaReservas);
+        // esto permite avisar a mano, por ejemplo si se adquiere un ejemplar nuevo.
+        // El aviso se envía en segundo plano desde la bandeja de salida
+        ejecutor.ejecutar(() -> colaReservas.notificar(seleccionada), notificada -> {
+            if (!notificada) {
+                AlertUtils.mostrarAdvertencia("Reserva modificada",
+                        "La reserva ya no está pendiente; se recargará la lista");
+                cargarDatos();
+                return;
+            }
             logger.info("Reserva {} notificada", seleccionada.getIdReserva());
-            AlertUtils.mostrarInfo("Usuario Notificado",
-                    String.format("Se ha notificado a %s que el libro '%s' está disponible.\n\n" +
+            AlertUtils.mostrarInfo("Aviso en cola",
+                    String.format("Se enviará un aviso a %s indicando que el libro '%s' está disponible.\n\n" +
                                     "Email: %s",
                             seleccionada.getUsuario().getNombreCompleto(),
                             seleccionada.getLibro().getTitulo(),
                             seleccionada.getUsuario().getEmail()));
             cargarDatos();
-
-        } catch (SQLException e) {
-            logger.error("Error al notificar reserva", e);
-            AlertUtils.mostrarErrorBD(e);
-        }
+        });
     }
 
     @FXML
@@ -306,18 +297,9 @@ public class ReservaController {
             return;
         }
 
-        try {
-            EstadoReserva estado = EstadoReserva.fromString(estadoStr);
-            List<Reserva> filtradas = reservaDAO.findAll().stream()
-                    .filter(r -> r.getEstado() == estado)
-                    .toList();
-
-            tablaReservas.setItems(FXCollections.observableArrayList(filtradas));
-
-        } catch (SQLException e) {
-            logger.error("Error al filtrar reservas", e);
-            AlertUtils.mostrarErrorBD(e);
-        }
+        EstadoReserva estado = EstadoReserva.fromString(estadoStr);
+        ejecutor.cargar(this, () -> reservaDAO.findByFiltro(Filtro.nuevo().estado(estado.getDescripcion())),
+                filtradas -> tablaReservas.setItems(FXCollections.observableArrayList(filtradas)));
     }
 
     @FXML
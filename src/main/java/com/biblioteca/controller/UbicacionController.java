@@ -1,9 +1,10 @@
 package com.biblioteca.controller;
 
 import com.biblioteca.dao.UbicacionDAO;
-import com.biblioteca.dao.impl.UbicacionDAOImpl;
+import com.biblioteca.dao.cache.CacheReferencia;
 import com.biblioteca.model.Ubicacion;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -11,8 +12,6 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 
-import java.sql.SQLException;
-
 public class UbicacionController {
     @FXML private TableView<Ubicacion> tablaUbicaciones;
     @FXML private TableColumn<Ubicacion, Integer> colId;
@@ -20,7 +19,8 @@ public class UbicacionController {
     @FXML private TableColumn<Ubicacion, String> colEstante;
     @FXML private TableColumn<Ubicacion, Integer> colPiso;
 
-    private final UbicacionDAO ubicacionDAO = new UbicacionDAOImpl();
+    private final UbicacionDAO ubicacionDAO = CacheReferencia.ubicaciones();
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
 
     @FXML public void initialize() {
         colId.setCellValueFactory(new PropertyValueFactory<>("idUbicacion"));
@@ -31,11 +31,8 @@ public class UbicacionController {
     }
 
     private void cargar() {
-        try {
-            tablaUbicaciones.setItems(FXCollections.observableArrayList(ubicacionDAO.findAll()));
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        ejecutor.cargar(this, ubicacionDAO::findAll,
+                ubicaciones -> tablaUbicaciones.setItems(FXCollections.observableArrayList(ubicaciones)));
     }
 
     @FXML private void handleNueva() {
@@ -72,12 +69,9 @@ public class UbicacionController {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(u -> {
-            try {
-                ubicacionDAO.save(u);
-                cargar();
-                AlertUtils.mostrarInfo("Éxito", "Ubicación agregada correctamente.");
-            } catch (SQLException ex) { AlertUtils.mostrarErrorBD(ex); }
-        });
+        dialog.showAndWait().ifPresent(u -> ejecutor.ejecutar(() -> ubicacionDAO.save(u), id -> {
+            cargar();
+            AlertUtils.mostrarInfo("Éxito", "Ubicación agregada correctamente.");
+        }));
     }
 }
\ No newline at end of file
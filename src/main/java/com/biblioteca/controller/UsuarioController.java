@@ -1,18 +1,19 @@
 package com.biblioteca.controller;
 
+import com.biblioteca.dao.Orden;
 import com.biblioteca.dao.UsuarioDAO;
 import com.biblioteca.dao.impl.UsuarioDAOImpl;
 import com.biblioteca.model.Usuario;
 import com.biblioteca.util.AlertUtils;
+import com.biblioteca.util.EjecutorBD;
+import com.biblioteca.util.PaginadorTabla;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.List;
 
 public class UsuarioController {
 
@@ -28,10 +29,14 @@ public class UsuarioController {
 
     private final UsuarioDAO usuarioDAO = new UsuarioDAOImpl();
     private ObservableList<Usuario> listaUsuarios;
+    private PaginadorTabla<Usuario> paginador;
+    private final EjecutorBD ejecutor = EjecutorBD.getInstance();
 
     @FXML
     public void initialize() {
         configurarTabla();
+        paginador = new PaginadorTabla<>(this, tablaUsuarios,
+                (despuesDe, limite) -> usuarioDAO.findPageDesde(despuesDe, limite, Orden.ASCENDENTE));
         cargarUsuarios();
     }
 
@@ -53,13 +58,7 @@ public class UsuarioController {
     }
 
     private void cargarUsuarios() {
-        try {
-            List<Usuario> usuarios = usuarioDAO.findAll();
-            listaUsuarios = FXCollections.observableArrayList(usuarios);
-            tablaUsuarios.setItems(listaUsuarios);
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        paginador.reiniciar();
     }
 
     @FXML
@@ -71,17 +70,14 @@ public class UsuarioController {
             return;
         }
 
-        try {
-            usuarioDAO.findByEmail(busqueda).ifPresentOrElse(
-                    usuario -> {
-                        listaUsuarios = FXCollections.observableArrayList(usuario);
-                        tablaUsuarios.setItems(listaUsuarios);
-                    },
-                    () -> AlertUtils.mostrarInfo("Búsqueda", "No se encontró el usuario")
-            );
-        } catch (SQLException e) {
-            AlertUtils.mostrarErrorBD(e);
-        }
+        ejecutor.cargar(this, () -> usuarioDAO.findByEmail(busqueda), resultado ->
+                resultado.ifPresentOrElse(
+                        usuario -> {
+                            listaUsuarios = FXCollections.observableArrayList(usuario);
+                            tablaUsuarios.setItems(listaUsuarios);
+                        },
+                        () -> AlertUtils.mostrarInfo("Búsqueda", "No se encontró el usuario")
+                ));
     }
 
     @FXML
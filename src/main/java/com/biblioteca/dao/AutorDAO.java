@@ -2,10 +2,14 @@ package com.biblioteca.dao;
 
 import com.biblioteca.model.Autor;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Interfaz para operaciones con Autores
+ * Interfaz para operaciones con Autores.
+ * Los nombres de autor también están en el índice del catálogo: tras renombrar un autor,
+ * llamar a {@link com.biblioteca.dao.indice.LibroDAOIndexado#reindexarLibrosDeAutor(Integer)}.
  */
 public interface AutorDAO extends GenericDAO<Autor, Integer> {
 
@@ -24,6 +28,14 @@ public interface AutorDAO extends GenericDAO<Autor, Integer> {
      */
     List<Autor> findByLibro(Integer idLibro) throws SQLException;
 
+    /**
+     * Obtiene los autores de varios libros en una sola consulta (IN-list).
+     * Los libros sin autores no aparecen en el mapa.
+     * @param idsLibro IDs de los libros
+     * @return Mapa id_libro -> autores ordenados por nombre
+     */
+    Map<Integer, List<Autor>> findByLibros(Collection<Integer> idsLibro) throws SQLException;
+
     /**
      * Verifica si un autor tiene libros asociados
      */
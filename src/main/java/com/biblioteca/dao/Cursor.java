@@ -0,0 +1,46 @@
+package com.biblioteca.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Posición de la última fila de una página: los valores de sus columnas de orden
+ * y su clave primaria. La página siguiente empieza justo después de esa posición,
+ * aunque entretanto la fila se haya borrado o modificado.
+ * En las tablas que se recorren por clave primaria los valores de orden están vacíos.
+ *
+ * @param <ID> Tipo de la clave primaria
+ */
+public final class Cursor<ID> {
+
+    private final List<Object> valoresOrden;
+    private final ID clave;
+
+    public Cursor(List<?> valoresOrden, ID clave) {
+        this.valoresOrden = Collections.unmodifiableList(List.copyOf(valoresOrden));
+        this.clave = clave;
+    }
+
+    /**
+     * Cursor de una tabla recorrida solo por clave primaria
+     */
+    public static <ID> Cursor<ID> deClave(ID clave) {
+        return new Cursor<>(List.of(), clave);
+    }
+
+    /**
+     * Valores de las columnas de orden, de la más a la menos significativa
+     */
+    public List<Object> getValoresOrden() {
+        return valoresOrden;
+    }
+
+    public ID getClave() {
+        return clave;
+    }
+
+    @Override
+    public String toString() {
+        return valoresOrden.isEmpty() ? String.valueOf(clave) : valoresOrden + "/" + clave;
+    }
+}
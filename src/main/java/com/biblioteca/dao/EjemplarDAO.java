@@ -1,6 +1,7 @@
 package com.biblioteca.dao;
 
 import com.biblioteca.model.Ejemplar;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
@@ -8,7 +9,7 @@ import java.util.Optional;
 /**
  * Interfaz para operaciones con Ejemplares (copias físicas)
  */
-public interface EjemplarDAO extends GenericDAO<Ejemplar, Integer> {
+public interface EjemplarDAO extends GenericDAO<Ejemplar, Integer>, FiltrableDAO<Ejemplar> {
 
     /**
      * Busca un ejemplar por código de barras
@@ -24,4 +25,25 @@ public interface EjemplarDAO extends GenericDAO<Ejemplar, Integer> {
      * Busca ejemplares disponibles de un libro
      */
     List<Ejemplar> findDisponiblesByLibro(Integer idLibro) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Cambia solo la disponibilidad del ejemplar, y únicamente si tenía la contraria
+     * (UPDATE condicional), usando la conexión (y transacción) del llamador.
+     * @return false si el ejemplar no existe o ya tenía esa disponibilidad
+     */
+    boolean actualizarDisponibilidad(Connection conn, Integer idEjemplar, boolean disponible) throws SQLException;
+
+    /**
+     * Versión por lotes de {@link #actualizarDisponibilidad(Connection, Integer, boolean)}:
+     * los UPDATE condicionales van en un solo lote JDBC.
+     * @return ejemplares que no se pudieron cambiar (no existen o ya tenían esa disponibilidad)
+     */
+    List<Integer> actualizarDisponibilidad(Connection conn, List<Integer> idsEjemplar, boolean disponible)
+            throws SQLException;
+
+    /**
+     * Inserta varios ejemplares en un solo lote JDBC, usando la conexión (y transacción)
+     * del llamador, y les asigna el ID generado
+     */
+    void saveAll(Connection conn, List<Ejemplar> ejemplares) throws SQLException;
+}
@@ -0,0 +1,22 @@
+package com.biblioteca.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Error de la base de datos mientras se recorre un Stream de un DAO.
+ * Los Stream no admiten excepciones comprobadas, así que la SQLException
+ * original viaja como causa.
+ */
+public class ErrorLecturaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ErrorLecturaException(String mensaje, SQLException causa) {
+        super(mensaje, causa);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,15 @@
+package com.biblioteca.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Consultas de agregación para el panel principal
+ */
+public interface EstadisticasDAO {
+
+    /**
+     * Obtiene todos los indicadores del panel en un solo viaje a la base de datos
+     * (COUNT/SUM calculados en el servidor, sin materializar filas)
+     */
+    ResumenEstadisticas obtenerResumen() throws SQLException;
+}
@@ -0,0 +1,32 @@
+package com.biblioteca.dao;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * DAO que permite buscar por criterios combinados resueltos en la base de datos
+ *
+ * @param <T> Tipo de la entidad
+ */
+public interface FiltrableDAO<T> {
+
+    /**
+     * Busca las entidades que cumplen todos los criterios del filtro.
+     * Solo viajan desde la base de datos las filas que coinciden.
+     * @param filtro Criterios a aplicar (vacío equivale a findAll)
+     * @return Entidades que cumplen el filtro, con el mismo orden que findAll
+     * @throws IllegalArgumentException si el filtro usa un criterio que la entidad no admite
+     * @throws SQLException si hay error en la operación
+     */
+    List<T> findByFiltro(Filtro filtro) throws SQLException;
+
+    /**
+     * Igual que {@link #findByFiltro(Filtro)} pero recorriendo las filas con un cursor,
+     * sin cargarlas todas en memoria. Debe cerrarse (try-with-resources) para devolver la conexión.
+     * @param filtro Criterios a aplicar
+     * @return Stream perezoso de las entidades que cumplen el filtro, en orden de clave primaria
+     * @throws SQLException si hay error al abrir la consulta
+     */
+    Stream<T> streamByFiltro(Filtro filtro) throws SQLException;
+}
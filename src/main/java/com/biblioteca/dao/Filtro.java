@@ -0,0 +1,91 @@
+package com.biblioteca.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Criterios de búsqueda combinables que cada DAO traduce a un WHERE parametrizado.
+ * Un valor null quita el criterio, así los combos con "Todos" no necesitan un caso aparte:
+ * <pre>
+ *     Filtro.nuevo().estado("Pendiente").usuario(idUsuario).desde(inicioMes)
+ * </pre>
+ * El rango de fechas es semiabierto: incluye "desde" y excluye "hasta".
+ */
+public final class Filtro {
+
+    /**
+     * Criterios disponibles. Cada DAO decide sobre qué columna se aplica cada uno
+     * y rechaza los que no tienen sentido para su entidad.
+     */
+    public enum Campo {
+        ESTADO,
+        USUARIO,
+        LIBRO,
+        DISPONIBLE,
+        DESDE,
+        HASTA
+    }
+
+    private final Map<Campo, Object> criterios = new EnumMap<>(Campo.class);
+
+    private Filtro() {
+    }
+
+    public static Filtro nuevo() {
+        return new Filtro();
+    }
+
+    /**
+     * Estado por su descripción (la misma que se guarda en la base de datos)
+     */
+    public Filtro estado(String estado) {
+        return poner(Campo.ESTADO, estado);
+    }
+
+    public Filtro usuario(Integer idUsuario) {
+        return poner(Campo.USUARIO, idUsuario);
+    }
+
+    public Filtro libro(Integer idLibro) {
+        return poner(Campo.LIBRO, idLibro);
+    }
+
+    public Filtro disponible(Boolean disponible) {
+        return poner(Campo.DISPONIBLE, disponible);
+    }
+
+    public Filtro desde(LocalDateTime desde) {
+        return poner(Campo.DESDE, desde);
+    }
+
+    public Filtro hasta(LocalDateTime hasta) {
+        return poner(Campo.HASTA, hasta);
+    }
+
+    /**
+     * Criterios activos en el orden de {@link Campo}
+     */
+    public Map<Campo, Object> getCriterios() {
+        return Collections.unmodifiableMap(criterios);
+    }
+
+    public boolean isVacio() {
+        return criterios.isEmpty();
+    }
+
+    private Filtro poner(Campo campo, Object valor) {
+        if (valor == null) {
+            criterios.remove(campo);
+        } else {
+            criterios.put(campo, valor);
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "Filtro" + criterios;
+    }
+}
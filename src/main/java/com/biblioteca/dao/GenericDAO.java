@@ -3,6 +3,8 @@ package com.biblioteca.dao;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Interfaz genérica para operaciones CRUD estándar.
@@ -52,6 +54,57 @@ public interface GenericDAO<T, ID> {
      */
     List<T> findAll() throws SQLException;
 
+    /**
+     * Recorre todas las entidades sin cargarlas a la vez en memoria. Los DAOs de tablas
+     * grandes lo sobrescriben con un cursor en el servidor; por defecto usa findAll().
+     * El Stream retiene una conexión hasta que se cierra, así que debe usarse con
+     * try-with-resources. Un error de lectura durante el recorrido llega como
+     * {@link ErrorLecturaException}.
+     * @return Stream perezoso de las entidades
+     * @throws SQLException si hay error al abrir la consulta
+     */
+    default Stream<T> streamAll() throws SQLException {
+        return findAll().stream();
+    }
+
+    /**
+     * Aplica la acción a cada entidad usando {@link #streamAll()} y libera la conexión al terminar
+     * @param accion Acción a aplicar a cada entidad
+     * @throws SQLException si hay error en la operación
+     */
+    default void forEachAll(Consumer<? super T> accion) throws SQLException {
+        try (Stream<T> entidades = streamAll()) {
+            entidades.forEach(accion);
+        } catch (ErrorLecturaException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Obtiene una página de entidades usando paginación por clave (keyset) en lugar de OFFSET.
+     * Se ordenan por clave primaria, salvo libros (título), usuarios (apellido y nombre) y
+     * autores (nombre), que conservan el orden de findAll con la clave primaria como desempate.
+     * Ejemplares, multas y reservas se recorren por ID a propósito (orden de alta).
+     * Para recorrer una tabla completa conviene {@link #findPageDesde}: en libros, usuarios
+     * y autores este método tiene que leer primero los valores de orden de la fila indicada.
+     * @param despuesDe ID de la última entidad de la página anterior (null para la primera página)
+     * @param limite Número máximo de entidades de la página
+     * @param orden Dirección del recorrido por clave
+     * @return Página con las entidades y la clave para continuar
+     * @throws SQLException si hay error en la operación
+     */
+    Pagina<T, ID> findPage(ID despuesDe, int limite, Orden orden) throws SQLException;
+
+    /**
+     * Como {@link #findPage}, pero continúa desde el cursor de la página anterior
+     * ({@link Pagina#getCursor()}), sin volver a leer su última fila: el recorrido sigue
+     * igual aunque esa fila se haya borrado o modificado entretanto.
+     * @param despuesDe Cursor de la página anterior (null para la primera página)
+     */
+    default Pagina<T, ID> findPageDesde(Cursor<ID> despuesDe, int limite, Orden orden) throws SQLException {
+        return findPage(despuesDe == null ? null : despuesDe.getClave(), limite, orden);
+    }
+
     /**
      * Cuenta el total de registros
      * @return Número total de entidades
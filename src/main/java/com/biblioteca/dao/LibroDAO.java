@@ -2,7 +2,9 @@ package com.biblioteca.dao;
 
 import com.biblioteca.model.Libro;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,6 +29,24 @@ public interface LibroDAO extends GenericDAO<Libro, Integer> {
      */
     List<Libro> findByTitulo(String titulo) throws SQLException;
 
+    /**
+     * Busca varios libros por ID (con autores) respetando el orden de la lista recibida
+     * @param ids IDs de los libros; los que no existen se omiten
+     * @return Libros en el mismo orden que los IDs
+     * @throws SQLException si hay error en la consulta
+     */
+    List<Libro> findByIds(List<Integer> ids) throws SQLException;
+
+    /**
+     * Obtiene todos los libros, cargando o no sus autores.
+     * Sin autores evita la consulta adicional a Libro_Autor; útil para combos
+     * que solo muestran el título.
+     * @param incluirAutores true para cargar la lista de autores de cada libro
+     * @return Lista de libros ordenada por título
+     * @throws SQLException si hay error en la consulta
+     */
+    List<Libro> findAll(boolean incluirAutores) throws SQLException;
+
     /**
      * Busca libros por categoría
      * @param idCategoria ID de la categoría
@@ -61,6 +81,14 @@ public interface LibroDAO extends GenericDAO<Libro, Integer> {
      */
     int countEjemplaresDisponibles(Integer idLibro) throws SQLException;
 
+    /**
+     * Cuenta los ejemplares disponibles de varios libros con una sola consulta GROUP BY
+     * @param idsLibro IDs de los libros
+     * @return Mapa id_libro -> ejemplares disponibles (los libros sin disponibles no aparecen)
+     * @throws SQLException si hay error en la consulta
+     */
+    Map<Integer, Integer> countEjemplaresDisponibles(Collection<Integer> idsLibro) throws SQLException;
+
     /**
      * Actualiza la lista de autores asociados a un libro existente.
      * Elimina las relaciones anteriores y crea las nuevas.
@@ -1,13 +1,14 @@
 package com.biblioteca.dao;
 
 import com.biblioteca.model.Multa;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 
 /**
  * Interfaz para operaciones con Multas
  */
-public interface MultaDAO extends GenericDAO<Multa, Integer> {
+public interface MultaDAO extends GenericDAO<Multa, Integer>, FiltrableDAO<Multa> {
 
     /**
      * Busca multas de un usuario por estado de pago
@@ -23,4 +24,35 @@ public interface MultaDAO extends GenericDAO<Multa, Integer> {
      * Busca la multa asociada a un préstamo
      */
     Multa findByPrestamo(Integer idPrestamo) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Guarda una multa usando la conexión (y transacción) del llamador
+     */
+    Integer save(Connection conn, Multa multa) throws SQLException;
+
+    /**
+     * Acumula la multa de un préstamo: si ya tiene una multa pendiente actualiza su monto y motivo;
+     * si no tiene ninguna, la crea. Un préstamo tiene como mucho una multa.
+     */
+    void acumularPorPrestamo(Connection conn, Multa multa) throws SQLException;
+
+    /**
+     * Versión por lotes de {@link #acumularPorPrestamo}: un lote de UPDATEs de las pendientes
+     * y otro de INSERTs condicionales para los préstamos sin multa
+     */
+    void acumularPorPrestamos(Connection conn, List<Multa> multas) throws SQLException;
+
+    /**
+     * Crea, con un solo INSERT ... SELECT, la multa por retraso de los préstamos atrasados
+     * que aún no tienen ninguna.
+     * @return número de multas creadas
+     */
+    int generarMultasPorRetraso(Connection conn, double montoPorDia) throws SQLException;
+
+    /**
+     * Recalcula, con un solo UPDATE, el monto de las multas pendientes de préstamos
+     * que siguen atrasados. Solo toca las filas cuyo monto cambia.
+     * @return número de multas actualizadas
+     */
+    int actualizarMultasPorRetraso(Connection conn, double montoPorDia) throws SQLException;
+}
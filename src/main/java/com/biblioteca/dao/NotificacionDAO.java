@@ -0,0 +1,66 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.model.Notificacion;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bandeja de salida de avisos a usuarios. Los métodos encolar* reciben la conexión del
+ * llamador para escribir el aviso en la misma transacción que el cambio que lo origina;
+ * cada evento (tipo + referencia) se encola como mucho una vez.
+ */
+public interface NotificacionDAO {
+
+    /**
+     * Encola el aviso de que la reserva ya tiene un ejemplar disponible
+     * @return 1 si se encoló, 0 si ya existía o la reserva no existe
+     */
+    int encolarAvisoReserva(Connection conn, Integer idReserva) throws SQLException;
+
+    /**
+     * Encola el aviso de la multa pendiente de un préstamo, si aún no se avisó
+     */
+    int encolarAvisoMultaDePrestamo(Connection conn, Integer idPrestamo) throws SQLException;
+
+    /**
+     * Igual que {@link #encolarAvisoMultaDePrestamo} para varios préstamos en un solo INSERT ... SELECT
+     */
+    int encolarAvisosMultasDePrestamos(Connection conn, Collection<Integer> idsPrestamo) throws SQLException;
+
+    /**
+     * Encola, con un solo INSERT ... SELECT, el aviso de las multas pendientes
+     * generadas desde la fecha indicada que aún no tienen aviso
+     * @return número de avisos encolados
+     */
+    int encolarAvisosMultasDesde(Connection conn, LocalDateTime desde) throws SQLException;
+
+    /**
+     * Bloquea hasta {@code limite} avisos pendientes cuyo próximo intento ya llegó y los
+     * aparta hasta {@code arrendadaHasta}, para que otro despachador no los envíe a la vez.
+     * Debe llamarse dentro de una transacción.
+     */
+    List<Notificacion> reclamarLote(Connection conn, int limite, LocalDateTime ahora,
+                                    LocalDateTime arrendadaHasta) throws SQLException;
+
+    /**
+     * Marca los avisos como enviados (un solo lote de UPDATEs)
+     */
+    void marcarEnviadas(List<Integer> ids, LocalDateTime fechaEnvio) throws SQLException;
+
+    /**
+     * Guarda el estado, intentos, próximo intento y último error tras un envío fallido
+     */
+    void reprogramar(Notificacion notificacion) throws SQLException;
+
+    long countPendientes() throws SQLException;
+
+    /**
+     * Fecha de creación del aviso pendiente más antiguo, para medir el retraso de la bandeja
+     */
+    Optional<LocalDateTime> findCreacionPendienteMasAntigua() throws SQLException;
+}
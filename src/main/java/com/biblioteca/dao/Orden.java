@@ -0,0 +1,31 @@
+package com.biblioteca.dao;
+
+/**
+ * Dirección de recorrido para la paginación por clave (keyset)
+ */
+public enum Orden {
+    ASCENDENTE("ASC", ">"),
+    DESCENDENTE("DESC", "<");
+
+    private final String sql;
+    private final String comparador;
+
+    Orden(String sql, String comparador) {
+        this.sql = sql;
+        this.comparador = comparador;
+    }
+
+    /**
+     * Palabra clave para ORDER BY
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Operador que selecciona las filas posteriores a la última clave vista
+     */
+    public String getComparador() {
+        return comparador;
+    }
+}
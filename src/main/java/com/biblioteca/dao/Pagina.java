@@ -0,0 +1,78 @@
+package com.biblioteca.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de resultados obtenida con paginación por clave (keyset / seek).
+ * Para pedir la siguiente página se pasa getCursor() a findPageDesde (o, en las tablas
+ * que se recorren por clave primaria, getUltimaClave() a findPage).
+ *
+ * @param <T> Tipo de la entidad
+ * @param <ID> Tipo de la clave primaria
+ */
+public class Pagina<T, ID> {
+
+    private final List<T> elementos;
+    private final Cursor<ID> cursor;
+    private final boolean hayMas;
+
+    public Pagina(List<T> elementos, ID ultimaClave, boolean hayMas) {
+        this(elementos, ultimaClave == null ? null : Cursor.deClave(ultimaClave), hayMas);
+    }
+
+    private Pagina(List<T> elementos, Cursor<ID> cursor, boolean hayMas) {
+        this.elementos = Collections.unmodifiableList(elementos);
+        this.cursor = cursor;
+        this.hayMas = hayMas;
+    }
+
+    /**
+     * Página cuyo recorrido sigue desde la posición (valores de orden y clave) de su última fila
+     */
+    public static <T, ID> Pagina<T, ID> conCursor(List<T> elementos, Cursor<ID> cursor, boolean hayMas) {
+        return new Pagina<>(elementos, cursor, hayMas);
+    }
+
+    public static <T, ID> Pagina<T, ID> vacia() {
+        return new Pagina<T, ID>(Collections.emptyList(), (Cursor<ID>) null, false);
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Clave del último elemento de la página (null si está vacía)
+     */
+    public ID getUltimaClave() {
+        return cursor == null ? null : cursor.getClave();
+    }
+
+    /**
+     * Posición del último elemento de la página, para pedir la siguiente (null si está vacía)
+     */
+    public Cursor<ID> getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Indica si existen más filas después de esta página
+     */
+    public boolean hayMas() {
+        return hayMas;
+    }
+
+    public boolean isVacia() {
+        return elementos.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Pagina{" +
+                "elementos=" + elementos.size() +
+                ", cursor=" + cursor +
+                ", hayMas=" + hayMas +
+                '}';
+    }
+}
@@ -2,13 +2,17 @@ package com.biblioteca.dao;
 
 import com.biblioteca.model.Prestamo;
 import com.biblioteca.model.enums.EstadoPrestamo;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Interfaz para operaciones con Préstamos
  */
-public interface PrestamoDAO extends GenericDAO<Prestamo, Integer> {
+public interface PrestamoDAO extends GenericDAO<Prestamo, Integer>, FiltrableDAO<Prestamo> {
 
     /**
      * Busca préstamos de un usuario por estado
@@ -29,4 +33,72 @@ public interface PrestamoDAO extends GenericDAO<Prestamo, Integer> {
      * Cuenta préstamos activos de un usuario
      */
     int countPrestamosByUsuarioAndEstado(Integer idUsuario, EstadoPrestamo estado) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Guarda un préstamo usando la conexión (y transacción) del llamador
+     */
+    Integer save(Connection conn, Prestamo prestamo) throws SQLException;
+
+    /**
+     * Lee en una sola consulta todo lo que hace falta para validar un préstamo
+     * (multas pendientes, préstamos activos y estado del ejemplar) y bloquea con
+     * FOR UPDATE las filas del usuario y del ejemplar. Debe llamarse dentro de una transacción.
+     * @return vacío si el usuario no existe
+     */
+    Optional<ValidacionPrestamo> bloquearParaPrestamo(Connection conn, Integer idUsuario, Integer idEjemplar)
+            throws SQLException;
+
+    /**
+     * Actualiza un préstamo usando la conexión (y transacción) del llamador
+     */
+    boolean update(Connection conn, Prestamo prestamo) throws SQLException;
+
+    /**
+     * Lee un préstamo y bloquea su fila (y la de su ejemplar) con FOR UPDATE
+     * para que dos devoluciones simultáneas se serialicen. Debe llamarse dentro de una transacción.
+     * El usuario del resultado solo lleva su id; el ejemplar, su id y el id de su libro.
+     */
+    Optional<Prestamo> bloquearParaDevolucion(Connection conn, Integer idPrestamo) throws SQLException;
+
+    /**
+     * Marca como atrasados, con un solo UPDATE, hasta {@code limite} préstamos activos
+     * cuya fecha de devolución esperada ya pasó.
+     * @return número de préstamos marcados (menor que el límite cuando ya no quedan)
+     */
+    int marcarAtrasados(Connection conn, int limite) throws SQLException;
+
+    /**
+     * Versión por lotes de {@link #bloquearParaPrestamo}: una consulta para todos los usuarios
+     * y otra para todos los ejemplares, ambas FOR UPDATE. Debe llamarse dentro de una transacción.
+     */
+    ValidacionLote bloquearParaPrestamos(Connection conn, Collection<Integer> idsUsuario,
+                                         Collection<Integer> idsEjemplar) throws SQLException;
+
+    /**
+     * Inserta los préstamos en un solo lote JDBC y asigna a cada uno su id generado
+     */
+    void saveAll(Connection conn, List<Prestamo> prestamos) throws SQLException;
+
+    /**
+     * Versión por lotes de {@link #bloquearParaDevolucion}: lee y bloquea los préstamos en una consulta
+     * @return préstamos encontrados por id (los que no existen no aparecen)
+     */
+    Map<Integer, Prestamo> bloquearParaDevoluciones(Connection conn, Collection<Integer> idsPrestamo)
+            throws SQLException;
+
+    /**
+     * Actualiza fecha de devolución y estado de los préstamos en un solo lote JDBC
+     */
+    void updateAll(Connection conn, List<Prestamo> prestamos) throws SQLException;
+
+    /**
+     * Préstamo abierto (Activo o Atrasado) de cada ejemplar indicado, en una consulta
+     * @return id del préstamo por id del ejemplar (los ejemplares sin préstamo abierto no aparecen)
+     */
+    Map<Integer, Integer> findPrestamosAbiertosByEjemplares(Collection<Integer> idsEjemplar) throws SQLException;
+
+    /**
+     * Busca varios préstamos por ID, con usuario, código y título (los que no existen se omiten)
+     */
+    List<Prestamo> findByIds(Collection<Integer> ids) throws SQLException;
+}
@@ -3,13 +3,17 @@ package com.biblioteca.dao;
 import com.biblioteca.model.Reserva;
 import com.biblioteca.model.enums.EstadoReserva;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interfaz para operaciones con Reservas
  */
-public interface ReservaDAO extends GenericDAO<Reserva, Integer> {
+public interface ReservaDAO extends GenericDAO<Reserva, Integer>, FiltrableDAO<Reserva> {
 
     /**
      * Busca reservas de un usuario por estado
@@ -27,10 +31,29 @@ public interface ReservaDAO extends GenericDAO<Reserva, Integer> {
     List<Reserva> findByLibro(Integer idLibro) throws SQLException;
 
     /**
-     * Busca reservas pendientes de un libro
+     * Busca reservas pendientes de un libro, en orden de llegada (la primera es la siguiente en la cola)
      */
     List<Reserva> findReservasPendientesByLibro(Integer idLibro) throws SQLException;
 
+    /**
+     * Bloquea (FOR UPDATE) la primera reserva pendiente de un libro en orden de llegada,
+     * para que ninguna otra transacción la notifique o cancele antes del commit
+     * @return id de la reserva, o vacío si el libro no tiene reservas pendientes
+     */
+    Optional<Integer> bloquearPrimeraPendiente(Connection conn, Integer idLibro) throws SQLException;
+
+    /**
+     * De los libros indicados, los que tienen alguna reserva pendiente (una sola consulta)
+     */
+    Set<Integer> findLibrosConPendientes(Connection conn, Collection<Integer> idsLibro) throws SQLException;
+
+    /**
+     * Cambia el estado de una reserva solo si sigue en el estado esperado
+     * @return false si otra operación ya la había cambiado
+     */
+    boolean cambiarEstado(Connection conn, Integer idReserva, EstadoReserva esperado, EstadoReserva nuevo)
+            throws SQLException;
+
     /**
      * Verifica si un usuario ya tiene una reserva activa para un libro
      */
@@ -0,0 +1,50 @@
+package com.biblioteca.dao;
+
+import java.math.BigDecimal;
+
+/**
+ * Indicadores del panel principal, calculados en la base de datos con una sola consulta
+ */
+public final class ResumenEstadisticas {
+
+    private final long totalLibros;
+    private final long prestamosActivos;
+    private final long prestamosAtrasados;
+    private final long totalUsuarios;
+    private final long multasPendientes;
+    private final BigDecimal montoMultasPendientes;
+
+    public ResumenEstadisticas(long totalLibros, long prestamosActivos, long prestamosAtrasados,
+                               long totalUsuarios, long multasPendientes, BigDecimal montoMultasPendientes) {
+        this.totalLibros = totalLibros;
+        this.prestamosActivos = prestamosActivos;
+        this.prestamosAtrasados = prestamosAtrasados;
+        this.totalUsuarios = totalUsuarios;
+        this.multasPendientes = multasPendientes;
+        this.montoMultasPendientes = montoMultasPendientes;
+    }
+
+    public long getTotalLibros() {
+        return totalLibros;
+    }
+
+    public long getPrestamosActivos() {
+        return prestamosActivos;
+    }
+
+    public long getPrestamosAtrasados() {
+        return prestamosAtrasados;
+    }
+
+    public long getTotalUsuarios() {
+        return totalUsuarios;
+    }
+
+    public long getMultasPendientes() {
+        return multasPendientes;
+    }
+
+    public BigDecimal getMontoMultasPendientes() {
+        return montoMultasPendientes;
+    }
+}
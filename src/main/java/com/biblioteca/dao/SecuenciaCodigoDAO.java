@@ -0,0 +1,18 @@
+package com.biblioteca.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Contadores para numerar los códigos de barras de los ejemplares, uno por prefijo
+ */
+public interface SecuenciaCodigoDAO {
+
+    /**
+     * Reserva un bloque de números consecutivos del prefijo, bloqueando su fila hasta el
+     * final de la transacción del llamador. La primera vez que se usa un prefijo el contador
+     * arranca después del mayor número que ya tengan los ejemplares con ese prefijo.
+     * @return primer número del bloque
+     */
+    int reservarBloque(Connection conn, String prefijo, int cantidad) throws SQLException;
+}
@@ -23,4 +23,11 @@ public interface UsuarioDAO extends GenericDAO<Usuario, Integer> {
      * Verifica si un email ya está registrado
      */
     boolean existsByEmail(String email) throws SQLException;
+
+    /**
+     * Sustituye la contraseña guardada solo si sigue siendo la esperada, para que una
+     * actualización diferida no pise un cambio hecho mientras tanto
+     * @return false si la contraseña ya había cambiado (o el usuario no existe)
+     */
+    boolean updatePassword(Integer idUsuario, String passwordEsperada, String passwordNueva) throws SQLException;
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.model.enums.EstadoFisico;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Datos para validar un lote de préstamos, leídos con una consulta por conjunto para los
+ * usuarios y otra para los ejemplares (ambas FOR UPDATE). Cada par usuario/ejemplar se
+ * valida con el mismo {@link ValidacionPrestamo} que un préstamo individual.
+ */
+public final class ValidacionLote {
+
+    /** Fila bloqueada de un usuario con sus contadores */
+    public record DatosUsuario(String nombre, String apellido, int multasPendientes, int prestamosActivos) {
+    }
+
+    /** Fila bloqueada de un ejemplar */
+    public record DatosEjemplar(String codigoBarras, boolean disponible, EstadoFisico estadoFisico) {
+    }
+
+    private final Map<Integer, DatosUsuario> usuarios;
+    private final Map<Integer, DatosEjemplar> ejemplares;
+
+    public ValidacionLote(Map<Integer, DatosUsuario> usuarios, Map<Integer, DatosEjemplar> ejemplares) {
+        this.usuarios = usuarios;
+        this.ejemplares = ejemplares;
+    }
+
+    /**
+     * @return vacío si el usuario no existe (igual que {@link PrestamoDAO#bloquearParaPrestamo})
+     */
+    public Optional<ValidacionPrestamo> para(Integer idUsuario, Integer idEjemplar) {
+        DatosUsuario usuario = usuarios.get(idUsuario);
+        if (usuario == null) {
+            return Optional.empty();
+        }
+        DatosEjemplar ejemplar = ejemplares.get(idEjemplar);
+        return Optional.of(new ValidacionPrestamo(
+                usuario.nombre(),
+                usuario.apellido(),
+                usuario.multasPendientes(),
+                usuario.prestamosActivos(),
+                ejemplar != null,
+                ejemplar != null ? ejemplar.codigoBarras() : null,
+                ejemplar != null && ejemplar.disponible(),
+                ejemplar != null ? ejemplar.estadoFisico() : null));
+    }
+}
@@ -0,0 +1,65 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.model.enums.EstadoFisico;
+
+/**
+ * Datos necesarios para validar un préstamo, leídos en una sola consulta
+ * que además bloquea las filas del usuario y del ejemplar hasta el fin de la transacción.
+ */
+public final class ValidacionPrestamo {
+
+    private final String nombreUsuario;
+    private final String apellidoUsuario;
+    private final int multasPendientes;
+    private final int prestamosActivos;
+    private final boolean ejemplarExiste;
+    private final String codigoBarras;
+    private final boolean disponible;
+    private final EstadoFisico estadoFisico;
+
+    public ValidacionPrestamo(String nombreUsuario, String apellidoUsuario,
+                              int multasPendientes, int prestamosActivos,
+                              boolean ejemplarExiste, String codigoBarras,
+                              boolean disponible, EstadoFisico estadoFisico) {
+        this.nombreUsuario = nombreUsuario;
+        this.apellidoUsuario = apellidoUsuario;
+        this.multasPendientes = multasPendientes;
+        this.prestamosActivos = prestamosActivos;
+        this.ejemplarExiste = ejemplarExiste;
+        this.codigoBarras = codigoBarras;
+        this.disponible = disponible;
+        this.estadoFisico = estadoFisico;
+    }
+
+    public String getNombreUsuario() {
+        return nombreUsuario;
+    }
+
+    public String getApellidoUsuario() {
+        return apellidoUsuario;
+    }
+
+    public int getMultasPendientes() {
+        return multasPendientes;
+    }
+
+    public int getPrestamosActivos() {
+        return prestamosActivos;
+    }
+
+    public boolean isEjemplarExiste() {
+        return ejemplarExiste;
+    }
+
+    public String getCodigoBarras() {
+        return codigoBarras;
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    public EstadoFisico getEstadoFisico() {
+        return estadoFisico;
+    }
+}
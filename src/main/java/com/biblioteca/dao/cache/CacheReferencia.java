@@ -0,0 +1,98 @@
+package com.biblioteca.dao.cache;
+
+import com.biblioteca.dao.CategoriaDAO;
+import com.biblioteca.dao.EditorialDAO;
+import com.biblioteca.dao.UbicacionDAO;
+import com.biblioteca.dao.impl.CategoriaDAOImpl;
+import com.biblioteca.dao.impl.EditorialDAOImpl;
+import com.biblioteca.dao.impl.UbicacionDAOImpl;
+import com.biblioteca.model.Categoria;
+import com.biblioteca.model.Editorial;
+import com.biblioteca.model.Ubicacion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Instancias compartidas de los DAOs en caché para los datos de referencia
+ * (categorías, editoriales y ubicaciones). Todos los controladores deben
+ * usar estas instancias para que sus escrituras invaliden la misma copia.
+ */
+public final class CacheReferencia {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheReferencia.class);
+
+    private static final CategoriaEnCache CATEGORIAS = new CategoriaEnCache();
+    private static final EditorialEnCache EDITORIALES = new EditorialEnCache();
+    private static final UbicacionEnCache UBICACIONES = new UbicacionEnCache();
+
+    private static final List<DAOEnCache<?, ?>> TODAS = List.of(CATEGORIAS, EDITORIALES, UBICACIONES);
+
+    private CacheReferencia() {
+    }
+
+    public static CategoriaDAO categorias() {
+        return CATEGORIAS;
+    }
+
+    public static EditorialDAO editoriales() {
+        return EDITORIALES;
+    }
+
+    public static UbicacionDAO ubicaciones() {
+        return UBICACIONES;
+    }
+
+    /**
+     * Carga todas las tablas de referencia (al iniciar la aplicación, en segundo plano)
+     */
+    public static void precargar() throws SQLException {
+        long inicio = System.nanoTime();
+        for (DAOEnCache<?, ?> cache : TODAS) {
+            cache.precargar();
+        }
+        logger.info("Datos de referencia precargados en {} ms", (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Descarta todas las copias (por ejemplo, tras cambios hechos fuera de la aplicación)
+     */
+    public static void invalidarTodo() {
+        TODAS.forEach(DAOEnCache::invalidar);
+    }
+
+    /**
+     * Aciertos y fallos de cada caché, para diagnóstico
+     */
+    public static String estadisticas() {
+        StringBuilder sb = new StringBuilder();
+        for (DAOEnCache<?, ?> cache : TODAS) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(cache.getNombre()).append('=')
+                    .append(cache.getAciertos()).append('/').append(cache.getFallos());
+        }
+        return "aciertos/fallos {" + sb + "}";
+    }
+
+    private static final class CategoriaEnCache extends DAOEnCache<Categoria, Integer> implements CategoriaDAO {
+        CategoriaEnCache() {
+            super("Categorias", new CategoriaDAOImpl(), Categoria::getIdCategoria);
+        }
+    }
+
+    private static final class EditorialEnCache extends DAOEnCache<Editorial, Integer> implements EditorialDAO {
+        EditorialEnCache() {
+            super("Editoriales", new EditorialDAOImpl(), Editorial::getIdEditorial);
+        }
+    }
+
+    private static final class UbicacionEnCache extends DAOEnCache<Ubicacion, Integer> implements UbicacionDAO {
+        UbicacionEnCache() {
+            super("Ubicaciones", new UbicacionDAOImpl(), Ubicacion::getIdUbicacion);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.biblioteca.dao.cache;
+
+import com.biblioteca.dao.Cursor;
+import com.biblioteca.dao.GenericDAO;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Decorador que mantiene en memoria una tabla pequeña y casi estática.
+ *
+ * La primera lectura carga la tabla completa con findAll() del DAO real; las siguientes
+ * (findAll, findById, count, existsById) se sirven desde esa copia. Cualquier escritura
+ * hecha a través del decorador invalida la copia y la próxima lectura vuelve a cargarla.
+ * Las entidades devueltas son compartidas: no deben modificarse fuera de save/update.
+ *
+ * @param <T> Tipo de la entidad
+ * @param <ID> Tipo de la clave primaria
+ */
+public abstract class DAOEnCache<T, ID> implements GenericDAO<T, ID> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DAOEnCache.class);
+
+    /**
+     * Copia inmutable de la tabla: la lista conserva el orden de findAll()
+     */
+    private record Contenido<T, ID>(List<T> lista, Map<ID, T> porId) {
+    }
+
+    private final String nombre;
+    private final GenericDAO<T, ID> delegado;
+    private final Function<T, ID> clave;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    private volatile Contenido<T, ID> contenido;
+    // Se incrementa en cada invalidación; una carga que empezó antes no publica su resultado
+    private long generacion;
+
+    protected DAOEnCache(String nombre, GenericDAO<T, ID> delegado, Function<T, ID> clave) {
+        this.nombre = nombre;
+        this.delegado = delegado;
+        this.clave = clave;
+    }
+
+    // ---- Lecturas desde memoria ----
+
+    @Override
+    public List<T> findAll() throws SQLException {
+        return obtener().lista();
+    }
+
+    @Override
+    public Optional<T> findById(ID id) throws SQLException {
+        return Optional.ofNullable(obtener().porId().get(id));
+    }
+
+    @Override
+    public long count() throws SQLException {
+        return obtener().lista().size();
+    }
+
+    @Override
+    public boolean existsById(ID id) throws SQLException {
+        return obtener().porId().containsKey(id);
+    }
+
+    @Override
+    public Pagina<T, ID> findPage(ID despuesDe, int limite, Orden orden) throws SQLException {
+        return delegado.findPage(despuesDe, limite, orden);
+    }
+
+    @Override
+    public Pagina<T, ID> findPageDesde(Cursor<ID> despuesDe, int limite, Orden orden) throws SQLException {
+        return delegado.findPageDesde(despuesDe, limite, orden);
+    }
+
+    // ---- Escrituras: van al DAO real e invalidan ----
+
+    @Override
+    public ID save(T entity) throws SQLException {
+        try {
+            return delegado.save(entity);
+        } finally {
+            invalidar();
+        }
+    }
+
+    @Override
+    public boolean update(T entity) throws SQLException {
+        try {
+            return delegado.update(entity);
+        } finally {
+            invalidar();
+        }
+    }
+
+    @Override
+    public boolean delete(ID id) throws SQLException {
+        try {
+            return delegado.delete(id);
+        } finally {
+            invalidar();
+        }
+    }
+
+    /**
+     * Descarta la copia en memoria; la siguiente lectura vuelve a la base de datos
+     */
+    public void invalidar() {
+        synchronized (this) {
+            generacion++;
+            contenido = null;
+        }
+        logger.debug("Cache de {} invalidada", nombre);
+    }
+
+    /**
+     * Carga la tabla si aún no está en memoria
+     */
+    public void precargar() throws SQLException {
+        obtener();
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    private Contenido<T, ID> obtener() throws SQLException {
+        Contenido<T, ID> actual = contenido;
+        if (actual != null) {
+            aciertos.incrementAndGet();
+            return actual;
+        }
+
+        fallos.incrementAndGet();
+        long generacionInicial;
+        synchronized (this) {
+            generacionInicial = generacion;
+        }
+
+        List<T> lista = delegado.findAll();
+        Map<ID, T> porId = new LinkedHashMap<>();
+        for (T entidad : lista) {
+            porId.put(clave.apply(entidad), entidad);
+        }
+        Contenido<T, ID> cargado = new Contenido<>(Collections.unmodifiableList(lista),
+                Collections.unmodifiableMap(porId));
+
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                contenido = cargado;
+            }
+        }
+        logger.debug("Cache de {} cargada con {} filas", nombre, lista.size());
+        return cargado;
+    }
+}
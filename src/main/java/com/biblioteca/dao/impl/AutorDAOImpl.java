@@ -1,6 +1,9 @@
 package com.biblioteca.dao.impl;
 
 import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.Cursor;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.model.Autor;
 import com.biblioteca.util.DatabaseConnection;
 import org.slf4j.Logger;
@@ -8,7 +11,11 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -33,6 +40,11 @@ public class AutorDAOImpl implements AutorDAO {
     private static final String SELECT_ALL =
             "SELECT * FROM Autores ORDER BY nombre";
 
+    // Páginas por nombre, como findAll; la clave es (nombre, id_autor)
+    // CREATE INDEX idx_autores_nombre ON Autores (nombre, id_autor)
+    private static final String SELECT_PAGINA =
+            "SELECT a.* FROM Autores a";
+
     private static final String SELECT_BY_NOMBRE =
             "SELECT * FROM Autores WHERE nombre LIKE ? ORDER BY nombre";
 
@@ -44,6 +56,14 @@ public class AutorDAOImpl implements AutorDAO {
                     "INNER JOIN Libro_Autor la ON a.id_autor = la.id_autor " +
                     "WHERE la.id_libro = ? ORDER BY a.nombre";
 
+    private static final String SELECT_BY_LIBROS_PREFIX =
+            "SELECT la.id_libro AS libro_ref, a.* FROM Autores a " +
+                    "INNER JOIN Libro_Autor la ON a.id_autor = la.id_autor " +
+                    "WHERE la.id_libro IN (";
+
+    // Máximo de parámetros por consulta IN para no generar sentencias enormes
+    private static final int TAMANIO_LOTE_IN = 1000;
+
     private static final String COUNT_LIBROS =
             "SELECT COUNT(*) FROM Libro_Autor WHERE id_autor = ?";
 
@@ -256,6 +276,46 @@ public class AutorDAOImpl implements AutorDAO {
         return autores;
     }
 
+    @Override
+    public Map<Integer, List<Autor>> findByLibros(Collection<Integer> idsLibro) throws SQLException {
+        if (idsLibro == null || idsLibro.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        logger.debug("Buscando autores de {} libros en lote", idsLibro.size());
+
+        Map<Integer, List<Autor>> autoresPorLibro = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(idsLibro);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            for (int desde = 0; desde < ids.size(); desde += TAMANIO_LOTE_IN) {
+                List<Integer> lote = ids.subList(desde, Math.min(desde + TAMANIO_LOTE_IN, ids.size()));
+                String sql = SELECT_BY_LIBROS_PREFIX +
+                        String.join(", ", Collections.nCopies(lote.size(), "?")) +
+                        ") ORDER BY a.nombre";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < lote.size(); i++) {
+                        stmt.setInt(i + 1, lote.get(i));
+                    }
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            autoresPorLibro
+                                    .computeIfAbsent(rs.getInt("libro_ref"), k -> new ArrayList<>())
+                                    .add(mapResultSetToAutor(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al buscar autores de {} libros", idsLibro.size(), e);
+            throw e;
+        }
+
+        return autoresPorLibro;
+    }
+
     @Override
     public boolean tieneLibrosAsociados(Integer idAutor) throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -273,6 +333,42 @@ public class AutorDAOImpl implements AutorDAO {
         return false;
     }
 
+    @Override
+    public Pagina<Autor, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        if (despuesDe == null) {
+            return findPageDesde(null, limite, orden);
+        }
+        Autor ultimo = findById(despuesDe)
+                .orElseThrow(() -> new IllegalArgumentException("No existe el autor " + despuesDe));
+        return findPageDesde(cursor(ultimo), limite, orden);
+    }
+
+    @Override
+    public Pagina<Autor, Integer> findPageDesde(Cursor<Integer> despuesDe, int limite, Orden orden)
+            throws SQLException {
+        logger.debug("Obteniendo página de autores después de {} (límite {}, {})", despuesDe, limite, orden);
+
+        String sql = ConsultaPaginada.sql(SELECT_PAGINA, "a", "id_autor",
+                List.of("nombre"), despuesDe != null, orden);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leerConCursor(rs, limite, this::mapResultSetToAutor, AutorDAOImpl::cursor);
+            }
+        } catch (SQLException e) {
+            logger.error("Error al obtener página de autores", e);
+            throw e;
+        }
+    }
+
+    private static Cursor<Integer> cursor(Autor autor) {
+        return new Cursor<>(List.of(autor.getNombre()), autor.getIdAutor());
+    }
+
     @Override
     public long count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Autores";
@@ -1,6 +1,8 @@
 package com.biblioteca.dao.impl;
 
 import com.biblioteca.dao.CategoriaDAO;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.model.Categoria;
 import com.biblioteca.util.DatabaseConnection;
 import java.sql.*;
@@ -33,20 +35,36 @@ public class CategoriaDAOImpl implements CategoriaDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                Categoria c = new Categoria();
-                c.setIdCategoria(rs.getInt("id_categoria"));
-                c.setNombre(rs.getString("nombre"));
-                c.setDescripcion(rs.getString("descripcion"));
-                lista.add(c);
+                lista.add(mapResultSetToCategoria(rs));
             }
         }
         return lista;
     }
 
+    @Override
+    public Pagina<Categoria, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        String sql = ConsultaPaginada.sql("SELECT * FROM Categorias", "id_categoria", despuesDe != null, orden);
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leer(rs, limite, this::mapResultSetToCategoria, Categoria::getIdCategoria);
+            }
+        }
+    }
+
     // Métodos update y delete básicos (puedes completarlos si necesitas editar categorías)
     @Override public boolean update(Categoria entity) throws SQLException { return false; }
     @Override public boolean delete(Integer id) throws SQLException { return false; }
     @Override public Optional<Categoria> findById(Integer id) throws SQLException { return Optional.empty(); }
     @Override public long count() throws SQLException { return 0; }
     @Override public boolean existsById(Integer id) throws SQLException { return false; }
+
+    private Categoria mapResultSetToCategoria(ResultSet rs) throws SQLException {
+        Categoria c = new Categoria();
+        c.setIdCategoria(rs.getInt("id_categoria"));
+        c.setNombre(rs.getString("nombre"));
+        c.setDescripcion(rs.getString("descripcion"));
+        return c;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.biblioteca.dao.impl;
+
+import com.biblioteca.dao.ErrorLecturaException;
+import com.biblioteca.util.Configuracion;
+import com.biblioteca.util.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lecturas masivas que no cargan el resultado entero en memoria. La sentencia es
+ * de solo avance y con fetchSize, así que con useCursorFetch=true en la URL MySQL
+ * abre un cursor en el servidor y envía las filas por bloques; cada fila se convierte
+ * en entidad cuando el Stream la pide.
+ * <p>
+ * El Stream retiene una conexión del pool hasta que se cierra: debe usarse siempre
+ * con try-with-resources.
+ */
+final class ConsultaEnFlujo {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultaEnFlujo.class);
+
+    /** Filas por viaje al servidor */
+    private static final int TAMANO_BLOQUE = Configuracion.getInstance().entero("db.fetchSize", 1000);
+
+    /**
+     * Asigna los parámetros de la sentencia antes de ejecutarla
+     */
+    @FunctionalInterface
+    interface Parametros {
+        void asignar(PreparedStatement stmt) throws SQLException;
+    }
+
+    private ConsultaEnFlujo() {
+    }
+
+    static <T> Stream<T> abrir(String sql, MapeadorFila<T> mapeador) throws SQLException {
+        return abrir(sql, stmt -> { }, mapeador);
+    }
+
+    /**
+     * Ejecuta la consulta y devuelve sus filas como Stream perezoso.
+     * Al cerrar el Stream se cierran el ResultSet y la sentencia y se devuelve la conexión.
+     */
+    static <T> Stream<T> abrir(String sql, Parametros parametros, MapeadorFila<T> mapeador)
+            throws SQLException {
+        Connection conn = DatabaseConnection.getInstance().getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(TAMANO_BLOQUE);
+            parametros.asignar(stmt);
+            rs = stmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            cerrar(rs, stmt, conn, e);
+            throw e;
+        }
+
+        Filas<T> filas = new Filas<>(rs, mapeador);
+        ResultSet abierto = rs;
+        PreparedStatement sentencia = stmt;
+        return StreamSupport.stream(filas, false)
+                .onClose(() -> cerrar(abierto, sentencia, conn, null));
+    }
+
+    private static void cerrar(ResultSet rs, PreparedStatement stmt, Connection conn, Exception principal) {
+        for (AutoCloseable recurso : new AutoCloseable[]{rs, stmt, conn}) {
+            if (recurso == null) {
+                continue;
+            }
+            try {
+                recurso.close();
+            } catch (Exception e) {
+                if (principal != null) {
+                    principal.addSuppressed(e);
+                } else {
+                    logger.warn("Error al cerrar una lectura en flujo", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Avanza el ResultSet una fila por cada elemento pedido
+     */
+    private static final class Filas<T> extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet rs;
+        private final MapeadorFila<T> mapeador;
+
+        Filas(ResultSet rs, MapeadorFila<T> mapeador) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+            this.mapeador = mapeador;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> accion) {
+            try {
+                if (!rs.next()) {
+                    return false;
+                }
+                accion.accept(mapeador.mapear(rs));
+                return true;
+            } catch (SQLException e) {
+                throw new ErrorLecturaException("Error al leer la consulta en flujo", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.biblioteca.dao.impl;
+
+import com.biblioteca.dao.Filtro;
+import com.biblioteca.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Compila un {@link Filtro} a un WHERE parametrizado. Cada DAO declara qué predicado
+ * corresponde a cada criterio (un fragmento con un único "?"), escrito sobre la columna
+ * tal cual para que MySQL pueda usar su índice: nada de funciones sobre la columna
+ * ni LIKE con comodín al inicio.
+ */
+final class ConsultaFiltrada {
+
+    private final String sql;
+    private final List<Object> parametros;
+
+    private ConsultaFiltrada(String sql, List<Object> parametros) {
+        this.sql = sql;
+        this.parametros = parametros;
+    }
+
+    /**
+     * @param selectBase SELECT ... FROM ... sin WHERE ni ORDER BY
+     * @param predicados Fragmento SQL de cada criterio admitido
+     * @param filtro Criterios a aplicar
+     * @param ordenarPor Expresión del ORDER BY (null para no ordenar)
+     * @throws IllegalArgumentException si el filtro usa un criterio sin predicado
+     */
+    static ConsultaFiltrada compilar(String selectBase, Map<Filtro.Campo, String> predicados,
+                                     Filtro filtro, String ordenarPor) {
+        StringBuilder sql = new StringBuilder(selectBase);
+        List<Object> parametros = new ArrayList<>();
+        String union = " WHERE ";
+
+        for (Map.Entry<Filtro.Campo, Object> criterio : filtro.getCriterios().entrySet()) {
+            String predicado = predicados.get(criterio.getKey());
+            if (predicado == null) {
+                throw new IllegalArgumentException(
+                        "Criterio no admitido en esta consulta: " + criterio.getKey());
+            }
+            sql.append(union).append(predicado);
+            parametros.add(criterio.getValue());
+            union = " AND ";
+        }
+
+        if (ordenarPor != null) {
+            sql.append(" ORDER BY ").append(ordenarPor);
+        }
+        return new ConsultaFiltrada(sql.toString(), parametros);
+    }
+
+    /**
+     * Compila el filtro y devuelve todas las filas que lo cumplen
+     */
+    static <T> List<T> listar(String selectBase, Map<Filtro.Campo, String> predicados, Filtro filtro,
+                              String ordenarPor, MapeadorFila<T> mapeador) throws SQLException {
+        ConsultaFiltrada consulta = compilar(selectBase, predicados, filtro, ordenarPor);
+        List<T> resultado = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(consulta.sql)) {
+
+            consulta.parametros(stmt, 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resultado.add(mapeador.mapear(rs));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Compila el filtro y recorre las filas que lo cumplen con un cursor (ver {@link ConsultaEnFlujo})
+     */
+    static <T> Stream<T> flujo(String selectBase, Map<Filtro.Campo, String> predicados, Filtro filtro,
+                               String ordenarPor, MapeadorFila<T> mapeador) throws SQLException {
+        ConsultaFiltrada consulta = compilar(selectBase, predicados, filtro, ordenarPor);
+        return ConsultaEnFlujo.abrir(consulta.sql, stmt -> consulta.parametros(stmt, 1), mapeador);
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Asigna los valores del filtro en el orden en que aparecen en el WHERE
+     * @return siguiente índice de parámetro libre
+     */
+    int parametros(PreparedStatement stmt, int indice) throws SQLException {
+        for (Object valor : parametros) {
+            if (valor instanceof LocalDateTime fecha) {
+                stmt.setTimestamp(indice++, Timestamp.valueOf(fecha));
+            } else {
+                stmt.setObject(indice++, valor);
+            }
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,164 @@
+package com.biblioteca.dao.impl;
+
+import com.biblioteca.dao.Cursor;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilidades compartidas por los DAOs para la paginación por clave (keyset).
+ * En lugar de OFFSET se filtra por "clave > última vista", así cada página usa el índice
+ * y cuesta lo mismo sin importar su posición.
+ * <p>
+ * La clave es la clave primaria o, para las tablas que se muestran ordenadas por otra
+ * columna (título, apellido, nombre), el par (columnas de orden, clave primaria), que
+ * necesita un índice compuesto en ese orden. En ese caso la página siguiente se pide con
+ * el {@link Cursor} de la última fila vista (sus valores de orden y su ID) y no se vuelve
+ * a leer esa fila, así que borrarla o modificarla no corta ni desordena el recorrido.
+ */
+final class ConsultaPaginada {
+
+    static final int LIMITE_MAXIMO = 1000;
+
+    private ConsultaPaginada() {
+    }
+
+    /**
+     * Construye la consulta de una página.
+     * @param selectBase SELECT ... FROM ... sin WHERE ni ORDER BY
+     * @param columnaClave Columna de la clave primaria (con alias de tabla)
+     * @param conClave true si hay una última clave desde la que continuar
+     * @param orden Dirección del recorrido
+     */
+    static String sql(String selectBase, String columnaClave, boolean conClave, Orden orden) {
+        StringBuilder sql = new StringBuilder(selectBase);
+        if (conClave) {
+            sql.append(" WHERE ").append(columnaClave).append(' ')
+                    .append(orden.getComparador()).append(" ?");
+        }
+        sql.append(" ORDER BY ").append(columnaClave).append(' ').append(orden.getSql())
+                .append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    /**
+     * Consulta de una página ordenada por otras columnas y, para desempatar, por la clave
+     * primaria. Continúa después del cursor: (c1, ..., clave) > (?, ..., ?), escrito con OR/AND
+     * para que MySQL lo resuelva como un rango sobre el índice compuesto.
+     * Las columnas de orden deben ser NOT NULL. Los parámetros se asignan con
+     * {@link #parametros(PreparedStatement, int, Cursor, int)}.
+     * @param selectBase SELECT ... FROM ... sin WHERE ni ORDER BY
+     * @param alias Alias de la tabla paginada en selectBase
+     * @param clave Columna de la clave primaria, sin alias
+     * @param columnasOrden Columnas de orden, sin alias, de la más a la menos significativa
+     * @param conCursor true si hay un cursor desde el que continuar
+     * @param orden Dirección del recorrido (la misma para todas las columnas)
+     */
+    static String sql(String selectBase, String alias, String clave, List<String> columnasOrden,
+                      boolean conCursor, Orden orden) {
+        List<String> columnas = new ArrayList<>(columnasOrden);
+        columnas.add(clave);
+
+        StringBuilder sql = new StringBuilder(selectBase);
+        if (conCursor) {
+            sql.append(" WHERE ").append(posteriorA(alias, columnas, 0, orden));
+        }
+        sql.append(" ORDER BY ");
+        for (int i = 0; i < columnas.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(alias).append('.').append(columnas.get(i))
+                    .append(' ').append(orden.getSql());
+        }
+        sql.append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    /**
+     * a > ? OR (a = ? AND (b > ? OR (b = ? AND c > ?))), desde la columna indicada
+     */
+    private static String posteriorA(String alias, List<String> columnas, int desde, Orden orden) {
+        String columna = alias + "." + columnas.get(desde);
+        String mayor = columna + " " + orden.getComparador() + " ?";
+        if (desde == columnas.size() - 1) {
+            return mayor;
+        }
+        return "(" + mayor + " OR (" + columna + " = ? AND "
+                + posteriorA(alias, columnas, desde + 1, orden) + "))";
+    }
+
+    /**
+     * Asigna la última clave (si existe) y el límite. Se pide una fila extra
+     * para saber si hay más páginas sin ejecutar un COUNT.
+     * @return siguiente índice de parámetro libre
+     */
+    static int parametros(PreparedStatement stmt, int indice, Integer despuesDe, int limite)
+            throws SQLException {
+        if (despuesDe != null) {
+            stmt.setInt(indice++, despuesDe);
+        }
+        stmt.setInt(indice++, limiteValido(limite) + 1);
+        return indice;
+    }
+
+    /**
+     * Asigna el cursor (si existe) en el orden de {@link #posteriorA}: cada valor de orden
+     * dos veces (mayor e igual) y la clave una, y después el límite.
+     * @return siguiente índice de parámetro libre
+     */
+    static int parametros(PreparedStatement stmt, int indice, Cursor<?> despuesDe, int limite)
+            throws SQLException {
+        if (despuesDe != null) {
+            for (Object valor : despuesDe.getValoresOrden()) {
+                stmt.setObject(indice++, valor);
+                stmt.setObject(indice++, valor);
+            }
+            stmt.setObject(indice++, despuesDe.getClave());
+        }
+        stmt.setInt(indice++, limiteValido(limite) + 1);
+        return indice;
+    }
+
+    /**
+     * Lee como máximo "limite" filas y construye la página
+     */
+    static <T, ID> Pagina<T, ID> leer(ResultSet rs, int limite, MapeadorFila<T> mapeador,
+                                      Function<T, ID> clave) throws SQLException {
+        int maximo = limiteValido(limite);
+        List<T> elementos = new ArrayList<>(Math.min(maximo, 256));
+        boolean hayMas = false;
+
+        while (rs.next()) {
+            if (elementos.size() == maximo) {
+                hayMas = true;
+                break;
+            }
+            elementos.add(mapeador.mapear(rs));
+        }
+
+        ID ultimaClave = elementos.isEmpty() ? null : clave.apply(elementos.get(elementos.size() - 1));
+        return new Pagina<>(elementos, ultimaClave, hayMas);
+    }
+
+    /**
+     * Como {@link #leer}, pero la página guarda el cursor de su última fila
+     */
+    static <T, ID> Pagina<T, ID> leerConCursor(ResultSet rs, int limite, MapeadorFila<T> mapeador,
+                                               Function<T, Cursor<ID>> cursor) throws SQLException {
+        Pagina<T, ID> pagina = leer(rs, limite, mapeador, t -> null);
+        List<T> elementos = pagina.getElementos();
+        return Pagina.conCursor(elementos,
+                elementos.isEmpty() ? null : cursor.apply(elementos.get(elementos.size() - 1)), pagina.hayMas());
+    }
+
+    static int limiteValido(int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo: " + limite);
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+}
@@ -1,6 +1,8 @@
 package com.biblioteca.dao.impl;
 
 import com.biblioteca.dao.EditorialDAO;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.model.Editorial;
 import com.biblioteca.util.DatabaseConnection;
 import java.sql.*;
@@ -35,21 +37,37 @@ public class EditorialDAOImpl implements EditorialDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                Editorial e = new Editorial();
-                e.setIdEditorial(rs.getInt("id_editorial"));
-                e.setNombre(rs.getString("nombre"));
-                e.setPais(rs.getString("pais"));
-                e.setWebsite(rs.getString("website"));
-                lista.add(e);
+                lista.add(mapResultSetToEditorial(rs));
             }
         }
         return lista;
     }
 
+    @Override
+    public Pagina<Editorial, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        String sql = ConsultaPaginada.sql("SELECT * FROM Editoriales", "id_editorial", despuesDe != null, orden);
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leer(rs, limite, this::mapResultSetToEditorial, Editorial::getIdEditorial);
+            }
+        }
+    }
+
     // Implementaciones vacías o simples para cumplir con la interfaz por ahora
     @Override public boolean update(Editorial entity) throws SQLException { return false; }
     @Override public boolean delete(Integer id) throws SQLException { return false; }
     @Override public Optional<Editorial> findById(Integer id) throws SQLException { return Optional.empty(); }
     @Override public long count() throws SQLException { return 0; }
     @Override public boolean existsById(Integer id) throws SQLException { return false; }
+
+    private Editorial mapResultSetToEditorial(ResultSet rs) throws SQLException {
+        Editorial e = new Editorial();
+        e.setIdEditorial(rs.getInt("id_editorial"));
+        e.setNombre(rs.getString("nombre"));
+        e.setPais(rs.getString("pais"));
+        e.setWebsite(rs.getString("website"));
+        return e;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.biblioteca.dao.impl;
 
 import com.biblioteca.dao.EjemplarDAO;
+import com.biblioteca.dao.Filtro;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.model.Ejemplar;
 import com.biblioteca.model.Libro;
 import com.biblioteca.model.Ubicacion;
@@ -10,7 +13,9 @@ import com.biblioteca.util.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class EjemplarDAOImpl implements EjemplarDAO {
 
@@ -22,6 +27,9 @@ public class EjemplarDAOImpl implements EjemplarDAO {
             "UPDATE Ejemplares SET codigo_barras = ?, id_libro = ?, id_ubicacion = ?, " +
                     "estado_fisico = ?, disponible = ? WHERE id_ejemplar = ?";
 
+    private static final String UPDATE_DISPONIBILIDAD =
+            "UPDATE Ejemplares SET disponible = ? WHERE id_ejemplar = ? AND disponible = ?";
+
     private static final String SELECT_BY_ID =
             "SELECT e.*, l.titulo, l.isbn " +
                     "FROM Ejemplares e " +
@@ -46,6 +54,16 @@ public class EjemplarDAOImpl implements EjemplarDAO {
                     "INNER JOIN Libros l ON e.id_libro = l.id_libro " +
                     "WHERE e.id_libro = ? AND e.disponible = TRUE";
 
+    private static final String SELECT_PAGINA =
+            "SELECT e.*, l.titulo, l.isbn " +
+                    "FROM Ejemplares e " +
+                    "INNER JOIN Libros l ON e.id_libro = l.id_libro";
+
+    private static final Map<Filtro.Campo, String> PREDICADOS = Map.of(
+            Filtro.Campo.ESTADO, "e.estado_fisico = ?",
+            Filtro.Campo.LIBRO, "e.id_libro = ?",
+            Filtro.Campo.DISPONIBLE, "e.disponible = ?");
+
     @Override
     public Integer save(Ejemplar ejemplar) throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -100,6 +118,79 @@ public class EjemplarDAOImpl implements EjemplarDAO {
         }
     }
 
+    @Override
+    public boolean actualizarDisponibilidad(Connection conn, Integer idEjemplar, boolean disponible)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_DISPONIBILIDAD)) {
+            stmt.setBoolean(1, disponible);
+            stmt.setInt(2, idEjemplar);
+            stmt.setBoolean(3, !disponible);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public void saveAll(Connection conn, List<Ejemplar> ejemplares) throws SQLException {
+        if (ejemplares.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (Ejemplar ejemplar : ejemplares) {
+                stmt.setString(1, ejemplar.getCodigoBarras());
+                stmt.setInt(2, ejemplar.getLibro().getIdLibro());
+                if (ejemplar.getUbicacion() != null) {
+                    stmt.setInt(3, ejemplar.getUbicacion().getIdUbicacion());
+                } else {
+                    stmt.setNull(3, Types.INTEGER);
+                }
+                stmt.setString(4, ejemplar.getEstadoFisico().getDescripcion());
+                stmt.setBoolean(5, ejemplar.getDisponible());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            // Las claves llegan en el mismo orden que las filas del lote
+            int i = 0;
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                while (generatedKeys.next() && i < ejemplares.size()) {
+                    ejemplares.get(i++).setIdEjemplar(generatedKeys.getInt(1));
+                }
+            }
+            if (i < ejemplares.size()) {
+                throw new SQLException("No se pudieron guardar los ejemplares del lote");
+            }
+        }
+    }
+
+    @Override
+    public List<Integer> actualizarDisponibilidad(Connection conn, List<Integer> idsEjemplar, boolean disponible)
+            throws SQLException {
+        List<Integer> sinCambio = new ArrayList<>();
+        if (idsEjemplar.isEmpty()) {
+            return sinCambio;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_DISPONIBILIDAD)) {
+            for (Integer idEjemplar : idsEjemplar) {
+                stmt.setBoolean(1, disponible);
+                stmt.setInt(2, idEjemplar);
+                stmt.setBoolean(3, !disponible);
+                stmt.addBatch();
+            }
+
+            int[] filas = stmt.executeBatch();
+            for (int i = 0; i < filas.length; i++) {
+                // SUCCESS_NO_INFO: el driver reescribió el lote y no informa filas por sentencia
+                if (filas[i] == 0) {
+                    sinCambio.add(idsEjemplar.get(i));
+                }
+            }
+        }
+        return sinCambio;
+    }
+
     @Override
     public boolean delete(Integer id) throws SQLException {
         String sql = "DELETE FROM Ejemplares WHERE id_ejemplar = ?";
@@ -199,6 +290,32 @@ public class EjemplarDAOImpl implements EjemplarDAO {
         return ejemplares;
     }
 
+    @Override
+    public List<Ejemplar> findByFiltro(Filtro filtro) throws SQLException {
+        return ConsultaFiltrada.listar(SELECT_PAGINA, PREDICADOS, filtro,
+                "l.titulo", this::mapResultSetToEjemplar);
+    }
+
+    @Override
+    public Stream<Ejemplar> streamByFiltro(Filtro filtro) throws SQLException {
+        return ConsultaFiltrada.flujo(SELECT_PAGINA, PREDICADOS, filtro, "e.id_ejemplar", this::mapResultSetToEjemplar);
+    }
+
+    @Override
+    public Pagina<Ejemplar, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        String sql = ConsultaPaginada.sql(SELECT_PAGINA, "e.id_ejemplar", despuesDe != null, orden);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leer(rs, limite, this::mapResultSetToEjemplar, Ejemplar::getIdEjemplar);
+            }
+        }
+    }
+
     @Override
     public long count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Ejemplares";
@@ -0,0 +1,52 @@
+package com.biblioteca.dao.impl;
+
+import com.biblioteca.dao.EstadisticasDAO;
+import com.biblioteca.dao.ResumenEstadisticas;
+import com.biblioteca.model.enums.EstadoPago;
+import com.biblioteca.model.enums.EstadoPrestamo;
+import com.biblioteca.util.DatabaseConnection;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class EstadisticasDAOImpl implements EstadisticasDAO {
+
+    // Cada indicador es una subconsulta escalar; el servidor devuelve una sola fila
+    private static final String SELECT_RESUMEN =
+            "SELECT " +
+                    "(SELECT COUNT(*) FROM Libros) AS total_libros, " +
+                    "(SELECT COUNT(*) FROM Prestamos WHERE estado = ?) AS prestamos_activos, " +
+                    "(SELECT COUNT(*) FROM Prestamos WHERE estado = ?) AS prestamos_atrasados, " +
+                    "(SELECT COUNT(*) FROM Usuarios) AS total_usuarios, " +
+                    "(SELECT COUNT(*) FROM Multas WHERE estado_pago = ?) AS multas_pendientes, " +
+                    "(SELECT COALESCE(SUM(monto), 0) FROM Multas WHERE estado_pago = ?) AS monto_pendiente";
+
+    @Override
+    public ResumenEstadisticas obtenerResumen() throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_RESUMEN)) {
+
+            stmt.setString(1, EstadoPrestamo.ACTIVO.getDescripcion());
+            stmt.setString(2, EstadoPrestamo.ATRASADO.getDescripcion());
+            stmt.setString(3, EstadoPago.PENDIENTE.getDescripcion());
+            stmt.setString(4, EstadoPago.PENDIENTE.getDescripcion());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("La consulta de estadísticas no devolvió resultados");
+                }
+                BigDecimal montoPendiente = rs.getBigDecimal("monto_pendiente");
+                return new ResumenEstadisticas(
+                        rs.getLong("total_libros"),
+                        rs.getLong("prestamos_activos"),
+                        rs.getLong("prestamos_atrasados"),
+                        rs.getLong("total_usuarios"),
+                        rs.getLong("multas_pendientes"),
+                        montoPendiente != null ? montoPendiente : BigDecimal.ZERO);
+            }
+        }
+    }
+}
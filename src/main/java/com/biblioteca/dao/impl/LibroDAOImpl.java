@@ -1,13 +1,20 @@
 package com.biblioteca.dao.impl;
 
 import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.Cursor;
 import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.model.*;
 import com.biblioteca.util.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -16,7 +23,7 @@ import java.util.Optional;
  */
 public class LibroDAOImpl implements LibroDAO {
 
-    // Instanciamos el DAO de autores para poder usarlo en la lectura
+    // DAO de autores: se usa para cargar en lote los autores de cada página de resultados
     private final AutorDAO autorDAO = new AutorDAOImpl();
 
     private static final String INSERT_LIBRO =
@@ -47,6 +54,14 @@ public class LibroDAOImpl implements LibroDAO {
                     "INNER JOIN Categorias c ON l.id_categoria = c.id_categoria " +
                     "ORDER BY l.titulo";
 
+    // Páginas por título, como findAll; la clave es (titulo, id_libro)
+    // CREATE INDEX idx_libros_titulo ON Libros (titulo, id_libro)
+    private static final String SELECT_PAGINA =
+            "SELECT l.*, e.nombre AS editorial_nombre, c.nombre AS categoria_nombre " +
+                    "FROM Libros l " +
+                    "INNER JOIN Editoriales e ON l.id_editorial = e.id_editorial " +
+                    "INNER JOIN Categorias c ON l.id_categoria = c.id_categoria";
+
     private static final String SELECT_BY_ISBN =
             "SELECT l.*, e.nombre AS editorial_nombre, c.nombre AS categoria_nombre " +
                     "FROM Libros l " +
@@ -62,10 +77,33 @@ public class LibroDAOImpl implements LibroDAO {
                     "WHERE l.titulo LIKE ? " +
                     "ORDER BY l.titulo";
 
+    private static final String SELECT_BY_AUTOR =
+            "SELECT l.*, e.nombre AS editorial_nombre, c.nombre AS categoria_nombre " +
+                    "FROM Libros l " +
+                    "INNER JOIN Libro_Autor la ON l.id_libro = la.id_libro " +
+                    "INNER JOIN Editoriales e ON l.id_editorial = e.id_editorial " +
+                    "INNER JOIN Categorias c ON l.id_categoria = c.id_categoria " +
+                    "WHERE la.id_autor = ? " +
+                    "ORDER BY l.titulo";
+
+    private static final String SELECT_BY_IDS_PREFIX =
+            "SELECT l.*, e.nombre AS editorial_nombre, c.nombre AS categoria_nombre " +
+                    "FROM Libros l " +
+                    "INNER JOIN Editoriales e ON l.id_editorial = e.id_editorial " +
+                    "INNER JOIN Categorias c ON l.id_categoria = c.id_categoria " +
+                    "WHERE l.id_libro IN (";
+
     private static final String COUNT_EJEMPLARES_DISPONIBLES =
             "SELECT COUNT(*) FROM Ejemplares " +
                     "WHERE id_libro = ? AND disponible = TRUE";
 
+    private static final String COUNT_DISPONIBLES_POR_LIBRO_PREFIX =
+            "SELECT id_libro, COUNT(*) AS disponibles FROM Ejemplares " +
+                    "WHERE disponible = TRUE AND id_libro IN (";
+
+    // Máximo de parámetros por consulta IN
+    private static final int TAMANIO_LOTE_IN = 1000;
+
     @Override
     public Integer save(Libro libro) throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -189,6 +227,8 @@ public class LibroDAOImpl implements LibroDAO {
 
     @Override
     public Optional<Libro> findById(Integer id) throws SQLException {
+        Libro libro = null;
+
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID)) {
 
@@ -196,15 +236,22 @@ public class LibroDAOImpl implements LibroDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToLibro(rs));
+                    libro = mapResultSetToLibro(rs);
                 }
             }
         }
-        return Optional.empty();
+
+        if (libro == null) {
+            return Optional.empty();
+        }
+        cargarAutores(Collections.singletonList(libro));
+        return Optional.of(libro);
     }
 
     @Override
     public Optional<Libro> findByIsbn(String isbn) throws SQLException {
+        Libro libro = null;
+
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ISBN)) {
 
@@ -212,11 +259,16 @@ public class LibroDAOImpl implements LibroDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToLibro(rs));
+                    libro = mapResultSetToLibro(rs);
                 }
             }
         }
-        return Optional.empty();
+
+        if (libro == null) {
+            return Optional.empty();
+        }
+        cargarAutores(Collections.singletonList(libro));
+        return Optional.of(libro);
     }
 
     @Override
@@ -234,6 +286,45 @@ public class LibroDAOImpl implements LibroDAO {
                 }
             }
         }
+        cargarAutores(libros);
+        return libros;
+    }
+
+    @Override
+    public List<Libro> findByIds(List<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Libro> porId = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            for (int desde = 0; desde < ids.size(); desde += TAMANIO_LOTE_IN) {
+                List<Integer> lote = ids.subList(desde, Math.min(desde + TAMANIO_LOTE_IN, ids.size()));
+                String sql = SELECT_BY_IDS_PREFIX +
+                        String.join(", ", Collections.nCopies(lote.size(), "?")) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < lote.size(); i++) {
+                        stmt.setInt(i + 1, lote.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Libro libro = mapResultSetToLibro(rs);
+                            porId.put(libro.getIdLibro(), libro);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Libro> libros = new ArrayList<>(porId.size());
+        for (Integer id : ids) {
+            Libro libro = porId.get(id);
+            if (libro != null) {
+                libros.add(libro);
+            }
+        }
+        cargarAutores(libros);
         return libros;
     }
 
@@ -245,12 +336,30 @@ public class LibroDAOImpl implements LibroDAO {
 
     @Override
     public List<Libro> findByAutor(Integer idAutor) throws SQLException {
-        // Implementación futura si es necesaria
-        return new ArrayList<>();
+        List<Libro> libros = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_AUTOR)) {
+
+            stmt.setInt(1, idAutor);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    libros.add(mapResultSetToLibro(rs));
+                }
+            }
+        }
+        cargarAutores(libros);
+        return libros;
     }
 
     @Override
     public List<Libro> findAll() throws SQLException {
+        return findAll(true);
+    }
+
+    @Override
+    public List<Libro> findAll(boolean incluirAutores) throws SQLException {
         List<Libro> libros = new ArrayList<>();
 
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -261,9 +370,49 @@ public class LibroDAOImpl implements LibroDAO {
                 libros.add(mapResultSetToLibro(rs));
             }
         }
+
+        if (incluirAutores) {
+            cargarAutores(libros);
+        }
         return libros;
     }
 
+    @Override
+    public Pagina<Libro, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        if (despuesDe == null) {
+            return findPageDesde(null, limite, orden);
+        }
+        Libro ultimo = findById(despuesDe)
+                .orElseThrow(() -> new IllegalArgumentException("No existe el libro " + despuesDe));
+        return findPageDesde(cursor(ultimo), limite, orden);
+    }
+
+    @Override
+    public Pagina<Libro, Integer> findPageDesde(Cursor<Integer> despuesDe, int limite, Orden orden)
+            throws SQLException {
+        String sql = ConsultaPaginada.sql(SELECT_PAGINA, "l", "id_libro",
+                List.of("titulo"), despuesDe != null, orden);
+        Pagina<Libro, Integer> pagina;
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                pagina = ConsultaPaginada.leerConCursor(rs, limite, this::mapResultSetToLibro, LibroDAOImpl::cursor);
+            }
+        }
+
+        // Autores de toda la página en una sola consulta
+        cargarAutores(pagina.getElementos());
+        return pagina;
+    }
+
+    private static Cursor<Integer> cursor(Libro libro) {
+        return new Cursor<>(List.of(libro.getTitulo()), libro.getIdLibro());
+    }
+
     @Override
     public long count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Libros";
@@ -300,6 +449,38 @@ public class LibroDAOImpl implements LibroDAO {
         return 0;
     }
 
+    @Override
+    public Map<Integer, Integer> countEjemplaresDisponibles(Collection<Integer> idsLibro) throws SQLException {
+        Map<Integer, Integer> disponibles = new HashMap<>();
+        if (idsLibro == null || idsLibro.isEmpty()) {
+            return disponibles;
+        }
+
+        List<Integer> ids = new ArrayList<>(idsLibro);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            for (int desde = 0; desde < ids.size(); desde += TAMANIO_LOTE_IN) {
+                List<Integer> lote = ids.subList(desde, Math.min(desde + TAMANIO_LOTE_IN, ids.size()));
+                String sql = COUNT_DISPONIBLES_POR_LIBRO_PREFIX +
+                        String.join(", ", Collections.nCopies(lote.size(), "?")) +
+                        ") GROUP BY id_libro";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < lote.size(); i++) {
+                        stmt.setInt(i + 1, lote.get(i));
+                    }
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            disponibles.put(rs.getInt("id_libro"), rs.getInt("disponibles"));
+                        }
+                    }
+                }
+            }
+        }
+        return disponibles;
+    }
+
     // Método adicional para actualizar autores al editar un libro
     // NOTA: Recuerda agregar este método a tu interfaz LibroDAO para evitar tener que hacer casting en el controlador.
     public void updateAutores(Libro libro) throws SQLException {
@@ -339,9 +520,30 @@ public class LibroDAOImpl implements LibroDAO {
     }
 
     /**
-     * Mapea un ResultSet a un objeto Libro
+     * Carga los autores de todos los libros con una sola consulta en lote
+     * y los asigna en memoria (evita una consulta por fila).
+     */
+    private void cargarAutores(List<Libro> libros) throws SQLException {
+        if (libros.isEmpty()) {
+            return;
+        }
+
+        List<Integer> ids = new ArrayList<>(libros.size());
+        for (Libro libro : libros) {
+            ids.add(libro.getIdLibro());
+        }
+
+        Map<Integer, List<Autor>> autoresPorLibro = autorDAO.findByLibros(ids);
+        for (Libro libro : libros) {
+            libro.setAutores(autoresPorLibro.getOrDefault(libro.getIdLibro(), new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Mapea un ResultSet a un objeto Libro (sin autores; ver cargarAutores).
+     * Visible en el paquete para los benchmarks de mapeo.
      */
-    private Libro mapResultSetToLibro(ResultSet rs) throws SQLException {
+    Libro mapResultSetToLibro(ResultSet rs) throws SQLException {
         Libro libro = new Libro();
         libro.setIdLibro(rs.getInt("id_libro"));
         libro.setIsbn(rs.getString("isbn"));
@@ -360,10 +562,6 @@ public class LibroDAOImpl implements LibroDAO {
         categoria.setNombre(rs.getString("categoria_nombre"));
         libro.setCategoria(categoria);
 
-        // CORRECCIÓN: Usamos el DAO de autores para llenar la lista correctamente
-        List<Autor> autores = autorDAO.findByLibro(libro.getIdLibro());
-        libro.setAutores(autores);
-
         return libro;
     }
 }
\ No newline at end of file
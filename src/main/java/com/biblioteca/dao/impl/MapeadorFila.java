@@ -0,0 +1,12 @@
+package com.biblioteca.dao.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un ResultSet en una entidad
+ */
+@FunctionalInterface
+interface MapeadorFila<T> {
+    T mapear(ResultSet rs) throws SQLException;
+}
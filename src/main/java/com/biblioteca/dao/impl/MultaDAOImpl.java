@@ -1,15 +1,22 @@
 package com.biblioteca.dao.impl;
 
 import com.biblioteca.dao.MultaDAO;
+import com.biblioteca.dao.Filtro;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.model.Multa;
 import com.biblioteca.model.Prestamo;
 import com.biblioteca.model.enums.EstadoPago;
+import com.biblioteca.model.enums.EstadoPrestamo;
 import com.biblioteca.util.DatabaseConnection;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class MultaDAOImpl implements MultaDAO {
 
@@ -31,10 +38,64 @@ public class MultaDAOImpl implements MultaDAO {
     private static final String SELECT_BY_PRESTAMO =
             "SELECT * FROM Multas WHERE id_prestamo = ?";
 
+    private static final String SELECT_PAGINA =
+            "SELECT * FROM Multas";
+
+    private static final String SELECT_FILTRO =
+            "SELECT m.* FROM Multas m";
+
+    /**
+     * Usuario y libro se resuelven con subconsultas sobre la FK del préstamo
+     * para no tener que unir tablas cuando no se filtra por ellos
+     */
+    private static final Map<Filtro.Campo, String> PREDICADOS = Map.of(
+            Filtro.Campo.ESTADO, "m.estado_pago = ?",
+            Filtro.Campo.USUARIO, "m.id_prestamo IN (SELECT p.id_prestamo FROM Prestamos p WHERE p.id_usuario = ?)",
+            Filtro.Campo.LIBRO, "m.id_prestamo IN (SELECT p.id_prestamo FROM Prestamos p " +
+                    "INNER JOIN Ejemplares e ON p.id_ejemplar = e.id_ejemplar WHERE e.id_libro = ?)",
+            Filtro.Campo.DESDE, "m.fecha_generacion >= ?",
+            Filtro.Campo.HASTA, "m.fecha_generacion < ?");
+
+    private static final String UPDATE_PENDIENTE_POR_PRESTAMO =
+            "UPDATE Multas SET monto = ?, motivo = ? WHERE id_prestamo = ? AND estado_pago = ?";
+
+    private static final String INSERT_SI_NO_EXISTE =
+            "INSERT INTO Multas (id_prestamo, monto, motivo, fecha_generacion, estado_pago) " +
+                    "SELECT ?, ?, ?, ?, ? FROM DUAL " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM Multas WHERE id_prestamo = ?)";
+
+    // Días completos de retraso, igual que Prestamo.calcularDiasRetraso()
+    private static final String DIAS_RETRASO =
+            "TIMESTAMPDIFF(DAY, p.fecha_devolucion_esperada, NOW())";
+
+    private static final String INSERT_MULTAS_POR_RETRASO =
+            "INSERT INTO Multas (id_prestamo, monto, motivo, fecha_generacion, estado_pago) " +
+                    "SELECT p.id_prestamo, " + DIAS_RETRASO + " * ?, " +
+                    "CONCAT('Retraso de ', " + DIAS_RETRASO + ", ' días en la devolución'), NOW(), ? " +
+                    "FROM Prestamos p " +
+                    "WHERE p.estado = ? AND " + DIAS_RETRASO + " > 0 " +
+                    "AND NOT EXISTS (SELECT 1 FROM Multas m WHERE m.id_prestamo = p.id_prestamo)";
+
+    private static final String UPDATE_MULTAS_POR_RETRASO =
+            "UPDATE Multas SET " +
+                    "monto = (SELECT " + DIAS_RETRASO + " * ? FROM Prestamos p " +
+                    "WHERE p.id_prestamo = Multas.id_prestamo), " +
+                    "motivo = (SELECT CONCAT('Retraso de ', " + DIAS_RETRASO + ", ' días en la devolución') " +
+                    "FROM Prestamos p WHERE p.id_prestamo = Multas.id_prestamo) " +
+                    "WHERE estado_pago = ? " +
+                    "AND id_prestamo IN (SELECT p.id_prestamo FROM Prestamos p " +
+                    "WHERE p.estado = ? AND " + DIAS_RETRASO + " * ? <> Multas.monto)";
+
     @Override
     public Integer save(Multa multa) throws SQLException {
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return save(conn, multa);
+        }
+    }
+
+    @Override
+    public Integer save(Connection conn, Multa multa) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setInt(1, multa.getPrestamo().getIdPrestamo());
             stmt.setBigDecimal(2, multa.getMonto());
@@ -53,6 +114,86 @@ public class MultaDAOImpl implements MultaDAO {
         throw new SQLException("No se pudo guardar la multa");
     }
 
+    @Override
+    public void acumularPorPrestamo(Connection conn, Multa multa) throws SQLException {
+        int idPrestamo = multa.getPrestamo().getIdPrestamo();
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_PENDIENTE_POR_PRESTAMO)) {
+            stmt.setBigDecimal(1, multa.getMonto());
+            stmt.setString(2, multa.getMotivo());
+            stmt.setInt(3, idPrestamo);
+            stmt.setString(4, EstadoPago.PENDIENTE.getDescripcion());
+            if (stmt.executeUpdate() > 0) {
+                return;
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SI_NO_EXISTE)) {
+            stmt.setInt(1, idPrestamo);
+            stmt.setBigDecimal(2, multa.getMonto());
+            stmt.setString(3, multa.getMotivo());
+            stmt.setTimestamp(4, Timestamp.valueOf(multa.getFechaGeneracion()));
+            stmt.setString(5, multa.getEstadoPago().getDescripcion());
+            stmt.setInt(6, idPrestamo);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void acumularPorPrestamos(Connection conn, List<Multa> multas) throws SQLException {
+        if (multas.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_PENDIENTE_POR_PRESTAMO)) {
+            for (Multa multa : multas) {
+                stmt.setBigDecimal(1, multa.getMonto());
+                stmt.setString(2, multa.getMotivo());
+                stmt.setInt(3, multa.getPrestamo().getIdPrestamo());
+                stmt.setString(4, EstadoPago.PENDIENTE.getDescripcion());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        // El NOT EXISTS descarta los préstamos que ya tenían multa (recién actualizada o pagada)
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SI_NO_EXISTE)) {
+            for (Multa multa : multas) {
+                int idPrestamo = multa.getPrestamo().getIdPrestamo();
+                stmt.setInt(1, idPrestamo);
+                stmt.setBigDecimal(2, multa.getMonto());
+                stmt.setString(3, multa.getMotivo());
+                stmt.setTimestamp(4, Timestamp.valueOf(multa.getFechaGeneracion()));
+                stmt.setString(5, multa.getEstadoPago().getDescripcion());
+                stmt.setInt(6, idPrestamo);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public int generarMultasPorRetraso(Connection conn, double montoPorDia) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_MULTAS_POR_RETRASO)) {
+            stmt.setBigDecimal(1, BigDecimal.valueOf(montoPorDia));
+            stmt.setString(2, EstadoPago.PENDIENTE.getDescripcion());
+            stmt.setString(3, EstadoPrestamo.ATRASADO.getDescripcion());
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public int actualizarMultasPorRetraso(Connection conn, double montoPorDia) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_MULTAS_POR_RETRASO)) {
+            BigDecimal monto = BigDecimal.valueOf(montoPorDia);
+            stmt.setBigDecimal(1, monto);
+            stmt.setString(2, EstadoPago.PENDIENTE.getDescripcion());
+            stmt.setString(3, EstadoPrestamo.ATRASADO.getDescripcion());
+            stmt.setBigDecimal(4, monto);
+            return stmt.executeUpdate();
+        }
+    }
+
     @Override
     public boolean update(Multa multa) throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -167,6 +308,41 @@ public class MultaDAOImpl implements MultaDAO {
         return multas;
     }
 
+    @Override
+    public List<Multa> findByFiltro(Filtro filtro) throws SQLException {
+        return ConsultaFiltrada.listar(SELECT_FILTRO, PREDICADOS, filtro,
+                "m.fecha_generacion DESC", this::mapResultSetToMulta);
+    }
+
+    /**
+     * Recorre el histórico con un cursor en el servidor. Se ordena por clave primaria
+     * para que MySQL lea el índice en orden en lugar de ordenar toda la tabla.
+     */
+    @Override
+    public Stream<Multa> streamAll() throws SQLException {
+        return ConsultaEnFlujo.abrir(SELECT_FILTRO + " ORDER BY m.id_multa", this::mapResultSetToMulta);
+    }
+
+    @Override
+    public Stream<Multa> streamByFiltro(Filtro filtro) throws SQLException {
+        return ConsultaFiltrada.flujo(SELECT_FILTRO, PREDICADOS, filtro, "m.id_multa", this::mapResultSetToMulta);
+    }
+
+    @Override
+    public Pagina<Multa, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        String sql = ConsultaPaginada.sql(SELECT_PAGINA, "id_multa", despuesDe != null, orden);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leer(rs, limite, this::mapResultSetToMulta, Multa::getIdMulta);
+            }
+        }
+    }
+
     @Override
     public long count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Multas";
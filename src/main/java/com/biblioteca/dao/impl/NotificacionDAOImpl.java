@@ -0,0 +1,300 @@
+package com.biblioteca.dao.impl;
+
+import com.biblioteca.dao.NotificacionDAO;
+import com.biblioteca.model.Notificacion;
+import com.biblioteca.model.enums.EstadoNotificacion;
+import com.biblioteca.model.enums.EstadoPago;
+import com.biblioteca.model.enums.TipoNotificacion;
+import com.biblioteca.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación de la bandeja de salida sobre la tabla Notificaciones:
+ * <pre>
+ * CREATE TABLE Notificaciones (
+ *     id_notificacion INT AUTO_INCREMENT PRIMARY KEY,
+ *     tipo VARCHAR(30) NOT NULL,
+ *     referencia INT NOT NULL,
+ *     id_usuario INT NOT NULL,
+ *     destinatario VARCHAR(150) NOT NULL,
+ *     asunto VARCHAR(255) NOT NULL,
+ *     cuerpo TEXT NOT NULL,
+ *     estado VARCHAR(20) NOT NULL,
+ *     intentos INT NOT NULL DEFAULT 0,
+ *     proximo_intento DATETIME NOT NULL,
+ *     fecha_creacion DATETIME NOT NULL,
+ *     fecha_envio DATETIME NULL,
+ *     ultimo_error VARCHAR(500) NULL,
+ *     UNIQUE KEY uk_notificaciones_evento (tipo, referencia),
+ *     KEY idx_notificaciones_cola (estado, proximo_intento)
+ * );
+ * </pre>
+ * El asunto y el cuerpo se componen en el propio INSERT ... SELECT, con los datos
+ * del usuario y del libro en el momento del cambio.
+ */
+public class NotificacionDAOImpl implements NotificacionDAO {
+
+    private static final int MAX_ERROR = 500;
+
+    private static final String COLUMNAS_INSERT =
+            "INSERT INTO Notificaciones (tipo, referencia, id_usuario, destinatario, asunto, cuerpo, " +
+                    "estado, intentos, proximo_intento, fecha_creacion) ";
+
+    private static final String INSERT_AVISO_RESERVA =
+            COLUMNAS_INSERT +
+                    "SELECT ?, r.id_reserva, u.id_usuario, u.email, " +
+                    "CONCAT(?, l.titulo, ?), CONCAT(?, u.nombre, ?, l.titulo, ?), ?, 0, ?, ? " +
+                    "FROM Reservas r " +
+                    "INNER JOIN Usuarios u ON r.id_usuario = u.id_usuario " +
+                    "INNER JOIN Libros l ON r.id_libro = l.id_libro " +
+                    "WHERE r.id_reserva = ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM Notificaciones n WHERE n.tipo = ? AND n.referencia = r.id_reserva)";
+
+    private static final String SELECT_AVISO_MULTA =
+            COLUMNAS_INSERT +
+                    "SELECT ?, m.id_multa, u.id_usuario, u.email, " +
+                    "CONCAT(?, l.titulo, ?), CONCAT(?, u.nombre, ?, l.titulo, ?, m.monto, ?), ?, 0, ?, ? " +
+                    "FROM Multas m " +
+                    "INNER JOIN Prestamos p ON m.id_prestamo = p.id_prestamo " +
+                    "INNER JOIN Usuarios u ON p.id_usuario = u.id_usuario " +
+                    "INNER JOIN Ejemplares e ON p.id_ejemplar = e.id_ejemplar " +
+                    "INNER JOIN Libros l ON e.id_libro = l.id_libro " +
+                    "WHERE m.estado_pago = ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM Notificaciones n WHERE n.tipo = ? AND n.referencia = m.id_multa) ";
+
+    private static final String INSERT_AVISO_MULTA_PRESTAMO = SELECT_AVISO_MULTA + "AND m.id_prestamo = ?";
+
+    private static final String INSERT_AVISOS_MULTAS_PRESTAMOS_PREFIX = SELECT_AVISO_MULTA + "AND m.id_prestamo IN (";
+
+    private static final String INSERT_AVISOS_MULTAS_DESDE = SELECT_AVISO_MULTA + "AND m.fecha_generacion >= ?";
+
+    // Textos de los avisos (van como parámetros de CONCAT)
+    private static final String[] TEXTO_RESERVA = {
+            "Tu reserva de \"", "\" ya está disponible",
+            "Hola ", ":\n\nYa hay un ejemplar de \"",
+            "\" disponible para ti. Pasa por el mostrador de la biblioteca para recogerlo.\n"};
+
+    private static final String[] TEXTO_MULTA = {
+            "Multa por el préstamo de \"", "\"",
+            "Hola ", ":\n\nSe ha generado una multa por la devolución con retraso de \"",
+            "\". Importe pendiente: $", ".\n\nPuedes pagarla en el mostrador de la biblioteca.\n"};
+
+    private static final String SELECT_LOTE =
+            "SELECT * FROM Notificaciones " +
+                    "WHERE estado = ? AND proximo_intento <= ? " +
+                    "ORDER BY proximo_intento, id_notificacion LIMIT ? FOR UPDATE";
+
+    private static final String UPDATE_ARRENDAR =
+            "UPDATE Notificaciones SET proximo_intento = ? WHERE id_notificacion = ?";
+
+    private static final String UPDATE_ENVIADA =
+            "UPDATE Notificaciones SET estado = ?, intentos = intentos + 1, fecha_envio = ?, ultimo_error = NULL " +
+                    "WHERE id_notificacion = ?";
+
+    private static final String UPDATE_REPROGRAMAR =
+            "UPDATE Notificaciones SET estado = ?, intentos = ?, proximo_intento = ?, ultimo_error = ? " +
+                    "WHERE id_notificacion = ?";
+
+    private static final String COUNT_PENDIENTES =
+            "SELECT COUNT(*) FROM Notificaciones WHERE estado = ?";
+
+    private static final String SELECT_PENDIENTE_MAS_ANTIGUA =
+            "SELECT MIN(fecha_creacion) FROM Notificaciones WHERE estado = ?";
+
+    @Override
+    public int encolarAvisoReserva(Connection conn, Integer idReserva) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_AVISO_RESERVA)) {
+            int i = 1;
+            stmt.setString(i++, TipoNotificacion.RESERVA_DISPONIBLE.getDescripcion());
+            for (String texto : TEXTO_RESERVA) {
+                stmt.setString(i++, texto);
+            }
+            i = parametrosNueva(stmt, i);
+            stmt.setInt(i++, idReserva);
+            stmt.setString(i, TipoNotificacion.RESERVA_DISPONIBLE.getDescripcion());
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public int encolarAvisoMultaDePrestamo(Connection conn, Integer idPrestamo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_AVISO_MULTA_PRESTAMO)) {
+            int i = parametrosMulta(stmt);
+            stmt.setInt(i, idPrestamo);
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public int encolarAvisosMultasDePrestamos(Connection conn, Collection<Integer> idsPrestamo) throws SQLException {
+        if (idsPrestamo.isEmpty()) {
+            return 0;
+        }
+
+        String sql = INSERT_AVISOS_MULTAS_PRESTAMOS_PREFIX +
+                String.join(", ", Collections.nCopies(idsPrestamo.size(), "?")) + ")";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = parametrosMulta(stmt);
+            for (Integer idPrestamo : idsPrestamo) {
+                stmt.setInt(i++, idPrestamo);
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public int encolarAvisosMultasDesde(Connection conn, LocalDateTime desde) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_AVISOS_MULTAS_DESDE)) {
+            int i = parametrosMulta(stmt);
+            stmt.setTimestamp(i, Timestamp.valueOf(desde));
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Parámetros comunes de los avisos de multa
+     * @return índice del siguiente parámetro
+     */
+    private int parametrosMulta(PreparedStatement stmt) throws SQLException {
+        int i = 1;
+        stmt.setString(i++, TipoNotificacion.MULTA_GENERADA.getDescripcion());
+        for (String texto : TEXTO_MULTA) {
+            stmt.setString(i++, texto);
+        }
+        i = parametrosNueva(stmt, i);
+        stmt.setString(i++, EstadoPago.PENDIENTE.getDescripcion());
+        stmt.setString(i++, TipoNotificacion.MULTA_GENERADA.getDescripcion());
+        return i;
+    }
+
+    /**
+     * Estado inicial, próximo intento y fecha de creación de un aviso nuevo
+     */
+    private int parametrosNueva(PreparedStatement stmt, int i) throws SQLException {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        stmt.setString(i++, EstadoNotificacion.PENDIENTE.getDescripcion());
+        stmt.setTimestamp(i++, ahora);
+        stmt.setTimestamp(i++, ahora);
+        return i;
+    }
+
+    @Override
+    public List<Notificacion> reclamarLote(Connection conn, int limite, LocalDateTime ahora,
+                                           LocalDateTime arrendadaHasta) throws SQLException {
+        List<Notificacion> lote = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_LOTE)) {
+            stmt.setString(1, EstadoNotificacion.PENDIENTE.getDescripcion());
+            stmt.setTimestamp(2, Timestamp.valueOf(ahora));
+            stmt.setInt(3, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lote.add(mapResultSetToNotificacion(rs));
+                }
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            try (PreparedStatement stmt = conn.prepareStatement(UPDATE_ARRENDAR)) {
+                for (Notificacion notificacion : lote) {
+                    stmt.setTimestamp(1, Timestamp.valueOf(arrendadaHasta));
+                    stmt.setInt(2, notificacion.getIdNotificacion());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+        return lote;
+    }
+
+    @Override
+    public void marcarEnviadas(List<Integer> ids, LocalDateTime fechaEnvio) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_ENVIADA)) {
+
+            for (Integer id : ids) {
+                stmt.setString(1, EstadoNotificacion.ENVIADA.getDescripcion());
+                stmt.setTimestamp(2, Timestamp.valueOf(fechaEnvio));
+                stmt.setInt(3, id);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public void reprogramar(Notificacion notificacion) throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_REPROGRAMAR)) {
+
+            String error = notificacion.getUltimoError();
+            stmt.setString(1, notificacion.getEstado().getDescripcion());
+            stmt.setInt(2, notificacion.getIntentos());
+            stmt.setTimestamp(3, Timestamp.valueOf(notificacion.getProximoIntento()));
+            stmt.setString(4, error != null && error.length() > MAX_ERROR ? error.substring(0, MAX_ERROR) : error);
+            stmt.setInt(5, notificacion.getIdNotificacion());
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public long countPendientes() throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COUNT_PENDIENTES)) {
+
+            stmt.setString(1, EstadoNotificacion.PENDIENTE.getDescripcion());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> findCreacionPendienteMasAntigua() throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PENDIENTE_MAS_ANTIGUA)) {
+
+            stmt.setString(1, EstadoNotificacion.PENDIENTE.getDescripcion());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getTimestamp(1) != null) {
+                    return Optional.of(rs.getTimestamp(1).toLocalDateTime());
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Notificacion mapResultSetToNotificacion(ResultSet rs) throws SQLException {
+        Notificacion notificacion = new Notificacion();
+        notificacion.setIdNotificacion(rs.getInt("id_notificacion"));
+        notificacion.setTipo(TipoNotificacion.fromString(rs.getString("tipo")));
+        notificacion.setReferencia(rs.getInt("referencia"));
+        notificacion.setIdUsuario(rs.getInt("id_usuario"));
+        notificacion.setDestinatario(rs.getString("destinatario"));
+        notificacion.setAsunto(rs.getString("asunto"));
+        notificacion.setCuerpo(rs.getString("cuerpo"));
+        notificacion.setEstado(EstadoNotificacion.fromString(rs.getString("estado")));
+        notificacion.setIntentos(rs.getInt("intentos"));
+        notificacion.setProximoIntento(rs.getTimestamp("proximo_intento").toLocalDateTime());
+        notificacion.setFechaCreacion(rs.getTimestamp("fecha_creacion").toLocalDateTime());
+
+        Timestamp envio = rs.getTimestamp("fecha_envio");
+        if (envio != null) {
+            notificacion.setFechaEnvio(envio.toLocalDateTime());
+        }
+        notificacion.setUltimoError(rs.getString("ultimo_error"));
+        return notificacion;
+    }
+}
@@ -1,14 +1,26 @@
 package com.biblioteca.dao.impl;
 
+import com.biblioteca.dao.Filtro;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.dao.PrestamoDAO;
+import com.biblioteca.dao.ValidacionLote;
+import com.biblioteca.dao.ValidacionPrestamo;
 import com.biblioteca.model.*;
+import com.biblioteca.model.enums.EstadoFisico;
+import com.biblioteca.model.enums.EstadoPago;
 import com.biblioteca.model.enums.EstadoPrestamo;
 import com.biblioteca.util.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class PrestamoDAOImpl implements PrestamoDAO {
 
@@ -36,13 +48,84 @@ public class PrestamoDAOImpl implements PrestamoDAO {
                     "INNER JOIN Libros l ON e.id_libro = l.id_libro " +
                     "WHERE p.id_usuario = ? AND p.estado = ?";
 
+    private static final String SELECT_PAGINA =
+            "SELECT p.*, u.nombre, u.apellido, e.codigo_barras, l.titulo " +
+                    "FROM Prestamos p " +
+                    "INNER JOIN Usuarios u ON p.id_usuario = u.id_usuario " +
+                    "INNER JOIN Ejemplares e ON p.id_ejemplar = e.id_ejemplar " +
+                    "INNER JOIN Libros l ON e.id_libro = l.id_libro";
+
+    private static final Map<Filtro.Campo, String> PREDICADOS = Map.of(
+            Filtro.Campo.ESTADO, "p.estado = ?",
+            Filtro.Campo.USUARIO, "p.id_usuario = ?",
+            Filtro.Campo.LIBRO, "e.id_libro = ?",
+            Filtro.Campo.DESDE, "p.fecha_salida >= ?",
+            Filtro.Campo.HASTA, "p.fecha_salida < ?");
+
     private static final String COUNT_BY_USUARIO_AND_ESTADO =
             "SELECT COUNT(*) FROM Prestamos WHERE id_usuario = ? AND estado = ?";
 
+    // Una sola lectura con todo lo que valida un préstamo; FOR UPDATE bloquea la fila
+    // del usuario y la del ejemplar, así dos préstamos simultáneos se serializan
+    private static final String SELECT_VALIDACION_PRESTAMO =
+            "SELECT u.nombre, u.apellido, " +
+                    "(SELECT COUNT(*) FROM Multas m " +
+                    " INNER JOIN Prestamos pm ON m.id_prestamo = pm.id_prestamo " +
+                    " WHERE pm.id_usuario = u.id_usuario AND m.estado_pago = ?) AS multas_pendientes, " +
+                    "(SELECT COUNT(*) FROM Prestamos pa " +
+                    " WHERE pa.id_usuario = u.id_usuario AND pa.estado = ?) AS prestamos_activos, " +
+                    "e.id_ejemplar, e.codigo_barras, e.disponible, e.estado_fisico " +
+                    "FROM Usuarios u " +
+                    "LEFT JOIN Ejemplares e ON e.id_ejemplar = ? " +
+                    "WHERE u.id_usuario = ? " +
+                    "FOR UPDATE";
+
+    // Las mismas lecturas por conjuntos, para los préstamos en lote
+    private static final String SELECT_VALIDACION_USUARIOS_PREFIX =
+            "SELECT u.id_usuario, u.nombre, u.apellido, " +
+                    "(SELECT COUNT(*) FROM Multas m " +
+                    " INNER JOIN Prestamos pm ON m.id_prestamo = pm.id_prestamo " +
+                    " WHERE pm.id_usuario = u.id_usuario AND m.estado_pago = ?) AS multas_pendientes, " +
+                    "(SELECT COUNT(*) FROM Prestamos pa " +
+                    " WHERE pa.id_usuario = u.id_usuario AND pa.estado = ?) AS prestamos_activos " +
+                    "FROM Usuarios u WHERE u.id_usuario IN (";
+
+    private static final String SELECT_VALIDACION_EJEMPLARES_PREFIX =
+            "SELECT e.id_ejemplar, e.codigo_barras, e.disponible, e.estado_fisico " +
+                    "FROM Ejemplares e WHERE e.id_ejemplar IN (";
+
+    // El LIMIT permite marcar por lotes sin bloquear toda la tabla en una sola transacción
+    private static final String UPDATE_MARCAR_ATRASADOS =
+            "UPDATE Prestamos SET estado = ? " +
+                    "WHERE estado = ? AND fecha_devolucion_esperada < NOW() " +
+                    "LIMIT ?";
+
+    // Incluye el libro del ejemplar para promover su cola de reservas en la misma transacción
+    private static final String SELECT_PARA_DEVOLUCION =
+            "SELECT p.*, e.id_libro FROM Prestamos p " +
+                    "INNER JOIN Ejemplares e ON p.id_ejemplar = e.id_ejemplar " +
+                    "WHERE p.id_prestamo = ? FOR UPDATE";
+
+    private static final String SELECT_BY_IDS_PREFIX = SELECT_PAGINA + " WHERE p.id_prestamo IN (";
+
+    private static final String SELECT_ABIERTOS_BY_EJEMPLARES_PREFIX =
+            "SELECT id_ejemplar, id_prestamo FROM Prestamos WHERE estado IN (?, ?) AND id_ejemplar IN (";
+
+    private static final String SELECT_PARA_DEVOLUCIONES_PREFIX =
+            "SELECT p.*, e.id_libro FROM Prestamos p " +
+                    "INNER JOIN Ejemplares e ON p.id_ejemplar = e.id_ejemplar " +
+                    "WHERE p.id_prestamo IN (";
+
     @Override
     public Integer save(Prestamo prestamo) throws SQLException {
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return save(conn, prestamo);
+        }
+    }
+
+    @Override
+    public Integer save(Connection conn, Prestamo prestamo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setInt(1, prestamo.getUsuario().getIdUsuario());
             stmt.setInt(2, prestamo.getEjemplar().getIdEjemplar());
@@ -65,8 +148,14 @@ public class PrestamoDAOImpl implements PrestamoDAO {
 
     @Override
     public boolean update(Prestamo prestamo) throws SQLException {
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(UPDATE)) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            return update(conn, prestamo);
+        }
+    }
+
+    @Override
+    public boolean update(Connection conn, Prestamo prestamo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE)) {
 
             stmt.setTimestamp(1, prestamo.getFechaDevolucionReal() != null ?
                     Timestamp.valueOf(prestamo.getFechaDevolucionReal()) : null);
@@ -214,6 +303,72 @@ public class PrestamoDAOImpl implements PrestamoDAO {
         return prestamos;
     }
 
+    @Override
+    public List<Prestamo> findByFiltro(Filtro filtro) throws SQLException {
+        return ConsultaFiltrada.listar(SELECT_PAGINA, PREDICADOS, filtro,
+                "p.fecha_salida DESC", this::mapResultSetToPrestamo);
+    }
+
+    /**
+     * Recorre el histórico con un cursor en el servidor. Se ordena por clave primaria
+     * para que MySQL lea el índice en orden en lugar de ordenar toda la tabla.
+     */
+    @Override
+    public Stream<Prestamo> streamAll() throws SQLException {
+        return ConsultaEnFlujo.abrir(SELECT_PAGINA + " ORDER BY p.id_prestamo", this::mapResultSetToPrestamo);
+    }
+
+    @Override
+    public Stream<Prestamo> streamByFiltro(Filtro filtro) throws SQLException {
+        return ConsultaFiltrada.flujo(SELECT_PAGINA, PREDICADOS, filtro, "p.id_prestamo", this::mapResultSetToPrestamo);
+    }
+
+    @Override
+    public Pagina<Prestamo, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        String sql = ConsultaPaginada.sql(SELECT_PAGINA, "p.id_prestamo", despuesDe != null, orden);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leer(rs, limite, this::mapResultSetToPrestamo, Prestamo::getIdPrestamo);
+            }
+        }
+    }
+
+    @Override
+    public Optional<ValidacionPrestamo> bloquearParaPrestamo(Connection conn, Integer idUsuario,
+                                                            Integer idEjemplar) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_VALIDACION_PRESTAMO)) {
+            stmt.setString(1, EstadoPago.PENDIENTE.getDescripcion());
+            stmt.setString(2, EstadoPrestamo.ACTIVO.getDescripcion());
+            stmt.setInt(3, idEjemplar);
+            stmt.setInt(4, idUsuario);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+
+                rs.getInt("id_ejemplar");
+                boolean ejemplarExiste = !rs.wasNull();
+                String estadoFisico = rs.getString("estado_fisico");
+
+                return Optional.of(new ValidacionPrestamo(
+                        rs.getString("nombre"),
+                        rs.getString("apellido"),
+                        rs.getInt("multas_pendientes"),
+                        rs.getInt("prestamos_activos"),
+                        ejemplarExiste,
+                        rs.getString("codigo_barras"),
+                        rs.getBoolean("disponible"),
+                        estadoFisico != null ? EstadoFisico.fromString(estadoFisico) : null));
+            }
+        }
+    }
+
     @Override
     public long count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Prestamos";
@@ -233,7 +388,252 @@ public class PrestamoDAOImpl implements PrestamoDAO {
         return findById(id).isPresent();
     }
 
-    private Prestamo mapResultSetToPrestamo(ResultSet rs) throws SQLException {
+    @Override
+    public Optional<Prestamo> bloquearParaDevolucion(Connection conn, Integer idPrestamo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PARA_DEVOLUCION)) {
+            stmt.setInt(1, idPrestamo);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                return Optional.of(mapParaDevolucion(rs));
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, Prestamo> bloquearParaDevoluciones(Connection conn, Collection<Integer> idsPrestamo)
+            throws SQLException {
+        Map<Integer, Prestamo> prestamos = new HashMap<>();
+        if (idsPrestamo.isEmpty()) {
+            return prestamos;
+        }
+
+        String sql = SELECT_PARA_DEVOLUCIONES_PREFIX +
+                String.join(", ", Collections.nCopies(idsPrestamo.size(), "?")) + ") FOR UPDATE";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (Integer idPrestamo : idsPrestamo) {
+                stmt.setInt(i++, idPrestamo);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Prestamo prestamo = mapParaDevolucion(rs);
+                    prestamos.put(prestamo.getIdPrestamo(), prestamo);
+                }
+            }
+        }
+        return prestamos;
+    }
+
+    @Override
+    public List<Prestamo> findByIds(Collection<Integer> ids) throws SQLException {
+        List<Prestamo> prestamos = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return prestamos;
+        }
+
+        String sql = SELECT_BY_IDS_PREFIX + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            for (Integer id : ids) {
+                stmt.setInt(i++, id);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    prestamos.add(mapResultSetToPrestamo(rs));
+                }
+            }
+        }
+        return prestamos;
+    }
+
+    @Override
+    public Map<Integer, Integer> findPrestamosAbiertosByEjemplares(Collection<Integer> idsEjemplar)
+            throws SQLException {
+        Map<Integer, Integer> abiertos = new HashMap<>();
+        if (idsEjemplar.isEmpty()) {
+            return abiertos;
+        }
+
+        String sql = SELECT_ABIERTOS_BY_EJEMPLARES_PREFIX +
+                String.join(", ", Collections.nCopies(idsEjemplar.size(), "?")) + ")";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, EstadoPrestamo.ACTIVO.getDescripcion());
+            stmt.setString(2, EstadoPrestamo.ATRASADO.getDescripcion());
+            int i = 3;
+            for (Integer idEjemplar : idsEjemplar) {
+                stmt.setInt(i++, idEjemplar);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    abiertos.put(rs.getInt("id_ejemplar"), rs.getInt("id_prestamo"));
+                }
+            }
+        }
+        return abiertos;
+    }
+
+    /**
+     * Préstamo para devolver: el usuario solo lleva su id; el ejemplar, su id y el id de su libro
+     */
+    private Prestamo mapParaDevolucion(ResultSet rs) throws SQLException {
+        Prestamo prestamo = new Prestamo();
+        prestamo.setIdPrestamo(rs.getInt("id_prestamo"));
+        prestamo.setFechaSalida(rs.getTimestamp("fecha_salida").toLocalDateTime());
+        prestamo.setFechaDevolucionEsperada(rs.getTimestamp("fecha_devolucion_esperada").toLocalDateTime());
+
+        Timestamp devolucionReal = rs.getTimestamp("fecha_devolucion_real");
+        if (devolucionReal != null) {
+            prestamo.setFechaDevolucionReal(devolucionReal.toLocalDateTime());
+        }
+        prestamo.setEstado(EstadoPrestamo.fromString(rs.getString("estado")));
+
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(rs.getInt("id_usuario"));
+        prestamo.setUsuario(usuario);
+
+        Libro libro = new Libro();
+        libro.setIdLibro(rs.getInt("id_libro"));
+
+        Ejemplar ejemplar = new Ejemplar();
+        ejemplar.setIdEjemplar(rs.getInt("id_ejemplar"));
+        ejemplar.setLibro(libro);
+        prestamo.setEjemplar(ejemplar);
+
+        return prestamo;
+    }
+
+    @Override
+    public ValidacionLote bloquearParaPrestamos(Connection conn, Collection<Integer> idsUsuario,
+                                                Collection<Integer> idsEjemplar) throws SQLException {
+        Map<Integer, ValidacionLote.DatosUsuario> usuarios = new HashMap<>();
+        Map<Integer, ValidacionLote.DatosEjemplar> ejemplares = new HashMap<>();
+
+        if (!idsUsuario.isEmpty()) {
+            String sql = SELECT_VALIDACION_USUARIOS_PREFIX +
+                    String.join(", ", Collections.nCopies(idsUsuario.size(), "?")) + ") FOR UPDATE";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, EstadoPago.PENDIENTE.getDescripcion());
+                stmt.setString(2, EstadoPrestamo.ACTIVO.getDescripcion());
+                int i = 3;
+                for (Integer idUsuario : idsUsuario) {
+                    stmt.setInt(i++, idUsuario);
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        usuarios.put(rs.getInt("id_usuario"), new ValidacionLote.DatosUsuario(
+                                rs.getString("nombre"),
+                                rs.getString("apellido"),
+                                rs.getInt("multas_pendientes"),
+                                rs.getInt("prestamos_activos")));
+                    }
+                }
+            }
+        }
+
+        if (!idsEjemplar.isEmpty()) {
+            String sql = SELECT_VALIDACION_EJEMPLARES_PREFIX +
+                    String.join(", ", Collections.nCopies(idsEjemplar.size(), "?")) + ") FOR UPDATE";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int i = 1;
+                for (Integer idEjemplar : idsEjemplar) {
+                    stmt.setInt(i++, idEjemplar);
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String estadoFisico = rs.getString("estado_fisico");
+                        ejemplares.put(rs.getInt("id_ejemplar"), new ValidacionLote.DatosEjemplar(
+                                rs.getString("codigo_barras"),
+                                rs.getBoolean("disponible"),
+                                estadoFisico != null ? EstadoFisico.fromString(estadoFisico) : null));
+                    }
+                }
+            }
+        }
+
+        return new ValidacionLote(usuarios, ejemplares);
+    }
+
+    @Override
+    public void saveAll(Connection conn, List<Prestamo> prestamos) throws SQLException {
+        if (prestamos.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (Prestamo prestamo : prestamos) {
+                stmt.setInt(1, prestamo.getUsuario().getIdUsuario());
+                stmt.setInt(2, prestamo.getEjemplar().getIdEjemplar());
+                stmt.setTimestamp(3, Timestamp.valueOf(prestamo.getFechaSalida()));
+                stmt.setTimestamp(4, Timestamp.valueOf(prestamo.getFechaDevolucionEsperada()));
+                stmt.setTimestamp(5, prestamo.getFechaDevolucionReal() != null ?
+                        Timestamp.valueOf(prestamo.getFechaDevolucionReal()) : null);
+                stmt.setString(6, prestamo.getEstado().getDescripcion());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            // Las claves llegan en el mismo orden que las filas del lote
+            int i = 0;
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                while (generatedKeys.next() && i < prestamos.size()) {
+                    prestamos.get(i++).setIdPrestamo(generatedKeys.getInt(1));
+                }
+            }
+            if (i < prestamos.size()) {
+                throw new SQLException("No se pudieron guardar los préstamos del lote");
+            }
+        }
+    }
+
+    @Override
+    public void updateAll(Connection conn, List<Prestamo> prestamos) throws SQLException {
+        if (prestamos.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE)) {
+            for (Prestamo prestamo : prestamos) {
+                stmt.setTimestamp(1, prestamo.getFechaDevolucionReal() != null ?
+                        Timestamp.valueOf(prestamo.getFechaDevolucionReal()) : null);
+                stmt.setString(2, prestamo.getEstado().getDescripcion());
+                stmt.setInt(3, prestamo.getIdPrestamo());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @Override
+    public int marcarAtrasados(Connection conn, int limite) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_MARCAR_ATRASADOS)) {
+            stmt.setString(1, EstadoPrestamo.ATRASADO.getDescripcion());
+            stmt.setString(2, EstadoPrestamo.ACTIVO.getDescripcion());
+            stmt.setInt(3, limite);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Mapea la fila actual a un Prestamo (visible en el paquete para los benchmarks de mapeo)
+     */
+    Prestamo mapResultSetToPrestamo(ResultSet rs) throws SQLException {
         Prestamo prestamo = new Prestamo();
         prestamo.setIdPrestamo(rs.getInt("id_prestamo"));
         prestamo.setFechaSalida(rs.getTimestamp("fecha_salida").toLocalDateTime());
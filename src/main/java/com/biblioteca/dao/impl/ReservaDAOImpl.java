@@ -1,5 +1,8 @@
 package com.biblioteca.dao.impl;
 
+import com.biblioteca.dao.Filtro;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.dao.ReservaDAO;
 import com.biblioteca.model.Libro;
 import com.biblioteca.model.Reserva;
@@ -11,8 +14,14 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Implementación del DAO de Reservas
@@ -65,6 +74,41 @@ public class ReservaDAOImpl implements ReservaDAO {
                     "INNER JOIN Libros l ON r.id_libro = l.id_libro " +
                     "WHERE r.id_libro = ? ORDER BY r.fecha_reserva ASC";
 
+    // Cola de un libro: el índice (id_libro, estado, fecha_reserva) la devuelve ya ordenada
+    // CREATE INDEX idx_reservas_libro_estado ON Reservas (id_libro, estado, fecha_reserva)
+    private static final String SELECT_PENDIENTES_BY_LIBRO =
+            "SELECT r.*, u.nombre, u.apellido, l.titulo, l.isbn " +
+                    "FROM Reservas r " +
+                    "INNER JOIN Usuarios u ON r.id_usuario = u.id_usuario " +
+                    "INNER JOIN Libros l ON r.id_libro = l.id_libro " +
+                    "WHERE r.id_libro = ? AND r.estado = ? " +
+                    "ORDER BY r.fecha_reserva, r.id_reserva";
+
+    // Cabeza de la cola: con el mismo índice solo se lee (y bloquea) la primera fila
+    private static final String SELECT_PRIMERA_PENDIENTE_FOR_UPDATE =
+            "SELECT id_reserva FROM Reservas " +
+                    "WHERE id_libro = ? AND estado = ? " +
+                    "ORDER BY fecha_reserva, id_reserva LIMIT 1 FOR UPDATE";
+
+    private static final String SELECT_LIBROS_CON_PENDIENTES_PREFIX =
+            "SELECT DISTINCT id_libro FROM Reservas WHERE estado = ? AND id_libro IN (";
+
+    private static final String UPDATE_ESTADO_CONDICIONAL =
+            "UPDATE Reservas SET estado = ? WHERE id_reserva = ? AND estado = ?";
+
+    private static final String SELECT_PAGINA =
+            "SELECT r.*, u.nombre, u.apellido, l.titulo, l.isbn " +
+                    "FROM Reservas r " +
+                    "INNER JOIN Usuarios u ON r.id_usuario = u.id_usuario " +
+                    "INNER JOIN Libros l ON r.id_libro = l.id_libro";
+
+    private static final Map<Filtro.Campo, String> PREDICADOS = Map.of(
+            Filtro.Campo.ESTADO, "r.estado = ?",
+            Filtro.Campo.USUARIO, "r.id_usuario = ?",
+            Filtro.Campo.LIBRO, "r.id_libro = ?",
+            Filtro.Campo.DESDE, "r.fecha_reserva >= ?",
+            Filtro.Campo.HASTA, "r.fecha_reserva < ?");
+
     private static final String CHECK_RESERVA_ACTIVA =
             "SELECT COUNT(*) FROM Reservas " +
                     "WHERE id_usuario = ? AND id_libro = ? AND estado = 'Pendiente'";
@@ -273,7 +317,77 @@ public class ReservaDAOImpl implements ReservaDAO {
 
     @Override
     public List<Reserva> findReservasPendientesByLibro(Integer idLibro) throws SQLException {
-        return findByUsuarioAndEstado(idLibro, EstadoReserva.PENDIENTE);
+        logger.debug("Buscando reservas pendientes del libro {}", idLibro);
+
+        List<Reserva> reservas = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PENDIENTES_BY_LIBRO)) {
+
+            stmt.setInt(1, idLibro);
+            stmt.setString(2, EstadoReserva.PENDIENTE.getDescripcion());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    reservas.add(mapResultSetToReserva(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error al buscar reservas pendientes por libro", e);
+            throw e;
+        }
+
+        return reservas;
+    }
+
+    @Override
+    public Optional<Integer> bloquearPrimeraPendiente(Connection conn, Integer idLibro) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PRIMERA_PENDIENTE_FOR_UPDATE)) {
+            stmt.setInt(1, idLibro);
+            stmt.setString(2, EstadoReserva.PENDIENTE.getDescripcion());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getInt(1)) : Optional.empty();
+            }
+        }
+    }
+
+    @Override
+    public Set<Integer> findLibrosConPendientes(Connection conn, Collection<Integer> idsLibro) throws SQLException {
+        Set<Integer> conPendientes = new HashSet<>();
+        if (idsLibro.isEmpty()) {
+            return conPendientes;
+        }
+
+        List<Integer> ids = new ArrayList<>(idsLibro);
+        String sql = SELECT_LIBROS_CON_PENDIENTES_PREFIX +
+                String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, EstadoReserva.PENDIENTE.getDescripcion());
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 2, ids.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    conPendientes.add(rs.getInt(1));
+                }
+            }
+        }
+        return conPendientes;
+    }
+
+    @Override
+    public boolean cambiarEstado(Connection conn, Integer idReserva, EstadoReserva esperado, EstadoReserva nuevo)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_ESTADO_CONDICIONAL)) {
+            stmt.setString(1, nuevo.getDescripcion());
+            stmt.setInt(2, idReserva);
+            stmt.setString(3, esperado.getDescripcion());
+            return stmt.executeUpdate() > 0;
+        }
     }
 
     @Override
@@ -312,6 +426,52 @@ public class ReservaDAOImpl implements ReservaDAO {
         return 0;
     }
 
+    @Override
+    public List<Reserva> findByFiltro(Filtro filtro) throws SQLException {
+        logger.debug("Buscando reservas con {}", filtro);
+        try {
+            return ConsultaFiltrada.listar(SELECT_PAGINA, PREDICADOS, filtro,
+                    "r.fecha_reserva DESC", this::mapResultSetToReserva);
+        } catch (SQLException e) {
+            logger.error("Error al buscar reservas con {}", filtro, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Recorre el histórico con un cursor en el servidor. Se ordena por clave primaria
+     * para que MySQL lea el índice en orden en lugar de ordenar toda la tabla.
+     */
+    @Override
+    public Stream<Reserva> streamAll() throws SQLException {
+        return ConsultaEnFlujo.abrir(SELECT_PAGINA + " ORDER BY r.id_reserva", this::mapResultSetToReserva);
+    }
+
+    @Override
+    public Stream<Reserva> streamByFiltro(Filtro filtro) throws SQLException {
+        return ConsultaFiltrada.flujo(SELECT_PAGINA, PREDICADOS, filtro, "r.id_reserva", this::mapResultSetToReserva);
+    }
+
+    @Override
+    public Pagina<Reserva, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        logger.debug("Obteniendo página de reservas después de {} (límite {}, {})", despuesDe, limite, orden);
+
+        String sql = ConsultaPaginada.sql(SELECT_PAGINA, "r.id_reserva", despuesDe != null, orden);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leer(rs, limite, this::mapResultSetToReserva, Reserva::getIdReserva);
+            }
+        } catch (SQLException e) {
+            logger.error("Error al obtener página de reservas", e);
+            throw e;
+        }
+    }
+
     @Override
     public long count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Reservas";
@@ -336,7 +496,10 @@ public class ReservaDAOImpl implements ReservaDAO {
         return findById(id).isPresent();
     }
 
-    private Reserva mapResultSetToReserva(ResultSet rs) throws SQLException {
+    /**
+     * Mapea la fila actual a un Reserva (visible en el paquete para los benchmarks de mapeo)
+     */
+    Reserva mapResultSetToReserva(ResultSet rs) throws SQLException {
         Reserva reserva = new Reserva();
         reserva.setIdReserva(rs.getInt("id_reserva"));
         reserva.setFechaReserva(rs.getTimestamp("fecha_reserva").toLocalDateTime());
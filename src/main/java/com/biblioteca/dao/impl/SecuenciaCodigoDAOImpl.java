@@ -0,0 +1,115 @@
+package com.biblioteca.dao.impl;
+
+import com.biblioteca.dao.SecuenciaCodigoDAO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.OptionalInt;
+
+/**
+ * Implementación sobre la tabla SecuenciasCodigos:
+ * <pre>
+ * CREATE TABLE SecuenciasCodigos (
+ *     prefijo VARCHAR(10) PRIMARY KEY,
+ *     siguiente INT NOT NULL
+ * );
+ * </pre>
+ * (también en el esquema H2 de los benchmarks). Cada reserva bloquea solo la
+ * fila de su prefijo, así que dos altas del mismo prefijo se serializan y las de prefijos
+ * distintos no se esperan entre sí.
+ * <p>
+ * La fila se crea antes de bloquearla: un SELECT ... FOR UPDATE sobre una fila que aún no
+ * existe toma un bloqueo de hueco en InnoDB, y dos primeros usos simultáneos del mismo
+ * prefijo se interbloquearían al insertar. El INSERT usa ON DUPLICATE KEY UPDATE en lugar de
+ * INSERT IGNORE porque toma el bloqueo exclusivo de la fila directamente (INSERT IGNORE toma
+ * uno compartido que el FOR UPDATE tendría que ampliar).
+ */
+public class SecuenciaCodigoDAOImpl implements SecuenciaCodigoDAO {
+
+    private static final String SELECT_EXISTE =
+            "SELECT 1 FROM SecuenciasCodigos WHERE prefijo = ?";
+
+    private static final String SELECT_PARA_RESERVAR =
+            "SELECT siguiente FROM SecuenciasCodigos WHERE prefijo = ? FOR UPDATE";
+
+    // Si otro equipo crea la fila a la vez, su INSERT gana y este no cambia nada
+    private static final String INSERT_SECUENCIA =
+            "INSERT INTO SecuenciasCodigos (prefijo, siguiente) VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE siguiente = siguiente";
+
+    private static final String UPDATE_AVANZAR =
+            "UPDATE SecuenciasCodigos SET siguiente = siguiente + ? WHERE prefijo = ?";
+
+    private static final String SELECT_CODIGOS_PREFIJO =
+            "SELECT codigo_barras FROM Ejemplares WHERE codigo_barras LIKE ?";
+
+    @Override
+    public int reservarBloque(Connection conn, String prefijo, int cantidad) throws SQLException {
+        if (cantidad < 1) {
+            throw new IllegalArgumentException("La cantidad de códigos debe ser positiva: " + cantidad);
+        }
+
+        if (!existe(conn, prefijo)) {
+            // Primer uso del prefijo: continuar la numeración de los códigos existentes
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SECUENCIA)) {
+                stmt.setString(1, prefijo);
+                stmt.setInt(2, mayorNumeroExistente(conn, prefijo) + 1);
+                stmt.executeUpdate();
+            }
+        }
+
+        OptionalInt siguiente = leerSiguiente(conn, prefijo);
+        if (siguiente.isEmpty()) {
+            throw new SQLException("No se pudo crear la secuencia de códigos " + prefijo);
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_AVANZAR)) {
+            stmt.setInt(1, cantidad);
+            stmt.setString(2, prefijo);
+            stmt.executeUpdate();
+        }
+        return siguiente.getAsInt();
+    }
+
+    /**
+     * Lectura sin bloqueo: solo decide si hace falta crear la fila
+     */
+    private boolean existe(Connection conn, String prefijo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_EXISTE)) {
+            stmt.setString(1, prefijo);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private OptionalInt leerSiguiente(Connection conn, String prefijo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_PARA_RESERVAR)) {
+            stmt.setString(1, prefijo);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? OptionalInt.of(rs.getInt("siguiente")) : OptionalInt.empty();
+            }
+        }
+    }
+
+    /**
+     * Mayor sufijo numérico de los códigos "PREFIJO-n" ya asignados (0 si no hay ninguno)
+     */
+    private int mayorNumeroExistente(Connection conn, String prefijo) throws SQLException {
+        int mayor = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_CODIGOS_PREFIJO)) {
+            stmt.setString(1, prefijo + "-%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String sufijo = rs.getString("codigo_barras").substring(prefijo.length() + 1);
+                    if (!sufijo.isEmpty() && sufijo.length() < 10 && sufijo.chars().allMatch(Character::isDigit)) {
+                        mayor = Math.max(mayor, Integer.parseInt(sufijo));
+                    }
+                }
+            }
+        }
+        return mayor;
+    }
+}
@@ -1,6 +1,8 @@
 package com.biblioteca.dao.impl;
 
 import com.biblioteca.dao.UbicacionDAO;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.model.Ubicacion;
 import com.biblioteca.util.DatabaseConnection;
 
@@ -39,21 +41,37 @@ public class UbicacionDAOImpl implements UbicacionDAO {
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Ubicacion u = new Ubicacion();
-                u.setIdUbicacion(rs.getInt("id_ubicacion"));
-                u.setPasillo(rs.getString("pasillo"));
-                u.setEstante(rs.getString("estante"));
-                u.setPiso(rs.getInt("piso"));
-                lista.add(u);
+                lista.add(mapResultSetToUbicacion(rs));
             }
         }
         return lista;
     }
 
+    @Override
+    public Pagina<Ubicacion, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        String sql = ConsultaPaginada.sql("SELECT * FROM Ubicaciones", "id_ubicacion", despuesDe != null, orden);
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leer(rs, limite, this::mapResultSetToUbicacion, Ubicacion::getIdUbicacion);
+            }
+        }
+    }
+
     // Métodos obligatorios de la interfaz GenericDAO (puedes dejarlos básicos por ahora)
     @Override public boolean update(Ubicacion u) throws SQLException { return false; }
     @Override public boolean delete(Integer id) throws SQLException { return false; }
     @Override public Optional<Ubicacion> findById(Integer id) throws SQLException { return Optional.empty(); }
     @Override public long count() throws SQLException { return 0; }
     @Override public boolean existsById(Integer id) throws SQLException { return false; }
+
+    private Ubicacion mapResultSetToUbicacion(ResultSet rs) throws SQLException {
+        Ubicacion u = new Ubicacion();
+        u.setIdUbicacion(rs.getInt("id_ubicacion"));
+        u.setPasillo(rs.getString("pasillo"));
+        u.setEstante(rs.getString("estante"));
+        u.setPiso(rs.getInt("piso"));
+        return u;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.biblioteca.dao.impl;
 
+import com.biblioteca.dao.Cursor;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
 import com.biblioteca.dao.UsuarioDAO;
 import com.biblioteca.model.Rol;
 import com.biblioteca.model.Usuario;
@@ -20,6 +23,9 @@ public class UsuarioDAOImpl implements UsuarioDAO {
             "UPDATE Usuarios SET nombre = ?, apellido = ?, email = ?, password = ?, " +
                     "telefono = ?, id_rol = ? WHERE id_usuario = ?";
 
+    private static final String UPDATE_PASSWORD =
+            "UPDATE Usuarios SET password = ? WHERE id_usuario = ? AND password = ?";
+
     private static final String DELETE = "DELETE FROM Usuarios WHERE id_usuario = ?";
 
     private static final String SELECT_BY_ID =
@@ -34,6 +40,12 @@ public class UsuarioDAOImpl implements UsuarioDAO {
             "SELECT u.*, r.nombre_rol FROM Usuarios u " +
                     "INNER JOIN Roles r ON u.id_rol = r.id_rol ORDER BY u.apellido, u.nombre";
 
+    // Páginas por apellido y nombre, como findAll; la clave es (apellido, nombre, id_usuario)
+    // CREATE INDEX idx_usuarios_apellido_nombre ON Usuarios (apellido, nombre, id_usuario)
+    private static final String SELECT_PAGINA =
+            "SELECT u.*, r.nombre_rol FROM Usuarios u " +
+                    "INNER JOIN Roles r ON u.id_rol = r.id_rol";
+
     @Override
     public Integer save(Usuario usuario) throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -75,6 +87,20 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         }
     }
 
+    @Override
+    public boolean updatePassword(Integer idUsuario, String passwordEsperada, String passwordNueva)
+            throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_PASSWORD)) {
+
+            stmt.setString(1, passwordNueva);
+            stmt.setInt(2, idUsuario);
+            stmt.setString(3, passwordEsperada);
+
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
     @Override
     public boolean delete(Integer id) throws SQLException {
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
@@ -151,6 +177,37 @@ public class UsuarioDAOImpl implements UsuarioDAO {
         return usuarios;
     }
 
+    @Override
+    public Pagina<Usuario, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        if (despuesDe == null) {
+            return findPageDesde(null, limite, orden);
+        }
+        Usuario ultimo = findById(despuesDe)
+                .orElseThrow(() -> new IllegalArgumentException("No existe el usuario " + despuesDe));
+        return findPageDesde(cursor(ultimo), limite, orden);
+    }
+
+    @Override
+    public Pagina<Usuario, Integer> findPageDesde(Cursor<Integer> despuesDe, int limite, Orden orden)
+            throws SQLException {
+        String sql = ConsultaPaginada.sql(SELECT_PAGINA, "u", "id_usuario",
+                List.of("apellido", "nombre"), despuesDe != null, orden);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ConsultaPaginada.parametros(stmt, 1, despuesDe, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ConsultaPaginada.leerConCursor(rs, limite, this::mapResultSetToUsuario, UsuarioDAOImpl::cursor);
+            }
+        }
+    }
+
+    private static Cursor<Integer> cursor(Usuario usuario) {
+        return new Cursor<>(List.of(usuario.getApellido(), usuario.getNombre()), usuario.getIdUsuario());
+    }
+
     @Override
     public long count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Usuarios";
@@ -0,0 +1,191 @@
+package com.biblioteca.dao.indice;
+
+import com.biblioteca.dao.Cursor;
+import com.biblioteca.dao.EjemplarDAO;
+import com.biblioteca.dao.Filtro;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
+import com.biblioteca.dao.impl.EjemplarDAOImpl;
+import com.biblioteca.model.Ejemplar;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de {@link EjemplarDAO} que mantiene el {@link IndiceCodigosBarras} con cada
+ * alta, modificación o baja, y resuelve los códigos escaneados contra él.
+ * <p>
+ * Los cambios de disponibilidad dentro de una transacción no tocan el índice (podría haber
+ * rollback): quien confirma la transacción lo actualiza después.
+ */
+public class EjemplarDAOIndexado implements EjemplarDAO {
+
+    private final EjemplarDAO delegado;
+    private final IndiceCodigosBarras indice = IndiceCodigosBarras.getInstance();
+
+    public EjemplarDAOIndexado() {
+        this(new EjemplarDAOImpl());
+    }
+
+    public EjemplarDAOIndexado(EjemplarDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    /**
+     * Resuelve un código escaneado: primero en memoria y, si no está, con
+     * {@link #findByCodigoBarras} (ejemplares dados de alta desde otro equipo)
+     * @return vacío si el código no existe
+     */
+    public Optional<IndiceCodigosBarras.Entrada> resolver(String codigo) throws SQLException {
+        Optional<IndiceCodigosBarras.Entrada> entrada = indice.buscar(codigo);
+        if (entrada.isPresent()) {
+            return entrada;
+        }
+        findByCodigoBarras(codigo.trim());
+        return indice.buscar(codigo);
+    }
+
+    /**
+     * Vuelve a leer un ejemplar por código y actualiza su entrada
+     * (por ejemplo si el índice decía que estaba disponible y no lo estaba)
+     */
+    public void recargar(String codigo) throws SQLException {
+        findByCodigoBarras(codigo.trim());
+    }
+
+    /**
+     * Vuelve a construir el índice leyendo todos los ejemplares
+     * (al iniciar o si la tabla se modificó fuera de la aplicación)
+     */
+    public void reconstruirIndice() throws SQLException {
+        indice.reconstruir(() -> {
+            try (Stream<Ejemplar> ejemplares = delegado.streamByFiltro(Filtro.nuevo())) {
+                return ejemplares.toList();
+            }
+        });
+    }
+
+    /**
+     * Refleja en el índice un préstamo o una devolución, una vez confirmada su transacción
+     */
+    public void confirmarDisponibilidad(Collection<Integer> idsEjemplar, boolean disponible) {
+        indice.marcarDisponibilidad(idsEjemplar, disponible);
+    }
+
+    /**
+     * Indexa los ejemplares guardados con {@link #saveAll}, una vez confirmada su transacción
+     */
+    public void confirmarAltas(Collection<Ejemplar> ejemplares) {
+        ejemplares.forEach(indice::indexar);
+    }
+
+    // ---- Escrituras: van al DAO real y actualizan el índice ----
+
+    @Override
+    public Integer save(Ejemplar ejemplar) throws SQLException {
+        Integer id = delegado.save(ejemplar);
+        if (id != null && ejemplar.getIdEjemplar() == null) {
+            ejemplar.setIdEjemplar(id);
+        }
+        indice.indexar(ejemplar);
+        return id;
+    }
+
+    @Override
+    public boolean update(Ejemplar ejemplar) throws SQLException {
+        boolean actualizado = delegado.update(ejemplar);
+        if (actualizado) {
+            indice.indexar(ejemplar);
+        }
+        return actualizado;
+    }
+
+    @Override
+    public boolean delete(Integer id) throws SQLException {
+        boolean eliminado = delegado.delete(id);
+        if (eliminado) {
+            indice.quitar(id);
+        }
+        return eliminado;
+    }
+
+    @Override
+    public void saveAll(Connection conn, List<Ejemplar> ejemplares) throws SQLException {
+        delegado.saveAll(conn, ejemplares);
+    }
+
+    @Override
+    public boolean actualizarDisponibilidad(Connection conn, Integer idEjemplar, boolean disponible)
+            throws SQLException {
+        return delegado.actualizarDisponibilidad(conn, idEjemplar, disponible);
+    }
+
+    @Override
+    public List<Integer> actualizarDisponibilidad(Connection conn, List<Integer> idsEjemplar, boolean disponible)
+            throws SQLException {
+        return delegado.actualizarDisponibilidad(conn, idsEjemplar, disponible);
+    }
+
+    // ---- Lecturas: sin cambios, salvo que la búsqueda por código refresca su entrada ----
+
+    @Override
+    public Optional<Ejemplar> findByCodigoBarras(String codigoBarras) throws SQLException {
+        Optional<Ejemplar> ejemplar = delegado.findByCodigoBarras(codigoBarras);
+        ejemplar.ifPresent(indice::indexar);
+        return ejemplar;
+    }
+
+    @Override
+    public List<Ejemplar> findByLibro(Integer idLibro) throws SQLException {
+        return delegado.findByLibro(idLibro);
+    }
+
+    @Override
+    public List<Ejemplar> findDisponiblesByLibro(Integer idLibro) throws SQLException {
+        return delegado.findDisponiblesByLibro(idLibro);
+    }
+
+    @Override
+    public Optional<Ejemplar> findById(Integer id) throws SQLException {
+        return delegado.findById(id);
+    }
+
+    @Override
+    public List<Ejemplar> findAll() throws SQLException {
+        return delegado.findAll();
+    }
+
+    @Override
+    public List<Ejemplar> findByFiltro(Filtro filtro) throws SQLException {
+        return delegado.findByFiltro(filtro);
+    }
+
+    @Override
+    public Stream<Ejemplar> streamByFiltro(Filtro filtro) throws SQLException {
+        return delegado.streamByFiltro(filtro);
+    }
+
+    @Override
+    public Pagina<Ejemplar, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        return delegado.findPage(despuesDe, limite, orden);
+    }
+
+    @Override
+    public Pagina<Ejemplar, Integer> findPageDesde(Cursor<Integer> despuesDe, int limite, Orden orden) throws SQLException {
+        return delegado.findPageDesde(despuesDe, limite, orden);
+    }
+
+    @Override
+    public long count() throws SQLException {
+        return delegado.count();
+    }
+
+    @Override
+    public boolean existsById(Integer id) throws SQLException {
+        return delegado.existsById(id);
+    }
+}
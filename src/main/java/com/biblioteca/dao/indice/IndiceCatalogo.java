@@ -0,0 +1,584 @@
+package com.biblioteca.dao.indice;
+
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria del catálogo para búsquedas por título, autor e ISBN.
+ *
+ * Cada libro se descompone en términos normalizados (minúsculas, sin acentos) de su título,
+ * de los nombres de sus autores y de su ISBN (en formato 10 y 13). Una búsqueda con varios
+ * términos devuelve los libros que contienen todos ellos, como término completo o como prefijo,
+ * ordenados por relevancia. Solo guarda lo necesario para buscar: los libros completos
+ * se leen después por ID.
+ */
+public class IndiceCatalogo {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceCatalogo.class);
+
+    private static final IndiceCatalogo INSTANCE = new IndiceCatalogo();
+
+    // Campos de origen de un término (máscara de bits)
+    private static final byte CAMPO_TITULO = 1;
+    private static final byte CAMPO_AUTOR = 2;
+    private static final byte CAMPO_ISBN = 4;
+
+    // Con esta cantidad de candidatos o menos, los términos restantes se comprueban
+    // sobre cada candidato en lugar de recorrer todas sus apariciones
+    private static final int UMBRAL_VERIFICACION_DIRECTA = 4096;
+
+    // Prefijos que abarcan más términos que esto se consideran los menos selectivos
+    private static final int MAX_TERMINOS_PARA_ESTIMAR = 256;
+
+    // Por debajo de este largo un término solo coincide completo (no como prefijo)
+    private static final int LARGO_MINIMO_PREFIJO = 2;
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Términos de un libro con el campo del que proviene cada uno
+     * (para verificar candidatos y para poder quitar el libro del índice)
+     */
+    private record Entrada(String[] terminos, byte[] campos) {
+    }
+
+    /**
+     * Libros en los que aparece un término, con el campo de cada aparición.
+     * Arreglos primitivos para que recorrerlos sea secuencial y no cree objetos.
+     */
+    private static final class Postings {
+        int[] ids = new int[2];
+        byte[] campos = new byte[2];
+        int tamanio;
+
+        void agregar(int id, byte campo) {
+            if (tamanio == ids.length) {
+                ids = Arrays.copyOf(ids, tamanio * 2);
+                campos = Arrays.copyOf(campos, tamanio * 2);
+            }
+            ids[tamanio] = id;
+            campos[tamanio] = campo;
+            tamanio++;
+        }
+
+        void quitar(int id) {
+            for (int i = 0; i < tamanio; i++) {
+                if (ids[i] == id) {
+                    tamanio--;
+                    ids[i] = ids[tamanio];
+                    campos[i] = campos[tamanio];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Acumuladores por ID de libro. Se reutilizan entre búsquedas del mismo hilo para no
+     * reservar arreglos del tamaño del catálogo en cada consulta; tras usarlos
+     * solo se limpian las posiciones de los candidatos.
+     */
+    private static final class Acumuladores {
+        int[] puntajes = new int[0];
+        byte[] mejorDelTermino = new byte[0];
+
+        void asegurar(int tamanio) {
+            if (puntajes.length < tamanio) {
+                puntajes = new int[tamanio];
+                mejorDelTermino = new byte[tamanio];
+            }
+        }
+    }
+
+    private static final ThreadLocal<Acumuladores> ACUMULADORES = ThreadLocal.withInitial(Acumuladores::new);
+
+    /**
+     * Entradas y términos del índice. Se reemplazan juntos al reconstruir.
+     */
+    private static final class Contenido {
+        final Map<Integer, Entrada> entradas = new HashMap<>();
+        final TreeMap<String, Postings> terminos = new TreeMap<>();
+        int idMaximo;
+
+        void agregar(Libro libro) {
+            Map<String, Byte> camposPorTermino = new LinkedHashMap<>();
+            agregarTerminos(camposPorTermino, libro.getTitulo(), CAMPO_TITULO);
+            if (libro.getAutores() != null) {
+                for (Autor autor : libro.getAutores()) {
+                    agregarTerminos(camposPorTermino, autor.getNombre(), CAMPO_AUTOR);
+                }
+            }
+            for (String isbn : formasIsbn(libro.getIsbn())) {
+                camposPorTermino.merge(isbn, CAMPO_ISBN, (a, b) -> (byte) (a | b));
+            }
+
+            String[] lista = camposPorTermino.keySet().toArray(new String[0]);
+            byte[] campos = new byte[lista.length];
+            for (int i = 0; i < lista.length; i++) {
+                campos[i] = camposPorTermino.get(lista[i]);
+                terminos.computeIfAbsent(lista[i], t -> new Postings()).agregar(libro.getIdLibro(), campos[i]);
+            }
+
+            entradas.put(libro.getIdLibro(), new Entrada(lista, campos));
+            idMaximo = Math.max(idMaximo, libro.getIdLibro());
+        }
+
+        void quitar(Integer idLibro) {
+            Entrada anterior = entradas.remove(idLibro);
+            if (anterior == null) {
+                return;
+            }
+            for (String termino : anterior.terminos()) {
+                Postings postings = terminos.get(termino);
+                if (postings != null) {
+                    postings.quitar(idLibro);
+                    if (postings.tamanio == 0) {
+                        terminos.remove(termino);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Lectura de todo el catálogo (con autores) para reconstruir el índice
+     */
+    @FunctionalInterface
+    public interface Carga {
+        Collection<Libro> leer() throws SQLException;
+    }
+
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+    private Contenido contenido = new Contenido();
+    private volatile boolean construido;
+
+    // Cambios hechos mientras se lee el catálogo; se repiten sobre el contenido nuevo antes de publicarlo
+    private List<Consumer<Contenido>> cambiosDuranteCarga;
+    private final Object reconstruccion = new Object();
+
+    private IndiceCatalogo() {
+    }
+
+    public static IndiceCatalogo getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isConstruido() {
+        return construido;
+    }
+
+    public int size() {
+        candado.readLock().lock();
+        try {
+            return contenido.entradas.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye el contenido por el catálogo leído. El contenido nuevo se arma aparte y se
+     * publica de una vez, así que mientras tanto las búsquedas siguen usando el anterior;
+     * las altas, cambios y bajas que lleguen durante la lectura se repiten sobre el nuevo.
+     */
+    public void reconstruir(Carga carga) throws SQLException {
+        synchronized (reconstruccion) {
+            cargar(carga);
+        }
+    }
+
+    /**
+     * Construye el índice si todavía no lo está. Si varias búsquedas llegan a la vez
+     * sin índice, solo la primera lee el catálogo; las demás esperan y usan el resultado.
+     */
+    public void construirSiFalta(Carga carga) throws SQLException {
+        if (construido) {
+            return;
+        }
+        synchronized (reconstruccion) {
+            if (!construido) {
+                cargar(carga);
+            }
+        }
+    }
+
+    private void cargar(Carga carga) throws SQLException {
+        long inicio = System.nanoTime();
+        candado.writeLock().lock();
+        try {
+            cambiosDuranteCarga = new ArrayList<>();
+        } finally {
+            candado.writeLock().unlock();
+        }
+        try {
+            Contenido nuevo = new Contenido();
+            for (Libro libro : carga.leer()) {
+                if (libro.getIdLibro() != null) {
+                    nuevo.agregar(libro);
+                }
+            }
+            candado.writeLock().lock();
+            try {
+                cambiosDuranteCarga.forEach(cambio -> cambio.accept(nuevo));
+                contenido = nuevo;
+                construido = true;
+            } finally {
+                candado.writeLock().unlock();
+            }
+            logger.info("Índice del catálogo construido: {} libros, {} términos en {} ms",
+                    nuevo.entradas.size(), nuevo.terminos.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            candado.writeLock().lock();
+            try {
+                cambiosDuranteCarga = null;
+            } finally {
+                candado.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Agrega un libro o reemplaza su entrada si ya estaba indexado
+     */
+    public void indexar(Libro libro) {
+        if (libro == null || libro.getIdLibro() == null) {
+            return;
+        }
+        aplicar(c -> {
+            c.quitar(libro.getIdLibro());
+            c.agregar(libro);
+        });
+    }
+
+    public void quitar(Integer idLibro) {
+        aplicar(c -> c.quitar(idLibro));
+    }
+
+    private void aplicar(Consumer<Contenido> cambio) {
+        candado.writeLock().lock();
+        try {
+            cambio.accept(contenido);
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.add(cambio);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca libros que contengan todos los términos de la consulta
+     * @param consulta Texto libre: palabras del título, nombres de autor o un ISBN (con o sin guiones)
+     * @param limite Máximo de resultados
+     * @return IDs de los libros, del más al menos relevante
+     */
+    public List<Integer> buscar(String consulta, int limite) {
+        long inicio = System.nanoTime();
+        List<String> terminosConsulta = terminosDeConsulta(consulta);
+        if (terminosConsulta.isEmpty() || limite <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Integer> ids;
+        candado.readLock().lock();
+        try {
+            ids = buscarSinBloqueo(terminosConsulta, limite);
+        } finally {
+            candado.readLock().unlock();
+        }
+
+        logger.debug("Búsqueda '{}': {} resultados en {} µs",
+                consulta, ids.size(), (System.nanoTime() - inicio) / 1_000);
+        return ids;
+    }
+
+    // ---- Búsqueda ----
+
+    private List<Integer> buscarSinBloqueo(List<String> terminosConsulta, int limite) {
+        int cantidad = terminosConsulta.size();
+        List<NavigableMap<String, Postings>> rangos = new ArrayList<>(cantidad);
+        long[] costos = new long[cantidad];
+        long menorCosto = Long.MAX_VALUE;
+        for (int t = 0; t < cantidad; t++) {
+            NavigableMap<String, Postings> rango = rango(terminosConsulta.get(t));
+            costos[t] = costo(rango, menorCosto);
+            if (costos[t] == 0) {
+                return new ArrayList<>();
+            }
+            menorCosto = Math.min(menorCosto, costos[t]);
+            rangos.add(rango);
+        }
+
+        // 1. Candidatos: intersección de los términos, empezando por el más selectivo.
+        //    Cuando quedan pocos candidatos, el resto de términos se verifica sobre cada uno.
+        Integer[] orden = new Integer[cantidad];
+        for (int t = 0; t < cantidad; t++) {
+            orden[t] = t;
+        }
+        Arrays.sort(orden, Comparator.comparingLong(t -> costos[t]));
+
+        BitSet candidatos = null;
+        List<Integer> intersectados = new ArrayList<>(cantidad);
+        List<Integer> porVerificar = new ArrayList<>();
+        for (int t : orden) {
+            if (candidatos != null && candidatos.cardinality() <= UMBRAL_VERIFICACION_DIRECTA) {
+                porVerificar.add(t);
+                continue;
+            }
+            BitSet ids = ids(rangos.get(t));
+            if (candidatos == null) {
+                candidatos = ids;
+            } else {
+                candidatos.and(ids);
+            }
+            if (candidatos.isEmpty()) {
+                return new ArrayList<>();
+            }
+            intersectados.add(t);
+        }
+
+        // 2. Puntaje: por cada término, la mejor aparición de cada candidato
+        //    (completa vale el doble que prefijo; ISBN > título > autor)
+        Acumuladores acumuladores = ACUMULADORES.get();
+        acumuladores.asegurar(contenido.idMaximo + 1);
+        int[] puntajes = acumuladores.puntajes;
+        byte[] mejorDelTermino = acumuladores.mejorDelTermino;
+        for (int t : intersectados) {
+            String buscado = terminosConsulta.get(t);
+            for (Map.Entry<String, Postings> termino : rangos.get(t).entrySet()) {
+                int factor = termino.getKey().equals(buscado) ? 2 : 1;
+                Postings postings = termino.getValue();
+                for (int i = 0; i < postings.tamanio; i++) {
+                    int id = postings.ids[i];
+                    if (candidatos.get(id)) {
+                        int valor = factor * peso(postings.campos[i]);
+                        if (valor > mejorDelTermino[id]) {
+                            mejorDelTermino[id] = (byte) valor;
+                        }
+                    }
+                }
+            }
+            for (int id = candidatos.nextSetBit(0); id >= 0; id = candidatos.nextSetBit(id + 1)) {
+                puntajes[id] += mejorDelTermino[id];
+                mejorDelTermino[id] = 0;
+            }
+        }
+
+        for (int t : porVerificar) {
+            String buscado = terminosConsulta.get(t);
+            for (int id = candidatos.nextSetBit(0); id >= 0; id = candidatos.nextSetBit(id + 1)) {
+                int valor = mejorCoincidencia(contenido.entradas.get(id), buscado);
+                if (valor == 0) {
+                    candidatos.clear(id);
+                    puntajes[id] = 0;
+                } else {
+                    puntajes[id] += valor;
+                }
+            }
+        }
+
+        // 3. Los "limite" mejores: mayor puntaje y, a igualdad, el libro más antiguo
+        Comparator<Integer> porRelevancia = (a, b) -> puntajes[a] != puntajes[b]
+                ? Integer.compare(puntajes[b], puntajes[a])
+                : Integer.compare(a, b);
+        PriorityQueue<Integer> mejores = new PriorityQueue<>(limite + 1, porRelevancia.reversed());
+        for (int id = candidatos.nextSetBit(0); id >= 0; id = candidatos.nextSetBit(id + 1)) {
+            mejores.add(id);
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        }
+
+        List<Integer> ids = new ArrayList<>(mejores);
+        ids.sort(porRelevancia);
+
+        for (int id = candidatos.nextSetBit(0); id >= 0; id = candidatos.nextSetBit(id + 1)) {
+            puntajes[id] = 0;
+        }
+        return ids;
+    }
+
+    private NavigableMap<String, Postings> rango(String termino) {
+        if (termino.length() < LARGO_MINIMO_PREFIJO) {
+            return contenido.terminos.subMap(termino, true, termino, true);
+        }
+        return contenido.terminos.subMap(termino, true, termino + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Número de apariciones del rango (para elegir el orden de intersección).
+     * Deja de contar al superar el tope, porque ese término ya no será el primero,
+     * y también si el prefijo abarca demasiados términos distintos: recorrerlos todos
+     * costaría más que verificar ese término sobre los candidatos de los demás.
+     */
+    private static long costo(NavigableMap<String, Postings> rango, long tope) {
+        long total = 0;
+        int terminosVistos = 0;
+        for (Postings postings : rango.values()) {
+            total += postings.tamanio;
+            if (total > tope) {
+                return total;
+            }
+            if (++terminosVistos > MAX_TERMINOS_PARA_ESTIMAR) {
+                return Long.MAX_VALUE - 1;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Mejor aparición de un término de la consulta entre los términos de un libro (0 si no aparece)
+     */
+    private static int mejorCoincidencia(Entrada entrada, String buscado) {
+        boolean admitePrefijo = buscado.length() >= LARGO_MINIMO_PREFIJO;
+        int mejor = 0;
+        for (int i = 0; i < entrada.terminos().length; i++) {
+            String termino = entrada.terminos()[i];
+            int factor;
+            if (termino.equals(buscado)) {
+                factor = 2;
+            } else if (admitePrefijo && termino.startsWith(buscado)) {
+                factor = 1;
+            } else {
+                continue;
+            }
+            mejor = Math.max(mejor, factor * peso(entrada.campos()[i]));
+        }
+        return mejor;
+    }
+
+    private BitSet ids(NavigableMap<String, Postings> rango) {
+        BitSet ids = new BitSet(contenido.idMaximo + 1);
+        for (Postings postings : rango.values()) {
+            for (int i = 0; i < postings.tamanio; i++) {
+                ids.set(postings.ids[i]);
+            }
+        }
+        return ids;
+    }
+
+    private static int peso(byte campos) {
+        if ((campos & CAMPO_ISBN) != 0) return 10;
+        if ((campos & CAMPO_TITULO) != 0) return 3;
+        return 2;
+    }
+
+    // ---- Mantenimiento ----
+
+    private static void agregarTerminos(Map<String, Byte> destino, String texto, byte campo) {
+        if (texto == null) {
+            return;
+        }
+        for (String termino : SEPARADORES.split(normalizar(texto))) {
+            if (!termino.isEmpty()) {
+                destino.merge(termino, campo, (a, b) -> (byte) (a | b));
+            }
+        }
+    }
+
+    // ---- Normalización ----
+
+    static String normalizar(String texto) {
+        if (esAscii(texto)) {
+            return texto.toLowerCase(Locale.ROOT);
+        }
+        String sinAcentos = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean esAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> terminosDeConsulta(String consulta) {
+        List<String> resultado = new ArrayList<>();
+        if (consulta == null || consulta.isBlank()) {
+            return resultado;
+        }
+
+        // Un ISBN con guiones o espacios se busca como un único término
+        List<String> isbn = formasIsbn(consulta);
+        if (!isbn.isEmpty()) {
+            resultado.add(isbn.get(0));
+            return resultado;
+        }
+
+        for (String termino : SEPARADORES.split(normalizar(consulta))) {
+            if (!termino.isEmpty() && !resultado.contains(termino)) {
+                resultado.add(termino);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Formas indexables de un ISBN: los dígitos sin separadores y, si es convertible,
+     * su equivalente ISBN-10/ISBN-13, para que se encuentre con cualquiera de los dos.
+     * @return lista vacía si el texto no parece un ISBN
+     */
+    static List<String> formasIsbn(String texto) {
+        List<String> formas = new ArrayList<>(2);
+        if (texto == null) {
+            return formas;
+        }
+        String limpio = texto.replaceAll("[\\s-]", "").toLowerCase(Locale.ROOT);
+        if (!limpio.matches("\\d{9}[\\dx]|\\d{13}")) {
+            return formas;
+        }
+
+        formas.add(limpio);
+        if (limpio.length() == 10) {
+            String isbn13 = "978" + limpio.substring(0, 9);
+            formas.add(isbn13 + digitoControlIsbn13(isbn13));
+        } else if (limpio.startsWith("978")) {
+            String isbn10 = limpio.substring(3, 12);
+            formas.add(isbn10 + digitoControlIsbn10(isbn10));
+        }
+        return formas;
+    }
+
+    private static char digitoControlIsbn13(String doceDigitos) {
+        int suma = 0;
+        for (int i = 0; i < 12; i++) {
+            suma += (doceDigitos.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (char) ('0' + (10 - suma % 10) % 10);
+    }
+
+    private static char digitoControlIsbn10(String nueveDigitos) {
+        int suma = 0;
+        for (int i = 0; i < 9; i++) {
+            suma += (nueveDigitos.charAt(i) - '0') * (10 - i);
+        }
+        int control = (11 - suma % 11) % 11;
+        return control == 10 ? 'x' : (char) ('0' + control);
+    }
+}
@@ -0,0 +1,203 @@
+package com.biblioteca.dao.indice;
+
+import com.biblioteca.model.Ejemplar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Índice en memoria codigo_barras → (id_ejemplar, disponible, id_libro) para resolver
+ * un escaneo en el mostrador sin ir a la base de datos.
+ *
+ * Todas las escrituras llegan por {@link EjemplarDAOIndexado}, que usan tanto las vistas
+ * como PrestamoService: altas, cambios y bajas, y los préstamos y devoluciones una vez
+ * confirmados (después del commit). Los cambios hechos
+ * desde otro equipo no llegan, así que la disponibilidad del índice es orientativa: el
+ * préstamo se sigue validando con las filas bloqueadas en la base de datos.
+ */
+public class IndiceCodigosBarras {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceCodigosBarras.class);
+
+    private static final IndiceCodigosBarras INSTANCE = new IndiceCodigosBarras();
+
+    /**
+     * Lo necesario para prestar o devolver un ejemplar escaneado
+     */
+    public record Entrada(int idEjemplar, boolean disponible, int idLibro) {
+
+        Entrada conDisponible(boolean nuevo) {
+            return nuevo == disponible ? this : new Entrada(idEjemplar, nuevo, idLibro);
+        }
+    }
+
+    /**
+     * Las dos vistas del índice. Se reemplazan juntas al reconstruir.
+     */
+    private static final class Tabla {
+        final Map<String, Entrada> porCodigo = new ConcurrentHashMap<>();
+        final Map<Integer, String> codigoPorId = new ConcurrentHashMap<>();
+
+        void indexar(Ejemplar ejemplar) {
+            String codigo = normalizar(ejemplar.getCodigoBarras());
+            String anterior = codigoPorId.put(ejemplar.getIdEjemplar(), codigo);
+            if (anterior != null && !anterior.equals(codigo)) {
+                porCodigo.remove(anterior);
+            }
+            porCodigo.put(codigo, new Entrada(ejemplar.getIdEjemplar(),
+                    Boolean.TRUE.equals(ejemplar.getDisponible()), ejemplar.getLibro().getIdLibro()));
+        }
+
+        void quitar(Integer idEjemplar) {
+            String codigo = codigoPorId.remove(idEjemplar);
+            if (codigo != null) {
+                porCodigo.remove(codigo);
+            }
+        }
+
+        void marcarDisponibilidad(Collection<Integer> idsEjemplar, boolean disponible) {
+            for (Integer idEjemplar : idsEjemplar) {
+                String codigo = codigoPorId.get(idEjemplar);
+                if (codigo != null) {
+                    porCodigo.computeIfPresent(codigo, (k, entrada) -> entrada.conDisponible(disponible));
+                }
+            }
+        }
+    }
+
+    /**
+     * Lectura de todos los ejemplares para reconstruir el índice
+     */
+    @FunctionalInterface
+    public interface Carga {
+        Collection<Ejemplar> leer() throws SQLException;
+    }
+
+    private volatile Tabla tabla = new Tabla();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private volatile boolean construido;
+
+    // Cambios hechos mientras se lee la tabla nueva; se repiten sobre ella antes de publicarla
+    private List<Consumer<Tabla>> cambiosDuranteCarga;
+    private final Object reconstruccion = new Object();
+
+    private IndiceCodigosBarras() {
+    }
+
+    public static IndiceCodigosBarras getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Normaliza un código leído por el escáner (espacios y mayúsculas)
+     */
+    public static String normalizar(String codigo) {
+        return codigo == null ? "" : codigo.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public boolean isConstruido() {
+        return construido;
+    }
+
+    public int size() {
+        return tabla.porCodigo.size();
+    }
+
+    /**
+     * Sustituye el contenido por los ejemplares leídos. La tabla nueva se arma aparte y se
+     * publica de una vez, así que mientras tanto los escaneos siguen resolviéndose con la
+     * anterior; los cambios que lleguen durante la lectura se repiten sobre la nueva.
+     */
+    public void reconstruir(Carga carga) throws SQLException {
+        synchronized (reconstruccion) {
+            long inicio = System.nanoTime();
+            synchronized (this) {
+                cambiosDuranteCarga = new ArrayList<>();
+            }
+            try {
+                Tabla nueva = new Tabla();
+                for (Ejemplar ejemplar : carga.leer()) {
+                    if (esIndexable(ejemplar)) {
+                        nueva.indexar(ejemplar);
+                    }
+                }
+                synchronized (this) {
+                    cambiosDuranteCarga.forEach(cambio -> cambio.accept(nueva));
+                    tabla = nueva;
+                    construido = true;
+                }
+                logger.info("Índice de códigos de barras construido: {} ejemplares en {} ms",
+                        nueva.porCodigo.size(), (System.nanoTime() - inicio) / 1_000_000);
+            } finally {
+                synchronized (this) {
+                    cambiosDuranteCarga = null;
+                }
+            }
+        }
+    }
+
+    public Optional<Entrada> buscar(String codigo) {
+        Entrada entrada = tabla.porCodigo.get(normalizar(codigo));
+        if (entrada != null) {
+            aciertos.increment();
+        } else {
+            fallos.increment();
+        }
+        return Optional.ofNullable(entrada);
+    }
+
+    /**
+     * Añade o reemplaza un ejemplar (si cambió de código, el anterior deja de resolverse)
+     */
+    public void indexar(Ejemplar ejemplar) {
+        if (esIndexable(ejemplar)) {
+            aplicar(t -> t.indexar(ejemplar));
+        }
+    }
+
+    public void quitar(Integer idEjemplar) {
+        aplicar(t -> t.quitar(idEjemplar));
+    }
+
+    /**
+     * Refleja un préstamo o una devolución ya confirmados (los ejemplares no indexados se ignoran)
+     */
+    public void marcarDisponibilidad(Collection<Integer> idsEjemplar, boolean disponible) {
+        if (idsEjemplar.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = List.copyOf(idsEjemplar);
+        aplicar(t -> t.marcarDisponibilidad(ids, disponible));
+    }
+
+    private synchronized void aplicar(Consumer<Tabla> cambio) {
+        cambio.accept(tabla);
+        if (cambiosDuranteCarga != null) {
+            cambiosDuranteCarga.add(cambio);
+        }
+    }
+
+    private static boolean esIndexable(Ejemplar ejemplar) {
+        return ejemplar.getIdEjemplar() != null && ejemplar.getCodigoBarras() != null
+                && ejemplar.getLibro() != null && ejemplar.getLibro().getIdLibro() != null;
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+}
@@ -0,0 +1,182 @@
+package com.biblioteca.dao.indice;
+
+import com.biblioteca.dao.Cursor;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.Orden;
+import com.biblioteca.dao.Pagina;
+import com.biblioteca.dao.impl.LibroDAOImpl;
+import com.biblioteca.model.Libro;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Decorador de {@link LibroDAO} que mantiene actualizado el {@link IndiceCatalogo}
+ * con cada alta, modificación o baja, y resuelve las búsquedas de texto contra él
+ * en lugar de usar LIKE sobre la tabla.
+ */
+public class LibroDAOIndexado implements LibroDAO {
+
+    private final LibroDAO delegado;
+    private final IndiceCatalogo indice = IndiceCatalogo.getInstance();
+
+    public LibroDAOIndexado() {
+        this(new LibroDAOImpl());
+    }
+
+    public LibroDAOIndexado(LibroDAO delegado) {
+        this.delegado = delegado;
+    }
+
+    /**
+     * Busca por palabras del título, nombres de autor o ISBN usando el índice en memoria
+     * @param consulta Texto libre (admite prefijos y varios términos)
+     * @param limite Máximo de resultados
+     * @return Libros completos ordenados por relevancia
+     */
+    public List<Libro> buscar(String consulta, int limite) throws SQLException {
+        indice.construirSiFalta(() -> delegado.findAll(true));
+        return delegado.findByIds(indice.buscar(consulta, limite));
+    }
+
+    /**
+     * Vuelve a construir el índice leyendo todo el catálogo
+     * (al iniciar o si la tabla se modificó fuera de la aplicación)
+     */
+    public void reconstruirIndice() throws SQLException {
+        indice.reconstruir(() -> delegado.findAll(true));
+    }
+
+    /**
+     * Vuelve a indexar los libros de un autor. Los nombres de autor forman parte de los
+     * términos de cada libro, así que al renombrar un autor hay que llamar a este método
+     * (AutorDAO no conoce el índice del catálogo).
+     */
+    public void reindexarLibrosDeAutor(Integer idAutor) throws SQLException {
+        for (Libro libro : delegado.findByAutor(idAutor)) {
+            indice.indexar(libro);
+        }
+    }
+
+    // ---- Escrituras: van al DAO real y actualizan el índice ----
+
+    @Override
+    public Integer save(Libro libro) throws SQLException {
+        Integer id = delegado.save(libro);
+        indexar(libro, id);
+        return id;
+    }
+
+    @Override
+    public Integer saveWithAutores(Libro libro) throws SQLException {
+        Integer id = delegado.saveWithAutores(libro);
+        indexar(libro, id);
+        return id;
+    }
+
+    @Override
+    public boolean update(Libro libro) throws SQLException {
+        boolean actualizado = delegado.update(libro);
+        if (actualizado) {
+            indice.indexar(libro);
+        }
+        return actualizado;
+    }
+
+    @Override
+    public void updateAutores(Libro libro) throws SQLException {
+        delegado.updateAutores(libro);
+        indice.indexar(libro);
+    }
+
+    @Override
+    public boolean delete(Integer id) throws SQLException {
+        boolean eliminado = delegado.delete(id);
+        if (eliminado) {
+            indice.quitar(id);
+        }
+        return eliminado;
+    }
+
+    private void indexar(Libro libro, Integer id) {
+        if (id != null && libro.getIdLibro() == null) {
+            libro.setIdLibro(id);
+        }
+        indice.indexar(libro);
+    }
+
+    // ---- Lecturas: sin cambios ----
+
+    @Override
+    public Optional<Libro> findByIsbn(String isbn) throws SQLException {
+        return delegado.findByIsbn(isbn);
+    }
+
+    @Override
+    public List<Libro> findByTitulo(String titulo) throws SQLException {
+        return delegado.findByTitulo(titulo);
+    }
+
+    @Override
+    public List<Libro> findByIds(List<Integer> ids) throws SQLException {
+        return delegado.findByIds(ids);
+    }
+
+    @Override
+    public List<Libro> findAll(boolean incluirAutores) throws SQLException {
+        return delegado.findAll(incluirAutores);
+    }
+
+    @Override
+    public List<Libro> findByCategoria(Integer idCategoria) throws SQLException {
+        return delegado.findByCategoria(idCategoria);
+    }
+
+    @Override
+    public List<Libro> findByAutor(Integer idAutor) throws SQLException {
+        return delegado.findByAutor(idAutor);
+    }
+
+    @Override
+    public int countEjemplaresDisponibles(Integer idLibro) throws SQLException {
+        return delegado.countEjemplaresDisponibles(idLibro);
+    }
+
+    @Override
+    public Map<Integer, Integer> countEjemplaresDisponibles(Collection<Integer> idsLibro) throws SQLException {
+        return delegado.countEjemplaresDisponibles(idsLibro);
+    }
+
+    @Override
+    public Optional<Libro> findById(Integer id) throws SQLException {
+        return delegado.findById(id);
+    }
+
+    @Override
+    public List<Libro> findAll() throws SQLException {
+        return delegado.findAll();
+    }
+
+    @Override
+    public Pagina<Libro, Integer> findPage(Integer despuesDe, int limite, Orden orden) throws SQLException {
+        return delegado.findPage(despuesDe, limite, orden);
+    }
+
+    @Override
+    public Pagina<Libro, Integer> findPageDesde(Cursor<Integer> despuesDe, int limite, Orden orden) throws SQLException {
+        return delegado.findPageDesde(despuesDe, limite, orden);
+    }
+
+    @Override
+    public long count() throws SQLException {
+        return delegado.count();
+    }
+
+    @Override
+    public boolean existsById(Integer id) throws SQLException {
+        return delegado.existsById(id);
+    }
+}
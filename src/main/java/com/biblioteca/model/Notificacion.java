@@ -0,0 +1,165 @@
+package com.biblioteca.model;
+
+import com.biblioteca.model.enums.EstadoNotificacion;
+import com.biblioteca.model.enums.TipoNotificacion;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Aviso a un usuario guardado en la bandeja de salida (tabla Notificaciones).
+ * Se escribe en la misma transacción que el cambio que lo origina y lo envía después
+ * el despachador en segundo plano.
+ */
+public class Notificacion {
+
+    private Integer idNotificacion;
+    private TipoNotificacion tipo;
+    private Integer referencia;
+    private Integer idUsuario;
+    private String destinatario;
+    private String asunto;
+    private String cuerpo;
+    private EstadoNotificacion estado;
+    private int intentos;
+    private LocalDateTime proximoIntento;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaEnvio;
+    private String ultimoError;
+
+    // Constructores
+    public Notificacion() {
+        this.estado = EstadoNotificacion.PENDIENTE;
+    }
+
+    // Getters y Setters
+    public Integer getIdNotificacion() {
+        return idNotificacion;
+    }
+
+    public void setIdNotificacion(Integer idNotificacion) {
+        this.idNotificacion = idNotificacion;
+    }
+
+    public TipoNotificacion getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoNotificacion tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * Id de la reserva o multa que originó el aviso
+     */
+    public Integer getReferencia() {
+        return referencia;
+    }
+
+    public void setReferencia(Integer referencia) {
+        this.referencia = referencia;
+    }
+
+    public Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    public void setIdUsuario(Integer idUsuario) {
+        this.idUsuario = idUsuario;
+    }
+
+    public String getDestinatario() {
+        return destinatario;
+    }
+
+    public void setDestinatario(String destinatario) {
+        this.destinatario = destinatario;
+    }
+
+    public String getAsunto() {
+        return asunto;
+    }
+
+    public void setAsunto(String asunto) {
+        this.asunto = asunto;
+    }
+
+    public String getCuerpo() {
+        return cuerpo;
+    }
+
+    public void setCuerpo(String cuerpo) {
+        this.cuerpo = cuerpo;
+    }
+
+    public EstadoNotificacion getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoNotificacion estado) {
+        this.estado = estado;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(int intentos) {
+        this.intentos = intentos;
+    }
+
+    public LocalDateTime getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public void setProximoIntento(LocalDateTime proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public LocalDateTime getFechaEnvio() {
+        return fechaEnvio;
+    }
+
+    public void setFechaEnvio(LocalDateTime fechaEnvio) {
+        this.fechaEnvio = fechaEnvio;
+    }
+
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    public void setUltimoError(String ultimoError) {
+        this.ultimoError = ultimoError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Notificacion that = (Notificacion) o;
+        return Objects.equals(idNotificacion, that.idNotificacion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idNotificacion);
+    }
+
+    @Override
+    public String toString() {
+        return "Notificacion{" +
+                "idNotificacion=" + idNotificacion +
+                ", tipo=" + tipo +
+                ", destinatario='" + destinatario + '\'' +
+                ", estado=" + estado +
+                ", intentos=" + intentos +
+                '}';
+    }
+}
@@ -0,0 +1,26 @@
+package com.biblioteca.model.enums;
+
+public enum EstadoNotificacion {
+    PENDIENTE("Pendiente"),
+    ENVIADA("Enviada"),
+    FALLIDA("Fallida");
+
+    private final String descripcion;
+
+    EstadoNotificacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public static EstadoNotificacion fromString(String texto) {
+        for (EstadoNotificacion estado : EstadoNotificacion.values()) {
+            if (estado.descripcion.equalsIgnoreCase(texto)) {
+                return estado;
+            }
+        }
+        throw new IllegalArgumentException("Estado de notificación no válido: " + texto);
+    }
+}
@@ -0,0 +1,25 @@
+package com.biblioteca.model.enums;
+
+public enum TipoNotificacion {
+    RESERVA_DISPONIBLE("Reserva disponible"),
+    MULTA_GENERADA("Multa generada");
+
+    private final String descripcion;
+
+    TipoNotificacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public static TipoNotificacion fromString(String texto) {
+        for (TipoNotificacion tipo : TipoNotificacion.values()) {
+            if (tipo.descripcion.equalsIgnoreCase(texto)) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de notificación no válido: " + texto);
+    }
+}
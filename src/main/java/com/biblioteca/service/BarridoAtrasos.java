@@ -0,0 +1,91 @@
+package com.biblioteca.service;
+
+import com.biblioteca.util.Configuracion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta periódicamente {@link PrestamoService#actualizarPrestamosAtrasados(int)}
+ * en un hilo propio y registra cuántas filas tocó y cuánto tardó cada pasada.
+ *
+ * Se configura en database.properties:
+ * barrido.habilitado, barrido.retrasoInicialSeg, barrido.intervaloMin y barrido.tamanoLote.
+ */
+public class BarridoAtrasos {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarridoAtrasos.class);
+
+    private static final BarridoAtrasos INSTANCE = new BarridoAtrasos();
+
+    private final PrestamoService prestamoService = new PrestamoService();
+    private final boolean habilitado;
+    private final long retrasoInicialSeg;
+    private final long intervaloMin;
+    private final int tamanoLote;
+
+    private ScheduledExecutorService planificador;
+
+    private BarridoAtrasos() {
+        Configuracion config = Configuracion.getInstance();
+        this.habilitado = config.booleano("barrido.habilitado", true);
+        this.retrasoInicialSeg = config.largo("barrido.retrasoInicialSeg", 30L);
+        this.intervaloMin = Math.max(1, config.largo("barrido.intervaloMin", 15L));
+        this.tamanoLote = Math.max(1, config.entero("barrido.tamanoLote", 500));
+    }
+
+    public static BarridoAtrasos getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Programa el barrido (no hace nada si está deshabilitado o ya iniciado)
+     */
+    public synchronized void iniciar() {
+        if (!habilitado || planificador != null) {
+            return;
+        }
+
+        planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "barrido-atrasos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(this::ejecutarPasada,
+                retrasoInicialSeg, TimeUnit.MINUTES.toSeconds(intervaloMin), TimeUnit.SECONDS);
+
+        logger.info("Barrido de préstamos atrasados programado cada {} min (lotes de {})",
+                intervaloMin, tamanoLote);
+    }
+
+    /**
+     * Ejecuta una pasada inmediatamente en el hilo que llama
+     */
+    public ResultadoBarrido ejecutarAhora() throws SQLException {
+        ResultadoBarrido resultado = prestamoService.actualizarPrestamosAtrasados(tamanoLote);
+        logger.info("Barrido de atrasos: {} préstamos marcados, {} multas nuevas, {} multas recalculadas ({} filas) en {} ms",
+                resultado.prestamosMarcados(), resultado.multasGeneradas(),
+                resultado.multasActualizadas(), resultado.filasAfectadas(), resultado.duracionMs());
+        return resultado;
+    }
+
+    public synchronized void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+            planificador = null;
+        }
+    }
+
+    private void ejecutarPasada() {
+        // Una excepción no capturada cancelaría las ejecuciones siguientes
+        try {
+            ejecutarAhora();
+        } catch (Exception e) {
+            logger.error("Error en el barrido de préstamos atrasados", e);
+        }
+    }
+}
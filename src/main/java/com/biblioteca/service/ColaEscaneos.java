@@ -0,0 +1,237 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dao.indice.EjemplarDAOIndexado;
+import com.biblioteca.dao.indice.IndiceCodigosBarras;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Escaneo de códigos de barras en el mostrador (prestar o devolver al pasar el lector).
+ * <p>
+ * {@link #encolar} vuelve al instante: el código se resuelve con el índice en memoria y la
+ * escritura se hace en un hilo propio. Los escaneos que llegan mientras se procesa el anterior
+ * se acumulan y se aplican juntos con {@link PrestamoService#prestarLote} o
+ * {@link PrestamoService#devolverLotePorEjemplares}, respetando el orden de llegada.
+ * <p>
+ * La cola es única en la aplicación. La vista abierta se suscribe para recibir los resultados,
+ * que se entregan en el hilo de la cola (debe pasarlos al hilo de JavaFX); al salir de la vista
+ * se cancela la suscripción, y los resultados que lleguen después solo quedan en el log.
+ */
+public class ColaEscaneos {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColaEscaneos.class);
+
+    private static final ColaEscaneos INSTANCE = new ColaEscaneos();
+
+    private static final int MAX_ESCANEOS_LOTE = 200;
+
+    public enum Modo { PRESTAR, DEVOLVER }
+
+    /**
+     * @param numero Orden de llegada (para relacionar el resultado con la línea de la vista)
+     * @param idUsuario Lector que se lleva el ejemplar (solo al prestar)
+     */
+    public record Escaneo(long numero, String codigo, Modo modo, Integer idUsuario) {
+    }
+
+    /**
+     * @param idPrestamo Préstamo creado o devuelto (null si el escaneo falló)
+     */
+    public record Resultado(Escaneo escaneo, boolean correcto, Integer idPrestamo, String mensaje) {
+    }
+
+    private record Suscripcion(Object propietario, Consumer<List<Resultado>> oyente) {
+    }
+
+    private final PrestamoService prestamoService;
+    private final EjemplarDAOIndexado ejemplarDAO;
+    private final IndiceCodigosBarras indice = IndiceCodigosBarras.getInstance();
+    private volatile Suscripcion suscripcion;
+
+    private final Queue<Escaneo> pendientes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drenando = new AtomicBoolean();
+    private final AtomicLong contador = new AtomicLong();
+    private final ThreadPoolExecutor ejecutor;
+
+    private ColaEscaneos() {
+        this.prestamoService = new PrestamoService();
+        this.ejemplarDAO = new EjemplarDAOIndexado();
+        this.ejecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread hilo = new Thread(r, "escaneos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.ejecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public static ColaEscaneos getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Los resultados de los escaneos pasan a entregarse a este oyente (reemplaza al anterior)
+     * @param propietario Vista suscrita, para {@link #cancelarSuscripcion(Object)}
+     */
+    public void suscribir(Object propietario, Consumer<List<Resultado>> oyente) {
+        suscripcion = new Suscripcion(propietario, oyente);
+    }
+
+    /**
+     * Deja de entregar resultados a la vista indicada, si sigue siendo la suscrita
+     */
+    public void cancelarSuscripcion(Object propietario) {
+        Suscripcion actual = suscripcion;
+        if (actual != null && actual.propietario() == propietario) {
+            suscripcion = null;
+        }
+    }
+
+    /**
+     * Comprobación instantánea contra el índice, sin ir a la base de datos
+     */
+    public Optional<IndiceCodigosBarras.Entrada> consultar(String codigo) {
+        return indice.buscar(codigo);
+    }
+
+    /**
+     * Añade un escaneo a la cola y vuelve sin esperar a la base de datos
+     */
+    public Escaneo encolar(String codigo, Modo modo, Integer idUsuario) {
+        Escaneo escaneo = new Escaneo(contador.incrementAndGet(), IndiceCodigosBarras.normalizar(codigo), modo, idUsuario);
+        pendientes.add(escaneo);
+        if (drenando.compareAndSet(false, true)) {
+            ejecutor.execute(this::drenar);
+        }
+        return escaneo;
+    }
+
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    private void drenar() {
+        do {
+            try {
+                List<Escaneo> lote = new ArrayList<>();
+                Escaneo escaneo;
+                while (lote.size() < MAX_ESCANEOS_LOTE && (escaneo = pendientes.poll()) != null) {
+                    lote.add(escaneo);
+                }
+                if (!lote.isEmpty()) {
+                    entregar(procesar(lote));
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error al procesar escaneos", e);
+            } finally {
+                drenando.set(false);
+            }
+            // Un escaneo que llegó justo después del último poll no debe quedarse sin procesar
+        } while (!pendientes.isEmpty() && drenando.compareAndSet(false, true));
+    }
+
+    private void entregar(List<Resultado> resultados) {
+        Suscripcion actual = suscripcion;
+        if (actual != null) {
+            actual.oyente().accept(resultados);
+        } else {
+            logger.info("{} resultados de escaneo sin vista suscrita", resultados.size());
+        }
+    }
+
+    /**
+     * Procesa los escaneos en tramos consecutivos del mismo modo, para no reordenar
+     * un préstamo y una devolución del mismo ejemplar
+     */
+    private List<Resultado> procesar(List<Escaneo> lote) {
+        List<Resultado> resultados = new ArrayList<>(lote.size());
+        int desde = 0;
+        while (desde < lote.size()) {
+            Modo modo = lote.get(desde).modo();
+            int hasta = desde;
+            while (hasta < lote.size() && lote.get(hasta).modo() == modo) {
+                hasta++;
+            }
+            resultados.addAll(procesarTramo(lote.subList(desde, hasta), modo));
+            desde = hasta;
+        }
+        return resultados;
+    }
+
+    private List<Resultado> procesarTramo(List<Escaneo> tramo, Modo modo) {
+        Resultado[] resultados = new Resultado[tramo.size()];
+        List<Integer> posiciones = new ArrayList<>();
+        List<SolicitudPrestamo> solicitudes = new ArrayList<>();
+        List<Integer> idsEjemplar = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < tramo.size(); i++) {
+                Escaneo escaneo = tramo.get(i);
+                Optional<IndiceCodigosBarras.Entrada> entrada = ejemplarDAO.resolver(escaneo.codigo());
+                if (entrada.isEmpty()) {
+                    resultados[i] = new Resultado(escaneo, false, null, "Código no encontrado: " + escaneo.codigo());
+                } else if (modo == Modo.PRESTAR && escaneo.idUsuario() == null) {
+                    resultados[i] = new Resultado(escaneo, false, null, "Seleccione el usuario antes de escanear");
+                } else {
+                    posiciones.add(i);
+                    if (modo == Modo.PRESTAR) {
+                        solicitudes.add(new SolicitudPrestamo(escaneo.idUsuario(), entrada.get().idEjemplar()));
+                    } else {
+                        idsEjemplar.add(entrada.get().idEjemplar());
+                    }
+                }
+            }
+
+            if (!posiciones.isEmpty()) {
+                ResultadoLote lote = modo == Modo.PRESTAR
+                        ? prestamoService.prestarLote(solicitudes)
+                        : prestamoService.devolverLotePorEjemplares(idsEjemplar);
+                for (ResultadoLote.Item item : lote.items()) {
+                    int i = posiciones.get(item.indice());
+                    Escaneo escaneo = tramo.get(i);
+                    resultados[i] = new Resultado(escaneo, item.correcto(),
+                            item.correcto() ? item.idPrestamo() : null, mensaje(modo, item));
+                    if (!item.correcto()) {
+                        // El índice pudo quedar desfasado por un cambio hecho desde otro equipo
+                        ejemplarDAO.recargar(escaneo.codigo());
+                    }
+                }
+                logger.info("{} escaneos ({}) aplicados en {} ms: {} correctos",
+                        posiciones.size(), modo, lote.duracionMs(), lote.correctos());
+            }
+        } catch (SQLException | IllegalStateException | IllegalArgumentException e) {
+            logger.error("Error al aplicar {} escaneos ({})", tramo.size(), modo, e);
+            for (int i = 0; i < tramo.size(); i++) {
+                if (resultados[i] == null) {
+                    resultados[i] = new Resultado(tramo.get(i), false, null, "Error: " + e.getMessage());
+                }
+            }
+        }
+        return List.of(resultados);
+    }
+
+    private static String mensaje(Modo modo, ResultadoLote.Item item) {
+        if (!item.correcto()) {
+            return item.mensaje();
+        }
+        String accion = modo == Modo.PRESTAR ? "Prestado" : "Devuelto";
+        String texto = accion + " (préstamo " + item.idPrestamo() + ")";
+        return item.mensaje() == null || item.mensaje().isBlank() ? texto : texto + ": " + item.mensaje();
+    }
+}
@@ -0,0 +1,108 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dao.NotificacionDAO;
+import com.biblioteca.dao.ReservaDAO;
+import com.biblioteca.dao.impl.NotificacionDAOImpl;
+import com.biblioteca.dao.impl.ReservaDAOImpl;
+import com.biblioteca.model.Reserva;
+import com.biblioteca.model.enums.EstadoReserva;
+import com.biblioteca.util.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cola de reservas pendientes por libro, en orden de llegada.
+ * <p>
+ * La cola es la propia tabla: cada promoción bloquea la primera reserva pendiente del libro
+ * (SELECT ... ORDER BY fecha_reserva LIMIT 1 FOR UPDATE, resuelto con el índice
+ * (id_libro, estado, fecha_reserva)) y es esa la que se notifica, así que las reservas
+ * creadas o canceladas desde otro equipo se respetan sin mantener copia en memoria.
+ * El cambio de estado es un UPDATE condicional (solo si sigue Pendiente).
+ * Cada reserva notificada deja su aviso en la bandeja de salida en la misma transacción
+ * (ver {@link DespachadorNotificaciones}).
+ */
+public class ColaReservas {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColaReservas.class);
+
+    private static final ColaReservas INSTANCE = new ColaReservas();
+
+    private final ReservaDAO reservaDAO = new ReservaDAOImpl();
+    private final NotificacionDAO notificacionDAO = new NotificacionDAOImpl();
+
+    private ColaReservas() {
+    }
+
+    public static ColaReservas getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Pasa a Notificado la primera reserva pendiente del libro. Se llama dentro de la
+     * transacción que libera el ejemplar, así que un rollback también deshace la notificación.
+     * @return id de la reserva notificada, o vacío si el libro no tiene reservas pendientes
+     */
+    public Optional<Integer> promoverSiguiente(Connection conn, int idLibro) throws SQLException {
+        // La cabeza real de la cola, bloqueada hasta el commit
+        Optional<Integer> primera = reservaDAO.bloquearPrimeraPendiente(conn, idLibro);
+        if (primera.isEmpty()) {
+            return Optional.empty();
+        }
+        Integer idReserva = primera.get();
+
+        if (!reservaDAO.cambiarEstado(conn, idReserva, EstadoReserva.PENDIENTE, EstadoReserva.NOTIFICADO)) {
+            // No debería ocurrir con la fila bloqueada
+            return Optional.empty();
+        }
+        notificacionDAO.encolarAvisoReserva(conn, idReserva);
+        logger.info("Reserva {} del libro {} notificada al quedar un ejemplar libre", idReserva, idLibro);
+        return Optional.of(idReserva);
+    }
+
+    /**
+     * Versión por lotes de {@link #promoverSiguiente}: una sola consulta descarta los libros
+     * sin reservas pendientes, y en los demás se promueve una reserva por ejemplar liberado
+     * @param librosLiberados Libro de cada ejemplar liberado (repetido si se libera más de uno del mismo libro)
+     * @return ids de las reservas notificadas
+     */
+    public List<Integer> promoverSiguientes(Connection conn, List<Integer> librosLiberados) throws SQLException {
+        List<Integer> notificadas = new ArrayList<>();
+        Set<Integer> conPendientes = reservaDAO.findLibrosConPendientes(conn, Set.copyOf(librosLiberados));
+
+        for (Integer idLibro : librosLiberados) {
+            if (conPendientes.contains(idLibro)) {
+                Optional<Integer> promovida = promoverSiguiente(conn, idLibro);
+                if (promovida.isPresent()) {
+                    notificadas.add(promovida.get());
+                } else {
+                    // Cola agotada: el resto de copias de este libro no necesita consultarla
+                    conPendientes.remove(idLibro);
+                }
+            }
+        }
+        return notificadas;
+    }
+
+    /**
+     * Notifica a mano una reserva pendiente (por ejemplo al adquirir un ejemplar nuevo):
+     * cambio de estado y aviso en una sola transacción
+     * @return false si la reserva ya no estaba pendiente
+     */
+    public boolean notificar(Reserva reserva) throws SQLException {
+        return DatabaseConnection.getInstance().enTransaccion(conn -> {
+            if (!reservaDAO.cambiarEstado(conn, reserva.getIdReserva(),
+                    EstadoReserva.PENDIENTE, EstadoReserva.NOTIFICADO)) {
+                return false;
+            }
+            notificacionDAO.encolarAvisoReserva(conn, reserva.getIdReserva());
+            return true;
+        });
+    }
+}
@@ -0,0 +1,282 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dao.NotificacionDAO;
+import com.biblioteca.dao.impl.NotificacionDAOImpl;
+import com.biblioteca.model.Notificacion;
+import com.biblioteca.model.enums.EstadoNotificacion;
+import com.biblioteca.util.Configuracion;
+import com.biblioteca.util.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vacía periódicamente la bandeja de salida (tabla Notificaciones) en un hilo propio.
+ * <p>
+ * Cada pasada reclama un lote de avisos pendientes en una transacción corta, que los
+ * aparta durante notificaciones.arrendamientoSeg, y los entrega con el
+ * {@link EnviadorNotificaciones} configurado fuera de la transacción. Los enviados se marcan
+ * en un solo lote; los fallidos se reprograman con espera exponencial (con jitter) hasta
+ * notificaciones.maxIntentos, y después quedan como Fallida. Si la aplicación se cierra a
+ * mitad de un envío el aviso vuelve a estar disponible al vencer el arrendamiento, así que
+ * la entrega es "al menos una vez".
+ * <p>
+ * Se configura en database.properties: notificaciones.habilitado, intervaloSeg, tamanoLote,
+ * maxIntentos, reintentoBaseSeg, arrendamientoSeg, enviador (archivo, memoria o el nombre
+ * de una clase con constructor sin argumentos) y archivo.
+ */
+public class DespachadorNotificaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorNotificaciones.class);
+
+    private static final DespachadorNotificaciones INSTANCE = new DespachadorNotificaciones();
+
+    private static final long REINTENTO_MAX_SEG = 3600;
+
+    private final NotificacionDAO notificacionDAO = new NotificacionDAOImpl();
+    private final boolean habilitado;
+    private final long intervaloSeg;
+    private final int tamanoLote;
+    private final int maxIntentos;
+    private final long reintentoBaseSeg;
+    private final long arrendamientoSeg;
+
+    private volatile EnviadorNotificaciones enviador;
+    private ScheduledExecutorService planificador;
+
+    // Métricas desde el arranque
+    private final long inicio = System.nanoTime();
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder fallidas = new LongAdder();
+    private final LongAdder retrasoTotalMs = new LongAdder();
+    private final AtomicLong retrasoMaxMs = new AtomicLong();
+
+    private DespachadorNotificaciones() {
+        Configuracion config = Configuracion.getInstance();
+        this.habilitado = config.booleano("notificaciones.habilitado", true);
+        this.intervaloSeg = Math.max(1, config.largo("notificaciones.intervaloSeg", 10L));
+        this.tamanoLote = Math.max(1, config.entero("notificaciones.tamanoLote", 50));
+        this.maxIntentos = Math.max(1, config.entero("notificaciones.maxIntentos", 8));
+        this.reintentoBaseSeg = Math.max(1, config.largo("notificaciones.reintentoBaseSeg", 30L));
+        this.arrendamientoSeg = Math.max(1, config.largo("notificaciones.arrendamientoSeg", 120L));
+        this.enviador = crearEnviador(config.texto("notificaciones.enviador", "archivo"),
+                config.texto("notificaciones.archivo", "logs/notificaciones.log"));
+    }
+
+    public static DespachadorNotificaciones getInstance() {
+        return INSTANCE;
+    }
+
+    private static EnviadorNotificaciones crearEnviador(String tipo, String archivo) {
+        switch (tipo) {
+            case "archivo":
+                return new EnviadorArchivo(Path.of(archivo));
+            case "memoria":
+                return new EnviadorMemoria();
+            default:
+                try {
+                    return (EnviadorNotificaciones) Class.forName(tipo).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    logger.error("No se pudo crear el enviador de notificaciones '{}'; se usa {}", tipo, archivo, e);
+                    return new EnviadorArchivo(Path.of(archivo));
+                }
+        }
+    }
+
+    /**
+     * Sustituye el enviador configurado (pruebas o integración con otro canal)
+     */
+    public void setEnviador(EnviadorNotificaciones enviador) {
+        this.enviador = enviador;
+    }
+
+    public EnviadorNotificaciones getEnviador() {
+        return enviador;
+    }
+
+    /**
+     * Programa el despacho (no hace nada si está deshabilitado o ya iniciado)
+     */
+    public synchronized void iniciar() {
+        if (!habilitado || planificador != null) {
+            return;
+        }
+
+        planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "despacho-notificaciones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(this::ejecutarPasada, intervaloSeg, intervaloSeg, TimeUnit.SECONDS);
+
+        logger.info("Despacho de notificaciones programado cada {} s (lotes de {}, enviador {})",
+                intervaloSeg, tamanoLote, enviador.getClass().getSimpleName());
+    }
+
+    public synchronized void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+            planificador = null;
+        }
+    }
+
+    /**
+     * Despacha en el hilo que llama los lotes que haya listos, hasta vaciar la bandeja
+     * @return avisos enviados
+     */
+    public int ejecutarAhora() throws SQLException {
+        int total = 0;
+        while (true) {
+            int[] resultado = despacharLote();
+            total += resultado[0];
+            // Lote incompleto: no quedan más avisos listos
+            if (resultado[1] < tamanoLote || Thread.currentThread().isInterrupted()) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * @return {enviados, reclamados}
+     */
+    private int[] despacharLote() throws SQLException {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Notificacion> lote = DatabaseConnection.getInstance().enTransaccion(conn ->
+                notificacionDAO.reclamarLote(conn, tamanoLote, ahora, ahora.plusSeconds(arrendamientoSeg)));
+        if (lote.isEmpty()) {
+            return new int[]{0, 0};
+        }
+
+        long t0 = System.nanoTime();
+        EnviadorNotificaciones canal = enviador;
+        List<Integer> ok = new ArrayList<>();
+        int conError = 0;
+
+        for (Notificacion notificacion : lote) {
+            try {
+                canal.enviar(notificacion);
+                ok.add(notificacion.getIdNotificacion());
+                registrarRetraso(notificacion);
+            } catch (Exception e) {
+                conError++;
+                reprogramar(notificacion, e);
+            }
+        }
+
+        notificacionDAO.marcarEnviadas(ok, LocalDateTime.now());
+        enviadas.add(ok.size());
+
+        logger.info("Despacho de notificaciones: {} enviadas, {} con error de {} en {} ms",
+                ok.size(), conError, lote.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        return new int[]{ok.size(), lote.size()};
+    }
+
+    private void reprogramar(Notificacion notificacion, Exception error) throws SQLException {
+        int intentos = notificacion.getIntentos() + 1;
+        notificacion.setIntentos(intentos);
+        notificacion.setUltimoError(error.getClass().getSimpleName() + ": " + error.getMessage());
+
+        if (intentos >= maxIntentos) {
+            notificacion.setEstado(EstadoNotificacion.FALLIDA);
+            fallidas.increment();
+            logger.error("Aviso {} a {} descartado tras {} intentos: {}",
+                    notificacion.getIdNotificacion(), notificacion.getDestinatario(), intentos, error.getMessage());
+        } else {
+            notificacion.setProximoIntento(LocalDateTime.now().plusSeconds(esperaReintento(intentos)));
+            reintentos.increment();
+            logger.warn("Fallo al enviar el aviso {} (intento {}), se reintentará a las {}: {}",
+                    notificacion.getIdNotificacion(), intentos, notificacion.getProximoIntento(), error.getMessage());
+        }
+        notificacionDAO.reprogramar(notificacion);
+    }
+
+    /**
+     * Base * 2^(intentos-1), hasta una hora, más un jitter de hasta el 20 % para
+     * que los avisos que fallaron juntos no se reintenten todos a la vez
+     */
+    private long esperaReintento(int intentos) {
+        long espera = Math.min(REINTENTO_MAX_SEG, reintentoBaseSeg << Math.min(intentos - 1, 20));
+        return espera + ThreadLocalRandom.current().nextLong(espera / 5 + 1);
+    }
+
+    private void registrarRetraso(Notificacion notificacion) {
+        long retraso = Math.max(0, Duration.between(notificacion.getFechaCreacion(), LocalDateTime.now()).toMillis());
+        retrasoTotalMs.add(retraso);
+        retrasoMaxMs.accumulateAndGet(retraso, Math::max);
+    }
+
+    private void ejecutarPasada() {
+        // Una excepción no capturada cancelaría las ejecuciones siguientes
+        try {
+            ejecutarAhora();
+        } catch (Exception e) {
+            logger.error("Error en el despacho de notificaciones", e);
+        }
+    }
+
+    public long getEnviadas() {
+        return enviadas.sum();
+    }
+
+    public long getReintentos() {
+        return reintentos.sum();
+    }
+
+    public long getFallidas() {
+        return fallidas.sum();
+    }
+
+    /**
+     * Retraso medio entre la creación y el envío de los avisos enviados
+     */
+    public long getRetrasoMedioMs() {
+        long n = enviadas.sum();
+        return n == 0 ? 0 : retrasoTotalMs.sum() / n;
+    }
+
+    public long getRetrasoMaxMs() {
+        return retrasoMaxMs.get();
+    }
+
+    /**
+     * Avisos enviados por minuto desde el arranque
+     */
+    public double getEnviadasPorMinuto() {
+        double minutos = (System.nanoTime() - inicio) / (double) TimeUnit.MINUTES.toNanos(1);
+        return minutos <= 0 ? 0 : enviadas.sum() / minutos;
+    }
+
+    /**
+     * Resumen de métricas, con el tamaño y la antigüedad actuales de la bandeja
+     */
+    public String estadisticas() {
+        String bandeja;
+        try {
+            long pendientes = notificacionDAO.countPendientes();
+            Optional<LocalDateTime> masAntigua = notificacionDAO.findCreacionPendienteMasAntigua();
+            bandeja = pendientes + " pendientes" + masAntigua
+                    .map(f -> ", la más antigua hace " + Duration.between(f, LocalDateTime.now()).toSeconds() + " s")
+                    .orElse("");
+        } catch (SQLException e) {
+            bandeja = "bandeja no disponible (" + e.getMessage() + ")";
+        }
+        return String.format("Notificaciones: enviadas=%d (%.1f/min), reintentos=%d, fallidas=%d, " +
+                        "retraso medio=%d ms, máx=%d ms; %s",
+                getEnviadas(), getEnviadasPorMinuto(), getReintentos(), getFallidas(),
+                getRetrasoMedioMs(), getRetrasoMaxMs(), bandeja);
+    }
+}
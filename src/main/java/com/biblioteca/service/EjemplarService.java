@@ -0,0 +1,53 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dao.indice.EjemplarDAOIndexado;
+import com.biblioteca.model.Ejemplar;
+import com.biblioteca.util.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alta de ejemplares en el inventario
+ */
+public class EjemplarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjemplarService.class);
+
+    private static final int MAX_INTENTOS = 3;
+
+    private final EjemplarDAOIndexado ejemplarDAO = new EjemplarDAOIndexado();
+    private final GeneradorCodigos generadorCodigos = GeneradorCodigos.getInstance();
+
+    /**
+     * Da de alta varios ejemplares iguales (libro, ubicación y estado de la plantilla) en una
+     * sola transacción: reserva el bloque de códigos y los inserta en un lote JDBC. Si algo
+     * falla no queda ningún ejemplar a medias y los códigos no se gastan.
+     * @return Ejemplares creados, con su ID y código
+     */
+    public List<Ejemplar> registrarEjemplares(Ejemplar plantilla, int cantidad) throws SQLException {
+        List<Ejemplar> creados = DatabaseConnection.getInstance().enTransaccionConReintentos(MAX_INTENTOS, conn -> {
+            List<Ejemplar> ejemplares = new ArrayList<>(cantidad);
+            for (String codigo : generadorCodigos.reservar(conn, plantilla.getLibro(), cantidad)) {
+                Ejemplar ejemplar = new Ejemplar();
+                ejemplar.setLibro(plantilla.getLibro());
+                ejemplar.setUbicacion(plantilla.getUbicacion());
+                ejemplar.setEstadoFisico(plantilla.getEstadoFisico());
+                ejemplar.setDisponible(true);
+                ejemplar.setCodigoBarras(codigo);
+                ejemplares.add(ejemplar);
+            }
+            ejemplarDAO.saveAll(conn, ejemplares);
+            return ejemplares;
+        });
+
+        // Ya confirmada la transacción, los códigos nuevos se pueden escanear
+        ejemplarDAO.confirmarAltas(creados);
+        logger.info("Alta de {} ejemplares de '{}' ({} a {})", creados.size(), plantilla.getLibro().getTitulo(),
+                creados.get(0).getCodigoBarras(), creados.get(creados.size() - 1).getCodigoBarras());
+        return creados;
+    }
+}
@@ -0,0 +1,48 @@
+package com.biblioteca.service;
+
+import com.biblioteca.model.Notificacion;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe cada aviso al final de un archivo de texto. Es el enviador por defecto mientras
+ * no haya un servidor de correo configurado, y sirve para revisar los avisos en pruebas.
+ */
+public class EnviadorArchivo implements EnviadorNotificaciones {
+
+    private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path archivo;
+
+    public EnviadorArchivo(Path archivo) {
+        this.archivo = archivo;
+    }
+
+    @Override
+    public synchronized void enviar(Notificacion notificacion) throws IOException {
+        Path carpeta = archivo.toAbsolutePath().getParent();
+        if (carpeta != null) {
+            Files.createDirectories(carpeta);
+        }
+        try (Writer writer = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write("=== " + LocalDateTime.now().format(FORMATO) + " #" + notificacion.getIdNotificacion()
+                    + " (" + notificacion.getTipo().getDescripcion() + ")\n");
+            writer.write("Para: " + notificacion.getDestinatario() + "\n");
+            writer.write("Asunto: " + notificacion.getAsunto() + "\n\n");
+            writer.write(notificacion.getCuerpo());
+            writer.write("\n");
+        }
+    }
+
+    public Path getArchivo() {
+        return archivo;
+    }
+}
@@ -0,0 +1,30 @@
+package com.biblioteca.service;
+
+import com.biblioteca.model.Notificacion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda los avisos en una lista en lugar de enviarlos; útil para pruebas y demostraciones
+ */
+public class EnviadorMemoria implements EnviadorNotificaciones {
+
+    private final List<Notificacion> enviadas = new ArrayList<>();
+
+    @Override
+    public synchronized void enviar(Notificacion notificacion) {
+        enviadas.add(notificacion);
+    }
+
+    /**
+     * Copia de los avisos recibidos hasta ahora, en orden de envío
+     */
+    public synchronized List<Notificacion> getEnviadas() {
+        return new ArrayList<>(enviadas);
+    }
+
+    public synchronized void limpiar() {
+        enviadas.clear();
+    }
+}
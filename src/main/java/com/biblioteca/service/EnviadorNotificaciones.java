@@ -0,0 +1,14 @@
+package com.biblioteca.service;
+
+import com.biblioteca.model.Notificacion;
+
+/**
+ * Canal por el que {@link DespachadorNotificaciones} entrega los avisos (correo, SMS, archivo...).
+ * Una excepción indica que el envío falló y el aviso se reintentará más tarde; como el
+ * envío es "al menos una vez", el mismo aviso puede llegar repetido tras un fallo.
+ */
+@FunctionalInterface
+public interface EnviadorNotificaciones {
+
+    void enviar(Notificacion notificacion) throws Exception;
+}
@@ -0,0 +1,99 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dao.SecuenciaCodigoDAO;
+import com.biblioteca.dao.impl.SecuenciaCodigoDAOImpl;
+import com.biblioteca.model.Libro;
+import com.biblioteca.util.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Asigna los códigos de barras de los ejemplares nuevos ("PRE-001", "PRE-002", ...), con el
+ * prefijo sacado del título del libro. El número sale de un contador por prefijo en la base de
+ * datos (ver {@link SecuenciaCodigoDAOImpl}): no hace falta leer los ejemplares existentes y
+ * dos altas simultáneas, desde este equipo o desde otro, nunca reciben el mismo código.
+ * Si la transacción que reservó los números se deshace, los números vuelven al contador.
+ */
+public class GeneradorCodigos {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneradorCodigos.class);
+
+    private static final GeneradorCodigos INSTANCE = new GeneradorCodigos();
+
+    private static final int LONGITUD_PREFIJO = 3;
+    private static final String PREFIJO_POR_DEFECTO = "EJM";
+    private static final int MAX_BLOQUE = 500;
+    private static final int MAX_INTENTOS = 3;
+
+    private final SecuenciaCodigoDAO secuenciaDAO = new SecuenciaCodigoDAOImpl();
+
+    private GeneradorCodigos() {
+    }
+
+    public static GeneradorCodigos getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Código para un ejemplar nuevo del libro
+     */
+    public String siguiente(Libro libro) throws SQLException {
+        return reservar(libro, 1).get(0);
+    }
+
+    /**
+     * Reserva de una vez los códigos de varios ejemplares del libro (alta de un lote)
+     * @throws IllegalArgumentException si la cantidad no está entre 1 y 500
+     */
+    public List<String> reservar(Libro libro, int cantidad) throws SQLException {
+        return DatabaseConnection.getInstance().enTransaccionConReintentos(MAX_INTENTOS,
+                conn -> reservar(conn, libro, cantidad));
+    }
+
+    /**
+     * Igual que {@link #reservar(Libro, int)}, dentro de la transacción del llamador: la fila
+     * del prefijo queda bloqueada hasta su commit, y si hace rollback los números no se gastan
+     */
+    public List<String> reservar(Connection conn, Libro libro, int cantidad) throws SQLException {
+        if (cantidad < 1 || cantidad > MAX_BLOQUE) {
+            throw new IllegalArgumentException(
+                    "Se pueden reservar entre 1 y " + MAX_BLOQUE + " códigos (se pidieron " + cantidad + ")");
+        }
+
+        String prefijo = prefijo(libro.getTitulo());
+        int primero = secuenciaDAO.reservarBloque(conn, prefijo, cantidad);
+
+        List<String> codigos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            codigos.add(prefijo + "-" + String.format("%03d", primero + i));
+        }
+        logger.debug("Códigos reservados para '{}': {} a {}", libro.getTitulo(), codigos.get(0), codigos.get(cantidad - 1));
+        return codigos;
+    }
+
+    /**
+     * Primeras letras o cifras del título, sin tildes y en mayúsculas, para que el código
+     * se pueda escanear y teclear sin ambigüedad
+     */
+    static String prefijo(String titulo) {
+        if (titulo == null) {
+            return PREFIJO_POR_DEFECTO;
+        }
+        String sinTildes = Normalizer.normalize(titulo, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        StringBuilder prefijo = new StringBuilder(LONGITUD_PREFIJO);
+        for (int i = 0; i < sinTildes.length() && prefijo.length() < LONGITUD_PREFIJO; i++) {
+            char c = sinTildes.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                prefijo.append(c);
+            }
+        }
+        return prefijo.length() == 0 ? PREFIJO_POR_DEFECTO : prefijo.toString().toUpperCase(Locale.ROOT);
+    }
+}
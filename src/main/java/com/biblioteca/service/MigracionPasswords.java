@@ -0,0 +1,98 @@
+package com.biblioteca.service;
+
+import com.biblioteca.dao.UsuarioDAO;
+import com.biblioteca.dao.impl.UsuarioDAOImpl;
+import com.biblioteca.util.PasswordUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola en segundo plano que vuelve a guardar contraseñas tras un login correcto:
+ * las legacy en texto plano y los hashes BCrypt con un factor de trabajo antiguo.
+ *
+ * El login solo verifica y encola; el hash nuevo (cientos de ms) y el UPDATE se hacen
+ * aquí, en un único hilo de baja prioridad. La actualización solo se aplica si la
+ * contraseña guardada no ha cambiado mientras tanto. Si la cola está llena o la
+ * aplicación se cierra antes, no pasa nada: se reintentará en el siguiente login.
+ */
+public class MigracionPasswords {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigracionPasswords.class);
+
+    private static final MigracionPasswords INSTANCE = new MigracionPasswords();
+
+    private static final int CAPACIDAD_COLA = 100;
+
+    private final UsuarioDAO usuarioDAO = new UsuarioDAOImpl();
+    private final ThreadPoolExecutor executor;
+    private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+
+    private MigracionPasswords() {
+        executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(CAPACIDAD_COLA), r -> {
+            Thread hilo = new Thread(r, "migracion-passwords");
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.MIN_PRIORITY);
+            return hilo;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static MigracionPasswords getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Encola el rehash de la contraseña de un usuario recién autenticado
+     * @param passwordGuardada Valor actual en la base de datos (texto plano o hash antiguo)
+     * @param password Contraseña que el usuario acaba de introducir correctamente
+     */
+    public void programar(int idUsuario, String passwordGuardada, String password) {
+        if (!pendientes.add(idUsuario)) {
+            return;
+        }
+        try {
+            executor.execute(() -> migrar(idUsuario, passwordGuardada, password));
+        } catch (RejectedExecutionException e) {
+            pendientes.remove(idUsuario);
+            logger.warn("Cola de migración de contraseñas llena; se omite el usuario {}", idUsuario);
+        }
+    }
+
+    private void migrar(int idUsuario, String passwordGuardada, String password) {
+        try {
+            String hash = PasswordUtils.hashPassword(password);
+            if (usuarioDAO.updatePassword(idUsuario, passwordGuardada, hash)) {
+                logger.info("Contraseña del usuario {} actualizada a BCrypt con el factor de trabajo actual", idUsuario);
+            } else {
+                logger.info("La contraseña del usuario {} cambió antes de migrarla; se deja como está", idUsuario);
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("No se pudo migrar la contraseña del usuario {}: {}", idUsuario, e.getMessage());
+        } finally {
+            pendientes.remove(idUsuario);
+        }
+    }
+
+    /**
+     * Migraciones en cola o en curso
+     */
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    /**
+     * Detiene el hilo; lo que quede en cola se descarta (al salir de la aplicación)
+     */
+    public void detener() {
+        executor.shutdownNow();
+    }
+}
@@ -2,158 +2,416 @@ package com.biblioteca.service;
 
 import com.biblioteca.dao.*;
 import com.biblioteca.dao.impl.*;
+import com.biblioteca.dao.indice.EjemplarDAOIndexado;
 import com.biblioteca.model.*;
+import com.biblioteca.model.enums.EstadoFisico;
 import com.biblioteca.model.enums.EstadoPrestamo;
+import com.biblioteca.util.DatabaseConnection;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PrestamoService {
 
     private final PrestamoDAO prestamoDAO;
-    private final EjemplarDAO ejemplarDAO;
-    private final UsuarioDAO usuarioDAO;
+    private final EjemplarDAOIndexado ejemplarDAO;
     private final MultaDAO multaDAO;
+    private final NotificacionDAO notificacionDAO = new NotificacionDAOImpl();
+    private final ColaReservas colaReservas = ColaReservas.getInstance();
 
     // Constantes de negocio
     private static final int DIAS_PRESTAMO_DEFAULT = 14;
     private static final int MAX_PRESTAMOS_SIMULTANEOS = 3;
     private static final double MULTA_POR_DIA = 5.0;
+    private static final long MARGEN_AVISOS_MIN = 5;
+    private static final int MAX_OPERACIONES_LOTE = 200;
 
     public PrestamoService() {
         this.prestamoDAO = new PrestamoDAOImpl();
-        this.ejemplarDAO = new EjemplarDAOImpl();
-        this.usuarioDAO = new UsuarioDAOImpl();
+        this.ejemplarDAO = new EjemplarDAOIndexado();
         this.multaDAO = new MultaDAOImpl();
     }
 
+    /**
+     * Registra un préstamo en una sola transacción y una sola conexión:
+     * una lectura bloqueante con todas las validaciones, el INSERT del préstamo
+     * y un UPDATE condicional de la disponibilidad del ejemplar.
+     * @throws IllegalStateException si no se cumple alguna regla de negocio (el mensaje indica cuál)
+     */
     public Prestamo prestarLibro(Integer idUsuario, Integer idEjemplar)
             throws SQLException, IllegalStateException {
 
-        // 1. VALIDAR QUE EL USUARIO EXISTE
-        Usuario usuario = usuarioDAO.findById(idUsuario)
-                .orElseThrow(() -> new IllegalStateException(
-                        "Usuario no encontrado con ID: " + idUsuario));
+        Prestamo registrado = DatabaseConnection.getInstance().enTransaccion(conn -> {
 
-        // 2. VALIDAR QUE NO TENGA MULTAS PENDIENTES
-        if (usuarioTieneMultasPendientes(idUsuario)) {
+            // 1. LEER Y BLOQUEAR USUARIO Y EJEMPLAR (una sola consulta)
+            ValidacionPrestamo datos = prestamoDAO.bloquearParaPrestamo(conn, idUsuario, idEjemplar)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Usuario no encontrado con ID: " + idUsuario));
+
+            // 2-6. VALIDAR MULTAS, LÍMITE Y EJEMPLAR
+            validarPrestamo(datos, idEjemplar, 0);
+
+            // 7. CREAR Y GUARDAR EL PRÉSTAMO
+            Prestamo prestamo = crearPrestamo(idUsuario, idEjemplar, datos);
+            prestamo.setIdPrestamo(prestamoDAO.save(conn, prestamo));
+
+            // 8. MARCAR EL EJEMPLAR COMO NO DISPONIBLE (solo si seguía disponible)
+            if (!ejemplarDAO.actualizarDisponibilidad(conn, idEjemplar, false)) {
+                throw new IllegalStateException(
+                        "El ejemplar con código de barras " + datos.getCodigoBarras() +
+                                " acaba de ser prestado por otra operación.");
+            }
+
+            return prestamo;
+        });
+
+        ejemplarDAO.confirmarDisponibilidad(List.of(idEjemplar), false);
+        return registrado;
+    }
+
+    /**
+     * Reglas de negocio de un préstamo (comunes a {@link #prestarLibro} y {@link #prestarLote})
+     * @param prestamosEnLote Préstamos del mismo usuario ya aceptados en el lote actual
+     * @throws IllegalStateException con el motivo si no se cumple alguna
+     */
+    private void validarPrestamo(ValidacionPrestamo datos, Integer idEjemplar, int prestamosEnLote) {
+
+        // VALIDAR QUE NO TENGA MULTAS PENDIENTES
+        if (datos.getMultasPendientes() > 0) {
             throw new IllegalStateException(
-                    "El usuario " + usuario.getNombre() + " " + usuario.getApellido() +
+                    "El usuario " + datos.getNombreUsuario() + " " + datos.getApellidoUsuario() +
                             " tiene multas pendientes. Debe pagar antes de solicitar un nuevo préstamo.");
         }
 
-        // 3. VALIDAR LÍMITE DE PRÉSTAMOS SIMULTÁNEOS
-        int prestamosActivos = contarPrestamosActivos(idUsuario);
+        // VALIDAR LÍMITE DE PRÉSTAMOS SIMULTÁNEOS
+        int prestamosActivos = datos.getPrestamosActivos() + prestamosEnLote;
         if (prestamosActivos >= MAX_PRESTAMOS_SIMULTANEOS) {
             throw new IllegalStateException(
                     "El usuario ha alcanzado el límite de " + MAX_PRESTAMOS_SIMULTANEOS +
                             " préstamos simultáneos. Préstamos activos: " + prestamosActivos);
         }
 
-        // 4. VALIDAR QUE EL EJEMPLAR EXISTE
-        Ejemplar ejemplar = ejemplarDAO.findById(idEjemplar)
-                .orElseThrow(() -> new IllegalStateException(
-                        "Ejemplar no encontrado con ID: " + idEjemplar));
+        // VALIDAR QUE EL EJEMPLAR EXISTE
+        if (!datos.isEjemplarExiste()) {
+            throw new IllegalStateException("Ejemplar no encontrado con ID: " + idEjemplar);
+        }
 
-        // 5. VALIDAR QUE EL EJEMPLAR ESTÁ DISPONIBLE
-        if (!ejemplar.getDisponible()) {
+        // VALIDAR QUE EL EJEMPLAR ESTÁ DISPONIBLE
+        if (!datos.isDisponible()) {
             throw new IllegalStateException(
-                    "El ejemplar con código de barras " + ejemplar.getCodigoBarras() +
+                    "El ejemplar con código de barras " + datos.getCodigoBarras() +
                             " no está disponible actualmente.");
         }
 
-        // 6. VALIDAR CONDICIÓN FÍSICA DEL EJEMPLAR
-        if (!ejemplar.puedeSerPrestado()) {
+        // VALIDAR CONDICIÓN FÍSICA DEL EJEMPLAR
+        if (datos.getEstadoFisico() == EstadoFisico.PERDIDO ||
+                datos.getEstadoFisico() == EstadoFisico.DETERIORADO) {
             throw new IllegalStateException(
                     "El ejemplar no puede ser prestado debido a su estado físico: " +
-                            ejemplar.getEstadoFisico());
+                            datos.getEstadoFisico());
         }
+    }
+
+    private Prestamo crearPrestamo(Integer idUsuario, Integer idEjemplar, ValidacionPrestamo datos) {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(idUsuario);
+        usuario.setNombre(datos.getNombreUsuario());
+        usuario.setApellido(datos.getApellidoUsuario());
+
+        Ejemplar ejemplar = new Ejemplar();
+        ejemplar.setIdEjemplar(idEjemplar);
+        ejemplar.setCodigoBarras(datos.getCodigoBarras());
+        ejemplar.setEstadoFisico(datos.getEstadoFisico());
+        ejemplar.setDisponible(false);
 
-        // 7. CREAR EL PRÉSTAMO
         LocalDateTime fechaDevolucion = LocalDateTime.now().plusDays(DIAS_PRESTAMO_DEFAULT);
-        Prestamo prestamo = new Prestamo(usuario, ejemplar, fechaDevolucion);
+        return new Prestamo(usuario, ejemplar, fechaDevolucion);
+    }
+
+    /**
+     * Registra una devolución en una sola transacción y una sola conexión:
+     * lectura bloqueante del préstamo, UPDATE del préstamo, INSERT de la multa
+     * si hay retraso y un UPDATE puntual de la disponibilidad del ejemplar.
+     * Si el libro tiene reservas pendientes, la primera pasa a Notificado en la misma transacción.
+     * Si algo falla no queda un préstamo devuelto con el ejemplar sin liberar.
+     */
+    public boolean devolverLibro(Integer idPrestamo) throws SQLException {
 
-        try {
-            // 8. GUARDAR EL PRÉSTAMO (esto inicia una transacción implícita)
-            Integer idPrestamo = prestamoDAO.save(prestamo);
-            prestamo.setIdPrestamo(idPrestamo);
+        Devolucion devolucion = DatabaseConnection.getInstance().enTransaccion(conn -> {
 
-            // 9. MARCAR EL EJEMPLAR COMO NO DISPONIBLE
-            ejemplar.setDisponible(false);
-            boolean ejemplarActualizado = ejemplarDAO.update(ejemplar);
+            // 1. OBTENER Y BLOQUEAR EL PRÉSTAMO
+            Prestamo prestamo = prestamoDAO.bloquearParaDevolucion(conn, idPrestamo)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Préstamo no encontrado con ID: " + idPrestamo));
 
-            if (!ejemplarActualizado) {
-                throw new SQLException("No se pudo actualizar la disponibilidad del ejemplar");
+            // 2. VALIDAR QUE EL PRÉSTAMO ESTÁ ACTIVO
+            if (prestamo.getEstado() != EstadoPrestamo.ACTIVO &&
+                    prestamo.getEstado() != EstadoPrestamo.ATRASADO) {
+                throw new IllegalStateException(
+                        "El préstamo ya fue finalizado anteriormente");
             }
 
-            return prestamo;
+            // 3. CALCULAR EL RETRASO ANTES DE FINALIZAR
+            // (un préstamo Finalizado ya no cuenta como atrasado y daría 0 días)
+            long diasRetraso = prestamo.calcularDiasRetraso();
 
-        } catch (SQLException e) {
-            throw new SQLException(
-                    "Error al realizar el préstamo: " + e.getMessage(), e);
-        }
+            // 4. MARCAR COMO DEVUELTO
+            prestamo.marcarComoDevuelto();
+
+            // 5. GENERAR MULTA SI HAY RETRASO
+            if (diasRetraso > 0) {
+                generarMultaPorRetraso(conn, prestamo, diasRetraso);
+            }
+
+            // 6. ACTUALIZAR EL PRÉSTAMO EN BD
+            boolean prestamoActualizado = prestamoDAO.update(conn, prestamo);
+
+            // 7. LIBERAR EL EJEMPLAR (solo la columna disponible, sin releer la fila)
+            boolean ejemplarActualizado = ejemplarDAO.actualizarDisponibilidad(
+                    conn, prestamo.getEjemplar().getIdEjemplar(), true);
+
+            // 8. AVISAR A LA PRIMERA RESERVA PENDIENTE DEL LIBRO
+            int idLibro = prestamo.getEjemplar().getLibro().getIdLibro();
+            colaReservas.promoverSiguiente(conn, idLibro);
+
+            return new Devolucion(prestamoActualizado && ejemplarActualizado,
+                    prestamo.getEjemplar().getIdEjemplar());
+        });
+
+        // Ya confirmada la transacción, el ejemplar vuelve a figurar como disponible en el índice de códigos
+        ejemplarDAO.confirmarDisponibilidad(List.of(devolucion.idEjemplar()), true);
+        return devolucion.actualizada();
     }
 
-    public boolean devolverLibro(Integer idPrestamo) throws SQLException {
+    private record Devolucion(boolean actualizada, int idEjemplar) {
+    }
 
-        // 1. OBTENER EL PRÉSTAMO
-        Prestamo prestamo = prestamoDAO.findById(idPrestamo)
-                .orElseThrow(() -> new IllegalStateException(
-                        "Préstamo no encontrado con ID: " + idPrestamo));
+    /**
+     * Registra varios préstamos (una clase, un traslado entre sedes) en una sola transacción:
+     * una consulta bloqueante para los usuarios y otra para los ejemplares, las mismas reglas
+     * que {@link #prestarLibro} (el límite de préstamos cuenta también los del lote), un lote
+     * de INSERTs y otro de UPDATEs de disponibilidad.
+     * Los elementos que no pasan la validación se informan en el resultado y no impiden
+     * registrar los demás.
+     * @throws IllegalArgumentException si el lote supera {@value #MAX_OPERACIONES_LOTE} elementos
+     */
+    public ResultadoLote prestarLote(List<SolicitudPrestamo> solicitudes) throws SQLException {
+        validarTamanoLote(solicitudes.size());
+        long inicio = System.nanoTime();
+        ResultadoLote.Item[] items = new ResultadoLote.Item[solicitudes.size()];
+
+        DatabaseConnection.getInstance().enTransaccion(conn -> {
+            Set<Integer> idsUsuario = new LinkedHashSet<>();
+            Set<Integer> idsEjemplar = new LinkedHashSet<>();
+            for (SolicitudPrestamo solicitud : solicitudes) {
+                idsUsuario.add(solicitud.idUsuario());
+                idsEjemplar.add(solicitud.idEjemplar());
+            }
 
-        // 2. VALIDAR QUE EL PRÉSTAMO ESTÁ ACTIVO
-        if (prestamo.getEstado() != EstadoPrestamo.ACTIVO &&
-                prestamo.getEstado() != EstadoPrestamo.ATRASADO) {
-            throw new IllegalStateException(
-                    "El préstamo ya fue finalizado anteriormente");
-        }
+            // 1. LEER Y BLOQUEAR TODOS LOS USUARIOS Y EJEMPLARES
+            ValidacionLote validacion = prestamoDAO.bloquearParaPrestamos(conn, idsUsuario, idsEjemplar);
+
+            // 2. VALIDAR CADA ELEMENTO
+            Map<Integer, Integer> aceptadosPorUsuario = new HashMap<>();
+            Set<Integer> ejemplaresAceptados = new HashSet<>();
+            List<Prestamo> prestamos = new ArrayList<>();
+            List<Integer> indices = new ArrayList<>();
+
+            for (int i = 0; i < solicitudes.size(); i++) {
+                SolicitudPrestamo solicitud = solicitudes.get(i);
+                try {
+                    ValidacionPrestamo datos = validacion.para(solicitud.idUsuario(), solicitud.idEjemplar())
+                            .orElseThrow(() -> new IllegalStateException(
+                                    "Usuario no encontrado con ID: " + solicitud.idUsuario()));
+                    if (ejemplaresAceptados.contains(solicitud.idEjemplar())) {
+                        throw new IllegalStateException(
+                                "El ejemplar con ID " + solicitud.idEjemplar() + " ya se presta en este lote");
+                    }
+                    validarPrestamo(datos, solicitud.idEjemplar(),
+                            aceptadosPorUsuario.getOrDefault(solicitud.idUsuario(), 0));
+
+                    prestamos.add(crearPrestamo(solicitud.idUsuario(), solicitud.idEjemplar(), datos));
+                    indices.add(i);
+                    ejemplaresAceptados.add(solicitud.idEjemplar());
+                    aceptadosPorUsuario.merge(solicitud.idUsuario(), 1, Integer::sum);
+                } catch (IllegalStateException e) {
+                    items[i] = ResultadoLote.Item.fallido(i, null, e.getMessage());
+                }
+            }
 
-        // 3. MARCAR COMO DEVUELTO
-        prestamo.marcarComoDevuelto();
+            // 3. GUARDAR LOS PRÉSTAMOS Y MARCAR LOS EJEMPLARES (un lote JDBC cada uno)
+            prestamoDAO.saveAll(conn, prestamos);
+            List<Integer> noMarcados = ejemplarDAO.actualizarDisponibilidad(conn,
+                    prestamos.stream().map(p -> p.getEjemplar().getIdEjemplar()).toList(), false);
+            if (!noMarcados.isEmpty()) {
+                // Las filas estaban bloqueadas: no debería ocurrir, pero no se deja el lote a medias
+                throw new IllegalStateException(
+                        "Los ejemplares " + noMarcados + " acaban de ser prestados por otra operación.");
+            }
 
-        // 4. GENERAR MULTA SI HAY RETRASO
-        if (prestamo.calcularDiasRetraso() > 0) {
-            generarMultaPorRetraso(prestamo);
-        }
+            for (int k = 0; k < prestamos.size(); k++) {
+                items[indices.get(k)] = ResultadoLote.Item.correcto(
+                        indices.get(k), prestamos.get(k).getIdPrestamo(), null);
+            }
+            return null;
+        });
+
+        ResultadoLote resultado = new ResultadoLote(Arrays.asList(items), (System.nanoTime() - inicio) / 1_000_000);
+        ejemplarDAO.confirmarDisponibilidad(resultado.items().stream()
+                .filter(ResultadoLote.Item::correcto)
+                .map(item -> solicitudes.get(item.indice()).idEjemplar())
+                .toList(), false);
+        return resultado;
+    }
 
-        // 5. ACTUALIZAR EL PRÉSTAMO EN BD
-        boolean prestamoActualizado = prestamoDAO.update(prestamo);
+    /**
+     * Registra varias devoluciones en una sola transacción: una consulta bloqueante para todos
+     * los préstamos, un lote de UPDATEs de préstamos, las multas por retraso y sus avisos
+     * por lotes, un lote de UPDATEs de disponibilidad y la promoción de las reservas de los
+     * libros que las tengan. Los préstamos inexistentes, repetidos o ya finalizados se informan
+     * en el resultado y no impiden devolver los demás.
+     * @throws IllegalArgumentException si el lote supera {@value #MAX_OPERACIONES_LOTE} elementos
+     */
+    public ResultadoLote devolverLote(List<Integer> idsPrestamo) throws SQLException {
+        validarTamanoLote(idsPrestamo.size());
+        long inicio = System.nanoTime();
+        ResultadoLote.Item[] items = new ResultadoLote.Item[idsPrestamo.size()];
+
+        List<Integer> liberados = DatabaseConnection.getInstance().enTransaccion(conn -> {
+
+            // 1. OBTENER Y BLOQUEAR TODOS LOS PRÉSTAMOS
+            Map<Integer, Prestamo> encontrados =
+                    prestamoDAO.bloquearParaDevoluciones(conn, new LinkedHashSet<>(idsPrestamo));
+
+            // 2. VALIDAR, FINALIZAR Y CALCULAR MULTAS
+            Set<Integer> vistos = new HashSet<>();
+            List<Prestamo> devueltos = new ArrayList<>();
+            List<Integer> indices = new ArrayList<>();
+            List<String> detalles = new ArrayList<>();
+            List<Multa> multas = new ArrayList<>();
+
+            for (int i = 0; i < idsPrestamo.size(); i++) {
+                Integer idPrestamo = idsPrestamo.get(i);
+                Prestamo prestamo = encontrados.get(idPrestamo);
+
+                if (prestamo == null) {
+                    items[i] = ResultadoLote.Item.fallido(i, idPrestamo, "Préstamo no encontrado con ID: " + idPrestamo);
+                } else if (!vistos.add(idPrestamo)) {
+                    items[i] = ResultadoLote.Item.fallido(i, idPrestamo, "El préstamo ya se devuelve en este lote");
+                } else if (prestamo.getEstado() != EstadoPrestamo.ACTIVO &&
+                        prestamo.getEstado() != EstadoPrestamo.ATRASADO) {
+                    items[i] = ResultadoLote.Item.fallido(i, idPrestamo, "El préstamo ya fue finalizado anteriormente");
+                } else {
+                    long diasRetraso = prestamo.calcularDiasRetraso();
+                    prestamo.marcarComoDevuelto();
+
+                    String detalle = null;
+                    if (diasRetraso > 0) {
+                        Multa multa = crearMultaPorRetraso(prestamo, diasRetraso);
+                        multas.add(multa);
+                        detalle = "Multa de $" + multa.getMonto() + " por " + diasRetraso + " días de retraso";
+                    }
+                    devueltos.add(prestamo);
+                    indices.add(i);
+                    detalles.add(detalle);
+                }
+            }
 
-        // 6. LIBERAR EL EJEMPLAR
-        // Primero obtenemos el objeto COMPLETO desde la BD para no perder datos (como ubicación o id_libro)
-        Ejemplar ejemplarCompleto = ejemplarDAO.findById(prestamo.getEjemplar().getIdEjemplar())
-                .orElseThrow(() -> new IllegalStateException("El ejemplar ya no existe en la BD"));
+            // 3. ACTUALIZAR PRÉSTAMOS, MULTAS Y AVISOS
+            prestamoDAO.updateAll(conn, devueltos);
+            multaDAO.acumularPorPrestamos(conn, multas);
+            notificacionDAO.encolarAvisosMultasDePrestamos(conn,
+                    multas.stream().map(m -> m.getPrestamo().getIdPrestamo()).toList());
+
+            // 4. LIBERAR LOS EJEMPLARES
+            List<Integer> noLiberados = ejemplarDAO.actualizarDisponibilidad(conn,
+                    devueltos.stream().map(p -> p.getEjemplar().getIdEjemplar()).toList(), true);
+
+            for (int k = 0; k < devueltos.size(); k++) {
+                Prestamo prestamo = devueltos.get(k);
+                String detalle = detalles.get(k);
+                if (noLiberados.contains(prestamo.getEjemplar().getIdEjemplar())) {
+                    detalle = (detalle != null ? detalle + ". " : "") + "El ejemplar ya figuraba como disponible";
+                }
+                items[indices.get(k)] = ResultadoLote.Item.correcto(indices.get(k), prestamo.getIdPrestamo(), detalle);
+            }
 
-        ejemplarCompleto.setDisponible(true);
+            // 5. AVISAR A LAS RESERVAS PENDIENTES DE LOS LIBROS LIBERADOS
+            colaReservas.promoverSiguientes(conn,
+                    devueltos.stream().map(p -> p.getEjemplar().getLibro().getIdLibro()).toList());
 
-        // Ahora sí actualizamos el objeto completo y seguro
-        boolean ejemplarActualizado = ejemplarDAO.update(ejemplarCompleto);
+            return devueltos.stream().map(p -> p.getEjemplar().getIdEjemplar()).toList();
+        });
 
-        return prestamoActualizado && ejemplarActualizado;
+        ejemplarDAO.confirmarDisponibilidad(liberados, true);
+        return new ResultadoLote(Arrays.asList(items), (System.nanoTime() - inicio) / 1_000_000);
     }
 
-    private boolean usuarioTieneMultasPendientes(Integer idUsuario) throws SQLException {
-        List<Multa> multasPendientes = multaDAO.findByUsuarioAndEstado(
-                idUsuario, "Pendiente");
-        return !multasPendientes.isEmpty();
+    /**
+     * Devuelve en lote los préstamos abiertos de los ejemplares indicados (escaneo de códigos
+     * en el mostrador). Los ejemplares sin préstamo abierto se informan como fallidos.
+     * @see #devolverLote(List)
+     */
+    public ResultadoLote devolverLotePorEjemplares(List<Integer> idsEjemplar) throws SQLException {
+        validarTamanoLote(idsEjemplar.size());
+        long inicio = System.nanoTime();
+        Map<Integer, Integer> abiertos = prestamoDAO.findPrestamosAbiertosByEjemplares(new LinkedHashSet<>(idsEjemplar));
+
+        List<Integer> idsPrestamo = new ArrayList<>();
+        List<Integer> posiciones = new ArrayList<>();
+        ResultadoLote.Item[] items = new ResultadoLote.Item[idsEjemplar.size()];
+        for (int i = 0; i < idsEjemplar.size(); i++) {
+            Integer idPrestamo = abiertos.get(idsEjemplar.get(i));
+            if (idPrestamo == null) {
+                items[i] = ResultadoLote.Item.fallido(i, null, "El ejemplar no tiene un préstamo abierto");
+            } else {
+                idsPrestamo.add(idPrestamo);
+                posiciones.add(i);
+            }
+        }
+
+        if (!idsPrestamo.isEmpty()) {
+            for (ResultadoLote.Item item : devolverLote(idsPrestamo).items()) {
+                int i = posiciones.get(item.indice());
+                items[i] = new ResultadoLote.Item(i, item.idPrestamo(), item.correcto(), item.mensaje());
+            }
+        }
+        return new ResultadoLote(Arrays.asList(items), (System.nanoTime() - inicio) / 1_000_000);
     }
 
-    private int contarPrestamosActivos(Integer idUsuario) throws SQLException {
-        return prestamoDAO.countPrestamosByUsuarioAndEstado(
-                idUsuario, EstadoPrestamo.ACTIVO);
+    private void validarTamanoLote(int tamano) {
+        if (tamano > MAX_OPERACIONES_LOTE) {
+            throw new IllegalArgumentException("Un lote admite como máximo " + MAX_OPERACIONES_LOTE +
+                    " operaciones (recibidas: " + tamano + ")");
+        }
     }
 
-    private void generarMultaPorRetraso(Prestamo prestamo) throws SQLException {
-        long diasRetraso = prestamo.calcularDiasRetraso();
-        double montoMulta = diasRetraso * MULTA_POR_DIA;
+    private void generarMultaPorRetraso(Connection conn, Prestamo prestamo, long diasRetraso)
+            throws SQLException {
+        Multa multa = crearMultaPorRetraso(prestamo, diasRetraso);
+
+        // Si el barrido ya generó la multa mientras estaba atrasado, se actualiza en lugar de duplicarla
+        multaDAO.acumularPorPrestamo(conn, multa);
 
+        // El aviso al usuario se escribe en la bandeja de salida dentro de la misma transacción
+        notificacionDAO.encolarAvisoMultaDePrestamo(conn, prestamo.getIdPrestamo());
+    }
+
+    private Multa crearMultaPorRetraso(Prestamo prestamo, long diasRetraso) {
         Multa multa = new Multa();
         multa.setPrestamo(prestamo);
-        multa.setMonto(montoMulta);
+        multa.setMonto(diasRetraso * MULTA_POR_DIA);
         multa.setMotivo("Retraso de " + diasRetraso + " días en la devolución");
-
-        multaDAO.save(multa);
+        return multa;
     }
 
     public List<Prestamo> obtenerPrestamosActivosDeUsuario(Integer idUsuario) throws SQLException {
@@ -171,14 +429,36 @@ public class PrestamoService {
         return prestamoDAO.findByEstado(EstadoPrestamo.ATRASADO);
     }
 
-    public void actualizarPrestamosAtrasados() throws SQLException {
-        List<Prestamo> prestamosActivos = prestamoDAO.findByEstado(EstadoPrestamo.ACTIVO);
-
-        for (Prestamo prestamo : prestamosActivos) {
-            if (prestamo.estaAtrasado()) {
-                prestamo.setEstado(EstadoPrestamo.ATRASADO);
-                prestamoDAO.update(prestamo);
+    /**
+     * Marca como atrasados los préstamos vencidos y acumula sus multas, todo con sentencias
+     * por conjuntos: un UPDATE por lote de préstamos (cada lote en su propia transacción
+     * para no mantener bloqueada la tabla), un INSERT ... SELECT para las multas nuevas
+     * y un UPDATE para recalcular las pendientes.
+     */
+    public ResultadoBarrido actualizarPrestamosAtrasados(int tamanoLote) throws SQLException {
+        long inicio = System.nanoTime();
+        DatabaseConnection db = DatabaseConnection.getInstance();
+
+        int marcados = 0;
+        int lote;
+        do {
+            lote = db.enTransaccion(conn -> prestamoDAO.marcarAtrasados(conn, tamanoLote));
+            marcados += lote;
+        } while (lote == tamanoLote);
+
+        // Las multas nuevas llevan NOW() del servidor; el margen cubre la diferencia de reloj
+        // (los avisos ya encolados no se repiten)
+        LocalDateTime generadasDesde = LocalDateTime.now().minusMinutes(MARGEN_AVISOS_MIN);
+        int generadas = db.enTransaccion(conn -> {
+            int nuevas = multaDAO.generarMultasPorRetraso(conn, MULTA_POR_DIA);
+            if (nuevas > 0) {
+                notificacionDAO.encolarAvisosMultasDesde(conn, generadasDesde);
             }
-        }
+            return nuevas;
+        });
+        int actualizadas = db.enTransaccion(conn -> multaDAO.actualizarMultasPorRetraso(conn, MULTA_POR_DIA));
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        return new ResultadoBarrido(marcados, generadas, actualizadas, duracionMs);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package com.biblioteca.service;
+
+/**
+ * Resumen de una pasada del barrido de préstamos atrasados
+ */
+public record ResultadoBarrido(int prestamosMarcados, int multasGeneradas,
+                               int multasActualizadas, long duracionMs) {
+
+    public int filasAfectadas() {
+        return prestamosMarcados + multasGeneradas + multasActualizadas;
+    }
+}
@@ -0,0 +1,42 @@
+package com.biblioteca.service;
+
+import java.util.List;
+
+/**
+ * Resultado de un préstamo o devolución en lote: una entrada por elemento, en el orden recibido
+ */
+public record ResultadoLote(List<Item> items, long duracionMs) {
+
+    /**
+     * @param indice Posición del elemento en la lista recibida
+     * @param idPrestamo Préstamo creado o devuelto (null si falló un préstamo)
+     * @param correcto Si la operación se aplicó
+     * @param mensaje Motivo del fallo, o un detalle del resultado (por ejemplo la multa generada)
+     */
+    public record Item(int indice, Integer idPrestamo, boolean correcto, String mensaje) {
+
+        static Item correcto(int indice, Integer idPrestamo, String detalle) {
+            return new Item(indice, idPrestamo, true, detalle);
+        }
+
+        static Item fallido(int indice, Integer idPrestamo, String motivo) {
+            return new Item(indice, idPrestamo, false, motivo);
+        }
+    }
+
+    public ResultadoLote {
+        items = List.copyOf(items);
+    }
+
+    public long correctos() {
+        return items.stream().filter(Item::correcto).count();
+    }
+
+    public long fallidos() {
+        return items.size() - correctos();
+    }
+
+    public List<Item> getFallidos() {
+        return items.stream().filter(item -> !item.correcto()).toList();
+    }
+}
@@ -0,0 +1,7 @@
+package com.biblioteca.service;
+
+/**
+ * Un préstamo dentro de un lote: qué usuario se lleva qué ejemplar
+ */
+public record SolicitudPrestamo(int idUsuario, int idEjemplar) {
+}
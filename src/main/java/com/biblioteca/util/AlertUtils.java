@@ -2,6 +2,8 @@ package com.biblioteca.util;
 
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+
+import java.sql.SQLException;
 import java.util.Optional;
 
 public class AlertUtils {
@@ -44,4 +46,18 @@ public class AlertUtils {
         mostrarError("Error de Base de Datos",
                 "Ocurrió un error al acceder a la base de datos:\n" + e.getMessage());
     }
+
+    /**
+     * Muestra el error de una operación en segundo plano según su tipo:
+     * errores de BD, reglas de negocio incumplidas o cualquier otro fallo.
+     */
+    public static void mostrarErrorOperacion(Throwable e) {
+        if (e instanceof SQLException sqlException) {
+            mostrarErrorBD(sqlException);
+        } else if (e instanceof IllegalStateException || e instanceof IllegalArgumentException) {
+            mostrarAdvertencia("No permitido", e.getMessage());
+        } else {
+            mostrarError("Error", "Ocurrió un error inesperado:\n" + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
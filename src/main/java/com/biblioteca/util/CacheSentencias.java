@@ -0,0 +1,240 @@
+package com.biblioteca.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché LRU de sentencias preparadas de una conexión física, con el SQL como clave.
+ * <p>
+ * Los DAOs siguen preparando y cerrando sus sentencias como siempre: prepareStatement
+ * devuelve la sentencia ya preparada si está libre en la caché, y su close() la limpia
+ * (parámetros, lote, resultados abiertos) y la deja lista para la siguiente llamada con
+ * el mismo SQL. El mapa solo guarda sentencias libres; si el mismo SQL se prepara dos
+ * veces a la vez, la segunda es una sentencia nueva y al cerrarse se queda la que llegue
+ * primero. Las sentencias a las que se les cambia la configuración (fetchSize, maxRows...)
+ * se cierran de verdad en vez de volver a la caché.
+ * <p>
+ * Solo la usa el hilo que tiene la conexión prestada; el pool la vacía al devolverla
+ * o descartarla.
+ */
+final class CacheSentencias {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSentencias.class);
+
+    /** Métodos que cambian la configuración de la sentencia: tras usarlos no se reutiliza */
+    private static final Set<String> CONFIGURACION = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setMaxFieldSize",
+            "setQueryTimeout", "setEscapeProcessing", "setCursorName", "setPoolable", "closeOnCompletion");
+
+    private final Connection conn;
+    private final int capacidad;
+    private final Estadisticas estadisticas;
+    private final Map<Clave, PreparedStatement> libres;
+    private final List<SentenciaEnCache> enUso = new ArrayList<>();
+
+    CacheSentencias(Connection conn, int capacidad, Estadisticas estadisticas) {
+        this.conn = conn;
+        this.capacidad = capacidad;
+        this.estadisticas = estadisticas;
+        this.libres = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * prepareStatement(sql) o prepareStatement(sql, autoGeneratedKeys) a través de la caché
+     * @param generadas Statement.RETURN_GENERATED_KEYS / NO_GENERATED_KEYS, o -1 si no se indicó
+     * @param logica Conexión que ve el DAO, para getConnection()
+     */
+    synchronized PreparedStatement preparar(String sql, int generadas, Connection logica) throws SQLException {
+        Clave clave = new Clave(sql, generadas);
+        PreparedStatement fisica = libres.remove(clave);
+        if (fisica != null) {
+            estadisticas.aciertos.increment();
+        } else {
+            estadisticas.fallos.increment();
+            fisica = generadas < 0 ? conn.prepareStatement(sql) : conn.prepareStatement(sql, generadas);
+        }
+
+        SentenciaEnCache sentencia = new SentenciaEnCache(clave, fisica, logica);
+        enUso.add(sentencia);
+        return sentencia.proxy;
+    }
+
+    /**
+     * Vuelve a dejar libre una sentencia que el DAO ha cerrado
+     */
+    private synchronized void liberar(SentenciaEnCache sentencia) {
+        enUso.remove(sentencia);
+        PreparedStatement fisica = sentencia.fisica;
+
+        if (sentencia.configurada || libres.containsKey(sentencia.clave) || !limpiar(sentencia)) {
+            cerrarFisica(fisica);
+            return;
+        }
+
+        libres.put(sentencia.clave, fisica);
+        if (libres.size() > capacidad) {
+            Iterator<PreparedStatement> masAntigua = libres.values().iterator();
+            cerrarFisica(masAntigua.next());
+            masAntigua.remove();
+            estadisticas.expulsiones.increment();
+        }
+    }
+
+    private static boolean limpiar(SentenciaEnCache sentencia) {
+        try {
+            for (ResultSet rs : sentencia.resultados) {
+                rs.close();
+            }
+            if (sentencia.conLote) {
+                sentencia.fisica.clearBatch();
+            }
+            sentencia.fisica.clearParameters();
+            sentencia.fisica.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            logger.debug("No se pudo limpiar la sentencia para reutilizarla: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Al devolver la conexión al pool: cierra las sentencias que el DAO no cerró
+     */
+    synchronized void liberarPendientes() {
+        if (enUso.isEmpty()) {
+            return;
+        }
+        logger.debug("Cerrando {} sentencias que no se cerraron antes de devolver la conexión", enUso.size());
+        for (SentenciaEnCache sentencia : enUso) {
+            sentencia.cerrada = true;
+            cerrarFisica(sentencia.fisica);
+        }
+        enUso.clear();
+    }
+
+    /**
+     * Al descartar la conexión física: cierra todas sus sentencias
+     */
+    synchronized void cerrar() {
+        liberarPendientes();
+        for (PreparedStatement fisica : libres.values()) {
+            cerrarFisica(fisica);
+        }
+        libres.clear();
+    }
+
+    private static void cerrarFisica(PreparedStatement fisica) {
+        try {
+            fisica.close();
+        } catch (SQLException e) {
+            logger.debug("Error al cerrar sentencia preparada: {}", e.getMessage());
+        }
+    }
+
+    private record Clave(String sql, int generadas) {
+    }
+
+    /**
+     * Contadores comunes a las cachés de todas las conexiones del pool
+     */
+    static final class Estadisticas {
+        final LongAdder aciertos = new LongAdder();
+        final LongAdder fallos = new LongAdder();
+        final LongAdder expulsiones = new LongAdder();
+
+        double tasaAciertos() {
+            long a = aciertos.sum();
+            long total = a + fallos.sum();
+            return total == 0 ? 0 : (double) a / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("aciertos=%d, fallos=%d, expulsiones=%d, tasa de aciertos=%.1f%%",
+                    aciertos.sum(), fallos.sum(), expulsiones.sum(), tasaAciertos() * 100);
+        }
+    }
+
+    /**
+     * Sentencia que ve el DAO: su close() la devuelve a la caché
+     */
+    private final class SentenciaEnCache implements InvocationHandler {
+        final Clave clave;
+        final PreparedStatement fisica;
+        final Connection logica;
+        final PreparedStatement proxy;
+        final List<ResultSet> resultados = new ArrayList<>(1);
+        boolean configurada;
+        boolean conLote;
+        volatile boolean cerrada;
+
+        SentenciaEnCache(Clave clave, PreparedStatement fisica, Connection logica) {
+            this.clave = clave;
+            this.fisica = fisica;
+            this.logica = logica;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+            switch (nombre) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        liberar(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada || fisica.isClosed();
+                case "getConnection":
+                    return logica;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaEnCache[" + clave.sql() + "]";
+                default:
+                    if (cerrada) {
+                        throw new SQLException("La sentencia ya está cerrada");
+                    }
+                    if (CONFIGURACION.contains(nombre)) {
+                        configurada = true;
+                    } else if (nombre.equals("addBatch")) {
+                        conLote = true;
+                    } else if (nombre.startsWith("execute")) {
+                        // Volver a ejecutar cierra el ResultSet anterior
+                        resultados.clear();
+                    }
+                    Object resultado;
+                    try {
+                        resultado = method.invoke(fisica, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (resultado instanceof ResultSet rs) {
+                        resultados.add(rs);
+                    }
+                    return resultado;
+            }
+        }
+    }
+}
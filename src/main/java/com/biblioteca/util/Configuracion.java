@@ -0,0 +1,70 @@
+package com.biblioteca.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Propiedades de la aplicación, leídas una sola vez de database.properties.
+ * Los valores ausentes toman el valor por defecto indicado por quien los consulta.
+ * Una propiedad de sistema (-Dclave=valor) con el nombre de una clave del archivo
+ * la sustituye, p. ej. para apuntar los benchmarks a una base de datos embebida.
+ */
+public class Configuracion {
+
+    private static final String ARCHIVO = "database.properties";
+
+    private static final Configuracion INSTANCE = new Configuracion();
+
+    private final Properties propiedades = new Properties();
+
+    private Configuracion() {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(ARCHIVO)) {
+            if (input == null) {
+                throw new RuntimeException("No se encontró " + ARCHIVO);
+            }
+            propiedades.load(input);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al cargar " + ARCHIVO + ": " + e.getMessage(), e);
+        }
+
+        for (String clave : propiedades.stringPropertyNames()) {
+            String valor = System.getProperty(clave);
+            if (valor != null) {
+                propiedades.setProperty(clave, valor);
+            }
+        }
+    }
+
+    public static Configuracion getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Copia de todas las propiedades (para componentes que leen sus propias claves)
+     */
+    public Properties getPropiedades() {
+        Properties copia = new Properties();
+        copia.putAll(propiedades);
+        return copia;
+    }
+
+    public String texto(String clave, String porDefecto) {
+        return propiedades.getProperty(clave, porDefecto);
+    }
+
+    public int entero(String clave, int porDefecto) {
+        String valor = propiedades.getProperty(clave);
+        return valor != null ? Integer.parseInt(valor.trim()) : porDefecto;
+    }
+
+    public long largo(String clave, long porDefecto) {
+        String valor = propiedades.getProperty(clave);
+        return valor != null ? Long.parseLong(valor.trim()) : porDefecto;
+    }
+
+    public boolean booleano(String clave, boolean porDefecto) {
+        String valor = propiedades.getProperty(clave);
+        return valor != null ? Boolean.parseBoolean(valor.trim()) : porDefecto;
+    }
+}
@@ -1,19 +1,23 @@
 package com.biblioteca.util;
 
-import java.io.IOException;
-import java.io.InputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 public class DatabaseConnection {
 
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseConnection.class);
+
     private static final DatabaseConnection INSTANCE = new DatabaseConnection();
 
     private String url;
     private String username;
     private String password;
+    private PoolConexiones pool;
+    private final MetricasSQL metricas = MetricasSQL.getInstance();
 
     private DatabaseConnection() {
         loadDatabaseProperties();
@@ -24,43 +28,89 @@ public class DatabaseConnection {
     }
 
     private void loadDatabaseProperties() {
-        Properties props = new Properties();
-
-        try (InputStream input = getClass().getClassLoader()
-                .getResourceAsStream("database.properties")) {
-
-            if (input == null) {
-                throw new RuntimeException("No se encontró database.properties");
-            }
-
-            props.load(input);
+        Properties props = Configuracion.getInstance().getPropiedades();
 
-            this.url = props.getProperty("db.url");
-            this.username = props.getProperty("db.username");
-            this.password = props.getProperty("db.password");
+        this.url = props.getProperty("db.url");
+        this.username = props.getProperty("db.username");
+        this.password = props.getProperty("db.password");
 
+        try {
             // Cargar el driver JDBC
             Class.forName(props.getProperty("db.driver", "com.mysql.cj.jdbc.Driver"));
-
-        } catch (IOException e) {
-            throw new RuntimeException("Error al cargar database.properties: " + e.getMessage(), e);
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("Driver JDBC no encontrado: " + e.getMessage(), e);
         }
+
+        this.pool = new PoolConexiones(url, username, password, props);
     }
 
+    /**
+     * Obtiene una conexión del pool. Al cerrarla (close() o try-with-resources)
+     * se devuelve al pool en lugar de cerrar la conexión física.
+     * Se registra la espera y se miden las sentencias que se ejecuten con ella (ver MetricasSQL).
+     */
     public Connection getConnection() throws SQLException {
-        try {
-            Connection conn = DriverManager.getConnection(url, username, password);
-            // Configuraciones recomendadas
-            conn.setAutoCommit(true);
-            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
-            return conn;
-        } catch (SQLException e) {
-            throw new SQLException("Error al conectar a la base de datos: " + e.getMessage(), e);
+        long inicio = System.nanoTime();
+        Connection conn = pool.getConnection();
+        metricas.registrarAdquisicion(System.nanoTime() - inicio);
+        return metricas.instrumentar(conn);
+    }
+
+    /**
+     * Ejecuta la operación en una transacción sobre una sola conexión del pool.
+     * Confirma si termina bien; ante cualquier excepción deshace todo y la relanza.
+     */
+    public <T> T enTransaccion(OperacionTransaccional<T> operacion) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T resultado = operacion.ejecutar(conn);
+                conn.commit();
+                return resultado;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            }
         }
     }
 
+    /**
+     * Como {@link #enTransaccion}, pero repite la transacción completa si la base de datos
+     * la abortó por un interbloqueo o un conflicto de serialización (SQLState 40001,
+     * error 1213 de MySQL). La operación debe poder repetirse sin efectos fuera de la transacción.
+     */
+    public <T> T enTransaccionConReintentos(int intentos, OperacionTransaccional<T> operacion) throws SQLException {
+        for (int intento = 1; ; intento++) {
+            try {
+                return enTransaccion(operacion);
+            } catch (SQLException e) {
+                if (intento >= intentos || !esInterbloqueo(e)) {
+                    throw e;
+                }
+                logger.warn("Transacción abortada por interbloqueo (intento {} de {}), se repite", intento, intentos);
+            }
+        }
+    }
+
+    private static boolean esInterbloqueo(SQLException e) {
+        return "40001".equals(e.getSQLState()) || e.getErrorCode() == 1213;
+    }
+
+    public PoolConexiones getPool() {
+        return pool;
+    }
+
+    /**
+     * Cierra el pool y todas sus conexiones físicas (al salir de la aplicación)
+     */
+    public void shutdown() {
+        pool.cerrar();
+    }
+
     public boolean testConnection() {
         try (Connection conn = getConnection()) {
             return conn != null && !conn.isClosed();
@@ -0,0 +1,196 @@
+package com.biblioteca.util;
+
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.concurrent.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta el trabajo de base de datos fuera del hilo de JavaFX.
+ *
+ * Las operaciones se envuelven en un {@link Task} y se ejecutan en un pool acotado de hilos;
+ * los callbacks de éxito y error se invocan ya de vuelta en el hilo de JavaFX.
+ * Las cargas se registran con un propietario (normalmente el controlador) para poder
+ * cancelarlas cuando el usuario cambia de módulo; las escrituras no se cancelan.
+ *
+ * Todos los métodos públicos deben llamarse desde el hilo de JavaFX.
+ */
+public class EjecutorBD {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjecutorBD.class);
+
+    private static final EjecutorBD INSTANCE = new EjecutorBD();
+
+    private static final int CAPACIDAD_COLA = 100;
+
+    /**
+     * Operación que se ejecuta en segundo plano y devuelve un resultado
+     */
+    @FunctionalInterface
+    public interface OperacionBD<T> {
+        T ejecutar() throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Map<Object, List<Task<?>>> cargasPorPropietario = new IdentityHashMap<>();
+    private final ReadOnlyIntegerWrapper tareasEnCurso = new ReadOnlyIntegerWrapper(this, "tareasEnCurso", 0);
+    private final BooleanBinding ocupado = Bindings.greaterThan(tareasEnCurso, 0);
+
+    private EjecutorBD() {
+        // Más hilos que conexiones solo dejaría hilos esperando al pool
+        int hilos = Math.max(2, DatabaseConnection.getInstance().getPool().getMaxSize() / 2);
+
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = r -> {
+            Thread hilo = new Thread(r, "bd-trabajo-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+
+        executor = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(CAPACIDAD_COLA), fabrica);
+        executor.allowCoreThreadTimeOut(true);
+
+        logger.info("Ejecutor de base de datos iniciado con {} hilos", hilos);
+    }
+
+    public static EjecutorBD getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Lanza una carga asociada a un propietario. Si el propietario se cancela antes
+     * de que termine, el resultado se descarta y no se invoca ningún callback.
+     */
+    public <T> Task<T> cargar(Object propietario, OperacionBD<T> operacion, Consumer<T> alTerminar) {
+        return cargar(propietario, operacion, alTerminar, AlertUtils::mostrarErrorOperacion);
+    }
+
+    public <T> Task<T> cargar(Object propietario, OperacionBD<T> operacion,
+                              Consumer<T> alTerminar, Consumer<Throwable> alFallar) {
+        Task<T> tarea = crearTarea(operacion, alTerminar, alFallar, t -> quitarCarga(propietario, t));
+        cargasPorPropietario.computeIfAbsent(propietario, p -> new ArrayList<>()).add(tarea);
+        enviar(tarea, alFallar);
+        return tarea;
+    }
+
+    /**
+     * Lanza una operación de escritura. No se cancela al cambiar de módulo:
+     * una vez enviada, se completa aunque su resultado ya no se muestre.
+     */
+    public <T> Task<T> ejecutar(OperacionBD<T> operacion, Consumer<T> alTerminar) {
+        return ejecutar(operacion, alTerminar, AlertUtils::mostrarErrorOperacion);
+    }
+
+    public <T> Task<T> ejecutar(OperacionBD<T> operacion, Consumer<T> alTerminar,
+                                Consumer<Throwable> alFallar) {
+        Task<T> tarea = crearTarea(operacion, alTerminar, alFallar, t -> { });
+        enviar(tarea, alFallar);
+        return tarea;
+    }
+
+    /**
+     * Cancela todas las cargas pendientes del propietario indicado
+     */
+    public void cancelarCargas(Object propietario) {
+        if (propietario == null) {
+            return;
+        }
+        List<Task<?>> tareas = cargasPorPropietario.remove(propietario);
+        if (tareas != null) {
+            logger.debug("Cancelando {} cargas de {}", tareas.size(), propietario.getClass().getSimpleName());
+            new ArrayList<>(tareas).forEach(tarea -> tarea.cancel(true));
+        }
+    }
+
+    /**
+     * Número de tareas enviadas que aún no han terminado
+     */
+    public ReadOnlyIntegerProperty tareasEnCursoProperty() {
+        return tareasEnCurso.getReadOnlyProperty();
+    }
+
+    /**
+     * true mientras haya alguna tarea en curso (para indicadores de carga)
+     */
+    public BooleanBinding ocupadoProperty() {
+        return ocupado;
+    }
+
+    /**
+     * Detiene los hilos de trabajo (al salir de la aplicación)
+     */
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    private <T> Task<T> crearTarea(OperacionBD<T> operacion, Consumer<T> alTerminar,
+                                   Consumer<Throwable> alFallar, Consumer<Task<?>> alFinalizar) {
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("EjecutorBD debe usarse desde el hilo de JavaFX");
+        }
+
+        Task<T> tarea = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return operacion.ejecutar();
+            }
+        };
+
+        // Task entrega estos eventos en el hilo de JavaFX
+        tarea.setOnSucceeded(e -> {
+            finalizar(tarea, alFinalizar);
+            alTerminar.accept(tarea.getValue());
+        });
+        tarea.setOnFailed(e -> {
+            finalizar(tarea, alFinalizar);
+            logger.error("Error en operación en segundo plano", tarea.getException());
+            alFallar.accept(tarea.getException());
+        });
+        tarea.setOnCancelled(e -> finalizar(tarea, alFinalizar));
+        return tarea;
+    }
+
+    private void finalizar(Task<?> tarea, Consumer<Task<?>> alFinalizar) {
+        tareasEnCurso.set(tareasEnCurso.get() - 1);
+        alFinalizar.accept(tarea);
+    }
+
+    private void quitarCarga(Object propietario, Task<?> tarea) {
+        List<Task<?>> tareas = cargasPorPropietario.get(propietario);
+        if (tareas != null) {
+            tareas.remove(tarea);
+            if (tareas.isEmpty()) {
+                cargasPorPropietario.remove(propietario);
+            }
+        }
+    }
+
+    private void enviar(Task<?> tarea, Consumer<Throwable> alFallar) {
+        tareasEnCurso.set(tareasEnCurso.get() + 1);
+        try {
+            executor.execute(tarea);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Cola de tareas llena ({} en espera)", executor.getQueue().size());
+            // La cancelación descuenta la tarea y la quita del registro
+            tarea.cancel(false);
+            alFallar.accept(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.biblioteca.util;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta el hashing y la verificación BCrypt fuera del hilo de JavaFX.
+ *
+ * Cada operación ocupa un núcleo durante cientos de milisegundos, así que tiene su propio
+ * pool, separado de {@link EjecutorBD}: un login no hace esperar a las consultas ni al revés.
+ * El pool y su cola están acotados (hash.hilos, hash.capacidadCola); si la cola se llena
+ * la operación se rechaza y se informa por el callback de error en lugar de acumular trabajo.
+ *
+ * Los callbacks se invocan en el hilo de JavaFX, y los métodos públicos deben llamarse desde él.
+ */
+public class EjecutorHash {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjecutorHash.class);
+
+    private static final EjecutorHash INSTANCE = new EjecutorHash();
+
+    private final ThreadPoolExecutor executor;
+
+    private EjecutorHash() {
+        Configuracion config = Configuracion.getInstance();
+        int porDefecto = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int hilos = Math.max(1, config.entero("hash.hilos", porDefecto));
+        int capacidadCola = Math.max(1, config.entero("hash.capacidadCola", 16));
+
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = r -> {
+            Thread hilo = new Thread(r, "hash-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+
+        executor = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), fabrica);
+        executor.allowCoreThreadTimeOut(true);
+
+        logger.info("Ejecutor de hashing iniciado con {} hilos (cola de {})", hilos, capacidadCola);
+    }
+
+    public static EjecutorHash getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Verifica la contraseña contra un hash BCrypt
+     */
+    public Task<Boolean> verificar(String password, String hash,
+                                   Consumer<Boolean> alTerminar, Consumer<Throwable> alFallar) {
+        return enviar(() -> PasswordUtils.checkPassword(password, hash), alTerminar, alFallar);
+    }
+
+    /**
+     * Genera el hash BCrypt de la contraseña con el factor de trabajo actual
+     */
+    public Task<String> hashear(String password, Consumer<String> alTerminar, Consumer<Throwable> alFallar) {
+        return enviar(() -> PasswordUtils.hashPassword(password), alTerminar, alFallar);
+    }
+
+    /**
+     * Calibra el factor de trabajo de BCrypt en uno de los hilos de hashing, sin callbacks:
+     * hasta que termina se usa el factor por defecto
+     */
+    public void calibrar() {
+        executor.execute(PasswordUtils::calibrar);
+    }
+
+    /**
+     * Detiene los hilos (al salir de la aplicación)
+     */
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+
+    private <T> Task<T> enviar(Callable<T> operacion, Consumer<T> alTerminar, Consumer<Throwable> alFallar) {
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("EjecutorHash debe usarse desde el hilo de JavaFX");
+        }
+
+        Task<T> tarea = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return operacion.call();
+            }
+        };
+        tarea.setOnSucceeded(e -> alTerminar.accept(tarea.getValue()));
+        tarea.setOnFailed(e -> {
+            logger.error("Error en operación de hashing", tarea.getException());
+            alFallar.accept(tarea.getException());
+        });
+
+        try {
+            executor.execute(tarea);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Cola de hashing llena ({} en espera)", executor.getQueue().size());
+            tarea.cancel(false);
+            alFallar.accept(e);
+        }
+        return tarea;
+    }
+}
@@ -0,0 +1,218 @@
+package com.biblioteca.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Proxies JDBC que miden cada ejecución para {@link MetricasSQL}. La conexión envuelve las
+ * sentencias que crea; la sentencia mide execute*, y en las consultas envuelve el ResultSet
+ * para contar las filas leídas. Una consulta se registra al cerrar su ResultSet (o la
+ * sentencia, o al volver a ejecutarla), con las filas recorridas y como tiempo la suma de
+ * la ejecución y de las llamadas a next(): con useCursorFetch las filas llegan del servidor
+ * dentro de next(), y en las lecturas grandes ese es casi todo el coste. El tiempo que la
+ * aplicación pasa entre una fila y la siguiente no se cuenta.
+ */
+final class JdbcInstrumentado {
+
+    private JdbcInstrumentado() {
+    }
+
+    static Connection conexion(Connection conn, MetricasSQL metricas) {
+        return proxy(Connection.class, new Conexion(conn, metricas));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler manejador) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, manejador);
+    }
+
+    private static Object delegar(Object destino, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class Conexion implements InvocationHandler {
+        private final Connection conn;
+        private final MetricasSQL metricas;
+
+        Conexion(Connection conn, MetricasSQL metricas) {
+            this.conn = conn;
+            this.metricas = metricas;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return JdbcInstrumentado.proxy(PreparedStatement.class, new Sentencia(
+                            (Statement) delegar(conn, method, args), (String) args[0], metricas));
+                case "createStatement":
+                    return JdbcInstrumentado.proxy(Statement.class, new Sentencia(
+                            (Statement) delegar(conn, method, args), null, metricas));
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return delegar(conn, method, args);
+            }
+        }
+    }
+
+    private static final class Sentencia implements InvocationHandler {
+        private final Statement stmt;
+        private final String sql;
+        private final MetricasSQL metricas;
+        private Medicion pendiente;
+
+        Sentencia(Statement stmt, String sql, MetricasSQL metricas) {
+            this.stmt = stmt;
+            this.sql = sql;
+            this.metricas = metricas;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "executeQuery": {
+                    cerrarPendiente();
+                    long inicio = System.nanoTime();
+                    ResultSet rs = (ResultSet) delegar(stmt, method, args);
+                    pendiente = new Medicion(sqlDe(args), System.nanoTime() - inicio, metricas);
+                    return JdbcInstrumentado.proxy(ResultSet.class, new Resultado(rs, pendiente));
+                }
+                case "executeUpdate":
+                case "executeLargeUpdate": {
+                    cerrarPendiente();
+                    long inicio = System.nanoTime();
+                    Object filas = delegar(stmt, method, args);
+                    metricas.registrar(sqlDe(args), System.nanoTime() - inicio, ((Number) filas).longValue());
+                    return filas;
+                }
+                case "execute": {
+                    cerrarPendiente();
+                    long inicio = System.nanoTime();
+                    Object resultado = delegar(stmt, method, args);
+                    metricas.registrar(sqlDe(args), System.nanoTime() - inicio, -1);
+                    return resultado;
+                }
+                case "executeBatch":
+                case "executeLargeBatch": {
+                    long inicio = System.nanoTime();
+                    Object conteos = delegar(stmt, method, args);
+                    metricas.registrar(sql != null ? sql : "(lote de sentencias)",
+                            System.nanoTime() - inicio, sumar(conteos));
+                    return conteos;
+                }
+                case "close":
+                    cerrarPendiente();
+                    return delegar(stmt, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return delegar(stmt, method, args);
+            }
+        }
+
+        /**
+         * Las sentencias preparadas usan su SQL; las simples, el que reciben en execute*
+         */
+        private String sqlDe(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String texto ? texto : sql;
+        }
+
+        private void cerrarPendiente() {
+            if (pendiente != null) {
+                pendiente.cerrar();
+                pendiente = null;
+            }
+        }
+
+        private static long sumar(Object conteos) {
+            long total = 0;
+            if (conteos instanceof int[] enteros) {
+                for (int c : enteros) {
+                    total += Math.max(c, 0);
+                }
+            } else if (conteos instanceof long[] largos) {
+                for (long c : largos) {
+                    total += Math.max(c, 0);
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final class Resultado implements InvocationHandler {
+        private final ResultSet rs;
+        private final Medicion medicion;
+
+        Resultado(ResultSet rs, Medicion medicion) {
+            this.rs = rs;
+            this.medicion = medicion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long inicio = System.nanoTime();
+                    Object hay = delegar(rs, method, args);
+                    medicion.nanosLectura += System.nanoTime() - inicio;
+                    if ((Boolean) hay) {
+                        medicion.filas++;
+                    }
+                    return hay;
+                }
+                case "close":
+                    try {
+                        return delegar(rs, method, args);
+                    } finally {
+                        medicion.cerrar();
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return delegar(rs, method, args);
+            }
+        }
+    }
+
+    /**
+     * Consulta ejecutada cuyas filas aún se están leyendo
+     */
+    private static final class Medicion {
+        private final String sql;
+        private final long nanosEjecucion;
+        private final MetricasSQL metricas;
+        long nanosLectura;
+        long filas;
+        private boolean registrada;
+
+        Medicion(String sql, long nanosEjecucion, MetricasSQL metricas) {
+            this.sql = sql;
+            this.nanosEjecucion = nanosEjecucion;
+            this.metricas = metricas;
+        }
+
+        void cerrar() {
+            if (!registrada) {
+                registrada = true;
+                metricas.registrar(sql, nanosEjecucion + nanosLectura, filas);
+            }
+        }
+    }
+}
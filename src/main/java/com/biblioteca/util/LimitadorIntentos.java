@@ -0,0 +1,113 @@
+package com.biblioteca.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de frecuencia en memoria con una cubeta de fichas por clave (email, origen...).
+ * Cada cubeta admite ráfagas de hasta {@code capacidad} intentos y se rellena a
+ * {@code porMinuto} fichas por minuto; cada intento consume una ficha.
+ * <p>
+ * Sin bloqueos: el estado de cada cubeta es inmutable y se sustituye con compareAndSet.
+ * Las cubetas que ya se habrían rellenado del todo se eliminan periódicamente, así que
+ * el mapa solo crece con las claves que han tenido intentos recientes.
+ */
+public class LimitadorIntentos {
+
+    /** Cada cuántos intentos se barren las cubetas caducadas */
+    private static final int INTERVALO_PURGA = 256;
+
+    private final String nombre;
+    private final double capacidad;
+    private final double fichasPorNano;
+    private final long nanosHastaLlena;
+    private final Map<String, AtomicReference<Cubeta>> cubetas = new ConcurrentHashMap<>();
+    private final AtomicLong operaciones = new AtomicLong();
+    private final LongAdder permitidos = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+
+    private record Cubeta(double fichas, long instante) {
+    }
+
+    public LimitadorIntentos(String nombre, int capacidad, int porMinuto) {
+        if (capacidad < 1 || porMinuto < 1) {
+            throw new IllegalArgumentException("La capacidad y la recarga deben ser positivas");
+        }
+        this.nombre = nombre;
+        this.capacidad = capacidad;
+        this.fichasPorNano = porMinuto / (double) TimeUnit.MINUTES.toNanos(1);
+        this.nanosHastaLlena = (long) Math.ceil(capacidad / fichasPorNano);
+    }
+
+    /**
+     * Crea un limitador leyendo {prefijo}.capacidad y {prefijo}.porMinuto de la configuración
+     */
+    public static LimitadorIntentos desdeConfiguracion(String prefijo, int capacidad, int porMinuto) {
+        Configuracion config = Configuracion.getInstance();
+        return new LimitadorIntentos(prefijo,
+                config.entero(prefijo + ".capacidad", capacidad),
+                config.entero(prefijo + ".porMinuto", porMinuto));
+    }
+
+    /**
+     * Intenta consumir una ficha de la cubeta de la clave
+     * @return 0 si el intento se admite; si no, milisegundos hasta que habrá una ficha libre
+     */
+    public long consumir(String clave) {
+        long ahora = System.nanoTime();
+        if (operaciones.incrementAndGet() % INTERVALO_PURGA == 0) {
+            purgar(ahora);
+        }
+
+        AtomicReference<Cubeta> ref = cubetas.computeIfAbsent(clave,
+                k -> new AtomicReference<>(new Cubeta(capacidad, ahora)));
+        while (true) {
+            Cubeta actual = ref.get();
+            double fichas = Math.min(capacidad, actual.fichas() + (ahora - actual.instante()) * fichasPorNano);
+            if (fichas < 1) {
+                rechazados.increment();
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil((1 - fichas) / fichasPorNano)));
+            }
+            if (ref.compareAndSet(actual, new Cubeta(fichas - 1, Math.max(ahora, actual.instante())))) {
+                permitidos.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Elimina las cubetas que ya estarían llenas: volver a crearlas da el mismo resultado
+     */
+    private void purgar(long ahora) {
+        cubetas.values().removeIf(ref -> ahora - ref.get().instante() >= nanosHastaLlena);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getPermitidos() {
+        return permitidos.sum();
+    }
+
+    public long getRechazados() {
+        return rechazados.sum();
+    }
+
+    /**
+     * Claves con cubeta activa
+     */
+    public int getClavesActivas() {
+        return cubetas.size();
+    }
+
+    @Override
+    public String toString() {
+        return nombre + ": permitidos=" + permitidos.sum() + ", rechazados=" + rechazados.sum()
+                + ", claves activas=" + cubetas.size();
+    }
+}
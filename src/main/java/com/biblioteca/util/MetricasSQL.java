@@ -0,0 +1,217 @@
+package com.biblioteca.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Métricas de acceso a la base de datos: por cada sentencia SQL, un histograma de latencias,
+ * las filas devueltas o afectadas y el número de ejecuciones; además, el tiempo de espera
+ * para obtener una conexión del pool.
+ * <p>
+ * Las sentencias que superan db.metricas.umbralLentaMs se registran en el logger
+ * "com.biblioteca.sql.lentas", que logback.xml envía a su propio archivo.
+ * {@link #volcarResumen()} escribe la tabla de resumen en el log cuando se pide.
+ */
+public final class MetricasSQL {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricasSQL.class);
+    private static final Logger lentas = LoggerFactory.getLogger("com.biblioteca.sql.lentas");
+
+    private static final MetricasSQL INSTANCE = new MetricasSQL();
+
+    /** Sentencias distintas que se siguen; el resto se agrupan para acotar la memoria */
+    private static final int MAX_SENTENCIAS = 500;
+    private static final String OTRAS = "(otras sentencias)";
+
+    /** Listas de parámetros de longitud variable (IN (?, ?, ...)) cuentan como una sola sentencia */
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final boolean habilitado;
+    private final long umbralLentaNanos;
+    private final Map<String, Estadistica> porSentencia = new ConcurrentHashMap<>();
+    private final Estadistica adquisicion = new Estadistica("(obtener conexión del pool)");
+
+    private MetricasSQL() {
+        Configuracion config = Configuracion.getInstance();
+        this.habilitado = config.booleano("db.metricas.habilitado", true);
+        this.umbralLentaNanos = TimeUnit.MILLISECONDS.toNanos(config.largo("db.metricas.umbralLentaMs", 200));
+    }
+
+    public static MetricasSQL getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Envuelve la conexión para medir las sentencias que se creen con ella
+     */
+    public Connection instrumentar(Connection conn) {
+        return habilitado ? JdbcInstrumentado.conexion(conn, this) : conn;
+    }
+
+    public void registrarAdquisicion(long nanos) {
+        if (habilitado) {
+            adquisicion.registrar(nanos, 0);
+        }
+    }
+
+    /**
+     * Registra una ejecución y la anota como lenta si supera el umbral
+     * @param sql Sentencia tal como se preparó
+     * @param filas Filas leídas (consultas) o afectadas (actualizaciones); -1 si no se conocen
+     */
+    void registrar(String sql, long nanos, long filas) {
+        Estadistica estadistica = estadistica(normalizar(sql));
+        estadistica.registrar(nanos, Math.max(filas, 0));
+
+        if (nanos >= umbralLentaNanos) {
+            lentas.warn("{} ms, {} filas: {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                    filas >= 0 ? filas : "?", estadistica.sql);
+        }
+    }
+
+    private Estadistica estadistica(String sql) {
+        Estadistica existente = porSentencia.get(sql);
+        if (existente != null) {
+            return existente;
+        }
+        if (porSentencia.size() >= MAX_SENTENCIAS) {
+            return porSentencia.computeIfAbsent(OTRAS, Estadistica::new);
+        }
+        return porSentencia.computeIfAbsent(sql, Estadistica::new);
+    }
+
+    static String normalizar(String sql) {
+        if (sql == null) {
+            return "(sin SQL)";
+        }
+        String compacta = ESPACIOS.matcher(sql.trim()).replaceAll(" ");
+        return LISTA_PARAMETROS.matcher(compacta).replaceAll("?, ...");
+    }
+
+    /**
+     * Tabla con las sentencias ordenadas por tiempo total, de mayor a menor
+     */
+    public String resumen() {
+        List<Estadistica> sentencias = new ArrayList<>(porSentencia.values());
+        sentencias.sort(Comparator.comparingLong(Estadistica::nanosTotales).reversed());
+
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format("%10s %10s %9s %9s %9s %9s %11s  %s%n",
+                "ejecuc.", "total ms", "media ms", "p95 ms", "p99 ms", "max ms", "filas", "sentencia"));
+        linea(texto, adquisicion);
+        for (Estadistica e : sentencias) {
+            linea(texto, e);
+        }
+        return texto.toString();
+    }
+
+    private static void linea(StringBuilder texto, Estadistica e) {
+        long n = e.ejecuciones.sum();
+        if (n == 0) {
+            return;
+        }
+        texto.append(String.format("%10d %10.1f %9.2f %9.2f %9.2f %9.2f %11d  %s%n",
+                n, ms(e.nanosTotales()), ms(e.nanosTotales() / n), ms(e.percentil(0.95)),
+                ms(e.percentil(0.99)), ms(e.maxNanos.get()), e.filas.sum(), e.sql));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Escribe el resumen en el log
+     */
+    public void volcarResumen() {
+        if (habilitado) {
+            logger.info("Métricas SQL (umbral de lentitud {} ms):{}{}",
+                    TimeUnit.NANOSECONDS.toMillis(umbralLentaNanos), System.lineSeparator(), resumen());
+        }
+    }
+
+    /**
+     * Borra las métricas acumuladas
+     */
+    public void reiniciar() {
+        porSentencia.clear();
+        adquisicion.reiniciar();
+    }
+
+    /**
+     * Contadores de una sentencia. El histograma usa cubetas de potencias de dos en
+     * microsegundos, suficiente para percentiles orientativos sin guardar cada medición.
+     */
+    private static final class Estadistica {
+        private static final int CUBETAS = 40;
+
+        final String sql;
+        final LongAdder ejecuciones = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder filas = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+
+        Estadistica(String sql) {
+            this.sql = sql;
+        }
+
+        void registrar(long duracion, long filasLeidas) {
+            ejecuciones.increment();
+            nanos.add(duracion);
+            filas.add(filasLeidas);
+            maxNanos.accumulateAndGet(duracion, Math::max);
+            long micros = duracion / 1000;
+            cubetas.incrementAndGet(Math.min(CUBETAS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+        }
+
+        long nanosTotales() {
+            return nanos.sum();
+        }
+
+        /**
+         * Límite superior de la cubeta donde cae el percentil
+         */
+        long percentil(double p) {
+            long total = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                total += cubetas.get(i);
+            }
+            long objetivo = (long) Math.ceil(total * p);
+            long acumulado = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                acumulado += cubetas.get(i);
+                if (acumulado >= objetivo && acumulado > 0) {
+                    return Math.min((1L << i) * 1000, maxNanos.get());
+                }
+            }
+            return maxNanos.get();
+        }
+
+        void reiniciar() {
+            ejecuciones.reset();
+            nanos.reset();
+            filas.reset();
+            maxNanos.set(0);
+            for (int i = 0; i < CUBETAS; i++) {
+                cubetas.set(i, 0);
+            }
+        }
+    }
+}
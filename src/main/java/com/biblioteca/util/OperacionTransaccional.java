@@ -0,0 +1,15 @@
+package com.biblioteca.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Trabajo que se ejecuta dentro de una transacción sobre una única conexión
+ *
+ * @param <T> Tipo del resultado
+ */
+@FunctionalInterface
+public interface OperacionTransaccional<T> {
+
+    T ejecutar(Connection conn) throws SQLException;
+}
@@ -0,0 +1,192 @@
+package com.biblioteca.util;
+
+import com.biblioteca.dao.Cursor;
+import com.biblioteca.dao.Pagina;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Carga el contenido de un TableView página a página a medida que el usuario
+ * se desplaza hasta el final, usando los findPageDesde(...) por clave de los DAOs.
+ * Las páginas se cargan en segundo plano con {@link EjecutorBD}, registradas a
+ * nombre del propietario (el controlador) para cancelarlas al cambiar de módulo.
+ *
+ * @param <T> Tipo de la entidad mostrada en la tabla
+ */
+public class PaginadorTabla<T> {
+
+    /**
+     * Obtiene la página que sigue al cursor indicado (null para la primera)
+     */
+    @FunctionalInterface
+    public interface CargadorPagina<T> {
+        Pagina<T, Integer> cargar(Cursor<Integer> despuesDe, int limite) throws SQLException;
+    }
+
+    /**
+     * Trabajo adicional sobre cada página, ejecutado en segundo plano antes de mostrarla
+     */
+    @FunctionalInterface
+    public interface ProcesadorPagina<T> {
+        void procesar(List<T> pagina) throws SQLException;
+    }
+
+    public static final int TAMANIO_PAGINA_DEFAULT = 100;
+
+    private final Object propietario;
+    private final TableView<T> tabla;
+    private final int tamanioPagina;
+    private final CargadorPagina<T> cargador;
+    private final ObservableList<T> elementos = FXCollections.observableArrayList();
+    private final Node placeholderOriginal;
+
+    private ProcesadorPagina<T> alCargarPagina = pagina -> { };
+    private Cursor<Integer> cursor;
+    private boolean hayMas;
+    private Task<Pagina<T, Integer>> cargaActual;
+    private ScrollBar barraVertical;
+
+    public PaginadorTabla(Object propietario, TableView<T> tabla, int tamanioPagina, CargadorPagina<T> cargador) {
+        this.propietario = propietario;
+        this.tabla = tabla;
+        this.tamanioPagina = tamanioPagina;
+        this.cargador = cargador;
+        this.placeholderOriginal = tabla.getPlaceholder();
+
+        // La barra de desplazamiento solo existe cuando la tabla ya tiene skin
+        if (tabla.getSkin() != null) {
+            Platform.runLater(this::completarVista);
+        }
+        tabla.skinProperty().addListener((obs, anterior, nuevo) -> {
+            if (nuevo != null) {
+                Platform.runLater(this::completarVista);
+            }
+        });
+    }
+
+    public PaginadorTabla(Object propietario, TableView<T> tabla, CargadorPagina<T> cargador) {
+        this(propietario, tabla, TAMANIO_PAGINA_DEFAULT, cargador);
+    }
+
+    /**
+     * Acción a ejecutar en segundo plano con cada página recién cargada (antes de mostrarla)
+     */
+    public void setAlCargarPagina(ProcesadorPagina<T> alCargarPagina) {
+        this.alCargarPagina = alCargarPagina;
+    }
+
+    /**
+     * Vacía la tabla y carga la primera página, descartando cualquier carga en curso
+     */
+    public void reiniciar() {
+        if (cargaActual != null) {
+            cargaActual.cancel(true);
+            cargaActual = null;
+        }
+        elementos.clear();
+        cursor = null;
+        hayMas = true;
+        tabla.setItems(elementos);
+        cargarSiguiente();
+    }
+
+    /**
+     * Agrega la siguiente página al final de la tabla, si existe
+     */
+    public void cargarSiguiente() {
+        if (cargaActual != null || !hayMas) {
+            return;
+        }
+
+        if (elementos.isEmpty()) {
+            tabla.setPlaceholder(new ProgressIndicator());
+        }
+
+        Cursor<Integer> desde = cursor;
+        cargaActual = EjecutorBD.getInstance().cargar(propietario,
+                () -> {
+                    Pagina<T, Integer> pagina = cargador.cargar(desde, tamanioPagina);
+                    alCargarPagina.procesar(pagina.getElementos());
+                    return pagina;
+                },
+                pagina -> {
+                    cargaActual = null;
+                    tabla.setPlaceholder(placeholderOriginal);
+
+                    elementos.addAll(pagina.getElementos());
+                    cursor = pagina.getCursor();
+                    hayMas = pagina.hayMas();
+                    completarVista();
+                },
+                error -> {
+                    cargaActual = null;
+                    tabla.setPlaceholder(placeholderOriginal);
+                    AlertUtils.mostrarErrorOperacion(error);
+                });
+    }
+
+    /**
+     * Indica si hay una página cargándose en este momento
+     */
+    public boolean isCargando() {
+        return cargaActual != null;
+    }
+
+    /**
+     * Indica si la tabla está mostrando las páginas de este paginador
+     * (y no, por ejemplo, los resultados de una búsqueda)
+     */
+    public boolean isActivo() {
+        return tabla.getItems() == elementos;
+    }
+
+    public boolean hayMas() {
+        return hayMas;
+    }
+
+    public ObservableList<T> getElementos() {
+        return elementos;
+    }
+
+    private void instalarListenerScroll() {
+        if (barraVertical != null) {
+            return;
+        }
+        for (Node nodo : tabla.lookupAll(".scroll-bar")) {
+            if (nodo instanceof ScrollBar barra && barra.getOrientation() == Orientation.VERTICAL) {
+                barraVertical = barra;
+                barra.valueProperty().addListener((obs, anterior, valor) -> {
+                    if (valor.doubleValue() >= barra.getMax() && isActivo()) {
+                        cargarSiguiente();
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    /**
+     * Si la página no alcanza a llenar la tabla no aparece la barra de desplazamiento
+     * y el usuario no podría pedir más filas: se carga otra página automáticamente.
+     */
+    private void completarVista() {
+        instalarListenerScroll();
+        if (barraVertical != null) {
+            // Forzar el layout para que la visibilidad de la barra refleje las filas actuales
+            tabla.layout();
+        }
+        if (isActivo() && hayMas && barraVertical != null && !barraVertical.isVisible()) {
+            cargarSiguiente();
+        }
+    }
+}
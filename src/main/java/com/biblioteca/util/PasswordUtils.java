@@ -4,14 +4,20 @@ import org.mindrot.jbcrypt.BCrypt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 public class PasswordUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(PasswordUtils.class);
 
     // Factor de trabajo de BCrypt (10-12 es recomendado para producción)
-    // Valores más altos = más seguro pero más lento
+    // Valores más altos = más seguro pero más lento. Cada punto duplica el tiempo de hash.
+    // Se usa este valor hasta que calibrar() elige el adecuado para el equipo.
     private static final int WORK_FACTOR = 12;
 
+    private static volatile int factorTrabajo = WORK_FACTOR;
+
     public static String hashPassword(String plainTextPassword) {
         if (plainTextPassword == null || plainTextPassword.isEmpty()) {
             throw new IllegalArgumentException("La contraseña no puede estar vacía");
@@ -20,7 +26,7 @@ public class PasswordUtils {
         logger.debug("Generando hash BCrypt para contraseña");
 
         try {
-            String hashedPassword = BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(WORK_FACTOR));
+            String hashedPassword = BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(factorTrabajo));
             logger.debug("Hash generado exitosamente");
             return hashedPassword;
 
@@ -62,6 +68,86 @@ public class PasswordUtils {
         return hash.matches("^\\$2[aby]\\$\\d{2}\\$.{53}$");
     }
 
+    /**
+     * Factor de trabajo con el que se generó un hash BCrypt ($2a$12$... -> 12)
+     */
+    public static int getFactorTrabajo(String hash) {
+        return Integer.parseInt(hash.substring(4, 6));
+    }
+
+    /**
+     * true si el hash no es BCrypt o se generó con un factor de trabajo menor que el actual.
+     * Un hash más fuerte se conserva: cada equipo calibra su propio factor y todos comparten
+     * la tabla de usuarios, así que bajarlo haría que los equipos rápidos y lentos lo
+     * reescribieran alternativamente en cada login.
+     */
+    public static boolean necesitaRehash(String hash) {
+        return !isValidBCryptHash(hash) || getFactorTrabajo(hash) < factorTrabajo;
+    }
+
+    /**
+     * Factor de trabajo con el que se generan los hashes nuevos
+     */
+    public static int getFactorTrabajoActual() {
+        return factorTrabajo;
+    }
+
+    /**
+     * Mide cuánto tarda un hash en este equipo y elige el factor de trabajo más alto cuyo
+     * tiempo estimado cabe en password.presupuestoMs, entre password.factorMinimo y
+     * password.factorMaximo. Si password.factorTrabajo está configurado se usa ese valor fijo.
+     * <p>
+     * Los hashes guardados con un factor menor se rehacen en el siguiente login correcto
+     * (ver {@link #necesitaRehash(String)}). Tarda unos cientos de ms: llamar fuera del hilo de JavaFX.
+     * @return el factor elegido
+     */
+    public static int calibrar() {
+        Configuracion config = Configuracion.getInstance();
+        int fijo = config.entero("password.factorTrabajo", 0);
+        if (fijo > 0) {
+            factorTrabajo = Math.max(4, Math.min(31, fijo));
+            logger.info("Factor de trabajo BCrypt fijado por configuración: {}", factorTrabajo);
+            return factorTrabajo;
+        }
+
+        long presupuestoMs = config.largo("password.presupuestoMs", 250L);
+        int minimo = Math.max(4, config.entero("password.factorMinimo", 10));
+        int maximo = Math.max(minimo, Math.min(31, config.entero("password.factorMaximo", 14)));
+
+        // Primera pasada para calentar el JIT; la medida es la mejor de dos
+        String salMinima = BCrypt.gensalt(minimo);
+        BCrypt.hashpw("calibracion", BCrypt.gensalt(4));
+        long nanos = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long inicio = System.nanoTime();
+            BCrypt.hashpw("calibracion", salMinima);
+            nanos = Math.min(nanos, System.nanoTime() - inicio);
+        }
+        double msMinimo = nanos / 1_000_000.0;
+
+        int elegido = minimo;
+        while (elegido < maximo && msMinimo * (1L << (elegido + 1 - minimo)) <= presupuestoMs) {
+            elegido++;
+        }
+        factorTrabajo = elegido;
+
+        logger.info("Factor de trabajo BCrypt calibrado: {} (factor {} = {} ms, estimado {} ms, presupuesto {} ms)",
+                elegido, minimo, String.format("%.1f", msMinimo),
+                String.format("%.0f", msMinimo * (1L << (elegido - minimo))), presupuestoMs);
+        return elegido;
+    }
+
+    /**
+     * Compara una contraseña legacy guardada en texto plano en tiempo constante
+     */
+    public static boolean checkLegacyPassword(String plainTextPassword, String storedPassword) {
+        if (plainTextPassword == null || storedPassword == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(plainTextPassword.getBytes(StandardCharsets.UTF_8),
+                storedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
     public static String generateTemporaryPassword() {
         String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%";
         StringBuilder password = new StringBuilder();
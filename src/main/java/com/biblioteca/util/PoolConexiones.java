@@ -0,0 +1,432 @@
+package com.biblioteca.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ * Entrega conexiones envueltas en un proxy cuyo close() las devuelve al pool,
+ * de modo que el patrón try-with-resources de los DAOs sigue funcionando igual.
+ * Cada conexión física guarda además sus sentencias preparadas en una {@link CacheSentencias}.
+ */
+public class PoolConexiones {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolConexiones.class);
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    // Configuración del pool (claves db.pool.* en database.properties)
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long borrowTimeoutMs;
+    private final int validationTimeoutSec;
+    private final long validationBypassMs;
+    private final long leakDetectionThresholdMs;
+    private final int statementCacheSize;
+
+    // Conexiones libres: LIFO para reutilizar las más recientes y dejar envejecer el resto
+    private final LinkedBlockingDeque<ConexionFisica> libres = new LinkedBlockingDeque<>();
+    private final Set<ConexionPrestada> prestadas = ConcurrentHashMap.newKeySet();
+    private final Semaphore permisos;
+    private final AtomicInteger totalFisicas = new AtomicInteger();
+    private final AtomicBoolean cerrado = new AtomicBoolean(false);
+    private final ScheduledExecutorService mantenimiento;
+    private final CacheSentencias.Estadisticas estadisticasSentencias = new CacheSentencias.Estadisticas();
+
+    public PoolConexiones(String url, String username, String password, Properties props) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+
+        this.minSize = entero(props, "db.pool.minSize", 2);
+        this.maxSize = Math.max(1, entero(props, "db.pool.maxSize", 10));
+        this.idleTimeoutMs = largo(props, "db.pool.idleTimeoutMs", 600_000L);
+        this.maxLifetimeMs = largo(props, "db.pool.maxLifetimeMs", 1_800_000L);
+        this.borrowTimeoutMs = largo(props, "db.pool.borrowTimeoutMs", 5_000L);
+        this.validationTimeoutSec = entero(props, "db.pool.validationTimeoutSec", 2);
+        this.validationBypassMs = largo(props, "db.pool.validationBypassMs", 500L);
+        this.leakDetectionThresholdMs = largo(props, "db.pool.leakDetectionThresholdMs", 60_000L);
+        this.statementCacheSize = Math.max(0, entero(props, "db.pool.statementCacheSize", 64));
+        long intervaloMantenimientoMs = largo(props, "db.pool.housekeepingIntervalMs", 30_000L);
+
+        this.permisos = new Semaphore(maxSize, true);
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-conexiones-mantenimiento");
+            t.setDaemon(true);
+            return t;
+        });
+        this.mantenimiento.scheduleWithFixedDelay(this::mantener,
+                intervaloMantenimientoMs, intervaloMantenimientoMs, TimeUnit.MILLISECONDS);
+
+        logger.info("Pool de conexiones creado (min={}, max={}, borrowTimeout={} ms, caché de sentencias={})",
+                minSize, maxSize, borrowTimeoutMs, statementCacheSize);
+    }
+
+    /**
+     * Obtiene una conexión del pool, esperando como máximo borrowTimeoutMs
+     */
+    public Connection getConnection() throws SQLException {
+        if (cerrado.get()) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMs);
+
+        try {
+            if (!permisos.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Tiempo de espera agotado al obtener conexión (" +
+                        borrowTimeoutMs + " ms, " + prestadas.size() + " en uso de " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+        }
+
+        try {
+            ConexionFisica fisica = obtenerFisica(limite);
+            ConexionPrestada prestada = new ConexionPrestada(fisica);
+            prestadas.add(prestada);
+            return prestada.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    private ConexionFisica obtenerFisica(long limiteNanos) throws SQLException {
+        while (true) {
+            ConexionFisica fisica = libres.pollFirst();
+
+            if (fisica == null) {
+                if (totalFisicas.incrementAndGet() <= maxSize) {
+                    try {
+                        return crearFisica();
+                    } catch (SQLException e) {
+                        totalFisicas.decrementAndGet();
+                        throw e;
+                    }
+                }
+                totalFisicas.decrementAndGet();
+
+                // Todas las físicas existen pero alguna se está devolviendo: esperarla
+                long restante = limiteNanos - System.nanoTime();
+                try {
+                    fisica = restante > 0 ? libres.pollFirst(restante, TimeUnit.NANOSECONDS) : null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+                }
+                if (fisica == null) {
+                    throw new SQLException("Tiempo de espera agotado al obtener conexión");
+                }
+            }
+
+            if (esValida(fisica)) {
+                return fisica;
+            }
+            descartar(fisica, "falló la validación al prestarla");
+        }
+    }
+
+    private ConexionFisica crearFisica() throws SQLException {
+        try {
+            Connection conn = DriverManager.getConnection(url, username, password);
+            // Configuraciones recomendadas
+            conn.setAutoCommit(true);
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            logger.debug("Nueva conexión física abierta (total: {})", totalFisicas.get());
+            CacheSentencias sentencias = statementCacheSize > 0
+                    ? new CacheSentencias(conn, statementCacheSize, estadisticasSentencias)
+                    : null;
+            return new ConexionFisica(conn, sentencias);
+        } catch (SQLException e) {
+            throw new SQLException("Error al conectar a la base de datos: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Validación al prestar. Si la conexión se usó hace muy poco se omite el ping.
+     */
+    private boolean esValida(ConexionFisica fisica) {
+        long ahora = System.currentTimeMillis();
+        if (ahora - fisica.creadaEn > maxLifetimeMs) {
+            return false;
+        }
+        if (ahora - fisica.ultimoUso < validationBypassMs) {
+            return true;
+        }
+        try {
+            return fisica.conn.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void devolver(ConexionPrestada prestada) {
+        if (!prestadas.remove(prestada)) {
+            return;
+        }
+
+        ConexionFisica fisica = prestada.fisica;
+        try {
+            if (fisica.sentencias != null) {
+                fisica.sentencias.liberarPendientes();
+            }
+            if (cerrado.get()) {
+                descartar(fisica, "pool cerrado");
+                return;
+            }
+
+            // Restaurar el estado por defecto para el próximo usuario
+            Connection conn = fisica.conn;
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (conn.getTransactionIsolation() != Connection.TRANSACTION_READ_COMMITTED) {
+                conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            }
+            if (conn.isReadOnly()) {
+                conn.setReadOnly(false);
+            }
+            conn.clearWarnings();
+
+            fisica.ultimoUso = System.currentTimeMillis();
+            libres.offerFirst(fisica);
+
+        } catch (SQLException e) {
+            descartar(fisica, "error al restaurar su estado: " + e.getMessage());
+        } finally {
+            permisos.release();
+        }
+    }
+
+    private void descartar(ConexionFisica fisica, String motivo) {
+        totalFisicas.decrementAndGet();
+        logger.debug("Descartando conexión física: {}", motivo);
+        if (fisica.sentencias != null) {
+            fisica.sentencias.cerrar();
+        }
+        try {
+            fisica.conn.close();
+        } catch (SQLException e) {
+            logger.debug("Error al cerrar conexión descartada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Tarea periódica: expulsa conexiones ociosas o viejas, rellena hasta el mínimo
+     * y reporta conexiones prestadas durante demasiado tiempo (posibles fugas).
+     */
+    private void mantener() {
+        if (cerrado.get()) {
+            return;
+        }
+
+        long ahora = System.currentTimeMillis();
+
+        Iterator<ConexionFisica> it = libres.descendingIterator();
+        while (it.hasNext()) {
+            ConexionFisica fisica = it.next();
+            boolean ociosa = ahora - fisica.ultimoUso > idleTimeoutMs && totalFisicas.get() > minSize;
+            boolean vieja = ahora - fisica.creadaEn > maxLifetimeMs;
+            if ((ociosa || vieja) && libres.remove(fisica)) {
+                descartar(fisica, ociosa ? "inactiva" : "superó su tiempo de vida");
+            }
+        }
+
+        while (totalFisicas.get() < minSize && !cerrado.get()) {
+            if (totalFisicas.incrementAndGet() > maxSize) {
+                totalFisicas.decrementAndGet();
+                break;
+            }
+            try {
+                libres.offerLast(crearFisica());
+            } catch (SQLException e) {
+                totalFisicas.decrementAndGet();
+                logger.warn("No se pudo completar el mínimo del pool: {}", e.getMessage());
+                break;
+            }
+        }
+
+        if (leakDetectionThresholdMs > 0) {
+            for (ConexionPrestada prestada : prestadas) {
+                if (!prestada.fugaReportada && ahora - prestada.prestadaEn > leakDetectionThresholdMs) {
+                    prestada.fugaReportada = true;
+                    logger.warn("Posible fuga de conexión: prestada hace {} ms en el hilo '{}'",
+                            ahora - prestada.prestadaEn, prestada.hilo, prestada.origen);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones libres. Las prestadas se cierran al devolverse.
+     */
+    public void cerrar() {
+        if (!cerrado.compareAndSet(false, true)) {
+            return;
+        }
+        mantenimiento.shutdownNow();
+
+        ConexionFisica fisica;
+        while ((fisica = libres.pollFirst()) != null) {
+            descartar(fisica, "pool cerrado");
+        }
+        logger.info("Pool de conexiones cerrado ({} conexiones aún prestadas)", prestadas.size());
+        if (statementCacheSize > 0) {
+            logger.info("Caché de sentencias preparadas: {}", estadisticasSentencias);
+        }
+    }
+
+    public int getConexionesActivas() {
+        return prestadas.size();
+    }
+
+    public int getConexionesLibres() {
+        return libres.size();
+    }
+
+    public int getConexionesTotales() {
+        return totalFisicas.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getAciertosCacheSentencias() {
+        return estadisticasSentencias.aciertos.sum();
+    }
+
+    public long getFallosCacheSentencias() {
+        return estadisticasSentencias.fallos.sum();
+    }
+
+    /**
+     * Proporción de prepareStatement servidos desde la caché, entre 0 y 1. Si se queda baja
+     * con muchas expulsiones, db.pool.statementCacheSize es pequeño para el número de sentencias distintas.
+     */
+    public double getTasaAciertosCacheSentencias() {
+        return estadisticasSentencias.tasaAciertos();
+    }
+
+    /**
+     * Aciertos, fallos, expulsiones y tasa de aciertos de la caché de sentencias
+     */
+    public String estadisticasCacheSentencias() {
+        return estadisticasSentencias.toString();
+    }
+
+    private static int entero(Properties props, String clave, int porDefecto) {
+        String valor = props.getProperty(clave);
+        return valor != null ? Integer.parseInt(valor.trim()) : porDefecto;
+    }
+
+    private static long largo(Properties props, String clave, long porDefecto) {
+        String valor = props.getProperty(clave);
+        return valor != null ? Long.parseLong(valor.trim()) : porDefecto;
+    }
+
+    /**
+     * Conexión real hacia la base de datos
+     */
+    private static final class ConexionFisica {
+        final Connection conn;
+        final CacheSentencias sentencias;
+        final long creadaEn = System.currentTimeMillis();
+        volatile long ultimoUso = creadaEn;
+
+        ConexionFisica(Connection conn, CacheSentencias sentencias) {
+            this.conn = conn;
+            this.sentencias = sentencias;
+        }
+    }
+
+    /**
+     * Préstamo lógico de una conexión física. El proxy que ven los DAOs
+     * intercepta close()/isClosed(), pasa prepareStatement(sql) y prepareStatement(sql, claves)
+     * por la caché de sentencias y delega el resto de llamadas.
+     */
+    private final class ConexionPrestada implements InvocationHandler {
+        final ConexionFisica fisica;
+        final Connection proxy;
+        final long prestadaEn = System.currentTimeMillis();
+        final String hilo = Thread.currentThread().getName();
+        final Exception origen;
+        volatile boolean cerrada;
+        volatile boolean fugaReportada;
+
+        ConexionPrestada(ConexionFisica fisica) {
+            this.fisica = fisica;
+            this.origen = leakDetectionThresholdMs > 0
+                    ? new Exception("Conexión obtenida aquí")
+                    : null;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        devolver(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada || fisica.conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPool[" + fisica.conn + "]";
+                default:
+                    if (cerrada) {
+                        throw new SQLException("La conexión ya fue devuelta al pool");
+                    }
+                    if (fisica.sentencias != null && method.getName().equals("prepareStatement")) {
+                        Class<?>[] tipos = method.getParameterTypes();
+                        if (tipos.length == 1) {
+                            return fisica.sentencias.preparar((String) args[0], -1, this.proxy);
+                        }
+                        if (tipos.length == 2 && tipos[1] == int.class) {
+                            return fisica.sentencias.preparar((String) args[0], (Integer) args[1], this.proxy);
+                        }
+                    }
+                    try {
+                        return method.invoke(fisica.conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}